@@ -0,0 +1,135 @@
+package benchmarks;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import benchmarks.TCMicroBenchmark.ICOperation;
+import jgoal.ga.reproduction.TCArex;
+import jgoal.solution.ICSolution.Status;
+import jgoal.solution.TCSolutionSet;
+import jgoal.solution.TSRealSolution;
+import jgoal.solution.comparator.TSEvaluationValueComparator;
+import jssf.random.ICRandom;
+import jssf.random.TCJava48BitLcg;
+
+/**
+ * AREXの子個体生成の速度を，子個体ごとのベクトル演算（scalar），
+ * 行列積による一括生成（batch），および，行列積の並列計算（parallel）で比較する．
+ * 親個体数 μ=n+1，子個体数 4n とし，n=20からn=1000まで1世代あたりの生成時間[us]とメモリ割り当て量[byte]を，TCMicroBenchmarkで計測する．
+ * また，同じ乱数系列に対して三つの方法が同じ子個体を生成することを確認する．
+ */
+public class TCArexBenchmark {
+
+	/** 計測する次元数 */
+	private static final int[] DIMENSIONS = { 20, 50, 100, 200, 500, 1000 };
+
+	/** ウォームアップと計測のそれぞれに費やす最小時間[ms] */
+	private static final long MIN_TIME = 1000L;
+
+	/**
+	 * 親個体の集合を作る．
+	 * @param dimension 次元数
+	 * @param noOfParents 親個体数
+	 * @param random 乱数生成器
+	 * @return 親個体の集合
+	 */
+	private static TCSolutionSet<TSRealSolution> createParents(int dimension, int noOfParents, ICRandom random) {
+		TCSolutionSet<TSRealSolution> parents = new TCSolutionSet<TSRealSolution>(new TSRealSolution(dimension));
+		parents.resize(noOfParents);
+		for (TSRealSolution p : parents) {
+			p.getVector().rand(random).scale(10.0).sub(5.0);
+			p.setEvaluationValue(random.nextDouble());
+			p.setStatus(Status.FEASIBLE);
+		}
+		return parents;
+	}
+
+	/**
+	 * AREXを作る．
+	 * @param dimension 次元数
+	 * @param seed 乱数の種
+	 * @param batchMode 行列積で生成するならばtrue
+	 * @param executor 行列積を並列に計算するExecutorService
+	 * @param noOfTasks タスク数
+	 * @return AREX
+	 */
+	private static TCArex<TSRealSolution> createArex(int dimension, long seed, boolean batchMode, ExecutorService executor, int noOfTasks) {
+		TCArex<TSRealSolution> arex = new TCArex<TSRealSolution>(new TSRealSolution(dimension), dimension,
+				new TSEvaluationValueComparator<TSRealSolution>(true), new TCJava48BitLcg(seed));
+		arex.setBatchMode(batchMode);
+		arex.setExecutor(executor, noOfTasks);
+		return arex;
+	}
+
+	/**
+	 * 1世代の子個体生成を計測する．
+	 * @param bench ベンチマーク
+	 * @param name 表示名
+	 * @param arex AREX
+	 * @param parents 親個体の集合
+	 * @param noOfKids 子個体数
+	 */
+	private static void measure(TCMicroBenchmark bench, String name, final TCArex<TSRealSolution> arex,
+			final TCSolutionSet<TSRealSolution> parents, final int noOfKids) {
+		final TCSolutionSet<TSRealSolution> kids = new TCSolutionSet<TSRealSolution>(parents.get(0));
+		bench.measure(name, new ICOperation() {
+			@Override
+			public double run() {
+				arex.makeOffspring(parents, noOfKids, kids);
+				return kids.get(0).getVector().getValue(0);
+			}
+		});
+	}
+
+	/**
+	 * 二つのAREXが同じ子個体を生成するかを調べる．
+	 * @param a AREX
+	 * @param b AREX
+	 * @param parents 親個体の集合
+	 * @param noOfKids 子個体数
+	 * @return すべての子個体のすべての要素がビット単位で一致すればtrue
+	 */
+	private static boolean isIdentical(TCArex<TSRealSolution> a, TCArex<TSRealSolution> b, TCSolutionSet<TSRealSolution> parents, int noOfKids) {
+		TCSolutionSet<TSRealSolution> kidsA = new TCSolutionSet<TSRealSolution>(parents.get(0));
+		TCSolutionSet<TSRealSolution> kidsB = new TCSolutionSet<TSRealSolution>(parents.get(0));
+		a.makeOffspring(parents, noOfKids, kidsA);
+		b.makeOffspring(parents, noOfKids, kidsB);
+		for (int k = 0; k < noOfKids; k++) {
+			for (int i = 0; i < parents.get(0).getVector().getDimension(); i++) {
+				double x = kidsA.get(k).getVector().getValue(i);
+				double y = kidsB.get(k).getVector().getValue(i);
+				if (Double.doubleToLongBits(x) != Double.doubleToLongBits(y)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * メインメソッド．
+	 * @param args args[0]: 並列計算のスレッド数（省略時はプロセッサ数）
+	 */
+	public static void main(String[] args) {
+		int noOfThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+		ExecutorService executor = Executors.newFixedThreadPool(noOfThreads);
+		TCMicroBenchmark bench = new TCMicroBenchmark(MIN_TIME);
+		try {
+			System.out.println("threads=" + noOfThreads);
+			for (int n : DIMENSIONS) {
+				int noOfKids = 4 * n;
+				TCSolutionSet<TSRealSolution> parents = createParents(n, n + 1, new TCJava48BitLcg(n));
+				boolean identical = isIdentical(createArex(n, 1L, false, null, 1), createArex(n, 1L, true, null, 1), parents, noOfKids)
+						&& isIdentical(createArex(n, 1L, false, null, 1), createArex(n, 1L, true, executor, noOfThreads), parents, noOfKids);
+				System.out.println("n=" + n + " identical=" + identical);
+				measure(bench, "n=" + n + " scalar", createArex(n, 2L, false, null, 1), parents, noOfKids);
+				measure(bench, "n=" + n + " batch", createArex(n, 2L, true, null, 1), parents, noOfKids);
+				measure(bench, "n=" + n + " parallel", createArex(n, 2L, true, executor, noOfThreads), parents, noOfKids);
+			}
+		} finally {
+			executor.shutdown();
+		}
+		System.out.println("sink=" + bench.getSink());
+	}
+
+}
@@ -0,0 +1,133 @@
+package benchmarks;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+
+/**
+ * 操作1回あたりの時間とメモリ割り当て量を計測する簡易的なマイクロベンチマーク．
+ * 各操作は，ウォームアップとして最小時間だけ繰り返した後，計測としてもう一度最小時間だけ繰り返す．
+ * 計測中の時間，呼び出したスレッドの割り当て量，GCの回数と時間を操作の回数で割って，1行で出力する．
+ * 割り当て量はcom.sun.management.ThreadMXBeanで計測するため，HotSpot系のJVMで実行すること．
+ * 操作の戻り値は足し込んでおき，JITコンパイラに操作を取り除かせないようにする．
+ * 最小時間を0とすると，ウォームアップと計測で操作を1回ずつ実行する．
+ */
+public class TCMicroBenchmark {
+
+	/**
+	 * 計測する操作
+	 */
+	public interface ICOperation {
+
+		/**
+		 * 操作を1回実行する．
+		 *
+		 * @return 操作の結果に依存する値
+		 * @throws Exception
+		 */
+		double run() throws Exception;
+	}
+
+	/** ウォームアップと計測のそれぞれに費やす最小時間[ns] */
+	private long fMinTime;
+
+	/** 操作の戻り値の和 */
+	private double fSink;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param minTime ウォームアップと計測のそれぞれに費やす最小時間[ms]
+	 */
+	public TCMicroBenchmark(long minTime) {
+		fMinTime = minTime * 1000000L;
+		fSink = 0.0;
+	}
+
+	/**
+	 * GCの累積回数を返す．
+	 * @return GCの累積回数
+	 */
+	private static long getGcCount() {
+		long count = 0;
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			count += Math.max(0L, gc.getCollectionCount());
+		}
+		return count;
+	}
+
+	/**
+	 * GCの累積時間[ms]を返す．
+	 * @return GCの累積時間[ms]
+	 */
+	private static long getGcTime() {
+		long time = 0;
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			time += Math.max(0L, gc.getCollectionTime());
+		}
+		return time;
+	}
+
+	/**
+	 * 呼び出したスレッドがこれまでに割り当てたメモリ量[byte]を返す．
+	 * @return 割り当て量[byte]
+	 */
+	private static long getAllocatedBytes() {
+		com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	/**
+	 * 最小時間が経つまで操作を繰り返す．
+	 * @param op 操作
+	 * @return 操作の回数
+	 * @throws Exception
+	 */
+	private long repeat(ICOperation op) throws Exception {
+		long start = System.nanoTime();
+		long count = 0;
+		double sum = 0.0;
+		do {
+			sum += op.run();
+			count++;
+		} while (System.nanoTime() - start < fMinTime);
+		fSink += sum;
+		return count;
+	}
+
+	/**
+	 * 操作を計測し，操作1回あたりの時間[us]，割り当て量[byte]，GCの回数と時間[ms]を出力する．
+	 *
+	 * @param name 操作の名前
+	 * @param op   操作
+	 * @return 操作1回あたりの時間[us]
+	 */
+	public double measure(String name, ICOperation op) {
+		try {
+			repeat(op); // ウォームアップ
+			long bytes = getAllocatedBytes();
+			long gcCount = getGcCount();
+			long gcTime = getGcTime();
+			long start = System.nanoTime();
+			long count = repeat(op);
+			double elapsed = (System.nanoTime() - start) / 1e3;
+			bytes = getAllocatedBytes() - bytes;
+			gcCount = getGcCount() - gcCount;
+			gcTime = getGcTime() - gcTime;
+			System.out.println(String.format("%-40s %12.3f[us/op] %12.0f[B/op] %10.4f[gc/op] %10.4f[gc ms/op] (%d ops)",
+					name, elapsed / count, (double) bytes / count, (double) gcCount / count, (double) gcTime / count, count));
+			return elapsed / count;
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * 操作の戻り値の和を返す．
+	 *
+	 * @return 操作の戻り値の和
+	 */
+	public double getSink() {
+		return fSink;
+	}
+
+}
@@ -0,0 +1,93 @@
+package benchmarks;
+
+import benchmarks.TCMicroBenchmark.ICOperation;
+import jssf.random.ICRandom;
+import jssf.random.TCJava48BitLcg;
+import jssf.random.TCPcg64;
+import jssf.random.TCSplitMix64;
+import jssf.random.TCXoshiro256PlusPlus;
+
+/**
+ * 乱数生成器の速度を，TCMicroBenchmarkで比較する．
+ * nextLong，nextDouble，nextInt(n)，nextGaussian，および，fillGaussianについて，
+ * TCJava48BitLcgと64ビット乱数生成器（SplitMix64，xoshiro256++，PCG64）を計測する．
+ * 1操作ではBLOCK個の乱数を生成するため，スループット[M/s]はBLOCKを操作1回あたりの時間[us]で割った値となる．
+ */
+public class TCRandomBenchmark {
+
+	/** ウォームアップと計測のそれぞれに費やす最小時間[ms] */
+	private static final long MIN_TIME = 500L;
+
+	/** 1操作で生成する乱数の数 */
+	private static final int BLOCK = 100000;
+
+	/**
+	 * 計測する操作
+	 */
+	private enum Operation {
+		NEXT_LONG, NEXT_DOUBLE, NEXT_INT_N, NEXT_GAUSSIAN, FILL_GAUSSIAN,
+	}
+
+	/**
+	 * 操作をBLOCK回実行する．
+	 * @param random 乱数生成器
+	 * @param op 操作
+	 * @param buf fillGaussianに用いるバッファ
+	 * @return 生成した乱数の和
+	 */
+	private static double run(ICRandom random, Operation op, double[] buf) {
+		long sum = 0;
+		switch (op) {
+			case NEXT_LONG:
+				for (int i = 0; i < BLOCK; i++) {
+					sum += random.nextLong();
+				}
+				break;
+			case NEXT_DOUBLE:
+				for (int i = 0; i < BLOCK; i++) {
+					sum += Double.doubleToRawLongBits(random.nextDouble());
+				}
+				break;
+			case NEXT_INT_N:
+				for (int i = 0; i < BLOCK; i++) {
+					sum += random.nextInt(1000);
+				}
+				break;
+			case NEXT_GAUSSIAN:
+				for (int i = 0; i < BLOCK; i++) {
+					sum += Double.doubleToRawLongBits(random.nextGaussian());
+				}
+				break;
+			case FILL_GAUSSIAN:
+				random.fillGaussian(buf, 0.0, 1.0);
+				sum += Double.doubleToRawLongBits(buf[BLOCK - 1]);
+				break;
+		}
+		return sum;
+	}
+
+	/**
+	 * メインメソッド．
+	 * @param args なし
+	 */
+	public static void main(String[] args) {
+		ICRandom[] randoms = { new TCJava48BitLcg(1L), new TCSplitMix64(1L), new TCXoshiro256PlusPlus(1L), new TCPcg64(1L) };
+		TCMicroBenchmark bench = new TCMicroBenchmark(MIN_TIME);
+		final double[] buf = new double[BLOCK];
+		System.out.println("block=" + BLOCK);
+		for (final ICRandom random : randoms) {
+			for (final Operation op : Operation.values()) {
+				String name = random.getClass().getSimpleName() + " " + op;
+				double time = bench.measure(name, new ICOperation() {
+					@Override
+					public double run() {
+						return TCRandomBenchmark.run(random, op, buf);
+					}
+				});
+				System.out.println(String.format("%-40s %12.1f[M/s]", name, BLOCK / time));
+			}
+		}
+		System.out.println("sink=" + bench.getSink());
+	}
+
+}
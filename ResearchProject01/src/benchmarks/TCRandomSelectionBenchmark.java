@@ -0,0 +1,83 @@
+package benchmarks;
+
+import benchmarks.TCMicroBenchmark.ICOperation;
+import jgoal.ga.reproductionSelection.TCRandomSelectionWithoutReplacement;
+import jgoal.solution.TCSolutionSet;
+import jgoal.solution.TSRealSolution;
+import jssf.random.ICRandom;
+import jssf.random.TCJava48BitLcg;
+
+/**
+ * 非復元抽出による複製選択の1世代あたりの時間[us]とメモリ割り当て量[byte]を，TCMicroBenchmarkで計測する．
+ * 次元数 n=1000，集団サイズ 30n，親個体数 n+1 (AREX) とし，
+ * 集団から親個体を抽出して集団の末尾に戻す操作を1世代とする．
+ * ArrayList.remove(index)で抽出する従来の方法とTCRandomSelectionWithoutReplacementを比較する．
+ */
+public class TCRandomSelectionBenchmark {
+
+	/** 次元数 */
+	private static final int DIMENSION = 1000;
+
+	/** 集団サイズ */
+	private static final int POPULATION_SIZE = 30 * DIMENSION;
+
+	/** 親個体数 */
+	private static final int NO_OF_PARENTS = DIMENSION + 1;
+
+	/** ウォームアップと計測のそれぞれに費やす最小時間[ms] */
+	private static final long MIN_TIME = 1000L;
+
+	/**
+	 * ArrayList.remove(index)により親個体を非復元抽出する従来の方法．
+	 * @param pop 集団
+	 * @param noOfParents 親個体数
+	 * @param parents 親個体集合
+	 * @param random 乱数生成器
+	 */
+	private static void removeAt(TCSolutionSet<TSRealSolution> pop, int noOfParents, TCSolutionSet<TSRealSolution> parents, ICRandom random) {
+		parents.clear();
+		for (int i = 0; i < noOfParents; i++) {
+			int index = random.nextInt(0, pop.size() - 1);
+			parents.add(pop.remove(index));
+		}
+	}
+
+	/**
+	 * 1世代を計測する．
+	 * @param bench ベンチマーク
+	 * @param swap trueならばTCRandomSelectionWithoutReplacement，falseならば従来の方法
+	 */
+	private static void measure(TCMicroBenchmark bench, final boolean swap) {
+		final ICRandom random = new TCJava48BitLcg(1L);
+		TSRealSolution template = new TSRealSolution(1);
+		final TCSolutionSet<TSRealSolution> pop = new TCSolutionSet<TSRealSolution>(template);
+		pop.resize(POPULATION_SIZE);
+		final TCSolutionSet<TSRealSolution> parents = new TCSolutionSet<TSRealSolution>(template);
+		final TCRandomSelectionWithoutReplacement<TSRealSolution> selection = new TCRandomSelectionWithoutReplacement<TSRealSolution>(random);
+		bench.measure(swap ? "swap with last" : "remove(index)", new ICOperation() {
+			@Override
+			public double run() {
+				if (swap) {
+					selection.doIt(pop, NO_OF_PARENTS, parents);
+				} else {
+					removeAt(pop, NO_OF_PARENTS, parents, random);
+				}
+				pop.addAll(parents); // 生存選択と同様に集団の末尾に戻す．
+				return parents.size();
+			}
+		});
+	}
+
+	/**
+	 * メインメソッド．
+	 * @param args なし
+	 */
+	public static void main(String[] args) {
+		System.out.println(String.format("n=%d N=%d mu=%d", DIMENSION, POPULATION_SIZE, NO_OF_PARENTS));
+		TCMicroBenchmark bench = new TCMicroBenchmark(MIN_TIME);
+		measure(bench, false);
+		measure(bench, true);
+		System.out.println("sink=" + bench.getSink());
+	}
+
+}
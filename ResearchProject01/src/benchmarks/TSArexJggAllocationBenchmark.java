@@ -0,0 +1,54 @@
+package benchmarks;
+
+import benchmarks.TCMicroBenchmark.ICOperation;
+import jgoal.evaluation.ISRealObjective;
+import jgoal.evaluation.functions.TSKTablet;
+import jgoal.evaluation.TSSequentialEvaluator;
+import jgoal.ga.TSArexJgg;
+import jgoal.solution.TCSolutionSet;
+import jgoal.solution.TSRealSolution;
+import jssf.random.ICRandom;
+import jssf.random.TCJava48BitLcg;
+
+/**
+ * AREX/JGGの1世代あたりの時間[us]，メモリ割り当て量[byte]，GCの回数と時間[ms]を，TCMicroBenchmarkで計測する．
+ * 次元数 n=100，集団サイズ 14n，子個体数 5n，k-tablet関数とする．
+ */
+public class TSArexJggAllocationBenchmark {
+
+	/** 次元数 */
+	private static final int DIMENSION = 100;
+
+	/** ウォームアップと計測のそれぞれに費やす最小時間[ms] */
+	private static final long MIN_TIME = 5000L;
+
+	/** k-tablet関数 (k=n/4) */
+	private static final ISRealObjective KTABLET = new TSKTablet();
+
+	/**
+	 * メインメソッド．
+	 * @param args なし
+	 */
+	public static void main(String[] args) {
+		ICRandom random = new TCJava48BitLcg(1L);
+		final TSArexJgg ga = new TSArexJgg(true, DIMENSION, 14 * DIMENSION, 5 * DIMENSION, random);
+		TSSequentialEvaluator<TSRealSolution> evaluator = new TSSequentialEvaluator<TSRealSolution>(KTABLET);
+		ga.setEvaluator(evaluator);
+		TCSolutionSet<TSRealSolution> population = ga.initialize();
+		for (TSRealSolution s : population) {
+			s.getVector().rand(random).scale(10.0).sub(5.0);
+		}
+		evaluator.evaluate(population);
+		TCMicroBenchmark bench = new TCMicroBenchmark(MIN_TIME);
+		bench.measure("n=" + DIMENSION + " TSArexJgg", new ICOperation() {
+			@Override
+			public double run() {
+				ga.makeOffspring();
+				ga.nextGeneration();
+				return ga.getBestEvaluationValue();
+			}
+		});
+		System.out.println("best=" + ga.getBestEvaluationValue() + " sink=" + bench.getSink());
+	}
+
+}
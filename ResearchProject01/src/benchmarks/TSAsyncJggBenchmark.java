@@ -0,0 +1,162 @@
+package benchmarks;
+
+import benchmarks.TCMicroBenchmark.ICOperation;
+import jgoal.evaluation.ISRealObjective;
+import jgoal.evaluation.TSAsyncEvaluator;
+import jgoal.evaluation.TSPooledEvaluator;
+import jgoal.ga.TSArexAsyncJgg;
+import jgoal.ga.TSArexJgg;
+import jgoal.solution.TCSolutionSet;
+import jgoal.solution.TSRealSolution;
+import jssf.math.TCVector;
+import jssf.random.ICRandom;
+import jssf.random.TCXoshiro256PlusPlus;
+
+/**
+ * 同期的なAREX/JGG（TSArexJgg＋TSPooledEvaluator）と非同期・定常状態型のAREX/JGG（TSArexAsyncJgg＋TSAsyncEvaluator）の
+ * スループット[評価回数/s]，ワーカスレッドのアイドル率，および，同じ評価回数での最良評価値を比較する．
+ * 目的関数はk-tablet関数に評価時間の遅延を加えたものであり，評価の95%はBASE_DELAY[ms]，
+ * 5%はSLOW_DELAY[ms]かかる（レンズ設計のように評価時間がばらつく問題を模擬する）．
+ * 遅延はスリープで与えるため，CPU数が少ない環境でも並列化の効果を測れる．
+ * MAX_EVALS回評価するまでの1回の実行をTCMicroBenchmarkの1操作とし，ウォームアップと計測で1回ずつ実行する．
+ */
+public class TSAsyncJggBenchmark {
+
+	/** 次元数 */
+	private static final int DIMENSION = 10;
+
+	/** 評価回数 */
+	private static final long MAX_EVALS = 4000;
+
+	/** 通常の評価時間[ms] */
+	private static final long BASE_DELAY = 2;
+
+	/** 遅い評価の評価時間[ms] */
+	private static final long SLOW_DELAY = 40;
+
+	/** ウォームアップと計測のそれぞれに費やす最小時間[ms]．0なので1回ずつ実行する． */
+	private static final long MIN_TIME = 0L;
+
+	/**
+	 * 遅延のあるk-tablet関数 (k=n/4)．
+	 * 遅延の長さは個体の座標から決めるため，同じ個体は常に同じ時間で評価される．
+	 */
+	private static final ISRealObjective SLOW_KTABLET = new ISRealObjective() {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public double evaluate(TCVector x) {
+			int k = x.getDimension() / 4;
+			double result = 0.0;
+			long hash = 0L;
+			for (int i = 0; i < x.getDimension(); i++) {
+				double xi = x.getValue(i);
+				result += (i < k ? 1.0 : 10000.0) * xi * xi;
+				hash = hash * 31L + Double.doubleToLongBits(xi);
+			}
+			hash ^= hash >>> 29;
+			hash *= 0xBF58476D1CE4E5B9L;
+			hash ^= hash >>> 32;
+			try {
+				Thread.sleep(Math.abs(hash % 100) < 5 ? SLOW_DELAY : BASE_DELAY);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return result;
+		}
+
+		@Override
+		public ISRealObjective clone() {
+			return this;
+		}
+	};
+
+	/**
+	 * 初期集団の初期化を行う．
+	 * @param population 初期集団
+	 * @param random 乱数生成器
+	 */
+	private static void initializePopulation(TCSolutionSet<TSRealSolution> population, ICRandom random) {
+		for (TSRealSolution s : population) {
+			s.getVector().rand(random).scale(10.0).sub(5.0);
+		}
+	}
+
+	/**
+	 * 同期的なAREX/JGGを実行する．
+	 * @param noOfThreads スレッド数
+	 * @return 最良評価値
+	 */
+	private static double runSync(int noOfThreads) {
+		ICRandom random = new TCXoshiro256PlusPlus(1L);
+		TSArexJgg ga = new TSArexJgg(true, DIMENSION, 5 * DIMENSION, 4 * DIMENSION, random);
+		TSPooledEvaluator<TSRealSolution> evaluator = new TSPooledEvaluator<TSRealSolution>(SLOW_KTABLET, noOfThreads);
+		ga.setEvaluator(evaluator);
+		TCSolutionSet<TSRealSolution> population = ga.initialize();
+		initializePopulation(population, random);
+		evaluator.evaluate(population);
+		evaluator.resetStatistics();
+		long noOfEvals = 0;
+		while (noOfEvals < MAX_EVALS) {
+			noOfEvals += ga.makeOffspring().size();
+			ga.nextGeneration();
+		}
+		System.out.println(String.format("sync      threads=%d groups=- throughput=%.1f idle=%.3f best=%.3e",
+				noOfThreads, evaluator.getThroughput(), evaluator.getIdleRatio(), ga.getBestEvaluationValue()));
+		evaluator.shutdown();
+		return ga.getBestEvaluationValue();
+	}
+
+	/**
+	 * 非同期・定常状態型のAREX/JGGを実行する．
+	 * @param noOfThreads スレッド数
+	 * @param noOfGroups 同時に評価する家族数
+	 * @return 最良評価値
+	 */
+	private static double runAsync(int noOfThreads, int noOfGroups) {
+		ICRandom random = new TCXoshiro256PlusPlus(1L);
+		TSArexAsyncJgg ga = new TSArexAsyncJgg(true, DIMENSION, 5 * DIMENSION, 4 * DIMENSION, noOfGroups, random);
+		TSAsyncEvaluator<TSRealSolution> evaluator = new TSAsyncEvaluator<TSRealSolution>(SLOW_KTABLET, noOfThreads);
+		ga.setEvaluator(evaluator);
+		TCSolutionSet<TSRealSolution> population = ga.initialize();
+		initializePopulation(population, random);
+		evaluator.evaluate(population);
+		evaluator.resetStatistics();
+		long noOfEvals = 0;
+		while (noOfEvals < MAX_EVALS) {
+			noOfEvals += ga.nextGeneration().size();
+		}
+		double throughput = evaluator.getThroughput();
+		double idle = evaluator.getIdleRatio();
+		ga.drain();
+		System.out.println(String.format("async     threads=%d groups=%d throughput=%.1f idle=%.3f best=%.3e",
+				noOfThreads, noOfGroups, throughput, idle, ga.getBestEvaluationValue()));
+		evaluator.shutdown();
+		return ga.getBestEvaluationValue();
+	}
+
+	/**
+	 * メインメソッド．
+	 * @param args スレッド数（省略時は8）
+	 */
+	public static void main(String[] args) {
+		final int noOfThreads = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+		TCMicroBenchmark bench = new TCMicroBenchmark(MIN_TIME);
+		bench.measure("sync threads=" + noOfThreads, new ICOperation() {
+			@Override
+			public double run() {
+				return runSync(noOfThreads);
+			}
+		});
+		for (final int noOfGroups : new int[] { 1, 2, 3 }) {
+			bench.measure("async threads=" + noOfThreads + " groups=" + noOfGroups, new ICOperation() {
+				@Override
+				public double run() {
+					return runAsync(noOfThreads, noOfGroups);
+				}
+			});
+		}
+		System.out.println("sink=" + bench.getSink());
+	}
+
+}
@@ -0,0 +1,117 @@
+package benchmarks;
+
+import benchmarks.TCMicroBenchmark.ICOperation;
+import crfmnes.TCrFmNes;
+import crfmnes.TIndividual;
+import jgoal.evaluation.TSSequentialEvaluator;
+import jgoal.evaluation.functions.TSKTablet;
+import jgoal.ga.ISRealGa;
+import jgoal.ga.TSArexJgg;
+import jgoal.ga.TSRexNJgg;
+import jgoal.ga.TSUndxMgg;
+import jgoal.solution.TCSolutionSet;
+import jgoal.solution.TSRealSolution;
+import jssf.random.ICRandom;
+import jssf.random.TCJava48BitLcg;
+
+/**
+ * GAの1世代あたりの時間[us]とメモリ割り当て量[byte]を，TCMicroBenchmarkで計測する．
+ * 対象はAREX/JGG，REX/JGG，UNDX/MGG（集団サイズ 14n，子個体数 5n）とCR-FM-NES（サンプルサイズ n）であり，
+ * k-tablet関数を[-5,+5]^nで初期化した状態から世代交代を繰り返す．
+ * 子個体の評価は1世代に含める．
+ * 引数で次元数を指定できる．指定しない場合は n=20, 100, 1000 とする．
+ * n=1000では集団だけで100MB以上になるため，-Xmx2g程度のヒープを指定して実行すること．
+ */
+public class TSGenerationBenchmark {
+
+	/** 既定の次元数 */
+	private static final int[] DIMENSIONS = { 20, 100, 1000 };
+
+	/** ウォームアップと計測のそれぞれに費やす最小時間[ms] */
+	private static final long MIN_TIME = 2000L;
+
+	/** k-tablet関数 (k=n/4) */
+	private static final TSKTablet KTABLET = new TSKTablet();
+
+	/**
+	 * GAの1世代を計測する．
+	 * @param bench ベンチマーク
+	 * @param name 表示名
+	 * @param ga GA
+	 * @param random 初期集団の生成に用いる乱数生成器
+	 */
+	private static void measureGa(TCMicroBenchmark bench, String name, final ISRealGa ga, ICRandom random) {
+		TSSequentialEvaluator<TSRealSolution> evaluator = new TSSequentialEvaluator<TSRealSolution>(KTABLET);
+		ga.setEvaluator(evaluator);
+		TCSolutionSet<TSRealSolution> population = ga.initialize();
+		for (TSRealSolution s : population) {
+			s.getVector().rand(random).scale(10.0).sub(5.0);
+		}
+		evaluator.evaluate(population);
+		bench.measure(name, new ICOperation() {
+			@Override
+			public double run() {
+				ga.makeOffspring();
+				ga.nextGeneration();
+				return ga.getBestEvaluationValue();
+			}
+		});
+	}
+
+	/**
+	 * CR-FM-NESの1世代を計測する．
+	 * @param bench ベンチマーク
+	 * @param n 次元数
+	 * @param random 乱数生成器
+	 */
+	private static void measureCrFmNes(TCMicroBenchmark bench, int n, ICRandom random) {
+		crfmnes.matrix2017.TCMatrix m = new crfmnes.matrix2017.TCMatrix(n);
+		for (int i = 0; i < n; ++i) {
+			m.setValue(i, random.nextDouble(-5.0, 5.0));
+		}
+		crfmnes.matrix2017.TCMatrix d = new crfmnes.matrix2017.TCMatrix(n).fill(1.0);
+		crfmnes.matrix2017.TCMatrix v = new crfmnes.matrix2017.TCMatrix(n);
+		for (int i = 0; i < n; ++i) {
+			v.setValue(i, random.nextGaussian() / n);
+		}
+		final TCrFmNes crfmnes = new TCrFmNes(n, n, m, 2.5, d, v, random);
+		bench.measure("n=" + n + " TCrFmNes", new ICOperation() {
+			@Override
+			public double run() {
+				TIndividual[] pop = crfmnes.samplePopulation();
+				for (int i = 0; i < pop.length; ++i) {
+					crfmnes.matrix2017.TCMatrix x = pop[i].getX();
+					pop[i].setEvaluationValue(KTABLET.evaluate(x.getElements(), 0, x.getDimension()));
+				}
+				crfmnes.sort();
+				double best = crfmnes.getBestEvaluationValue();
+				crfmnes.nextGeneration();
+				return best;
+			}
+		});
+	}
+
+	/**
+	 * メインメソッド．
+	 * @param args 次元数（省略可）
+	 */
+	public static void main(String[] args) {
+		int[] dimensions = DIMENSIONS;
+		if (args.length > 0) {
+			dimensions = new int[args.length];
+			for (int i = 0; i < args.length; i++) {
+				dimensions[i] = Integer.parseInt(args[i]);
+			}
+		}
+		TCMicroBenchmark bench = new TCMicroBenchmark(MIN_TIME);
+		for (int n : dimensions) {
+			ICRandom random = new TCJava48BitLcg(1L);
+			measureGa(bench, "n=" + n + " TSArexJgg", new TSArexJgg(true, n, 14 * n, 5 * n, random), random);
+			measureGa(bench, "n=" + n + " TSRexNJgg", new TSRexNJgg(true, n, 14 * n, 5 * n, random), random);
+			measureGa(bench, "n=" + n + " TSUndxMgg", new TSUndxMgg(true, n, 14 * n, 5 * n, random), random);
+			measureCrFmNes(bench, n, random);
+		}
+		System.out.println("sink=" + bench.getSink());
+	}
+
+}
@@ -0,0 +1,176 @@
+package benchmarks;
+
+import benchmarks.TCMicroBenchmark.ICOperation;
+import jssf.math.TCMatrix;
+import jssf.random.ICRandom;
+import jssf.random.TCJava48BitLcg;
+import jssf.random.TCPcg64;
+import jssf.random.TCSplitMix64;
+import jssf.random.TCXoshiro256PlusPlus;
+
+/**
+ * jssf.mathの行列演算と行列分解，および，jssf.randomの乱数生成器について，
+ * 操作1回あたりの時間[us]とメモリ割り当て量[byte]をTCMicroBenchmarkで計測する．
+ * 行列演算（add，times，innerProduct，copyFrom，transpose）と
+ * 行列分解（Cholesky，LU，QR，固有値，特異値）は，n×n行列（innerProductはn次元縦ベクトル）について計測する．
+ * 乱数生成器は，1操作でBLOCK個の乱数を生成する．
+ * 引数で次元数を指定できる．指定しない場合は n=20, 100, 1000 とする．
+ */
+public class TSMathBenchmark {
+
+	/** 既定の次元数 */
+	private static final int[] DIMENSIONS = { 20, 100, 1000 };
+
+	/** ウォームアップと計測のそれぞれに費やす最小時間[ms] */
+	private static final long MIN_TIME = 1000L;
+
+	/** 乱数生成器の1操作で生成する乱数の数 */
+	private static final int BLOCK = 1000;
+
+	/**
+	 * n×n行列の演算と分解を計測する．
+	 * @param bench ベンチマーク
+	 * @param n 次元数
+	 * @param random 乱数生成器
+	 */
+	private static void measureMatrix(TCMicroBenchmark bench, final int n, ICRandom random) {
+		final TCMatrix a = new TCMatrix(n, n).rand(random);
+		final TCMatrix b = new TCMatrix(n, n).rand(random);
+		final TCMatrix c = new TCMatrix(n, n);
+		final TCMatrix u = new TCMatrix(n).rand(random);
+		final TCMatrix v = new TCMatrix(n).rand(random);
+		final TCMatrix spd = new TCMatrix(n, n).times(a, new TCMatrix(a).transpose()).add(new TCMatrix(n, n).eye().times(n)); // 正定値対称行列
+		bench.measure("n=" + n + " TCMatrix.add", new ICOperation() {
+			@Override
+			public double run() {
+				return c.add(a).getValue(0, 0);
+			}
+		});
+		bench.measure("n=" + n + " TCMatrix.times", new ICOperation() {
+			@Override
+			public double run() {
+				return c.times(a, b).getValue(0, 0);
+			}
+		});
+		bench.measure("n=" + n + " TCMatrix.innerProduct", new ICOperation() {
+			@Override
+			public double run() {
+				return u.innerProduct(v);
+			}
+		});
+		bench.measure("n=" + n + " TCMatrix.copyFrom", new ICOperation() {
+			@Override
+			public double run() {
+				return c.copyFrom(a).getValue(0, 0);
+			}
+		});
+		bench.measure("n=" + n + " TCMatrix.transpose", new ICOperation() {
+			@Override
+			public double run() {
+				return c.transpose().getValue(0, 1);
+			}
+		});
+		bench.measure("n=" + n + " TCMatrix.chol", new ICOperation() {
+			@Override
+			public double run() {
+				return spd.chol().getL().getValue(0, 0);
+			}
+		});
+		bench.measure("n=" + n + " TCMatrix.lu", new ICOperation() {
+			@Override
+			public double run() {
+				return a.lu().det();
+			}
+		});
+		bench.measure("n=" + n + " TCMatrix.qr", new ICOperation() {
+			@Override
+			public double run() {
+				return a.qr().getR().getValue(0, 0);
+			}
+		});
+		bench.measure("n=" + n + " TCMatrix.eig", new ICOperation() {
+			@Override
+			public double run() {
+				return spd.eig().getRealEigenvalues()[0];
+			}
+		});
+		bench.measure("n=" + n + " TCMatrix.svd", new ICOperation() {
+			@Override
+			public double run() {
+				return a.svd().getSingularValues()[0];
+			}
+		});
+	}
+
+	/**
+	 * 乱数生成器を計測する．
+	 * @param bench ベンチマーク
+	 * @param random 乱数生成器
+	 */
+	private static void measureRandom(TCMicroBenchmark bench, final ICRandom random) {
+		String name = random.getClass().getSimpleName();
+		final double[] buf = new double[BLOCK];
+		bench.measure(name + ".nextDouble x" + BLOCK, new ICOperation() {
+			@Override
+			public double run() {
+				double sum = 0.0;
+				for (int i = 0; i < BLOCK; i++) {
+					sum += random.nextDouble();
+				}
+				return sum;
+			}
+		});
+		bench.measure(name + ".nextInt(n) x" + BLOCK, new ICOperation() {
+			@Override
+			public double run() {
+				long sum = 0;
+				for (int i = 0; i < BLOCK; i++) {
+					sum += random.nextInt(1000);
+				}
+				return sum;
+			}
+		});
+		bench.measure(name + ".nextGaussian x" + BLOCK, new ICOperation() {
+			@Override
+			public double run() {
+				double sum = 0.0;
+				for (int i = 0; i < BLOCK; i++) {
+					sum += random.nextGaussian();
+				}
+				return sum;
+			}
+		});
+		bench.measure(name + ".fillGaussian x" + BLOCK, new ICOperation() {
+			@Override
+			public double run() {
+				random.fillGaussian(buf, 0.0, 1.0);
+				return buf[BLOCK - 1];
+			}
+		});
+	}
+
+	/**
+	 * メインメソッド．
+	 * @param args 次元数（省略可）
+	 */
+	public static void main(String[] args) {
+		int[] dimensions = DIMENSIONS;
+		if (args.length > 0) {
+			dimensions = new int[args.length];
+			for (int i = 0; i < args.length; i++) {
+				dimensions[i] = Integer.parseInt(args[i]);
+			}
+		}
+		TCMicroBenchmark bench = new TCMicroBenchmark(MIN_TIME);
+		ICRandom[] randoms = { new TCJava48BitLcg(1L), new TCSplitMix64(1L), new TCXoshiro256PlusPlus(1L), new TCPcg64(1L) };
+		for (ICRandom random : randoms) {
+			measureRandom(bench, random);
+		}
+		ICRandom random = new TCJava48BitLcg(1L);
+		for (int n : dimensions) {
+			measureMatrix(bench, n, random);
+		}
+		System.out.println("sink=" + bench.getSink());
+	}
+
+}
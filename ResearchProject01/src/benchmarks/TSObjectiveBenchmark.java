@@ -0,0 +1,88 @@
+package benchmarks;
+
+import benchmarks.TCMicroBenchmark.ICOperation;
+import jgoal.evaluation.functions.TCAbstractRealBatchObjective;
+import jgoal.evaluation.functions.TSAckley;
+import jgoal.evaluation.functions.TSDoubleSphereUV;
+import jgoal.evaluation.functions.TSEllipsoid;
+import jgoal.evaluation.functions.TSKTablet;
+import jgoal.evaluation.functions.TSRastrigin;
+import jgoal.evaluation.functions.TSRosenbrock;
+import jgoal.evaluation.functions.TSSchwefel;
+import jssf.math.TCMatrix;
+import jssf.math.TCVector;
+import jssf.random.ICRandom;
+import jssf.random.TCJava48BitLcg;
+
+/**
+ * ベンチマーク関数の評価時間を，GAの処理と切り離してTCMicroBenchmarkで計測する．
+ * 次元数 n=20, 100, 1000 のそれぞれについて，[-5,+5]^nの一様乱数で作った個体数ROWSの行列を用意し，
+ * 行ごとにevaluate(TCVector)を呼ぶ場合と，evaluate(TCMatrix, double[])でまとめて評価する場合を比較する．
+ * 1操作ではROWS個の個体を評価するため，1評価あたりの時間[ns]は操作1回あたりの時間[us]の1000/ROWS倍となる．
+ */
+public class TSObjectiveBenchmark {
+
+	/** 次元数 */
+	private static final int[] DIMENSIONS = { 20, 100, 1000 };
+
+	/** 評価する個体数 */
+	private static final int ROWS = 100;
+
+	/** ウォームアップと計測のそれぞれに費やす最小時間[ms] */
+	private static final long MIN_TIME = 500L;
+
+	/**
+	 * ROWS個の個体の評価を計測する．
+	 * @param bench ベンチマーク
+	 * @param name 表示名
+	 * @param f 目的関数
+	 * @param x 個体を行に並べた行列
+	 * @param rows 各行のビュー
+	 * @param batch trueならばevaluate(TCMatrix, double[])，falseならば行ごとのevaluate(TCVector)
+	 */
+	private static void measure(TCMicroBenchmark bench, String name, final TCAbstractRealBatchObjective f,
+			final TCMatrix x, final TCVector[] rows, final boolean batch) {
+		final double[] values = new double[rows.length];
+		double time = bench.measure(name, new ICOperation() {
+			@Override
+			public double run() {
+				if (batch) {
+					f.evaluate(x, values);
+				} else {
+					for (int i = 0; i < rows.length; i++) {
+						values[i] = f.evaluate(rows[i]);
+					}
+				}
+				return values[0];
+			}
+		});
+		System.out.println(String.format("%-40s %12.1f[ns/eval]", name, time * 1e3 / rows.length));
+	}
+
+	/**
+	 * メインメソッド．
+	 * @param args なし
+	 */
+	public static void main(String[] args) {
+		TCAbstractRealBatchObjective[] functions = {
+				new TSKTablet(), new TSEllipsoid(), new TSDoubleSphereUV(), new TSRosenbrock(),
+				new TSRastrigin(), new TSSchwefel(), new TSAckley() };
+		ICRandom random = new TCJava48BitLcg(1L);
+		TCMicroBenchmark bench = new TCMicroBenchmark(MIN_TIME);
+		for (int n : DIMENSIONS) {
+			TCMatrix x = new TCMatrix(ROWS, n);
+			TCVector[] rows = new TCVector[ROWS];
+			for (int i = 0; i < ROWS; i++) {
+				rows[i] = new TCVector(x.getElements(), x.getOffset() + i * x.getStride(), n);
+				rows[i].rand(random).scale(10.0).sub(5.0);
+			}
+			for (TCAbstractRealBatchObjective f : functions) {
+				String name = "n=" + n + " " + f.getClass().getSimpleName();
+				measure(bench, name + " vector", f, x, rows, false);
+				measure(bench, name + " batch", f, x, rows, true);
+			}
+		}
+		System.out.println("sink=" + bench.getSink());
+	}
+
+}
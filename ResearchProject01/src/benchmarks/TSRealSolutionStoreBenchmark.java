@@ -0,0 +1,148 @@
+package benchmarks;
+
+import benchmarks.TCMicroBenchmark.ICOperation;
+import jgoal.evaluation.TSSequentialEvaluator;
+import jgoal.evaluation.functions.TSKTablet;
+import jgoal.ga.reproduction.TCArex;
+import jgoal.ga.reproductionSelection.TCRandomSelectionWithoutReplacement;
+import jgoal.ga.survivalSelection.TCNBestSelectionFromKids;
+import jgoal.solution.ISRealSolution;
+import jgoal.solution.TCBestSolutionTracker;
+import jgoal.solution.TCRealSolutionStore;
+import jgoal.solution.TCSolutionSet;
+import jgoal.solution.TSRealSolution;
+import jgoal.solution.TSStoredRealSolution;
+import jgoal.solution.comparator.TSEvaluationValueComparator;
+import jssf.random.ICRandom;
+import jssf.random.TCJava48BitLcg;
+
+/**
+ * 個体をオブジェクト（TSRealSolution）で持つ場合と，配列の構造体（TCRealSolutionStore）で持つ場合とで，
+ * AREX/JGGの1世代あたりの時間[us]とメモリ割り当て量[byte]を，TCMicroBenchmarkで比較する．
+ * どちらも同じオペレータ（TCRandomSelectionWithoutReplacement，TCArex，TCNBestSelectionFromKids）で同じ探索を行い，
+ * CHECK_GENERATIONS世代後に同じ最良評価値になることを確認する．
+ * 次元数 n=100，集団サイズ 14n，子個体数 5n，k-tablet関数とする．
+ */
+public class TSRealSolutionStoreBenchmark {
+
+	/** 次元数 */
+	private static final int DIMENSION = 100;
+
+	/** 集団サイズ */
+	private static final int POPULATION_SIZE = 14 * DIMENSION;
+
+	/** 子個体数 */
+	private static final int NO_OF_KIDS = 5 * DIMENSION;
+
+	/** 最良評価値を比べる世代数 */
+	private static final int CHECK_GENERATIONS = 1000;
+
+	/** ウォームアップと計測のそれぞれに費やす最小時間[ms] */
+	private static final long MIN_TIME = 3000L;
+
+	/**
+	 * テンプレートの個体型で初期化したAREX/JGGの1世代．
+	 *
+	 * @param <X> 個体の型
+	 */
+	private static class TCGeneration<X extends ISRealSolution> implements ICOperation {
+
+		/** 評価器 */
+		private final TSSequentialEvaluator<X> fEvaluator;
+
+		/** 複製選択 */
+		private final TCRandomSelectionWithoutReplacement<X> fReproductionSelection;
+
+		/** 生存選択 */
+		private final TCNBestSelectionFromKids<X> fSurvivalSelection;
+
+		/** AREX */
+		private final TCArex<X> fArex;
+
+		/** 最良個体の追跡 */
+		private final TCBestSolutionTracker<X> fTracker;
+
+		/** 集団 */
+		private final TCSolutionSet<X> fPopulation;
+
+		/** 親個体集合 */
+		private final TCSolutionSet<X> fParents;
+
+		/** 子個体集合 */
+		private final TCSolutionSet<X> fKids;
+
+		/**
+		 * 初期集団を生成して評価する．
+		 * @param template 個体テンプレート
+		 */
+		TCGeneration(X template) {
+			ICRandom random = new TCJava48BitLcg(1L);
+			TSEvaluationValueComparator<X> comparator = new TSEvaluationValueComparator<X>(true);
+			fEvaluator = new TSSequentialEvaluator<X>(new TSKTablet());
+			fReproductionSelection = new TCRandomSelectionWithoutReplacement<X>(random);
+			fSurvivalSelection = new TCNBestSelectionFromKids<X>(comparator);
+			fArex = new TCArex<X>(template, DIMENSION, comparator, random);
+			fTracker = new TCBestSolutionTracker<X>(comparator);
+			fPopulation = new TCSolutionSet<X>(template);
+			fParents = new TCSolutionSet<X>(template);
+			fKids = new TCSolutionSet<X>(template);
+			fPopulation.resize(POPULATION_SIZE);
+			for (X s : fPopulation) {
+				s.getVector().rand(random).scale(10.0).sub(5.0);
+			}
+			fEvaluator.evaluate(fPopulation);
+		}
+
+		@Override
+		public double run() {
+			fReproductionSelection.doIt(fPopulation, fArex.getNoOfParents(), fParents);
+			fTracker.removed(fParents);
+			fArex.makeOffspring(fParents, NO_OF_KIDS, fKids);
+			fEvaluator.evaluate(fKids);
+			fArex.updateExpansionRate();
+			int size = fPopulation.size();
+			fSurvivalSelection.doIt(fPopulation, fParents, fKids);
+			fTracker.added(fPopulation, size);
+			fArex.exchangeKids(fSurvivalSelection.getSelectedSolutions(), fParents);
+			return getBestEvaluationValue();
+		}
+
+		/**
+		 * 集団の最良評価値を返す．
+		 * @return 最良評価値
+		 */
+		double getBestEvaluationValue() {
+			return fTracker.getBest(fPopulation).getEvaluationValue();
+		}
+	}
+
+	/**
+	 * CHECK_GENERATIONS世代後の最良評価値を返す．
+	 * @param generation 1世代
+	 * @return 最良評価値
+	 */
+	private static double check(TCGeneration<?> generation) {
+		for (int g = 0; g < CHECK_GENERATIONS; ++g) {
+			generation.run();
+		}
+		return generation.getBestEvaluationValue();
+	}
+
+	/**
+	 * メインメソッド．
+	 * @param args なし
+	 */
+	public static void main(String[] args) {
+		TCRealSolutionStore store = new TCRealSolutionStore(DIMENSION, 1 + POPULATION_SIZE + NO_OF_KIDS);
+		double objectBest = check(new TCGeneration<TSRealSolution>(new TSRealSolution(DIMENSION)));
+		double storeBest = check(new TCGeneration<TSStoredRealSolution>(store.create()));
+		store.sweep(); // 前回の個体をすべて返す．
+		System.out.println(String.format("generations=%d TSRealSolution best=%s TCRealSolutionStore best=%s",
+				CHECK_GENERATIONS, objectBest, storeBest));
+		TCMicroBenchmark bench = new TCMicroBenchmark(MIN_TIME);
+		bench.measure("TSRealSolution", new TCGeneration<TSRealSolution>(new TSRealSolution(DIMENSION)));
+		bench.measure("TCRealSolutionStore", new TCGeneration<TSStoredRealSolution>(store.create()));
+		System.out.println("sink=" + bench.getSink());
+	}
+
+}
@@ -202,6 +202,15 @@ public class TCMatrix implements Serializable, Cloneable {
 		return fElements.length;
 	}
 
+	/**
+	 * vfsDŕׂzRs[ɕԂ܂
+	 * ړI֐Ȃǂŗvf𒼐ڑ邽߂̂̂ŁAzύXƍsς܂
+	 * @return vf̔z
+	 */
+	public double[] getElements() {
+		return fElements;
+	}
+
 	/**
 	 * rscڂ̗vfԂ܂
 	 * @param r
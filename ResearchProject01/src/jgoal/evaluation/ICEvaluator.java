@@ -0,0 +1,33 @@
+package jgoal.evaluation;
+
+import java.io.Serializable;
+
+import jgoal.solution.ICSolution;
+import jgoal.solution.TCSolutionSet;
+
+/**
+ * 個体集合の評価器．
+ * 集合中のすべての個体の評価値と状態を設定する．
+ *
+ * @since 2
+ *
+ * @param <X> 個体の型
+ */
+public interface ICEvaluator<X extends ICSolution> extends Serializable {
+
+	/**
+	 * 個体集合中のすべての個体を評価する．
+	 * このメソッドから戻った時点で，すべての個体の評価が完了している．
+	 *
+	 * @param solutions 個体集合
+	 */
+	void evaluate(TCSolutionSet<X> solutions);
+
+	/**
+	 * これまでに評価した個体数を返す．
+	 *
+	 * @return 評価回数
+	 */
+	long getNoOfEvaluations();
+
+}
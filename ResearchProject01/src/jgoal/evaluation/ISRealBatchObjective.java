@@ -0,0 +1,23 @@
+package jgoal.evaluation;
+
+import jssf.math.TCMatrix;
+
+/**
+ * 複数の実数ベクトルをまとめて評価できる単目的の目的関数．
+ * 評価器は，目的関数がこのインターフェースを実装していれば，個体集合のベクトルを一つの行列に並べて一度に評価する．
+ * evaluate(TCVector)とevaluate(TCMatrix, double[])は同じベクトルに対して同じ値を返さなければならない．
+ *
+ * @since 2
+ */
+public interface ISRealBatchObjective extends ISRealObjective {
+
+	/**
+	 * 行列xの各行を実数ベクトルとして目的関数の値を計算し，第i行の値をvalues[i]に格納する．
+	 * このメソッドはxを変更してはならない．
+	 *
+	 * @param x      実数ベクトルを行に並べた行列
+	 * @param values 目的関数の値を格納する配列．xの行数以上の長さでなければならない．実行不可能な場合はDouble.NaN．
+	 */
+	void evaluate(TCMatrix x, double[] values);
+
+}
@@ -0,0 +1,34 @@
+package jgoal.evaluation;
+
+import java.io.Serializable;
+
+import jssf.math.TCVector;
+
+/**
+ * 実数ベクトルを引数とする単目的の目的関数．
+ * 評価器は個体ごとにこの関数の値を評価値として設定する．
+ * 値がDouble.NaNの場合は実行不可能解として扱われる．
+ *
+ * @since 2
+ */
+public interface ISRealObjective extends Cloneable, Serializable {
+
+	/**
+	 * 目的関数の値を返す．
+	 * このメソッドは引数のベクトルを変更してはならない．
+	 *
+	 * @param x 実数ベクトル
+	 * @return 目的関数の値．実行不可能な場合はDouble.NaN．
+	 */
+	double evaluate(TCVector x);
+
+	/**
+	 * 別スレッドで用いる目的関数を返す．
+	 * 作業領域などの内部状態を持つ場合は，それらを共有しない複製を返すこと．
+	 * 内部状態を持たない場合はthisを返してよい．
+	 *
+	 * @return 目的関数の複製
+	 */
+	ISRealObjective clone();
+
+}
@@ -0,0 +1,55 @@
+package jgoal.evaluation;
+
+import java.io.Serializable;
+
+import jgoal.solution.ISRealSolution;
+import jgoal.solution.TCSolutionSet;
+import jssf.math.TCMatrix;
+
+/**
+ * ISRealBatchObjectiveで個体集合の一部をまとめて評価するための作業領域．
+ * 個体のベクトルを一つの行列に詰めて目的関数を一度だけ呼び出し，評価値と状態を個体に書き戻す．
+ * 作業領域は必要な大きさになるまで使い回す．
+ *
+ * @since 2
+ */
+class TCBatchWorkspace implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/** 個体のベクトルを行に並べた行列の要素 */
+	private double[] fVectors = new double[0];
+
+	/** 評価値 */
+	private double[] fValues = new double[0];
+
+	/**
+	 * 個体集合のfrom番目からto-1番目までの個体をまとめて評価する．
+	 *
+	 * @param objective 目的関数
+	 * @param solutions 個体集合
+	 * @param from      最初の個体の位置
+	 * @param to        最後の個体の次の位置
+	 */
+	<X extends ISRealSolution> void evaluate(ISRealBatchObjective objective, TCSolutionSet<X> solutions, int from, int to) {
+		int m = to - from;
+		if (m <= 0) {
+			return;
+		}
+		int n = solutions.get(from).getVector().getDimension();
+		if (fVectors.length < m * n) {
+			fVectors = new double[m * n];
+		}
+		if (fValues.length < m) {
+			fValues = new double[m];
+		}
+		for (int i = 0; i < m; i++) {
+			solutions.get(from + i).getVector().copyTo(fVectors, i * n);
+		}
+		objective.evaluate(new TCMatrix(fVectors, 0, n, m, n), fValues);
+		for (int i = 0; i < m; i++) {
+			TSSequentialEvaluator.setEvaluationValue(solutions.get(from + i), fValues[i]);
+		}
+	}
+
+}
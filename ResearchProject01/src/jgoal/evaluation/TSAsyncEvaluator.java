@@ -0,0 +1,292 @@
+package jgoal.evaluation;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import jgoal.solution.ISRealSolution;
+import jgoal.solution.TCSolutionSet;
+
+/**
+ * 個体集合（バッチ）の評価を非同期に行う評価器．
+ * submitで投入されたバッチは個体ごとのタスクに分解され，ワーカスレッドが一つずつ取り出して評価する．
+ * バッチ中のすべての個体の評価が完了すると，そのバッチの識別番号がtakeで取り出せるようになる．
+ * 複数のバッチを同時に投入しておけば，評価時間の長い個体があっても他のバッチの評価が進むため，
+ * ワーカスレッドは待たされない．
+ * ワーカスレッドごとに目的関数の複製（{@link ISRealObjective#clone()}）を持つ．
+ * <p>
+ * 計測のため，評価回数，スループット（評価回数/秒），および，
+ * ワーカスレッドが評価を行っていない時間の割合（アイドル率）を返す．
+ * アイドル率の定義は{@link TSPooledEvaluator}と同じであり，同期的な世代交代と比較できる．
+ * <p>
+ * 評価中に例外（Errorを含む）が発生しても，その個体は評価済みとして数えられ，バッチは完了する．
+ * 例外は次のtakeで一度だけ投げ直され，その後も評価器を使い続けることができる．
+ *
+ * @since 2
+ *
+ * @param <X> 個体の型
+ */
+public class TSAsyncEvaluator<X extends ISRealSolution> implements ICEvaluator<X> {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * 投入されたバッチ
+	 */
+	private final class Batch {
+
+		/** 識別番号 */
+		final int fId;
+
+		/** 個体集合 */
+		final TCSolutionSet<X> fSolutions;
+
+		/** 評価が完了していない個体数 */
+		final AtomicInteger fRemaining;
+
+		Batch(int id, TCSolutionSet<X> solutions) {
+			fId = id;
+			fSolutions = solutions;
+			fRemaining = new AtomicInteger(solutions.size());
+		}
+	}
+
+	/**
+	 * 1個体の評価タスク
+	 */
+	private final class Task {
+
+		/** 個体が属するバッチ */
+		final Batch fBatch;
+
+		/** バッチ中の個体の添字 */
+		final int fIndex;
+
+		Task(Batch batch, int index) {
+			fBatch = batch;
+			fIndex = index;
+		}
+	}
+
+	/**
+	 * ワーカスレッド
+	 */
+	private final class Worker extends Thread {
+
+		/** 目的関数 */
+		private final ISRealObjective fObjective;
+
+		Worker(ISRealObjective objective, int no) {
+			super("TSAsyncEvaluator-" + no);
+			fObjective = objective;
+			setDaemon(true);
+		}
+
+		@Override
+		public void run() {
+			try {
+				while (true) {
+					Task task = fTasks.take();
+					if (task.fBatch == null) {
+						return; // 終了要求
+					}
+					long start = System.nanoTime();
+					try {
+						TSSequentialEvaluator.evaluate(fObjective, task.fBatch.fSolutions.get(task.fIndex));
+					} catch (Throwable e) {
+						fFailure = e;
+					} finally {
+						fBusyTime.addAndGet(System.nanoTime() - start);
+						fNoOfEvaluations.incrementAndGet();
+						if (task.fBatch.fRemaining.decrementAndGet() == 0) {
+							fCompleted.add(task.fBatch.fId); // 例外が発生してもバッチを完了させ，takeを待たせない．
+						}
+					}
+				}
+			} catch (InterruptedException e) {
+				// 終了する．
+			}
+		}
+	}
+
+	/** 終了要求を表すタスク */
+	private final Task fPoison = new Task(null, -1);
+
+	/** ワーカスレッド */
+	private transient Thread[] fWorkers;
+
+	/** 未処理のタスク */
+	private transient LinkedBlockingQueue<Task> fTasks;
+
+	/** 評価が完了したバッチの識別番号 */
+	private transient LinkedBlockingQueue<Integer> fCompleted;
+
+	/** 投入されてまだ取り出されていないバッチ数 */
+	private int fNoOfPendingBatches;
+
+	/** 評価回数 */
+	private final AtomicLong fNoOfEvaluations;
+
+	/** ワーカスレッドが評価に費やした時間の合計[ns] */
+	private final AtomicLong fBusyTime;
+
+	/** 統計の計測開始時刻[ns] */
+	private long fStartTime;
+
+	/** 統計の計測開始時の評価回数 */
+	private long fNoOfEvaluationsAtStart;
+
+	/** 評価中に発生し，まだtakeで投げ直していない例外 */
+	private volatile Throwable fFailure;
+
+	/**
+	 * コンストラクタ．
+	 * noOfThreads個のデーモンスレッドを起動する．
+	 *
+	 * @param objective   目的関数
+	 * @param noOfThreads ワーカスレッド数
+	 */
+	public TSAsyncEvaluator(ISRealObjective objective, int noOfThreads) {
+		if (noOfThreads < 1) {
+			throw new IllegalArgumentException("The number of threads must be positive.");
+		}
+		fTasks = new LinkedBlockingQueue<Task>();
+		fCompleted = new LinkedBlockingQueue<Integer>();
+		fNoOfPendingBatches = 0;
+		fNoOfEvaluations = new AtomicLong();
+		fBusyTime = new AtomicLong();
+		fFailure = null;
+		fWorkers = new Thread[noOfThreads];
+		for (int t = 0; t < noOfThreads; t++) {
+			fWorkers[t] = new Worker(t == 0 ? objective : objective.clone(), t + 1);
+		}
+		resetStatistics();
+		for (Thread w : fWorkers) {
+			w.start();
+		}
+	}
+
+	/**
+	 * バッチを投入する．すぐに戻る．
+	 * 評価が完了するまで，呼び出し側はバッチ中の個体を変更してはならない．
+	 *
+	 * @param id        バッチの識別番号
+	 * @param solutions 評価する個体集合
+	 */
+	public void submit(int id, TCSolutionSet<X> solutions) {
+		Batch batch = new Batch(id, solutions);
+		fNoOfPendingBatches++;
+		if (solutions.size() == 0) {
+			fCompleted.add(id);
+			return;
+		}
+		for (int i = 0; i < solutions.size(); i++) {
+			fTasks.add(new Task(batch, i));
+		}
+	}
+
+	/**
+	 * 評価が完了したバッチを一つ取り出す．完了したバッチがなければ待つ．
+	 * バッチは評価が完了した順に取り出される．
+	 * 前回のtakeの後に評価中の例外が発生していれば，それをRuntimeExceptionで包んで投げる．
+	 * このときもバッチは取り出されたものとして数えられる．
+	 *
+	 * @return 評価が完了したバッチの識別番号
+	 */
+	public int take() {
+		if (fNoOfPendingBatches == 0) {
+			throw new IllegalStateException("No batch has been submitted.");
+		}
+		int id;
+		try {
+			id = fCompleted.take();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		}
+		fNoOfPendingBatches--;
+		Throwable failure = fFailure;
+		if (failure != null) {
+			fFailure = null; // 一度だけ報告する．
+			throw new RuntimeException(failure);
+		}
+		return id;
+	}
+
+	/**
+	 * 投入されてまだ取り出されていないバッチ数を返す．
+	 *
+	 * @return バッチ数
+	 */
+	public int getNoOfPendingBatches() {
+		return fNoOfPendingBatches;
+	}
+
+	/**
+	 * 個体集合を評価し，評価が完了するまで待つ．
+	 * 未完了のバッチがあるときには呼び出せない．
+	 */
+	@Override
+	public void evaluate(TCSolutionSet<X> solutions) {
+		if (fNoOfPendingBatches != 0) {
+			throw new IllegalStateException("There are pending batches.");
+		}
+		submit(-1, solutions);
+		take();
+	}
+
+	@Override
+	public long getNoOfEvaluations() {
+		return fNoOfEvaluations.get();
+	}
+
+	/**
+	 * 評価回数，スループット，アイドル率の計測を現在時刻から始め直す．
+	 * 評価回数はリセットしない．
+	 */
+	public void resetStatistics() {
+		fBusyTime.set(0L);
+		fStartTime = System.nanoTime();
+		fNoOfEvaluationsAtStart = fNoOfEvaluations.get();
+	}
+
+	/**
+	 * 計測開始からのスループットを返す．
+	 *
+	 * @return スループット[評価回数/秒]
+	 */
+	public double getThroughput() {
+		return (fNoOfEvaluations.get() - fNoOfEvaluationsAtStart) * 1e9 / (System.nanoTime() - fStartTime);
+	}
+
+	/**
+	 * 計測開始からのアイドル率，すなわち，ワーカスレッドが評価を行っていなかった時間の割合を返す．
+	 *
+	 * @return アイドル率 [0, 1]
+	 */
+	public double getIdleRatio() {
+		double capacity = (double) (System.nanoTime() - fStartTime) * fWorkers.length;
+		return Math.max(0.0, 1.0 - fBusyTime.get() / capacity);
+	}
+
+	/**
+	 * 計測開始からのワーカスレッドのアイドル時間の合計を返す．
+	 *
+	 * @return アイドル時間[s]
+	 */
+	public double getIdleTime() {
+		double capacity = (double) (System.nanoTime() - fStartTime) * fWorkers.length;
+		return Math.max(0.0, capacity - fBusyTime.get()) * 1e-9;
+	}
+
+	/**
+	 * ワーカスレッドを終了する．未処理のタスクは評価されない．
+	 */
+	public void shutdown() {
+		fTasks.clear();
+		for (int t = 0; t < fWorkers.length; t++) {
+			fTasks.add(fPoison);
+		}
+	}
+
+}
@@ -0,0 +1,215 @@
+package jgoal.evaluation;
+
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import jgoal.solution.ISRealSolution;
+import jgoal.solution.TCSolutionSet;
+
+/**
+ * 複数のスレッドで個体を評価する評価器．
+ * スレッドごとに目的関数の複製（{@link ISRealObjective#clone()}）を持ち，
+ * 各スレッドは未評価の個体を一つずつ取り出して評価する．
+ * 評価時間が個体ごとに異なっても負荷は自動的に分散される．
+ * 目的関数がISRealBatchObjectiveならば，各タスクは未評価の個体を連続したブロック単位で取り出し，ブロックをまとめて評価する．
+ * ブロックの大きさはBATCH_BLOCK_SIZE以下で，すべてのタスクにブロックが行き渡るように定める．
+ * 目的関数が個体のベクトルのみから値を決めるならば，結果はスレッド数や実行順序に依存しない．
+ * 計測のため，スループット（評価回数/秒）と，タスクが評価を行っていない時間の割合（アイドル率）を返す．
+ * evaluateの外にいる時間，および，最も遅い個体の評価を待つ時間はアイドルとして数えられる．
+ *
+ * @since 2
+ *
+ * @param <X> 個体の型
+ */
+public class TSPooledEvaluator<X extends ISRealSolution> implements ICEvaluator<X> {
+
+	private static final long serialVersionUID = 1L;
+
+	/** まとめて評価するときの1ブロックの最大個体数 */
+	public static final int BATCH_BLOCK_SIZE = 16;
+
+	/** スレッドごとの目的関数 */
+	private ISRealObjective[] fObjectives;
+
+	/** タスクごとのまとめて評価するための作業領域．目的関数がISRealBatchObjectiveでなければnull */
+	private TCBatchWorkspace[] fWorkspaces;
+
+	/** 評価を実行するExecutorService */
+	private transient ExecutorService fExecutor;
+
+	/** ExecutorServiceをこの評価器が生成したならばtrue */
+	private boolean fOwnsExecutor;
+
+	/** 評価回数 */
+	private long fNoOfEvaluations;
+
+	/** タスクが評価に費やした時間の合計[ns] */
+	private final AtomicLong fBusyTime;
+
+	/** 統計の計測開始時刻[ns] */
+	private long fStartTime;
+
+	/** 統計の計測開始時の評価回数 */
+	private long fNoOfEvaluationsAtStart;
+
+	/**
+	 * コンストラクタ．
+	 * noOfThreads個のデーモンスレッドからなるスレッドプールを生成する．
+	 *
+	 * @param objective   目的関数
+	 * @param noOfThreads スレッド数
+	 */
+	public TSPooledEvaluator(ISRealObjective objective, int noOfThreads) {
+		this(objective, Executors.newFixedThreadPool(noOfThreads, new ThreadFactory() {
+			private final AtomicInteger fCount = new AtomicInteger();
+
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread t = new Thread(r, "TSPooledEvaluator-" + fCount.incrementAndGet());
+				t.setDaemon(true);
+				return t;
+			}
+		}), noOfThreads);
+		fOwnsExecutor = true;
+	}
+
+	/**
+	 * コンストラクタ．
+	 * 与えられたExecutorServiceでnoOfTasks個のタスクを並行に実行して評価する．
+	 *
+	 * @param objective 目的関数
+	 * @param executor  ExecutorService
+	 * @param noOfTasks タスク数．通常はexecutorのスレッド数とする．
+	 */
+	public TSPooledEvaluator(ISRealObjective objective, ExecutorService executor, int noOfTasks) {
+		if (noOfTasks < 1) {
+			throw new IllegalArgumentException("The number of tasks must be positive.");
+		}
+		fObjectives = new ISRealObjective[noOfTasks];
+		fObjectives[0] = objective;
+		for (int t = 1; t < noOfTasks; t++) {
+			fObjectives[t] = objective.clone();
+		}
+		if (objective instanceof ISRealBatchObjective) {
+			fWorkspaces = new TCBatchWorkspace[noOfTasks];
+			for (int t = 0; t < noOfTasks; t++) {
+				fWorkspaces[t] = new TCBatchWorkspace();
+			}
+		}
+		fExecutor = executor;
+		fOwnsExecutor = false;
+		fNoOfEvaluations = 0;
+		fBusyTime = new AtomicLong();
+		resetStatistics();
+	}
+
+	@Override
+	public void evaluate(final TCSolutionSet<X> solutions) {
+		final AtomicInteger next = new AtomicInteger();
+		int noOfTasks = Math.min(fObjectives.length, solutions.size());
+		final int blockSize = noOfTasks == 0 ? 1 : Math.min(BATCH_BLOCK_SIZE, (solutions.size() + noOfTasks - 1) / noOfTasks);
+		ArrayList<Callable<Object>> tasks = new ArrayList<Callable<Object>>(noOfTasks);
+		for (int t = 0; t < noOfTasks; t++) {
+			final ISRealObjective objective = fObjectives[t];
+			if (fWorkspaces != null) {
+				final TCBatchWorkspace workspace = fWorkspaces[t];
+				tasks.add(new Callable<Object>() {
+					@Override
+					public Object call() {
+						long start = System.nanoTime();
+						for (int from = next.getAndAdd(blockSize); from < solutions.size(); from = next.getAndAdd(blockSize)) {
+							workspace.evaluate((ISRealBatchObjective) objective, solutions, from, Math.min(from + blockSize, solutions.size()));
+						}
+						fBusyTime.addAndGet(System.nanoTime() - start);
+						return null;
+					}
+				});
+				continue;
+			}
+			tasks.add(new Callable<Object>() {
+				@Override
+				public Object call() {
+					long start = System.nanoTime();
+					for (int i = next.getAndIncrement(); i < solutions.size(); i = next.getAndIncrement()) {
+						TSSequentialEvaluator.evaluate(objective, solutions.get(i));
+					}
+					fBusyTime.addAndGet(System.nanoTime() - start);
+					return null;
+				}
+			});
+		}
+		try {
+			for (Future<Object> f : fExecutor.invokeAll(tasks)) {
+				f.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		} catch (ExecutionException e) {
+			throw new RuntimeException(e.getCause());
+		}
+		fNoOfEvaluations += solutions.size();
+	}
+
+	@Override
+	public long getNoOfEvaluations() {
+		return fNoOfEvaluations;
+	}
+
+	/**
+	 * スループットとアイドル率の計測を現在時刻から始め直す．
+	 * 評価回数はリセットしない．
+	 */
+	public void resetStatistics() {
+		fBusyTime.set(0L);
+		fStartTime = System.nanoTime();
+		fNoOfEvaluationsAtStart = fNoOfEvaluations;
+	}
+
+	/**
+	 * 計測開始からのスループットを返す．
+	 *
+	 * @return スループット[評価回数/秒]
+	 */
+	public double getThroughput() {
+		return (fNoOfEvaluations - fNoOfEvaluationsAtStart) * 1e9 / (System.nanoTime() - fStartTime);
+	}
+
+	/**
+	 * 計測開始からのアイドル率，すなわち，タスクが評価を行っていなかった時間の割合を返す．
+	 *
+	 * @return アイドル率 [0, 1]
+	 */
+	public double getIdleRatio() {
+		double capacity = (double) (System.nanoTime() - fStartTime) * fObjectives.length;
+		return Math.max(0.0, 1.0 - fBusyTime.get() / capacity);
+	}
+
+	/**
+	 * 計測開始からのタスクのアイドル時間の合計を返す．
+	 *
+	 * @return アイドル時間[s]
+	 */
+	public double getIdleTime() {
+		double capacity = (double) (System.nanoTime() - fStartTime) * fObjectives.length;
+		return Math.max(0.0, capacity - fBusyTime.get()) * 1e-9;
+	}
+
+	/**
+	 * この評価器が生成したスレッドプールを終了する．
+	 * 外部から与えられたExecutorServiceは終了しない．
+	 */
+	public void shutdown() {
+		if (fOwnsExecutor) {
+			fExecutor.shutdown();
+		}
+	}
+
+}
@@ -0,0 +1,77 @@
+package jgoal.evaluation;
+
+import jgoal.solution.ICSolution.Status;
+import jgoal.solution.ISRealSolution;
+import jgoal.solution.TCSolutionSet;
+
+/**
+ * 呼び出したスレッドで個体を順に評価する評価器．
+ * 目的関数がISRealBatchObjectiveならば，個体集合を一つの行列に詰めて一度に評価する．
+ *
+ * @since 2
+ *
+ * @param <X> 個体の型
+ */
+public class TSSequentialEvaluator<X extends ISRealSolution> implements ICEvaluator<X> {
+
+	private static final long serialVersionUID = 1L;
+
+	/** 目的関数 */
+	private ISRealObjective fObjective;
+
+	/** 評価回数 */
+	private long fNoOfEvaluations;
+
+	/** まとめて評価するための作業領域．目的関数がISRealBatchObjectiveでなければnull */
+	private TCBatchWorkspace fWorkspace;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param objective 目的関数
+	 */
+	public TSSequentialEvaluator(ISRealObjective objective) {
+		fObjective = objective;
+		fNoOfEvaluations = 0;
+		fWorkspace = objective instanceof ISRealBatchObjective ? new TCBatchWorkspace() : null;
+	}
+
+	@Override
+	public void evaluate(TCSolutionSet<X> solutions) {
+		if (fWorkspace != null) {
+			fWorkspace.evaluate((ISRealBatchObjective) fObjective, solutions, 0, solutions.size());
+		} else {
+			for (X s : solutions) {
+				evaluate(fObjective, s);
+			}
+		}
+		fNoOfEvaluations += solutions.size();
+	}
+
+	@Override
+	public long getNoOfEvaluations() {
+		return fNoOfEvaluations;
+	}
+
+	/**
+	 * 個体を評価し，評価値と状態を設定する．
+	 *
+	 * @param objective 目的関数
+	 * @param s         個体
+	 */
+	static <X extends ISRealSolution> void evaluate(ISRealObjective objective, X s) {
+		setEvaluationValue(s, objective.evaluate(s.getVector()));
+	}
+
+	/**
+	 * 個体に評価値と状態を設定する．評価値がDouble.NaNならば実行不可能とする．
+	 *
+	 * @param s     個体
+	 * @param value 評価値
+	 */
+	static <X extends ISRealSolution> void setEvaluationValue(X s, double value) {
+		s.setEvaluationValue(value);
+		s.setStatus(Double.isNaN(value) ? Status.INFEASIBLE : Status.FEASIBLE);
+	}
+
+}
@@ -0,0 +1,52 @@
+package jgoal.evaluation.functions;
+
+import jgoal.evaluation.ISRealBatchObjective;
+import jgoal.evaluation.ISRealObjective;
+import jssf.math.TCMatrix;
+import jssf.math.TCVector;
+
+/**
+ * 配列上の1ベクトルを評価するカーネルから，単一ベクトルと行列の両方の評価を提供する目的関数の基底クラス．
+ * カーネルはTCVectorやTCMatrixのgetValueを介さずに，背後の配列を直接走査する．
+ * カーネルは公開しているため，TCVectorを使わないプログラムからもdouble配列に対して直接呼び出せる．
+ * 内部状態を持たないため，複製は自身である．
+ *
+ * @since 2
+ */
+public abstract class TCAbstractRealBatchObjective implements ISRealBatchObjective {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * 配列x[offset, offset + n)を実数ベクトルとして目的関数の値を返す．
+	 *
+	 * @param x      配列
+	 * @param offset ベクトルの第0要素の位置
+	 * @param n      次元数
+	 * @return 目的関数の値
+	 */
+	public abstract double evaluate(double[] x, int offset, int n);
+
+	@Override
+	public double evaluate(TCVector x) {
+		return evaluate(x.getElements(), x.getOffset(), x.getDimension());
+	}
+
+	@Override
+	public void evaluate(TCMatrix x, double[] values) {
+		double[] elements = x.getElements();
+		int offset = x.getOffset();
+		int stride = x.getStride();
+		int n = x.getColumnDimension();
+		int m = x.getRowDimension();
+		for (int i = 0; i < m; i++) {
+			values[i] = evaluate(elements, offset + i * stride, n);
+		}
+	}
+
+	@Override
+	public ISRealObjective clone() {
+		return this;
+	}
+
+}
@@ -0,0 +1,26 @@
+package jgoal.evaluation.functions;
+
+/**
+ * Ackley関数．
+ * f(x) = 20 - 20 exp(-0.2 √(Σ x_i^2 / n)) + e - exp(Σ cos(2π x_i) / n)．最適解は原点で，最適値は0．
+ * 二つの和を一つのループで同時に計算する．
+ *
+ * @since 2
+ */
+public class TSAckley extends TCAbstractRealBatchObjective {
+
+	private static final long serialVersionUID = 1L;
+
+	@Override
+	public double evaluate(double[] x, int offset, int n) {
+		int end = offset + n;
+		double sumOfSquares = 0.0;
+		double sumOfCosines = 0.0;
+		for (int i = offset; i < end; i++) {
+			sumOfSquares += x[i] * x[i];
+			sumOfCosines += Math.cos(2.0 * Math.PI * x[i]);
+		}
+		return 20.0 - 20.0 * Math.exp(-0.2 * Math.sqrt(sumOfSquares / n)) + Math.E - Math.exp(sumOfCosines / n);
+	}
+
+}
@@ -0,0 +1,27 @@
+package jgoal.evaluation.functions;
+
+/**
+ * Double-Sphere (UV)関数．
+ * f(x) = min(Σ 2 (x_i + 2)^2, Σ (x_i - 2)^2 + 0.1)．
+ * 大域的最適解は(-2, ..., -2)で最適値は0，局所最適解は(2, ..., 2)で値は0.1．
+ * 二つの球の和を一つのループで同時に計算する．
+ *
+ * @since 2
+ */
+public class TSDoubleSphereUV extends TCAbstractRealBatchObjective {
+
+	private static final long serialVersionUID = 1L;
+
+	@Override
+	public double evaluate(double[] x, int offset, int n) {
+		int end = offset + n;
+		double eval1 = 0.0;
+		double eval2 = 0.0;
+		for (int i = offset; i < end; i++) {
+			eval1 += 2.0 * (x[i] + 2.0) * (x[i] + 2.0);
+			eval2 += (x[i] - 2.0) * (x[i] - 2.0);
+		}
+		return Math.min(eval1, eval2 + 0.1);
+	}
+
+}
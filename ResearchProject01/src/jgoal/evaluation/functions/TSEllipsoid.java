@@ -0,0 +1,47 @@
+package jgoal.evaluation.functions;
+
+/**
+ * Ellipsoid関数．
+ * f(x) = Σ_{i=0}^{n-1} (1000^{i/(n-1)} x_i)^2．最適解は原点で，最適値は0．
+ * 重み1000^{i/(n-1)}は次元数ごとに一度だけ計算して保持する．
+ * 重みの配列は計算を終えてから差し替えるため，複数のスレッドから同時に呼び出してもよい．
+ *
+ * @since 2
+ */
+public class TSEllipsoid extends TCAbstractRealBatchObjective {
+
+	private static final long serialVersionUID = 1L;
+
+	/** 最後に評価した次元数に対する重み */
+	private transient volatile double[] fWeights;
+
+	/**
+	 * 次元数nに対する重みを返す．
+	 *
+	 * @param n 次元数
+	 * @return 重み
+	 */
+	private double[] getWeights(int n) {
+		double[] weights = fWeights;
+		if (weights == null || weights.length != n) {
+			weights = new double[n];
+			for (int i = 0; i < n; i++) {
+				weights[i] = n == 1 ? 1.0 : Math.pow(1000.0, (double) i / (n - 1));
+			}
+			fWeights = weights;
+		}
+		return weights;
+	}
+
+	@Override
+	public double evaluate(double[] x, int offset, int n) {
+		double[] w = getWeights(n);
+		double result = 0.0;
+		for (int i = 0; i < n; i++) {
+			double wx = w[i] * x[offset + i];
+			result += wx * wx;
+		}
+		return result;
+	}
+
+}
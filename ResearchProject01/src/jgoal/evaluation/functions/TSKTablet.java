@@ -0,0 +1,30 @@
+package jgoal.evaluation.functions;
+
+/**
+ * k-tablet関数 (k=n/4)．
+ * f(x) = Σ_{i&lt;k} x_i^2 + Σ_{i&ge;k} 10000 x_i^2．最適解は原点で，最適値は0．
+ * 重みで分けた二つのループで計算し，分岐を含まないループとしてJITコンパイラのベクトル化の対象にする．
+ * 加算の順序は要素の順序のままであり，要素ごとに重みを掛ける素朴な実装と同じ値を返す．
+ * 実験で「Offset k-tablet」と呼んでいるものは，関数はこのままで，初期化領域を[+1,+5]^nのように最適解から外した設定である．
+ *
+ * @since 2
+ */
+public class TSKTablet extends TCAbstractRealBatchObjective {
+
+	private static final long serialVersionUID = 1L;
+
+	@Override
+	public double evaluate(double[] x, int offset, int n) {
+		int k = offset + n / 4;
+		int end = offset + n;
+		double result = 0.0;
+		for (int i = offset; i < k; i++) {
+			result += x[i] * x[i];
+		}
+		for (int i = k; i < end; i++) {
+			result += 10000.0 * x[i] * x[i];
+		}
+		return result;
+	}
+
+}
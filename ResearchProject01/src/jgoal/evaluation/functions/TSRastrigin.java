@@ -0,0 +1,23 @@
+package jgoal.evaluation.functions;
+
+/**
+ * Rastrigin関数．
+ * f(x) = 10n + Σ (x_i^2 - 10 cos(2π x_i))．最適解は原点で，最適値は0．
+ *
+ * @since 2
+ */
+public class TSRastrigin extends TCAbstractRealBatchObjective {
+
+	private static final long serialVersionUID = 1L;
+
+	@Override
+	public double evaluate(double[] x, int offset, int n) {
+		int end = offset + n;
+		double result = 10.0 * n;
+		for (int i = offset; i < end; i++) {
+			result += x[i] * x[i] - 10.0 * Math.cos(2.0 * Math.PI * x[i]);
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,25 @@
+package jgoal.evaluation.functions;
+
+/**
+ * Rosenbrock関数（連鎖型）．
+ * f(x) = Σ_{i=0}^{n-2} (100 (x_{i+1} - x_i^2)^2 + (1 - x_i)^2)．最適解は(1, ..., 1)で，最適値は0．
+ *
+ * @since 2
+ */
+public class TSRosenbrock extends TCAbstractRealBatchObjective {
+
+	private static final long serialVersionUID = 1L;
+
+	@Override
+	public double evaluate(double[] x, int offset, int n) {
+		int end = offset + n - 1;
+		double result = 0.0;
+		for (int i = offset; i < end; i++) {
+			double a = x[i + 1] - x[i] * x[i];
+			double b = 1.0 - x[i];
+			result += 100.0 * a * a + b * b;
+		}
+		return result;
+	}
+
+}
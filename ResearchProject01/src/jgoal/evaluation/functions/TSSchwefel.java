@@ -0,0 +1,28 @@
+package jgoal.evaluation.functions;
+
+/**
+ * Schwefel関数．
+ * f(x) = 418.9828872724338 n - Σ x_i sin(√|x_i|)．定義域は[-500, 500]^nとする．
+ * 最適解は(420.9687..., ..., 420.9687...)で，最適値はほぼ0である．
+ * 定義域の外ではより小さい値をとるため，定義域の外の個体は実行不可能とするなどの扱いが必要である．
+ *
+ * @since 2
+ */
+public class TSSchwefel extends TCAbstractRealBatchObjective {
+
+	private static final long serialVersionUID = 1L;
+
+	/** 1次元あたりの最適値の絶対値 */
+	private static final double OPTIMUM_PER_DIMENSION = 418.9828872724338;
+
+	@Override
+	public double evaluate(double[] x, int offset, int n) {
+		int end = offset + n;
+		double result = 0.0;
+		for (int i = offset; i < end; i++) {
+			result += x[i] * Math.sin(Math.sqrt(Math.abs(x[i])));
+		}
+		return OPTIMUM_PER_DIMENSION * n - result;
+	}
+
+}
@@ -0,0 +1,67 @@
+package jgoal.ga;
+
+import java.io.Serializable;
+
+import jgoal.evaluation.ICEvaluator;
+import jgoal.solution.TCSolutionSet;
+import jgoal.solution.TSRealSolution;
+
+/**
+ * 実数値GAの世代交代モデル．
+ * initializeで得た初期集団を評価した後，makeOffspringとnextGenerationを交互に呼び出して探索を進める．
+ *
+ * @since 2
+ */
+public interface ISRealGa extends Serializable {
+
+	/**
+	 * 子個体の評価器を設定する．
+	 * 評価器を設定すると，makeOffspringは評価済みの子個体集合を返す．
+	 *
+	 * @param evaluator 子個体の評価器．nullならば子個体の評価は呼び出し側で行う．
+	 */
+	void setEvaluator(ICEvaluator<TSRealSolution> evaluator);
+
+	/**
+	 * 初期化する．
+	 *
+	 * @return 初期集団
+	 */
+	TCSolutionSet<TSRealSolution> initialize();
+
+	/**
+	 * 集団を返す．
+	 * 呼び出し側は集団の個体を入れ替えてもよい．
+	 *
+	 * @return 集団
+	 */
+	TCSolutionSet<TSRealSolution> getPopulation();
+
+	/**
+	 * 子個体集合を生成して返す．
+	 *
+	 * @return 子個体集合
+	 */
+	TCSolutionSet<TSRealSolution> makeOffspring();
+
+	/**
+	 * 世代を進める．
+	 */
+	void nextGeneration();
+
+	/**
+	 * 集団中の最良個体を返す．
+	 * 集団の並びは変更しない．
+	 *
+	 * @return 集団中の最良個体
+	 */
+	TSRealSolution getBestIndividual();
+
+	/**
+	 * 集団中の最良個体の評価値を返す．
+	 *
+	 * @return 集団中の最良個体の評価値
+	 */
+	double getBestEvaluationValue();
+
+}
@@ -1,13 +1,12 @@
 package jgoal.ga;
 
-import java.io.Serializable;
-import java.util.Collections;
-
+import jgoal.evaluation.ICEvaluator;
 import jgoal.ga.reproduction.TCArex;
 import jgoal.ga.reproductionSelection.ICReproductionSelection;
 import jgoal.ga.reproductionSelection.TCRandomSelectionWithoutReplacement;
 import jgoal.ga.survivalSelection.ICSurvivalSelection;
 import jgoal.ga.survivalSelection.TCNBestSelectionFromKids;
+import jgoal.solution.TCBestSolutionTracker;
 import jgoal.solution.TCSolutionSet;
 import jgoal.solution.TSRealSolution;
 import jgoal.solution.comparator.ICComparator;
@@ -21,7 +20,7 @@ import jssf.random.ICRandom;
  * @author isao
  * @param <X>
  */
-public class TSArexJgg implements Serializable {
+public class TSArexJgg implements ISRealGa {
 
 	private static final long serialVersionUID = 1L;
 
@@ -55,12 +54,18 @@ public class TSArexJgg implements Serializable {
 	/** ���������� */
 	private ICRandom fRandom;
 
+	/** 子個体の評価器．nullならば子個体の評価は呼び出し側で行う． */
+	private ICEvaluator<TSRealSolution> fEvaluator;
+
 	/** �̔�r�� */
 	private ICComparator<TSRealSolution> fComparator;
 
 	/** �̃e���v���[�g */
 	private TSRealSolution fSolutionTemplate;
 
+	/** 最良個体の追跡器 */
+	private TCBestSolutionTracker<TSRealSolution> fBestTracker;
+
 	/**
 	 * �R���X�g���N�^�D
 	 * 
@@ -85,6 +90,16 @@ public class TSArexJgg implements Serializable {
 		fComparator = new TSEvaluationValueComparator<TSRealSolution>(minimization);
 	}
 
+	/**
+	 * 子個体の評価器を設定する．
+	 * 評価器を設定すると，makeOffspringは評価済みの子個体集合を返す．
+	 * 
+	 * @param evaluator 子個体の評価器．nullならば子個体の評価は呼び出し側で行う．
+	 */
+	public void setEvaluator(ICEvaluator<TSRealSolution> evaluator) {
+		fEvaluator = evaluator;
+	}
+
 	/**
 	 * ����������D
 	 * 
@@ -98,6 +113,7 @@ public class TSArexJgg implements Serializable {
 		fSurvivalSelection = new TCNBestSelectionFromKids<TSRealSolution>(fComparator);
 		fPopulation = new TCSolutionSet<TSRealSolution>(fSolutionTemplate);
 		fPopulation.resize(fPopulationSize);
+		fBestTracker = new TCBestSolutionTracker<TSRealSolution>(fComparator);
 		return fPopulation;
 	}
 
@@ -107,6 +123,7 @@ public class TSArexJgg implements Serializable {
 	 * @return �W�c
 	 */
 	public TCSolutionSet<TSRealSolution> getPopulation() {
+		fBestTracker.invalidate(); // 呼び出し側が集団を変更してもよいように，最良個体を求め直す．
 		return fPopulation;
 	}
 
@@ -119,7 +136,11 @@ public class TSArexJgg implements Serializable {
 		fParents.clear(); // �e�̏W�����N���A����D
 		fKids.clear(); // �q�̏W�����N���A����D
 		fReproductionSelection.doIt(fPopulation, fArex.getNoOfParents(), fParents); // �����I�����s���D
+		fBestTracker.removed(fParents); // 最良個体が親個体として取り除かれたかを調べる．
 		fArex.makeOffspring(fParents, fNoOfKids, fKids); // AREX�ɂ��q�̏W���𐶐�����D
+		if (fEvaluator != null) {
+			fEvaluator.evaluate(fKids); // 子個体集合を評価する．
+		}
 		return fKids;
 	}
 
@@ -128,7 +149,10 @@ public class TSArexJgg implements Serializable {
 	 */
 	public void nextGeneration() {
 		fArex.updateExpansionRate(); // AREX�̊g�����K�������s����D
+		int size = fPopulation.size();
 		fSurvivalSelection.doIt(fPopulation, fParents, fKids); // �����I�����s���D
+		fBestTracker.added(fPopulation, size); // 集団の末尾に戻された個体で最良個体を更新する．
+		fArex.exchangeKids(fSurvivalSelection.getSelectedSolutions(), fParents); // 集団に加えた子個体を，取り除かれた親個体と入れ替えて再利用する．
 	}
 
 	/**
@@ -137,8 +161,7 @@ public class TSArexJgg implements Serializable {
 	 * @return �W�c���̍ŗǌ�
 	 */
 	public TSRealSolution getBestIndividual() {
-		Collections.sort(fPopulation, fComparator);
-		return fPopulation.get(0);
+		return fBestTracker.getBest(fPopulation);
 	}
 
 	/**
@@ -0,0 +1,230 @@
+package jgoal.ga;
+
+import java.io.Serializable;
+
+import jgoal.evaluation.TSAsyncEvaluator;
+import jgoal.ga.reproduction.TCRex;
+import jgoal.ga.reproduction.TCRex.ProbabilityDistribution;
+import jgoal.ga.reproductionSelection.ICReproductionSelection;
+import jgoal.ga.reproductionSelection.TCRandomSelectionWithoutReplacement;
+import jgoal.ga.survivalSelection.ICSurvivalSelection;
+import jgoal.ga.survivalSelection.TCNBestSelectionFromKids;
+import jgoal.solution.TCBestSolutionTracker;
+import jgoal.solution.TCSolutionSet;
+import jgoal.solution.TSRealSolution;
+import jgoal.solution.comparator.ICComparator;
+import jgoal.solution.comparator.TSEvaluationValueComparator;
+import jssf.di.ACParam;
+import jssf.random.ICRandom;
+
+/**
+ * 非同期・定常状態型のREX(Normal distribution)/JGG．
+ * 同時にnoOfGroups個の家族（親個体群とその子個体集合）を評価中に保ち，
+ * ある家族の子個体の評価がすべて完了した時点で，その家族の生存選択と拡張率適応を行い，新しい家族を投入する．
+ * 評価中の家族の親個体は集団から取り除かれているため，家族どうしで親個体が重なることはない．
+ * 子個体の生成と生存選択は呼び出したスレッドで行い，評価のみをTSAsyncEvaluatorのワーカスレッドで行う．
+ * noOfGroups=1のとき，同じ乱数系列に対してTSRexNJggと同じ探索を行う．
+ */
+public class TSRexNAsyncJgg implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/** 次元数 */
+	private int fDimension;
+
+	/** 集団 */
+	private TCSolutionSet<TSRealSolution> fPopulation;
+
+	/** 集団サイズ */
+	private int fPopulationSize;
+
+	/** 同時に評価する家族数 */
+	private int fNoOfGroups;
+
+	/** 家族ごとの親個体集合 */
+	private TCSolutionSet<TSRealSolution>[] fParents;
+
+	/** 家族ごとの子個体集合 */
+	private TCSolutionSet<TSRealSolution>[] fKids;
+
+	/** 子個体生成器（交叉） */
+	private TCRex<TSRealSolution> fRex;
+
+	/** 家族が評価中ならばtrue */
+	private boolean[] fInFlight;
+
+	/** 生成子個体数 */
+	private int fNoOfKids;
+
+	/** 複製選択器 */
+	private ICReproductionSelection<TSRealSolution> fReproductionSelection;
+
+	/** 生存選択器 */
+	private ICSurvivalSelection<TSRealSolution> fSurvivalSelection;
+
+	/** 乱数発生器 */
+	private ICRandom fRandom;
+
+	/** 子個体の評価器 */
+	private transient TSAsyncEvaluator<TSRealSolution> fEvaluator;
+
+	/** 個体比較器 */
+	private ICComparator<TSRealSolution> fComparator;
+
+	/** 個体テンプレート */
+	private TSRealSolution fSolutionTemplate;
+
+	/** 最良個体の追跡器 */
+	private TCBestSolutionTracker<TSRealSolution> fBestTracker;
+
+	/**
+	 * コンストラクタ．
+	 *
+	 * @param minimization   最小化ならばtrue
+	 * @param dimension      次元数
+	 * @param populationSize 集団サイズ．親個体数×noOfGroups以上でなければならない．
+	 * @param noOfKids       生成子個体数
+	 * @param noOfGroups     同時に評価する家族数
+	 * @param random         乱数発生器
+	 */
+	public TSRexNAsyncJgg(
+			@ACParam(key = "Minimization") boolean minimization,
+			@ACParam(key = "Dimension") int dimension,
+			@ACParam(key = "PopulationSize") int populationSize,
+			@ACParam(key = "NoOfKids") int noOfKids,
+			@ACParam(key = "NoOfGroups") int noOfGroups,
+			@ACParam(key = "random") ICRandom random) {
+		if (noOfGroups < 1) {
+			throw new IllegalArgumentException("The number of groups must be positive.");
+		}
+		fDimension = dimension;
+		fPopulationSize = populationSize;
+		fNoOfGroups = noOfGroups;
+		fRandom = random;
+		fNoOfKids = noOfKids;
+		fSolutionTemplate = new TSRealSolution(fDimension);
+		fComparator = new TSEvaluationValueComparator<TSRealSolution>(minimization);
+	}
+
+	/**
+	 * 子個体の評価器を設定する．initializeより前に呼び出すこと．
+	 *
+	 * @param evaluator 子個体の評価器
+	 */
+	public void setEvaluator(TSAsyncEvaluator<TSRealSolution> evaluator) {
+		fEvaluator = evaluator;
+	}
+
+	/**
+	 * 初期化する．
+	 *
+	 * @return 初期集団
+	 */
+	@SuppressWarnings("unchecked")
+	public TCSolutionSet<TSRealSolution> initialize() {
+		if (fEvaluator == null) {
+			throw new IllegalStateException("The evaluator is not set.");
+		}
+		fReproductionSelection = new TCRandomSelectionWithoutReplacement<TSRealSolution>(fRandom);
+		fSurvivalSelection = new TCNBestSelectionFromKids<TSRealSolution>(fComparator);
+		fParents = (TCSolutionSet<TSRealSolution>[]) new TCSolutionSet<?>[fNoOfGroups];
+		fKids = (TCSolutionSet<TSRealSolution>[]) new TCSolutionSet<?>[fNoOfGroups];
+		fInFlight = new boolean[fNoOfGroups];
+		for (int g = 0; g < fNoOfGroups; g++) {
+			fParents[g] = new TCSolutionSet<TSRealSolution>(fSolutionTemplate);
+			fKids[g] = new TCSolutionSet<TSRealSolution>(fSolutionTemplate);
+		}
+		fRex = new TCRex<TSRealSolution>(fDimension, ProbabilityDistribution.NORMAL, fRandom);
+		if (fPopulationSize < fRex.getNoOfParents() * fNoOfGroups) {
+			throw new IllegalArgumentException("The population is too small for the number of groups.");
+		}
+		fPopulation = new TCSolutionSet<TSRealSolution>(fSolutionTemplate);
+		fPopulation.resize(fPopulationSize);
+		fBestTracker = new TCBestSolutionTracker<TSRealSolution>(fComparator);
+		return fPopulation;
+	}
+
+	/**
+	 * 集団を返す．
+	 * 評価中の家族の親個体は含まれない．
+	 *
+	 * @return 集団
+	 */
+	public TCSolutionSet<TSRealSolution> getPopulation() {
+		fBestTracker.invalidate(); // 呼び出し側が集団を変更してもよいように，最良個体を求め直す．
+		return fPopulation;
+	}
+
+	/**
+	 * 家族gの親個体を選択し，子個体集合を生成して評価器に投入する．
+	 *
+	 * @param g 家族の番号
+	 */
+	private void launch(int g) {
+		fParents[g].clear(); // 親個体集合をクリアする．
+		fKids[g].clear(); // 子個体集合をクリアする．
+		fReproductionSelection.doIt(fPopulation, fRex.getNoOfParents(), fParents[g]); // 複製選択を行う．
+		fBestTracker.removed(fParents[g]); // 最良個体が親個体として取り除かれたかを調べる．
+		fRex.makeOffspring(fParents[g], fNoOfKids, fKids[g]); // REXにより子個体集合を生成する．
+		fEvaluator.submit(g, fKids[g]);
+		fInFlight[g] = true;
+	}
+
+	/**
+	 * 評価が完了した家族gの生存選択を行う．
+	 *
+	 * @param g 家族の番号
+	 */
+	private void complete(int g) {
+		int size = fPopulation.size();
+		fSurvivalSelection.doIt(fPopulation, fParents[g], fKids[g]); // 生存選択を行う．
+		fBestTracker.added(fPopulation, size); // 集団の末尾に戻された個体で最良個体を更新する．
+		fInFlight[g] = false;
+	}
+
+	/**
+	 * 評価中でない家族をすべて投入した後，最初に評価が完了した家族の生存選択を行い，その子個体集合を返す．
+	 *
+	 * @return 評価済みの子個体集合
+	 */
+	public TCSolutionSet<TSRealSolution> nextGeneration() {
+		for (int g = 0; g < fNoOfGroups; g++) {
+			if (!fInFlight[g]) {
+				launch(g);
+			}
+		}
+		int g = fEvaluator.take();
+		complete(g);
+		return fKids[g];
+	}
+
+	/**
+	 * 評価中のすべての家族の評価完了を待ち，生存選択を行う．
+	 * 戻った時点で，集団は集団サイズの個体を含む．
+	 */
+	public void drain() {
+		while (fEvaluator.getNoOfPendingBatches() > 0) {
+			complete(fEvaluator.take());
+		}
+	}
+
+	/**
+	 * 集団中の最良個体を返す．
+	 * 評価中の家族の親個体は含まれない．
+	 *
+	 * @return 集団中の最良個体
+	 */
+	public TSRealSolution getBestIndividual() {
+		return fBestTracker.getBest(fPopulation);
+	}
+
+	/**
+	 * 集団中の最良個体の評価値を返す．
+	 *
+	 * @return 集団中の最良個体の評価値
+	 */
+	public double getBestEvaluationValue() {
+		return getBestIndividual().getEvaluationValue();
+	}
+
+}
@@ -1,14 +1,13 @@
 package jgoal.ga;
 
-import java.io.Serializable;
-import java.util.Collections;
-
+import jgoal.evaluation.ICEvaluator;
 import jgoal.ga.reproduction.TCRex;
 import jgoal.ga.reproduction.TCRex.ProbabilityDistribution;
 import jgoal.ga.reproductionSelection.ICReproductionSelection;
 import jgoal.ga.reproductionSelection.TCRandomSelectionWithoutReplacement;
 import jgoal.ga.survivalSelection.ICSurvivalSelection;
 import jgoal.ga.survivalSelection.TCNBestSelectionFromKids;
+import jgoal.solution.TCBestSolutionTracker;
 import jgoal.solution.TCSolutionSet;
 import jgoal.solution.TSRealSolution;
 import jgoal.solution.comparator.ICComparator;
@@ -22,7 +21,7 @@ import jssf.random.ICRandom;
  * @author isao
  * @param <X>
  */
-public class TSRexNJgg implements Serializable {
+public class TSRexNJgg implements ISRealGa {
 
 	private static final long serialVersionUID = 1L;
 
@@ -56,12 +55,18 @@ public class TSRexNJgg implements Serializable {
 	/** 乱数発生器 */
 	private ICRandom fRandom;
 
+	/** 子個体の評価器．nullならば子個体の評価は呼び出し側で行う． */
+	private ICEvaluator<TSRealSolution> fEvaluator;
+
 	/** 個体比較器 */
 	private ICComparator<TSRealSolution> fComparator;
 
 	/** 個体テンプレート */
 	private TSRealSolution fSolutionTemplate;
 
+	/** 最良個体の追跡器 */
+	private TCBestSolutionTracker<TSRealSolution> fBestTracker;
+
 	/**
 	 * コンストラクタ．
 	 * 
@@ -86,6 +91,16 @@ public class TSRexNJgg implements Serializable {
 		fComparator = new TSEvaluationValueComparator<TSRealSolution>(minimization);
 	}
 
+	/**
+	 * 子個体の評価器を設定する．
+	 * 評価器を設定すると，makeOffspringは評価済みの子個体集合を返す．
+	 * 
+	 * @param evaluator 子個体の評価器．nullならば子個体の評価は呼び出し側で行う．
+	 */
+	public void setEvaluator(ICEvaluator<TSRealSolution> evaluator) {
+		fEvaluator = evaluator;
+	}
+
 	/**
 	 * 初期化する．
 	 * 
@@ -99,6 +114,7 @@ public class TSRexNJgg implements Serializable {
 		fSurvivalSelection = new TCNBestSelectionFromKids<TSRealSolution>(fComparator);
 		fPopulation = new TCSolutionSet<TSRealSolution>(fSolutionTemplate);
 		fPopulation.resize(fPopulationSize);
+		fBestTracker = new TCBestSolutionTracker<TSRealSolution>(fComparator);
 		return fPopulation;
 	}
 
@@ -108,6 +124,7 @@ public class TSRexNJgg implements Serializable {
 	 * @return 集団
 	 */
 	public TCSolutionSet<TSRealSolution> getPopulation() {
+		fBestTracker.invalidate(); // 呼び出し側が集団を変更してもよいように，最良個体を求め直す．
 		return fPopulation;
 	}
 
@@ -120,7 +137,11 @@ public class TSRexNJgg implements Serializable {
 		fParents.clear(); // 親個体集合をクリアする．
 		fKids.clear(); // 子個体集合をクリアする．
 		fReproductionSelection.doIt(fPopulation, fRex.getNoOfParents(), fParents); // 生存選択を行う．
+		fBestTracker.removed(fParents); // 最良個体が親個体として取り除かれたかを調べる．
 		fRex.makeOffspring(fParents, fNoOfKids, fKids); // AREXにより子個体集合を生成する．
+		if (fEvaluator != null) {
+			fEvaluator.evaluate(fKids); // 子個体集合を評価する．
+		}
 		return fKids;
 	}
 
@@ -128,7 +149,9 @@ public class TSRexNJgg implements Serializable {
 	 * 世代を進める．
 	 */
 	public void nextGeneration() {
+		int size = fPopulation.size();
 		fSurvivalSelection.doIt(fPopulation, fParents, fKids); // 生存選択を行う．
+		fBestTracker.added(fPopulation, size); // 集団の末尾に戻された個体で最良個体を更新する．
 	}
 
 	/**
@@ -137,8 +160,7 @@ public class TSRexNJgg implements Serializable {
 	 * @return 集団中の最良個体
 	 */
 	public TSRealSolution getBestIndividual() {
-		Collections.sort(fPopulation, fComparator);
-		return fPopulation.get(0);
+		return fBestTracker.getBest(fPopulation);
 	}
 
 	/**
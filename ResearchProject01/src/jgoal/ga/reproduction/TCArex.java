@@ -4,14 +4,18 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.concurrent.ExecutorService;
 
 import jgoal.solution.ICRealSolution;
+import jgoal.solution.ICSolution.Status;
 import jgoal.solution.TCSolutionFactory;
 import jgoal.solution.TCSolutionSet;
 import jgoal.solution.comparator.ICComparator;
 import jssf.di.ACParam;
 import jssf.math.TCMatrix;
+import jssf.math.TCVector;
 import jssf.random.ICRandom;
+import jssf.util.TCPartialSort;
 
 /**
  * AREXのクラス．
@@ -49,6 +53,9 @@ public class TCArex<X extends ICRealSolution> implements Serializable {
 		public void resize(int size) {
 			assert size >= 0;
 			int diff = size - size();
+			if (diff == 0) {
+				return;
+			}
 			if (diff > 0) {
 				do {
 					add(new KidAndEpsilon(fFactory, fNoOfParents));
@@ -89,17 +96,50 @@ public class TCArex<X extends ICRealSolution> implements Serializable {
 	private double fLavg;
 
 	/** 子個体中心降下ベクトル */
-	private TCMatrix fDescentVector;
+	private TCVector fDescentVector;
 
 	/** 親個体の中心ベクトル */
-	private TCMatrix fMeanOfParents;
+	private TCVector fMeanOfParents;
 
 	/** 作業用ベクトル */
-	private TCMatrix fTmp;
+	private TCVector fTmp;
+
+	/** 子個体を行列積でまとめて生成するならばtrue */
+	private boolean fBatchMode;
+
+	/** 行列積を並列に計算するExecutorService．nullならば呼び出したスレッドで計算する． */
+	private ExecutorService fExecutor;
+
+	/** 行列積の並列計算におけるタスク数 */
+	private int fNoOfTasks;
+
+	/** 親個体の中心からの偏差 p_j - mean を行に並べたμ×n行列 */
+	private TCMatrix fDeviations;
+
+	/** fDeviationsの各行のビュー */
+	private TCVector[] fDeviationRows;
+
+	/** 係数 ε_kj × α を並べた子個体数×μ行列 */
+	private TCMatrix fCoefficients;
+
+	/** fCoefficientsの要素 */
+	private double[] fCoefficientElements;
+
+	/** 子個体を行に並べた子個体数×n行列 */
+	private TCMatrix fKidMatrix;
+
+	/** fKidMatrixの各行のビュー */
+	private TCVector[] fKidRows;
 
 	/** 子個体とその子個体生成に用いた乱数のセット */
 	private KidAndEpsilonSet fKidAndEpsilonSet;
 
+	/**
+	 * 直前のmakeOffspringで渡した子個体が呼び出し側に残っている可能性があればtrue．
+	 * exchangeKidsが呼ばれるとfalseとなり，次のmakeOffspringは子個体を再利用する．
+	 */
+	private boolean fKidsHandedOut;
+
 	/** 個体比較器 */
 	private final ICComparator<X> fComparator;
 
@@ -154,11 +194,21 @@ public class TCArex<X extends ICRealSolution> implements Serializable {
 		fAlpha = initAlpha;
 		fCa = ca;
 		fMuA = muAlpha;
-		fDescentVector = new TCMatrix(dim, 1);
-		fMeanOfParents = new TCMatrix(dim, 1);
-		fTmp = new TCMatrix(dim, 1);
+		fDescentVector = new TCVector(dim);
+		fMeanOfParents = new TCVector(dim);
+		fTmp = new TCVector(dim);
+		double[] deviations = new double[mu * dim];
+		fDeviations = new TCMatrix(deviations, 0, dim, mu, dim);
+		fDeviationRows = new TCVector[mu];
+		for (int j = 0; j < mu; j++) {
+			fDeviationRows[j] = new TCVector(deviations, j * dim, dim);
+		}
+		fBatchMode = true;
+		fExecutor = null;
+		fNoOfTasks = 1;
 		fComparator = comparator;
 		fRandom = random;
+		fKidsHandedOut = false;
 		fKidsSetComparator = new Comparator<KidAndEpsilon>() {
 			@Override
 			public int compare(KidAndEpsilon a, KidAndEpsilon b) {
@@ -171,17 +221,56 @@ public class TCArex<X extends ICRealSolution> implements Serializable {
 	 * 
 	 * なお，[秋本 09]によると，
 	 * AREX+JGGにおける生成子個体数の推奨値は次元 <i>n</i> に対して <tt>noOfKids</tt> = <i>4n</i> である．
+	 * <p>
+	 * 子個体とεの配列は世代をまたいで再利用される．
+	 * ただし，前回のmakeOffspringの後にexchangeKidsが呼ばれていなければ，
+	 * 前回の子個体は呼び出し側が保持している可能性があるため，新しい子個体を生成する．
 	 */
 	public void makeOffspring(TCSolutionSet<X> parents, int noOfkids, TCSolutionSet<X> kids) {
 		assert parents.size() == fMu;
 		calcDecentDirectionAndMean(parents);
-		fKidAndEpsilonSet.clear();
+		if (fKidsHandedOut) {
+			for (KidAndEpsilon ke : fKidAndEpsilonSet) {
+				ke.fKid = fKidAndEpsilonSet.fFactory.create();
+			}
+		}
 		fKidAndEpsilonSet.resize(noOfkids);
 		generateKids(parents);
 		kids.clear();
 		for (KidAndEpsilon ke : fKidAndEpsilonSet) {
 			kids.add(ke.fKid);
 		}
+		fKidsHandedOut = true;
+	}
+
+	/**
+	 * 集団に渡された子個体を，集団から取り除かれた個体と入れ替えて，次のmakeOffspringで再利用できるようにする．
+	 * JGGでは，生存選択で集団に加えられた子個体をtakenに，集団から取り除かれた親個体をreleasedに与える．
+	 * released中の個体は以後この子個体生成器が所有し，次の子個体として上書きされる．
+	 * また，taken以外の子個体は呼び出し側で保持してはならない．
+	 * updateExpansionRateの後に呼び出すこと．
+	 * 
+	 * @param taken    集団に渡された子個体．直前のmakeOffspringで生成した子個体でなければならない．
+	 * @param released 集団から取り除かれた個体．takenと同じ個体数でなければならない．
+	 */
+	public void exchangeKids(TCSolutionSet<X> taken, TCSolutionSet<X> released) {
+		if (taken.size() != released.size()) {
+			throw new IllegalArgumentException("The numbers of taken and released solutions are different.");
+		}
+		for (int i = 0; i < taken.size(); i++) {
+			X kid = taken.get(i);
+			int k = 0;
+			while (k < fKidAndEpsilonSet.size() && fKidAndEpsilonSet.get(k).fKid != kid) {
+				k++;
+			}
+			if (k == fKidAndEpsilonSet.size()) {
+				throw new IllegalArgumentException("The taken solution is not a kid generated by this object.");
+			}
+			X s = released.get(i);
+			s.setStatus(Status.NOT_EVALUATED);
+			fKidAndEpsilonSet.get(k).fKid = s;
+		}
+		fKidsHandedOut = false;
 	}
 
 	/**
@@ -189,7 +278,7 @@ public class TCArex<X extends ICRealSolution> implements Serializable {
 	 * doItを呼んで，kidsを生成して，kidsを評価した後に呼び出すこと．
 	 */
 	public void updateExpansionRate() {
-		Collections.sort(fKidAndEpsilonSet, fKidsSetComparator);
+		TCPartialSort.sort(fKidAndEpsilonSet, fMuA, fKidsSetComparator); // 拡張率適応には上位μA個体だけを用いる．
 		calcExpansionRate();
 	}
 
@@ -197,6 +286,53 @@ public class TCArex<X extends ICRealSolution> implements Serializable {
 		return fMu;
 	}
 
+	/**
+	 * 拡張率を返す．
+	 *
+	 * @return 拡張率
+	 */
+	public double getExpansionRate() {
+		return fAlpha;
+	}
+
+	/**
+	 * 拡張率を設定する．
+	 * updateExpansionRateによる拡張率の変化率は拡張率自体に依存しないため，
+	 * 複数のAREXで一つの拡張率を共有する場合は，生成時およびupdateExpansionRateの直前に共有の拡張率を設定すればよい．
+	 *
+	 * @param alpha 拡張率
+	 */
+	public void setExpansionRate(double alpha) {
+		fAlpha = alpha;
+	}
+
+	/**
+	 * 子個体の生成方法を設定する．
+	 * trueならば，偏差行列D (μ×n) と係数行列E (子個体数×μ) を作り，
+	 * 全子個体を行列積 K = 1 d^T + E D で一度に生成する．
+	 * falseならば，子個体ごと・親個体ごとにベクトル演算を行う．
+	 * どちらの方法でも，同じ乱数系列に対して同じ子個体が生成される．
+	 * デフォルトはtrue．
+	 * 
+	 * @param batchMode 行列積でまとめて生成するならばtrue
+	 */
+	public void setBatchMode(boolean batchMode) {
+		fBatchMode = batchMode;
+	}
+
+	/**
+	 * バッチモードにおける行列積を並列に計算するExecutorServiceを設定する．
+	 * 子個体行列の行がnoOfTasks個のタスクに分割される．
+	 * 乱数はすべて呼び出したスレッドで生成されるため，生成される子個体はタスク数に依存しない．
+	 * 
+	 * @param executor  ExecutorService．nullならば呼び出したスレッドで計算する．
+	 * @param noOfTasks タスク数
+	 */
+	public void setExecutor(ExecutorService executor, int noOfTasks) {
+		fExecutor = executor;
+		fNoOfTasks = noOfTasks;
+	}
+
 	/**
 	 * 拡張率を計算
 	 */
@@ -250,31 +386,93 @@ public class TCArex<X extends ICRealSolution> implements Serializable {
 		double w = 0.0;
 		for (int j = 0; j < fMu; j++) {
 			w = 2.0 * (fMu + 1.0 - (j + 1.0)) / (double) (fMu * (fMu + 1.0));
-			fTmp.copyFrom(parents.get(j).getVector());
-			fMeanOfParents.add(fTmp);
-			fTmp.times(w);
-			fDescentVector.add(fTmp);
+			TCVector p = parents.get(j).getVector();
+			fMeanOfParents.add(p);
+			fDescentVector.axpy(w, p);
 		}
-		fMeanOfParents.times(1.0 / (double) fMu);
+		fMeanOfParents.scale(1.0 / (double) fMu);
 	}
 
 	/**
-	 * 子個体の生成とその評価
+	 * 子個体の生成
 	 * 
 	 * @param parents 親集団
 	 */
 	private void generateKids(TCSolutionSet<X> parents) {
+		if (fBatchMode) {
+			generateKidsByMatrixProduct(parents);
+		} else {
+			generateKidsOneByOne(parents);
+		}
+	}
+
+	/**
+	 * 子個体を一つずつ生成する．
+	 * 
+	 * @param parents 親集団
+	 */
+	private void generateKidsOneByOne(TCSolutionSet<X> parents) {
 		for (KidAndEpsilon ke : fKidAndEpsilonSet) {
-			TCMatrix x = ke.fKid.getVector();
+			TCVector x = ke.fKid.getVector();
 			x.copyFrom(fDescentVector);
 			for (int j = 0; j < fMu; j++) {
 				fTmp.copyFrom(parents.get(j).getVector());
 				fTmp.sub(fMeanOfParents);
 				double ep = fRandom.nextGaussian(0.0, fSigma);
-				fTmp.times(ep * fAlpha);
 				ke.fEpsilon[j] = ep;
-				x.add(fTmp);
+				x.axpy(ep * fAlpha, fTmp);
+			}
+		}
+	}
+
+	/**
+	 * 全子個体を行列積 K = 1 d^T + E D でまとめて生成する．
+	 * 乱数は子個体ごと・親個体ごとにgenerateKidsOneByOneと同じ順序で生成し，
+	 * 各要素もjの順に加算されるため，結果はgenerateKidsOneByOneと一致する．
+	 * 
+	 * @param parents 親集団
+	 */
+	private void generateKidsByMatrixProduct(TCSolutionSet<X> parents) {
+		int noOfKids = fKidAndEpsilonSet.size();
+		if (fKidRows == null || fKidRows.length != noOfKids) {
+			allocateKidMatrix(noOfKids);
+		}
+		for (int j = 0; j < fMu; j++) {
+			fDeviationRows[j].copyFrom(parents.get(j).getVector()).sub(fMeanOfParents);
+		}
+		fRandom.fillGaussian(fCoefficientElements, 0.0, fSigma);
+		for (int k = 0; k < noOfKids; k++) {
+			KidAndEpsilon ke = fKidAndEpsilonSet.get(k);
+			System.arraycopy(fCoefficientElements, k * fMu, ke.fEpsilon, 0, fMu);
+			for (int j = k * fMu; j < (k + 1) * fMu; j++) {
+				fCoefficientElements[j] *= fAlpha;
 			}
+			fKidRows[k].copyFrom(fDescentVector);
+		}
+		if (fExecutor == null) {
+			fKidMatrix.timesAdd(fCoefficients, fDeviations);
+		} else {
+			fKidMatrix.timesAdd(fCoefficients, fDeviations, fExecutor, fNoOfTasks);
+		}
+		for (int k = 0; k < noOfKids; k++) {
+			fKidAndEpsilonSet.get(k).fKid.getVector().copyFrom(fKidRows[k]);
+		}
+	}
+
+	/**
+	 * バッチモードで用いる係数行列と子個体行列を確保する．
+	 * 
+	 * @param noOfKids 子個体数
+	 */
+	private void allocateKidMatrix(int noOfKids) {
+		int dim = fDescentVector.getDimension();
+		fCoefficientElements = new double[noOfKids * fMu];
+		fCoefficients = new TCMatrix(fCoefficientElements, 0, fMu, noOfKids, fMu);
+		double[] kids = new double[noOfKids * dim];
+		fKidMatrix = new TCMatrix(kids, 0, dim, noOfKids, dim);
+		fKidRows = new TCVector[noOfKids];
+		for (int k = 0; k < noOfKids; k++) {
+			fKidRows[k] = new TCVector(kids, k * dim, dim);
 		}
 	}
 
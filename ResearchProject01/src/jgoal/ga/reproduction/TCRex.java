@@ -1,11 +1,13 @@
 package jgoal.ga.reproduction;
 
 import java.io.Serializable;
+import java.util.concurrent.ExecutorService;
 
 import jgoal.solution.ICRealSolution;
 import jgoal.solution.TCSolutionSet;
 import jssf.di.ACParam;
 import jssf.math.TCMatrix;
+import jssf.math.TCVector;
 import jssf.random.ICRandom;
 
 /**
@@ -31,14 +33,36 @@ public class TCRex<X extends ICRealSolution> implements Serializable {
 	private double fExpansionRatio;
 
 	/** 親個体の重心ベクトル */
-	private TCMatrix fXg;
-
-	private TCMatrix fWork;
+	private TCVector fXg;
 
 	private int fNoOfParents;
 
 	private ICRandom fRandom;
 
+	/** 重心からの親個体の偏差 p_j - xg を行に並べたμ×n行列 */
+	private TCMatrix fDeviations;
+
+	/** fDeviationsの各行のビュー */
+	private TCVector[] fDeviationRows;
+
+	/** 子個体ごと・親個体ごとの乱数を並べた子個体数×μ行列 */
+	private TCMatrix fCoefficients;
+
+	/** fCoefficientsの要素 */
+	private double[] fCoefficientElements;
+
+	/** 子個体を行に並べた子個体数×n行列 */
+	private TCMatrix fKidMatrix;
+
+	/** fKidMatrixの各行のビュー */
+	private TCVector[] fKidRows;
+
+	/** 行列積を並列に計算するExecutorService．nullならば呼び出したスレッドで計算する． */
+	private ExecutorService fExecutor;
+
+	/** 行列積の並列計算におけるタスク数 */
+	private int fNoOfTasks;
+
 	/**
 	 * コンストラクタ
 	 * 
@@ -63,8 +87,15 @@ public class TCRex<X extends ICRealSolution> implements Serializable {
 				fExpansionRatio = Math.sqrt(3.0 / (double) fNoOfParents);
 				break;
 		}
-		fXg = new TCMatrix(dim, 1);
-		fWork = new TCMatrix(dim, 1);
+		fXg = new TCVector(dim);
+		double[] deviations = new double[noOfParents * dim];
+		fDeviations = new TCMatrix(deviations, 0, dim, noOfParents, dim);
+		fDeviationRows = new TCVector[noOfParents];
+		for (int j = 0; j < noOfParents; j++) {
+			fDeviationRows[j] = new TCVector(deviations, j * dim, dim);
+		}
+		fExecutor = null;
+		fNoOfTasks = 1;
 	}
 
 	/**
@@ -85,29 +116,88 @@ public class TCRex<X extends ICRealSolution> implements Serializable {
 		return fNoOfParents;
 	}
 
+	/**
+	 * 行列積を並列に計算するExecutorServiceを設定する．
+	 * 子個体行列の行がnoOfTasks個のタスクに分割される．
+	 * 乱数はすべて呼び出したスレッドで生成されるため，生成される子個体はタスク数に依存しない．
+	 * 
+	 * @param executor  ExecutorService．nullならば呼び出したスレッドで計算する．
+	 * @param noOfTasks タスク数
+	 */
+	public void setExecutor(ExecutorService executor, int noOfTasks) {
+		fExecutor = executor;
+		fNoOfTasks = noOfTasks;
+	}
+
+	/**
+	 * 子個体を生成する．
+	 * 重心からの偏差行列D (μ×n) と乱数の係数行列R (子個体数×μ) を作り，
+	 * 全子個体を行列積 K = 1 xg^T + R D で一度に生成する．
+	 * 乱数は子個体ごと・親個体ごとに生成し，各要素も親個体の順に加算されるため，
+	 * 子個体を一つずつ生成する場合と同じ結果になる．
+	 * 
+	 * @param parents  親個体の集合
+	 * @param noOfKids 子個体数
+	 * @param kids     子個体の集合
+	 */
 	public void makeOffspring(TCSolutionSet<X> parents, int noOfKids, TCSolutionSet<X> kids) {
 		assert parents.size() == fNoOfParents;
 		calcXg(parents);
+		if (fKidRows == null || fKidRows.length != noOfKids) {
+			allocateKidMatrix(noOfKids);
+		}
+		for (int j = 0; j < fNoOfParents; j++) {
+			fDeviationRows[j].copyFrom(parents.get(j).getVector()).sub(fXg);
+		}
+		drawCoefficients(noOfKids);
+		for (int k = 0; k < noOfKids; k++) {
+			fKidRows[k].copyFrom(fXg); // 重心ベクトルをコピー
+		}
+		if (fExecutor == null) {
+			fKidMatrix.timesAdd(fCoefficients, fDeviations);
+		} else {
+			fKidMatrix.timesAdd(fCoefficients, fDeviations, fExecutor, fNoOfTasks);
+		}
 		kids.clear();
 		kids.resize(noOfKids);
-		for (X kid : kids) {
-			TCMatrix kVec = kid.getVector();
-			kVec.copyFrom(fXg); // 重心ベクトルをコピー
-			for (X parent : parents) {
-				fWork.copyFrom(parent.getVector());
-				fWork.sub(fXg);
-				double r = 0;
-				switch (fProbabilityDistribution) {
-					case UNIFORM:
-						r = fRandom.nextDouble(-fExpansionRatio, fExpansionRatio);
-						break;
-					case NORMAL:
-						r = fRandom.nextGaussian(0.0, fExpansionRatio);
-						break;
+		for (int k = 0; k < noOfKids; k++) {
+			kids.get(k).getVector().copyFrom(fKidRows[k]);
+		}
+	}
+
+	/**
+	 * 子個体数×μ個の乱数を子個体ごと・親個体ごとの順に生成して係数行列に格納する．
+	 * 
+	 * @param noOfKids 子個体数
+	 */
+	private void drawCoefficients(int noOfKids) {
+		int size = noOfKids * fNoOfParents;
+		switch (fProbabilityDistribution) {
+			case UNIFORM:
+				for (int i = 0; i < size; i++) {
+					fCoefficientElements[i] = fRandom.nextDouble(-fExpansionRatio, fExpansionRatio);
 				}
-				fWork.times(r);
-				kVec.add(fWork);
-			}
+				break;
+			case NORMAL:
+				fRandom.fillGaussian(fCoefficientElements, 0.0, fExpansionRatio);
+				break;
+		}
+	}
+
+	/**
+	 * 係数行列と子個体行列を確保する．
+	 * 
+	 * @param noOfKids 子個体数
+	 */
+	private void allocateKidMatrix(int noOfKids) {
+		int dim = fXg.getDimension();
+		fCoefficientElements = new double[noOfKids * fNoOfParents];
+		fCoefficients = new TCMatrix(fCoefficientElements, 0, fNoOfParents, noOfKids, fNoOfParents);
+		double[] kids = new double[noOfKids * dim];
+		fKidMatrix = new TCMatrix(kids, 0, dim, noOfKids, dim);
+		fKidRows = new TCVector[noOfKids];
+		for (int k = 0; k < noOfKids; k++) {
+			fKidRows[k] = new TCVector(kids, k * dim, dim);
 		}
 	}
 
@@ -117,12 +207,11 @@ public class TCRex<X extends ICRealSolution> implements Serializable {
 	 * @param parents
 	 */
 	private void calcXg(TCSolutionSet<X> parents) {
-		fXg.setDimensions(parents.get(0).getVector().getRowDimension(), 1);
 		fXg.fill(0.0);
 		for (X parent : parents) {
 			fXg.add(parent.getVector());
 		}
-		fXg.times(1.0 / (double) parents.size());
+		fXg.scale(1.0 / (double) parents.size());
 	}
 
 }
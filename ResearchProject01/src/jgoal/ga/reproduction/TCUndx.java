@@ -5,8 +5,7 @@ import java.io.Serializable;
 import jgoal.solution.ICRealSolution;
 import jgoal.solution.TCSolutionSet;
 import jssf.di.ACParam;
-import jssf.math.TCMatrix;
-import jssf.math.TCMatrixUtility;
+import jssf.math.TCVector;
 import jssf.random.ICRandom;
 
 /**
@@ -42,10 +41,16 @@ public class TCUndx<X extends ICRealSolution> implements Serializable {
 	private double fSigma2;
 
 	/** A unit vector directed from the first parent to the second one */
-	private TCMatrix fEVector;
+	private TCVector fEVector;
 
 	/** The mean vector between the first and second parents */
-	private TCMatrix fMean;
+	private TCVector fMean;
+
+	/** A work vector for the random vector t */
+	private TCVector fT;
+
+	/** A work vector */
+	private TCVector fTmp;
 
 	/** True if the first and second parents are the (approximately) same */
 	private boolean isParent1EqualToParent2;
@@ -75,8 +80,7 @@ public class TCUndx<X extends ICRealSolution> implements Serializable {
 		fAlpha = alpha;
 		fBeta = beta;
 		fRandom = random;
-		fEVector = new TCMatrix();
-		fMean = new TCMatrix();
+		allocateWorkVectors(0);
 	}
 
 	/**
@@ -133,12 +137,15 @@ public class TCUndx<X extends ICRealSolution> implements Serializable {
 	 */
 	public void makeOffspring(TCSolutionSet<X> parents, int noOfKids, TCSolutionSet<X> kids) {
 		assert parents.size() == 3 : "The number of parents shound be three.";
-		TCMatrix p1 = parents.get(0).getVector();
-		TCMatrix p2 = parents.get(1).getVector();
-		TCMatrix p3 = parents.get(2).getVector();
+		TCVector p1 = parents.get(0).getVector();
+		TCVector p2 = parents.get(1).getVector();
+		TCVector p3 = parents.get(2).getVector();
 		int dimension = p1.getDimension();
-		assert dimension == p2.getRowDimension() && dimension == p3.getRowDimension()
-				&& p2.getRowDimension() == p3.getRowDimension() : "The dimensions of parents should be the same.";
+		assert dimension == p2.getDimension() && dimension == p3.getDimension()
+				&& p2.getDimension() == p3.getDimension() : "The dimensions of parents should be the same.";
+		if (fMean.getDimension() != dimension) {
+			allocateWorkVectors(dimension);
+		}
 
 		calcMean(p1, p2);
 		calcUnitVectorAndStandardDeviationForPrimaryComponent(p1, p2);
@@ -146,25 +153,20 @@ public class TCUndx<X extends ICRealSolution> implements Serializable {
 
 		kids.resize(noOfKids);
 		for (X kid : kids) {
-			TCMatrix k = kid.getVector();
-			k.setDimension(dimension);
+			TCVector k = kid.getVector();
 			if (isParent1EqualToParent2) {
 				k.copyFrom(p1);
 				break;
 			}
 			// step.1 creates a random vector t
-			TCMatrix t = new TCMatrix(dimension);
+			TCVector t = fT;
 			for (int i = 0; i < dimension; i++) {
-				t.setValue(i, 0, fRandom.nextGaussian(0.0, fSigma2));
+				t.setValue(i, fRandom.nextGaussian(0.0, fSigma2));
 			}
 			// step.2 t <- t - (t . e)e
-			TCMatrix tmpVector = new TCMatrix(fEVector);
-			tmpVector.times(TCMatrixUtility.innerProduct(t, fEVector));
-			t.sub(tmpVector);
+			t.axpy(-t.dot(fEVector), fEVector);
 			// step.3 t <- t + se
-			tmpVector.copyFrom(fEVector);
-			tmpVector.times(fRandom.nextGaussian(0.0, fSigma1));
-			t.add(tmpVector);
+			t.axpy(fRandom.nextGaussian(0.0, fSigma1), fEVector);
 			// step.4
 			k.copyFrom(fMean);
 			k.add(t);
@@ -180,6 +182,18 @@ public class TCUndx<X extends ICRealSolution> implements Serializable {
 		return 3;
 	}
 
+	/**
+	 * Allocates the work vectors with the specified dimension.
+	 *
+	 * @param dimension the dimension of parents
+	 */
+	private void allocateWorkVectors(int dimension) {
+		fEVector = new TCVector(dimension);
+		fMean = new TCVector(dimension);
+		fT = new TCVector(dimension);
+		fTmp = new TCVector(dimension);
+	}
+
 	/**
 	 * Calculates the middle point between v1 and v2.
 	 *
@@ -187,10 +201,10 @@ public class TCUndx<X extends ICRealSolution> implements Serializable {
 	 * @param v2 the second parent
 	 * @since 2 hmkz
 	 */
-	private void calcMean(TCMatrix v1, TCMatrix v2) {
+	private void calcMean(TCVector v1, TCVector v2) {
 		fMean.copyFrom(v1);
 		fMean.add(v2);
-		fMean.times(0.5);
+		fMean.scale(0.5);
 	}
 
 	/**
@@ -202,17 +216,17 @@ public class TCUndx<X extends ICRealSolution> implements Serializable {
 	 * @param v2 the second parent
 	 * @since 2 hmkz
 	 */
-	private void calcUnitVectorAndStandardDeviationForPrimaryComponent(TCMatrix v1, TCMatrix v2) {
+	private void calcUnitVectorAndStandardDeviationForPrimaryComponent(TCVector v1, TCVector v2) {
 		fEVector.copyFrom(v2);
 		fEVector.sub(v1);
-		double d1 = fEVector.normF(); // the distance from the first parent to the second one
+		double d1 = fEVector.norm(); // the distance from the first parent to the second one
 		fSigma1 = fAlpha * d1; // the standard deviation of two parents on the primary component
 		// if (TCComparator.equals(d1, 0.0))
 		if (isEquals(d1, 0.0))
 			isParent1EqualToParent2 = true;
 		else
 			isParent1EqualToParent2 = false;
-		fEVector.times(1.0 / d1); // the normalized vector of the primary search component
+		fEVector.scale(1.0 / d1); // the normalized vector of the primary search component
 	}
 
 	/**
@@ -224,17 +238,13 @@ public class TCUndx<X extends ICRealSolution> implements Serializable {
 	 * @param v3 the third parent
 	 * @since 2 hmkz
 	 */
-	private void calcUnitVectorAndStandardDeviationForSecondaryComponent(TCMatrix v1, TCMatrix v3) {
-		TCMatrix v1v3 = new TCMatrix(v3); // the vector from v1 to v3
-		v1v3.sub(v1);
-		TCMatrix tmp = new TCMatrix(fEVector);
-		tmp.times(TCMatrixUtility.innerProduct(fEVector, v1v3));
-		// tmp.scalarProduct(fEVector.innerProduct(v1v3)); //TODO どうやって行列演算で内積を書くか...
-		// uemura
-		TCMatrix perpendicular = new TCMatrix(v1v3); // the perpendicular vector from v3 to the primary component
-		perpendicular.sub(tmp);
-		double d2 = perpendicular.normF();
-		fSigma2 = fBeta * d2 / Math.sqrt((double) v1.getRowDimension()); // the normalized vector of the secondary component
+	private void calcUnitVectorAndStandardDeviationForSecondaryComponent(TCVector v1, TCVector v3) {
+		TCVector perpendicular = fTmp.copyFrom(v3); // the vector from v1 to v3
+		perpendicular.sub(v1);
+		// the perpendicular vector from v3 to the primary component
+		perpendicular.axpy(-fEVector.dot(perpendicular), fEVector);
+		double d2 = perpendicular.norm();
+		fSigma2 = fBeta * d2 / Math.sqrt((double) v1.getDimension()); // the normalized vector of the secondary component
 	}
 
 	/**
@@ -18,7 +18,7 @@ public interface ICReproductionSelection<X extends ICSolution> extends Serializa
 	/**
 	 * 親個体の選択を行う．
 	 * 復元抽出の場合は，population内の個体のコピーをparentsに登録する．
-	 * 非復元抽出の場合は，populationから削除した個体をparentsに登録する．
+	 * 非復元抽出の場合は，populationから削除した個体をparentsに登録する．このとき，population内の個体の順序は保存されなくてよい．
 	 * {@code parents} に抽出された親集団が格納される．
 	 * {@code parents} は始めに{@code clear()} されること．
 	 * 
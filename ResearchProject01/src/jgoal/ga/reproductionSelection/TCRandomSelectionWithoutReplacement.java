@@ -7,6 +7,8 @@ import jssf.random.ICRandom;
 
 /**
  * 集団からランダムに親個体を非復元抽出する．
+ * 選んだ個体の位置には集団の末尾の個体を移してから末尾を削除するため，抽出は親個体数に比例する時間で済む．
+ * その代わり，集団内の個体の順序は保存されない．
  * 
  * @author uemura
  *
@@ -36,8 +38,11 @@ public class TCRandomSelectionWithoutReplacement<X extends ICSolution> implement
 		parents.clear();
 		// 親個体を集団からランダムにnoOfParents個体数だけ非復元抽出する．
 		for (int i = 0; i < noOfParents; i++) {
-			int index = fRandom.nextInt(0, pop.size() - 1);
-			parents.add(pop.remove(index));
+			int last = pop.size() - 1;
+			int index = fRandom.nextInt(0, last);
+			parents.add(pop.get(index));
+			pop.set(index, pop.get(last)); // 末尾の個体を空いた位置に移す．
+			pop.remove(last);
 		}
 	}
 
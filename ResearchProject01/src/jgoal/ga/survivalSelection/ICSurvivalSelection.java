@@ -17,6 +17,8 @@ public interface ICSurvivalSelection<
 
 	/**
 	 * IsD
+	 * population͕Iɂe̂菜ꂽWcłČ̂̏ɈӖ͂ȂD
+	 * I΂ꂽ̂population̖ɒǉD
 	 * @param population Wc
 	 * @param parents e̏W
 	 * @param kids q̏W
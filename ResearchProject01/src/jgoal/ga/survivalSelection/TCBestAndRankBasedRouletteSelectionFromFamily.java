@@ -1,11 +1,11 @@
 package jgoal.ga.survivalSelection;
 
-import java.util.Collections;
 import jgoal.solution.ICSolution;
 import jgoal.solution.TCSolutionSet;
 import jgoal.solution.comparator.ICComparator;
 import jssf.di.ACParam;
 import jssf.random.ICRandom;
+import jssf.util.TCPartialSort;
 import jssf.util.TCRoulette;
 
 /**
@@ -32,6 +32,9 @@ public class TCBestAndRankBasedRouletteSelectionFromFamily<
 	/** The roulette */
 	private TCRoulette fRoulette;
 
+	/** The number of feasible individuals for which the roulette slots are set, or -1 if not set */
+	private int fNoOfFeasiblesInRoulette;
+
 	/** The comparator */
 	private ICComparator<X> fComparator;
 
@@ -51,6 +54,7 @@ public class TCBestAndRankBasedRouletteSelectionFromFamily<
 	) {
 		fComparator = c;
 		fRoulette = new TCRoulette(random);
+		fNoOfFeasiblesInRoulette = -1;
 		fFamily = null;
 		fSelectedSolutions = null;
 	}
@@ -63,9 +67,15 @@ public class TCBestAndRankBasedRouletteSelectionFromFamily<
 			fSelectedSolutions.resize(2);
 		}
 		registerToFamily(parents, kids);
-		Collections.sort(fFamily, fComparator);
+		int rank = chooseRankByRouletteWheelSelection(getNoOfFeasibleIndividuals(fFamily));
+		TCPartialSort.select(fFamily, rank, fComparator); // The individuals better than the selected one are moved before it.
+		X selected = fFamily.get(rank);
 		X best = fFamily.get(0);
-		X selected = chooseIndividualByRouletteWheelSelection(fFamily);
+		for (int i = 1; i < rank; ++i) {
+			if (fComparator.compare(fFamily.get(i), best) < 0) {
+				best = fFamily.get(i);
+			}
+		}
 		assert best.getStatus() == ICSolution.Status.FEASIBLE;
 		assert selected.getStatus() == ICSolution.Status.FEASIBLE;
 		fSelectedSolutions.get(0).copyFrom(best);
@@ -89,24 +99,26 @@ public class TCBestAndRankBasedRouletteSelectionFromFamily<
 		fFamily.add(parents.get(0));
 		fFamily.add(parents.get(1));
 		fFamily.addAll(kids);
-		fRoulette.setNoOfSlots(fFamily.size());
 	}
 
 	/**
-	 * Returns the selected individual by the ranked-roulette in the family without the best.
+	 * Returns the rank of the selected individual by the ranked-roulette in the family without the best.
+	 * The rank-based weights depend only on the number of feasible individuals,
+	 * so the roulette slots are reused while the number does not change.
 	 *
-	 * @param family a family
-	 * @return the selected individual
+	 * @param noOfFeasibles the number of feasible individuals in the family
+	 * @return the rank (1 for the second best) of the selected individual
 	 * @since 2 hmkz
 	 */
-	private X chooseIndividualByRouletteWheelSelection(TCSolutionSet<X> family) {
-		fRoulette.resetCurrentSlotIndex();
-		int noOfFeasibles = getNoOfFeasibleIndividuals(family);
-		for(int i = 1; i < noOfFeasibles; i++) {
-			fRoulette.setValueToSlot((double) (noOfFeasibles + 1 - i));
+	private int chooseRankByRouletteWheelSelection(int noOfFeasibles) {
+		if (noOfFeasibles != fNoOfFeasiblesInRoulette) {
+			fRoulette.setNoOfSlots(noOfFeasibles);
+			for(int i = 1; i < noOfFeasibles; i++) {
+				fRoulette.setValueToSlot((double) (noOfFeasibles + 1 - i));
+			}
+			fNoOfFeasiblesInRoulette = noOfFeasibles;
 		}
-		int selected = fRoulette.doIt() + 1;
-		return family.get(selected);
+		return fRoulette.doIt() + 1;
 	}
 
 	/**
@@ -119,9 +131,7 @@ public class TCBestAndRankBasedRouletteSelectionFromFamily<
 	private int getNoOfFeasibleIndividuals(TCSolutionSet<X> family) {
 		int noOfFeasibles = 0;
 		for (X ind: family) {
-			if (ind.getStatus() != ICSolution.Status.FEASIBLE) {
-				break;
-			} else {
+			if (ind.getStatus() == ICSolution.Status.FEASIBLE) {
 				++noOfFeasibles;
 			}
 		}
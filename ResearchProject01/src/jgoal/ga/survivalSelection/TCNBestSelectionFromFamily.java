@@ -1,11 +1,10 @@
 package jgoal.ga.survivalSelection;
 
-import java.util.Collections;
-
 import jgoal.solution.ICSolution;
 import jgoal.solution.TCSolutionSet;
 import jgoal.solution.comparator.ICComparator;
 import jssf.di.ACParam;
+import jssf.util.TCPartialSort;
 
 /**
  * ƑN̂Wcɖ߂ID
@@ -48,8 +47,8 @@ public class TCNBestSelectionFromFamily<
 		fFamily.clear();
 		fFamily.addAll(parents);
 		fFamily.addAll(kids);
-		Collections.sort(fFamily, fComparator);
 		int noOfParents = parents.size();
+		TCPartialSort.sort(fFamily, noOfParents, fComparator); // noOfParents̂ǂɕׂD
 		for(int i=0; i<noOfParents; i++) {
 			population.add(fFamily.get(i));
 			fSelectedSolutions.add(fFamily.get(i));
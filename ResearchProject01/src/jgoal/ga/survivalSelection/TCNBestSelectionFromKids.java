@@ -1,11 +1,10 @@
 package jgoal.ga.survivalSelection;
 
-import java.util.Collections;
-
 import jgoal.solution.ICSolution;
 import jgoal.solution.TCSolutionSet;
 import jgoal.solution.comparator.ICComparator;
 import jssf.di.ACParam;
+import jssf.util.TCPartialSort;
 
 /**
  * q̏N̂Wcɖ߂ID
@@ -40,8 +39,8 @@ public class TCNBestSelectionFromKids<
 			fSelectedSolutions = new TCSolutionSet<X>(parents.get(0));
 		}
 		fSelectedSolutions.clear();
-		Collections.sort(kids, fComparator);
 		int noOfParents = parents.size();
+		TCPartialSort.sort(kids, noOfParents, fComparator); // noOfParents̂ǂɕׂD
 		for(int i=0; i<noOfParents; i++) {
 			population.add(kids.get(i));
 			fSelectedSolutions.add(kids.get(i));
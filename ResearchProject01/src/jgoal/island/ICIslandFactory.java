@@ -0,0 +1,34 @@
+package jgoal.island;
+
+import jgoal.ga.ISRealGa;
+import jgoal.solution.TCSolutionSet;
+import jgoal.solution.TSRealSolution;
+import jssf.random.ICRandom;
+
+/**
+ * 島モデルの各島のGAと初期集団を作るファクトリ．
+ * 各メソッドはその島のスレッドから呼び出される．
+ *
+ * @since 2
+ */
+public interface ICIslandFactory {
+
+	/**
+	 * 島のGAを生成する．
+	 *
+	 * @param islandNo 島の番号
+	 * @param random   島の乱数生成器
+	 * @return GA
+	 */
+	ISRealGa createGa(int islandNo, ICRandom random);
+
+	/**
+	 * 島の初期集団の座標を初期化する．評価は島モデルが行う．
+	 *
+	 * @param islandNo   島の番号
+	 * @param population 初期集団
+	 * @param random     島の乱数生成器
+	 */
+	void initializePopulation(int islandNo, TCSolutionSet<TSRealSolution> population, ICRandom random);
+
+}
@@ -0,0 +1,545 @@
+package jgoal.island;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jgoal.evaluation.ISRealObjective;
+import jgoal.evaluation.TSSequentialEvaluator;
+import jgoal.ga.ISRealGa;
+import jgoal.solution.TCSolutionSet;
+import jgoal.solution.TSRealSolution;
+import jgoal.solution.comparator.ICComparator;
+import jgoal.solution.comparator.TSEvaluationValueComparator;
+import jssf.di.ACParam;
+import jssf.log.TCTable;
+import jssf.random.ICRandom;
+import jssf.util.TCPartialSort;
+import jssf.util.TCSpscQueue;
+
+/**
+ * 島モデル．
+ * noOfIslands個の島がそれぞれ独立した集団とGA（TSArexJgg，TSRexNJggなど）を持ち，島ごとのスレッドで探索する．
+ * migrationInterval世代ごとに，各島は集団中の上位noOfMigrants個体の複製を，トポロジで定まる隣接島へ送る．
+ * 受け取った移住個体は，次の世代交代の前に集団中の最悪個体と置き換えられる．
+ * 移住はトポロジの辺ごとの容量固定のロックフリーキュー（{@link TCSpscQueue}）で行い，
+ * キューが満杯ならばその移住個体は捨てられるため，島が他の島を待つことはない．
+ * <p>
+ * 各島は，島ごとの打ち切り評価回数に達するか，いずれかの島の最良評価値が打ち切り評価値に達するまで探索する．
+ * 各島の最良評価値の推移はlogInterval世代ごとに呼び出し側のスレッドへ送られ，ログテーブルに逐次記録される．
+ * 島の乱数生成器は，与えられた乱数生成器のsplit()で島の番号順に作られる．
+ * 移住を行う場合は，移住個体が届く世代や他の島に止められる世代がスレッドの実行速度に依存するため，再現性はない．
+ * <p>
+ * トポロジがNONEならば，島0から順に探索をやり直すリスタートと同じ結果を返す．
+ * すなわち，最初に打ち切り評価値に達した島をkとすると，島0～kのみを結果として数え，
+ * 評価回数の合計，最良個体およびログは島0～kのものとなる（どの島も達しなければ全島）．
+ * 島kより後ろの島は，島kが達した時点で打ち切られる．島0～kの探索は他の島に止められることがないため，
+ * 結果は乱数の種に対して再現性がある．ただし，この場合のログは全島の探索が終わってから記録される．
+ * <p>
+ * 設定はTCObjectFactoryによりプロパティから与えられる．例：
+ * <pre>
+ * IslandModel=jgoal.island.TSIslandModel
+ * IslandModel.Minimization=true
+ * IslandModel.NoOfIslands=8
+ * IslandModel.Topology=RING
+ * IslandModel.MigrationInterval=10
+ * IslandModel.NoOfMigrants=1
+ * IslandModel.MaxEvaluations=100000
+ * </pre>
+ *
+ * @since 2
+ */
+public class TSIslandModel {
+
+	/**
+	 * 移住のトポロジ
+	 */
+	public enum Topology {
+		/** 移住しない */
+		NONE,
+		/** 島iから島(i+1) mod Nへ送る */
+		RING,
+		/** 移住のたびにランダムに選んだ他の一つの島へ送る */
+		RANDOM,
+		/** 他のすべての島へ送る */
+		FULL
+	}
+
+	/** ログテーブルへの記録を待つときの待ち時間[ms] */
+	private static final long LOG_POLLING_INTERVAL = 1L;
+
+	/** 最小化ならばtrue */
+	private boolean fMinimization;
+
+	/** 島の数 */
+	private int fNoOfIslands;
+
+	/** トポロジ */
+	private Topology fTopology;
+
+	/** 移住間隔[世代] */
+	private int fMigrationInterval;
+
+	/** 1回の移住で送る個体数 */
+	private int fNoOfMigrants;
+
+	/** 移住キューの容量 */
+	private int fQueueCapacity;
+
+	/** 島ごとの打ち切り評価回数 */
+	private long fMaxEvaluations;
+
+	/** 打ち切り評価値 */
+	private double fStopValue;
+
+	/** ログの記録間隔[世代] */
+	private int fLogInterval;
+
+	/** 個体比較器 */
+	private ICComparator<TSRealSolution> fComparator;
+
+	/** 悪い順に並べる個体比較器 */
+	private Comparator<TSRealSolution> fWorstFirstComparator;
+
+	/** 移住キュー．fMigrationQueues[i][j]は島iから島jへのキュー．辺がなければnull */
+	private TCSpscQueue<TSRealSolution>[][] fMigrationQueues;
+
+	/** 島ごとのログキュー．要素は{評価回数, 最良評価値} */
+	private TCSpscQueue<double[]>[] fLogQueues;
+
+	/** 島ごとの最良個体 */
+	private TSRealSolution[] fBestIndividuals;
+
+	/** 島ごとの評価回数 */
+	private long[] fNoOfEvaluations;
+
+	/** 結果として数える島の数 */
+	private int fNoOfCountedIslands;
+
+	/** トポロジがNONEのとき，打ち切り評価値に達した島の番号の最小値．どの島も達していなければfNoOfIslands */
+	private final AtomicInteger fFirstReachedIsland = new AtomicInteger();
+
+	/** いずれかの島が打ち切り評価値に達したか，例外が発生したならばtrue */
+	private volatile boolean fStopped;
+
+	/** 島で発生した例外 */
+	private volatile Throwable fFailure;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param minimization      最小化ならばtrue
+	 * @param noOfIslands       島の数
+	 * @param topology          トポロジ
+	 * @param migrationInterval 移住間隔[世代]
+	 * @param noOfMigrants      1回の移住で送る個体数
+	 * @param queueCapacity     移住キューの容量
+	 * @param maxEvaluations    島ごとの打ち切り評価回数
+	 * @param stopValue         打ち切り評価値
+	 * @param logInterval       ログの記録間隔[世代]
+	 */
+	public TSIslandModel(
+			@ACParam(key = "Minimization") boolean minimization,
+			@ACParam(key = "NoOfIslands") int noOfIslands,
+			@ACParam(key = "Topology", defaultValue = "RING") Topology topology,
+			@ACParam(key = "MigrationInterval", defaultValue = "10") int migrationInterval,
+			@ACParam(key = "NoOfMigrants", defaultValue = "1") int noOfMigrants,
+			@ACParam(key = "QueueCapacity", defaultValue = "16") int queueCapacity,
+			@ACParam(key = "MaxEvaluations") long maxEvaluations,
+			@ACParam(key = "StopValue", defaultValue = "1e-7") double stopValue,
+			@ACParam(key = "LogInterval", defaultValue = "10") int logInterval) {
+		if (noOfIslands < 1) {
+			throw new IllegalArgumentException("The number of islands must be positive.");
+		}
+		if (topology != Topology.NONE && (migrationInterval < 1 || noOfMigrants < 1)) {
+			throw new IllegalArgumentException("The migration interval and the number of migrants must be positive.");
+		}
+		fMinimization = minimization;
+		fNoOfIslands = noOfIslands;
+		fTopology = topology;
+		fMigrationInterval = migrationInterval;
+		fNoOfMigrants = noOfMigrants;
+		fQueueCapacity = queueCapacity;
+		fMaxEvaluations = maxEvaluations;
+		fStopValue = stopValue;
+		fLogInterval = Math.max(logInterval, 1);
+		fComparator = new TSEvaluationValueComparator<TSRealSolution>(minimization);
+		fWorstFirstComparator = Collections.reverseOrder(fComparator);
+	}
+
+	/**
+	 * 1試行を実行する．すべての島の探索が終わるまで戻らない．
+	 *
+	 * @param factory   各島のGAと初期集団を作るファクトリ
+	 * @param objective 目的関数．島ごとに複製して用いる．
+	 * @param random    乱数生成器．島の乱数生成器はこれをsplit()して作る．
+	 * @param log       ログテーブル．nullならば記録しない．
+	 * @param trialName 試行名．ログテーブルのラベルは「試行名_島の番号」および「試行名_島の番号_NoOfEvals」となる．
+	 * @return 結果として数える島の最良個体
+	 */
+	@SuppressWarnings("unchecked")
+	public TSRealSolution run(final ICIslandFactory factory, ISRealObjective objective, ICRandom random, TCTable log, String trialName) {
+		fStopped = false;
+		fFailure = null;
+		fFirstReachedIsland.set(fNoOfIslands);
+		fBestIndividuals = new TSRealSolution[fNoOfIslands];
+		fNoOfEvaluations = new long[fNoOfIslands];
+		fMigrationQueues = (TCSpscQueue<TSRealSolution>[][]) new TCSpscQueue<?>[fNoOfIslands][fNoOfIslands];
+		fLogQueues = (TCSpscQueue<double[]>[]) new TCSpscQueue<?>[fNoOfIslands];
+		for (int i = 0; i < fNoOfIslands; i++) {
+			fLogQueues[i] = new TCSpscQueue<double[]>(1024);
+			for (int j = 0; j < fNoOfIslands; j++) {
+				if (hasEdge(i, j)) {
+					fMigrationQueues[i][j] = new TCSpscQueue<TSRealSolution>(fQueueCapacity);
+				}
+			}
+		}
+		Thread[] threads = new Thread[fNoOfIslands];
+		for (int i = 0; i < fNoOfIslands; i++) {
+			final int islandNo = i;
+			final ICRandom islandRandom = random.split();
+			final ISRealObjective islandObjective = i == 0 ? objective : objective.clone();
+			threads[i] = new Thread("TSIslandModel-" + i) {
+				@Override
+				public void run() {
+					try {
+						runIsland(islandNo, factory, islandObjective, islandRandom);
+					} catch (Throwable e) {
+						fFailure = e;
+						fStopped = true;
+					}
+				}
+			};
+			threads[i].setDaemon(true);
+		}
+		for (Thread t : threads) {
+			t.start();
+		}
+		int[] logIndices = new int[fNoOfIslands];
+		List<List<double[]>> pendingLogs = null; // NONEのときは，数える島が決まるまでログを溜めておく．
+		if (fTopology == Topology.NONE) {
+			pendingLogs = new ArrayList<List<double[]>>(fNoOfIslands);
+			for (int i = 0; i < fNoOfIslands; i++) {
+				pendingLogs.add(new ArrayList<double[]>());
+			}
+		}
+		try {
+			for (Thread t : threads) {
+				while (t.isAlive()) {
+					if (!drainLogs(log, trialName, logIndices, pendingLogs)) {
+						t.join(LOG_POLLING_INTERVAL);
+					}
+				}
+			}
+		} catch (InterruptedException e) {
+			fStopped = true;
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		}
+		drainLogs(log, trialName, logIndices, pendingLogs);
+		if (fFailure != null) {
+			throw new RuntimeException(fFailure);
+		}
+		fNoOfCountedIslands = fTopology == Topology.NONE ? Math.min(fFirstReachedIsland.get() + 1, fNoOfIslands) : fNoOfIslands;
+		if (pendingLogs != null) {
+			for (int i = 0; i < fNoOfCountedIslands; i++) {
+				for (double[] record : pendingLogs.get(i)) {
+					putLogData(log, trialName, i, logIndices, record);
+				}
+			}
+		}
+		TSRealSolution best = fBestIndividuals[0];
+		for (int i = 1; i < fNoOfCountedIslands; i++) {
+			if (fComparator.compare(fBestIndividuals[i], best) < 0) {
+				best = fBestIndividuals[i];
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * 島iから島jへの移住の辺があるかどうかを返す．
+	 *
+	 * @param i 送り元の島の番号
+	 * @param j 送り先の島の番号
+	 * @return 辺があればtrue
+	 */
+	private boolean hasEdge(int i, int j) {
+		if (i == j) {
+			return false;
+		}
+		switch (fTopology) {
+			case RING:
+				return j == (i + 1) % fNoOfIslands;
+			case RANDOM:
+			case FULL:
+				return true;
+			default:
+				return false;
+		}
+	}
+
+	/**
+	 * 1つの島の探索を行う．島のスレッドで実行される．
+	 *
+	 * @param islandNo  島の番号
+	 * @param factory   ファクトリ
+	 * @param objective 目的関数
+	 * @param random    島の乱数生成器
+	 */
+	private void runIsland(int islandNo, ICIslandFactory factory, ISRealObjective objective, ICRandom random) {
+		ISRealGa ga = factory.createGa(islandNo, random);
+		TSSequentialEvaluator<TSRealSolution> evaluator = new TSSequentialEvaluator<TSRealSolution>(objective);
+		ga.setEvaluator(evaluator);
+		TCSolutionSet<TSRealSolution> population = ga.initialize(); // 初期集団を生成
+		factory.initializePopulation(islandNo, population, random); // 初期集団を初期化
+		evaluator.evaluate(population); // 初期集団を評価
+		double best = ga.getBestEvaluationValue();
+		putLog(islandNo, evaluator.getNoOfEvaluations(), best);
+		int generation = 0;
+		while (!isStopped(islandNo) && !isReached(best) && evaluator.getNoOfEvaluations() < fMaxEvaluations) {
+			immigrate(islandNo, ga);
+			ga.makeOffspring(); // 子個体集合を生成して評価．
+			ga.nextGeneration(); // 次世代に進める．
+			++generation;
+			if (fTopology != Topology.NONE && generation % fMigrationInterval == 0) {
+				emigrate(islandNo, ga, random);
+			}
+			best = ga.getBestEvaluationValue();
+			if (generation % fLogInterval == 0) {
+				putLog(islandNo, evaluator.getNoOfEvaluations(), best);
+			}
+		}
+		putLog(islandNo, evaluator.getNoOfEvaluations(), best); // 最終世代のログをとる．
+		fBestIndividuals[islandNo] = ga.getBestIndividual();
+		fNoOfEvaluations[islandNo] = evaluator.getNoOfEvaluations();
+		if (isReached(best)) {
+			if (fTopology == Topology.NONE) {
+				reachedAt(islandNo); // 後ろの島だけを止める．
+			} else {
+				fStopped = true; // 他の島も止める．
+			}
+		}
+	}
+
+	/**
+	 * 島の探索を打ち切るべきかどうかを返す．
+	 * トポロジがNONEならば，より前の島が打ち切り評価値に達したときに限り打ち切る．
+	 *
+	 * @param islandNo 島の番号
+	 * @return 打ち切るべきならばtrue
+	 */
+	private boolean isStopped(int islandNo) {
+		return fStopped || fFirstReachedIsland.get() < islandNo;
+	}
+
+	/**
+	 * 島が打ち切り評価値に達したことを記録する．
+	 *
+	 * @param islandNo 島の番号
+	 */
+	private void reachedAt(int islandNo) {
+		int first = fFirstReachedIsland.get();
+		while (islandNo < first && !fFirstReachedIsland.compareAndSet(first, islandNo)) {
+			first = fFirstReachedIsland.get();
+		}
+	}
+
+	/**
+	 * 評価値が打ち切り評価値に達したかどうかを返す．
+	 *
+	 * @param value 評価値
+	 * @return 達していればtrue
+	 */
+	private boolean isReached(double value) {
+		return fMinimization ? value <= fStopValue : value >= fStopValue;
+	}
+
+	/**
+	 * 集団中の上位個体の複製を隣接島へ送る．
+	 *
+	 * @param islandNo 島の番号
+	 * @param ga       島のGA
+	 * @param random   島の乱数生成器
+	 */
+	private void emigrate(int islandNo, ISRealGa ga, ICRandom random) {
+		TCSolutionSet<TSRealSolution> population = ga.getPopulation();
+		int noOfMigrants = Math.min(fNoOfMigrants, population.size());
+		TCPartialSort.sort(population, noOfMigrants, fComparator); // 上位noOfMigrants個体を先頭に良い順に並べる．
+		if (fTopology == Topology.RANDOM) {
+			if (fNoOfIslands < 2) {
+				return;
+			}
+			int j = random.nextInt(0, fNoOfIslands - 2);
+			if (j >= islandNo) {
+				++j; // 自身を除く．
+			}
+			send(fMigrationQueues[islandNo][j], population, noOfMigrants);
+			return;
+		}
+		for (int j = 0; j < fNoOfIslands; j++) {
+			if (fMigrationQueues[islandNo][j] != null) {
+				send(fMigrationQueues[islandNo][j], population, noOfMigrants);
+			}
+		}
+	}
+
+	/**
+	 * 集団の先頭noOfMigrants個体の複製をキューに入れる．キューが満杯ならば残りは捨てる．
+	 *
+	 * @param queue        移住キュー
+	 * @param population   先頭noOfMigrants個体が良い順に並べられた集団
+	 * @param noOfMigrants 移住個体数
+	 */
+	private static void send(TCSpscQueue<TSRealSolution> queue, TCSolutionSet<TSRealSolution> population, int noOfMigrants) {
+		for (int k = 0; k < noOfMigrants; k++) {
+			if (!queue.offer(population.get(k).clone())) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * 届いている移住個体を受け取り，集団中の最悪個体から順に置き換える．
+	 *
+	 * @param islandNo 島の番号
+	 * @param ga       島のGA
+	 */
+	private void immigrate(int islandNo, ISRealGa ga) {
+		int noOfMigrants = 0;
+		for (int i = 0; i < fNoOfIslands; i++) {
+			if (fMigrationQueues[i][islandNo] != null) {
+				noOfMigrants += fMigrationQueues[i][islandNo].size();
+			}
+		}
+		if (noOfMigrants == 0) {
+			return;
+		}
+		TCSolutionSet<TSRealSolution> population = ga.getPopulation();
+		noOfMigrants = Math.min(noOfMigrants, population.size());
+		TCPartialSort.sort(population, noOfMigrants, fWorstFirstComparator); // 下位noOfMigrants個体を先頭に悪い順に並べる．
+		int replaced = 0;
+		for (int i = 0; i < fNoOfIslands && replaced < noOfMigrants; i++) {
+			TCSpscQueue<TSRealSolution> queue = fMigrationQueues[i][islandNo];
+			if (queue == null) {
+				continue;
+			}
+			TSRealSolution migrant;
+			while (replaced < noOfMigrants && (migrant = queue.poll()) != null) {
+				population.set(replaced, migrant);
+				++replaced;
+			}
+		}
+	}
+
+	/**
+	 * ログを呼び出し側のスレッドへ送る．キューが満杯ならば空くまで待つ．
+	 *
+	 * @param islandNo  島の番号
+	 * @param noOfEvals 評価回数
+	 * @param best      最良評価値
+	 */
+	private void putLog(int islandNo, long noOfEvals, double best) {
+		double[] record = new double[] { noOfEvals, best };
+		while (!fLogQueues[islandNo].offer(record)) {
+			Thread.yield();
+		}
+	}
+
+	/**
+	 * 各島から届いているログをログテーブルに記録する．
+	 *
+	 * @param log         ログテーブル．nullならば捨てる．
+	 * @param trialName   試行名
+	 * @param logIndices  島ごとのログテーブルの行の添字
+	 * @param pendingLogs 島ごとの溜めておくログ．nullならばすぐに記録する．
+	 * @return 一つでも受け取ればtrue
+	 */
+	private boolean drainLogs(TCTable log, String trialName, int[] logIndices, List<List<double[]>> pendingLogs) {
+		boolean drained = false;
+		for (int i = 0; i < fNoOfIslands; i++) {
+			for (double[] record = fLogQueues[i].poll(); record != null; record = fLogQueues[i].poll()) {
+				if (pendingLogs != null) {
+					pendingLogs.get(i).add(record);
+				} else {
+					putLogData(log, trialName, i, logIndices, record);
+				}
+				drained = true;
+			}
+		}
+		return drained;
+	}
+
+	/**
+	 * 1つのログをログテーブルに記録する．
+	 *
+	 * @param log        ログテーブル．nullならば捨てる．
+	 * @param trialName  試行名
+	 * @param islandNo   島の番号
+	 * @param logIndices 島ごとのログテーブルの行の添字
+	 * @param record     {評価回数, 最良評価値}
+	 */
+	private static void putLogData(TCTable log, String trialName, int islandNo, int[] logIndices, double[] record) {
+		if (log == null) {
+			return;
+		}
+		log.putData(logIndices[islandNo], trialName + "_" + islandNo + "_NoOfEvals", (long) record[0]);
+		log.putData(logIndices[islandNo], trialName + "_" + islandNo, record[1]);
+		++logIndices[islandNo];
+	}
+
+	/**
+	 * 直前の試行における島ごとの最良個体を返す．
+	 *
+	 * @param islandNo 島の番号
+	 * @return 最良個体
+	 */
+	public TSRealSolution getBestIndividual(int islandNo) {
+		return fBestIndividuals[islandNo];
+	}
+
+	/**
+	 * 直前の試行における島ごとの評価回数を返す．
+	 *
+	 * @param islandNo 島の番号
+	 * @return 評価回数
+	 */
+	public long getNoOfEvaluations(int islandNo) {
+		return fNoOfEvaluations[islandNo];
+	}
+
+	/**
+	 * 直前の試行において結果として数える島の評価回数の合計を返す．
+	 *
+	 * @return 評価回数
+	 */
+	public long getNoOfEvaluations() {
+		long sum = 0;
+		for (int i = 0; i < fNoOfCountedIslands; i++) {
+			sum += fNoOfEvaluations[i];
+		}
+		return sum;
+	}
+
+	/**
+	 * 直前の試行において結果として数える島の数を返す．
+	 * トポロジがNONEならば最初に打ち切り評価値に達した島までの数，それ以外ならば島の数となる．
+	 *
+	 * @return 結果として数える島の数
+	 */
+	public int getNoOfCountedIslands() {
+		return fNoOfCountedIslands;
+	}
+
+	/**
+	 * 島の数を返す．
+	 *
+	 * @return 島の数
+	 */
+	public int getNoOfIslands() {
+		return fNoOfIslands;
+	}
+
+}
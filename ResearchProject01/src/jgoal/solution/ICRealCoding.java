@@ -1,6 +1,6 @@
 package jgoal.solution;
 
-import jssf.math.TCMatrix;
+import jssf.math.TCVector;
 
 /**
  * Supports the real vector representation of objects. Real vectors are used as
@@ -23,7 +23,7 @@ public interface ICRealCoding {
 	 * @return the real vector representation of this object
 	 * @since 2 isao
 	 */
-	TCMatrix getVector();
+	TCVector getVector();
 
 	/**
 	 * ベクトルが更新されたことを通知する．
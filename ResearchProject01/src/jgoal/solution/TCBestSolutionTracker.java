@@ -0,0 +1,90 @@
+package jgoal.solution;
+
+import java.io.Serializable;
+
+import jgoal.solution.comparator.ICComparator;
+
+/**
+ * 集団中の最良個体を逐次的に追跡する．
+ * 集団から取り除いた個体と集団の末尾に追加した個体を知らせることで，
+ * 毎世代の最良個体の取得を，集団全体の整列の代わりに追加個体数に比例する時間で行う．
+ * 最良個体が集団から取り除かれた場合や，集団が外部から変更された場合は，次の取得時に集団を一度だけ走査する．
+ *
+ * @since 2
+ *
+ * @param <X>
+ */
+public class TCBestSolutionTracker<X extends ICSolution> implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/** 個体比較器 */
+	private ICComparator<X> fComparator;
+
+	/** 最良個体．nullならば不明 */
+	private X fBest;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param comparator 個体比較器
+	 */
+	public TCBestSolutionTracker(ICComparator<X> comparator) {
+		fComparator = comparator;
+		fBest = null;
+	}
+
+	/**
+	 * 最良個体を不明にする．集団が外部から変更されるときに呼び出す．
+	 */
+	public void invalidate() {
+		fBest = null;
+	}
+
+	/**
+	 * 集団から個体が取り除かれたことを知らせる．
+	 *
+	 * @param removed 取り除かれた個体
+	 */
+	public void removed(TCSolutionSet<X> removed) {
+		for (int i = 0; i < removed.size(); i++) {
+			if (removed.get(i) == fBest) {
+				fBest = null;
+				return;
+			}
+		}
+	}
+
+	/**
+	 * 集団のfrom番目以降に個体が追加されたことを知らせる．
+	 *
+	 * @param population 集団
+	 * @param from       追加された最初の個体の位置
+	 */
+	public void added(TCSolutionSet<X> population, int from) {
+		if (fBest == null) {
+			return;
+		}
+		for (int i = from; i < population.size(); i++) {
+			X s = population.get(i);
+			if (fComparator.compare(s, fBest) < 0) {
+				fBest = s;
+			}
+		}
+	}
+
+	/**
+	 * 集団中の最良個体を返す．
+	 *
+	 * @param population 集団
+	 * @return 集団中の最良個体
+	 */
+	public X getBest(TCSolutionSet<X> population) {
+		if (fBest == null) {
+			fBest = population.get(0);
+			added(population, 1);
+		}
+		return fBest;
+	}
+
+}
@@ -0,0 +1,243 @@
+package jgoal.solution;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+
+import jgoal.solution.ICSolution.Status;
+import jssf.di.ACParam;
+import jssf.math.TCMatrix;
+
+/**
+ * 実数値個体群を配列の構造体（structure of arrays）として保持する記憶領域．
+ * 全個体の実数ベクトルを「容量×次元数」の一つの行列（1行が1個体）に，
+ * 評価値と状態を個体のスロット番号で添字づけたdouble配列とbyte配列に保持する．
+ * <p>
+ * 個体はスロット番号を持つハンドルTSStoredRealSolutionとして扱う．
+ * ハンドルはISRealSolutionを満たすため，TCSolutionSetに入れて，GAの各オペレータにそのまま渡せる．
+ * ハンドルのcloneは同じ記憶領域に新しいスロットを確保するため，ハンドルをテンプレートとするTCSolutionFactoryも使える．
+ * <p>
+ * 容量は固定である．スロットはreleaseで明示的に返すか，
+ * markで生きている個体を印付けた後にsweepで印のないスロットをまとめて返す．
+ * 返したスロットのハンドルを使ってはならない．
+ * 子個体を使い回すオペレータ（TCArexとexchangeKids）ならば，集団サイズ＋子個体数の容量で足りる．
+ * 毎世代新しい子個体を作るオペレータ（TCRex，TCUndx）では，世代ごとに生きているハンドルをすべて印付けてsweepすること．
+ * 印付けるのは集団だけではない．テンプレートとして渡したハンドル，オペレータが内部に持つ親個体集合や子個体集合，
+ * 最良個体の追跡などが持つハンドルも印付けなければ，スロットが返されて別の個体に上書きされる．
+ *
+ * @since 2
+ */
+public class TCRealSolutionStore implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/** 状態の値．fStatusesにはこの配列の添字を格納する． */
+	static final Status[] STATUSES = Status.values();
+
+	/** 次元数 */
+	private int fDimension;
+
+	/** 容量 */
+	private int fCapacity;
+
+	/** 全個体の実数ベクトル．スロットiの第j要素はi * fDimension + jにある． */
+	double[] fVectors;
+
+	/** 全個体の評価値 */
+	double[] fEvaluationValues;
+
+	/** 全個体の状態 */
+	byte[] fStatuses;
+
+	/** 空きスロットのスタック */
+	private int[] fFreeSlots;
+
+	/** 空きスロットの数 */
+	private int fNoOfFreeSlots;
+
+	/** スロットが使用中ならばtrue */
+	private boolean[] fAllocated;
+
+	/** markで印付けたスロットならばtrue */
+	private boolean[] fMarked;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param dimension 次元数
+	 * @param capacity  容量（同時に存在できる個体数）
+	 * @throws IllegalArgumentException 次元数か容量が負，または，次元数×容量がintの範囲を超える場合
+	 */
+	public TCRealSolutionStore(
+			@ACParam(key = "Dimension") int dimension,
+			@ACParam(key = "Capacity") int capacity) {
+		if (dimension < 0 || capacity < 0) {
+			throw new IllegalArgumentException("The dimension and capacity must be non-negative.");
+		}
+		if ((long) dimension * capacity > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("dimension * capacity exceeds Integer.MAX_VALUE: " + dimension + " * " + capacity);
+		}
+		fDimension = dimension;
+		fCapacity = capacity;
+		fVectors = new double[dimension * capacity];
+		fEvaluationValues = new double[capacity];
+		fStatuses = new byte[capacity];
+		fAllocated = new boolean[capacity];
+		fMarked = new boolean[capacity];
+		fFreeSlots = new int[capacity];
+		for (int i = 0; i < capacity; i++) {
+			fFreeSlots[i] = capacity - 1 - i; // スロット0から順に確保されるようにする．
+		}
+		fNoOfFreeSlots = capacity;
+	}
+
+	/**
+	 * 新しい個体を確保して返す．
+	 * 実数ベクトルは零ベクトル，評価値はNaN，状態はNOT_EVALUATEDで初期化される．
+	 *
+	 * @return 新しい個体
+	 */
+	public TSStoredRealSolution create() {
+		if (fNoOfFreeSlots == 0) {
+			throw new IllegalStateException("The store is full.");
+		}
+		int index = fFreeSlots[--fNoOfFreeSlots];
+		fAllocated[index] = true;
+		Arrays.fill(fVectors, index * fDimension, (index + 1) * fDimension, 0.0);
+		fEvaluationValues[index] = Double.NaN;
+		fStatuses[index] = (byte) Status.NOT_EVALUATED.ordinal();
+		return new TSStoredRealSolution(this, index);
+	}
+
+	/**
+	 * 個体のスロットを返す．
+	 *
+	 * @param s 個体
+	 */
+	public void release(TSStoredRealSolution s) {
+		if (s.getStore() != this || !fAllocated[s.getIndex()]) {
+			throw new IllegalArgumentException("The solution is not allocated in this store.");
+		}
+		free(s.getIndex());
+	}
+
+	/**
+	 * 個体群を生きている個体として印付ける．
+	 * 次のsweepの前に，集団，テンプレート，オペレータ内部の個体集合など，生きているハンドルをすべて印付けること．
+	 *
+	 * @param live 生きている個体群
+	 */
+	public void mark(Collection<? extends TSStoredRealSolution> live) {
+		for (TSStoredRealSolution s : live) {
+			if (s.getStore() == this) {
+				fMarked[s.getIndex()] = true;
+			}
+		}
+	}
+
+	/**
+	 * 前回のsweepの後にmarkで印付けられなかったスロットをすべて返し，印を消す．
+	 *
+	 * @return 返したスロットの数
+	 */
+	public int sweep() {
+		int noOfReleased = 0;
+		for (int i = 0; i < fCapacity; i++) {
+			if (fAllocated[i] && !fMarked[i]) {
+				free(i);
+				noOfReleased++;
+			}
+			fMarked[i] = false;
+		}
+		return noOfReleased;
+	}
+
+	/**
+	 * スロットを空きスロットのスタックに積む．
+	 *
+	 * @param index スロット番号
+	 */
+	private void free(int index) {
+		fAllocated[index] = false;
+		fFreeSlots[fNoOfFreeSlots++] = index;
+	}
+
+	/**
+	 * スロットsrcの内容をスロットdstにコピーする．
+	 *
+	 * @param src コピー元のスロット番号
+	 * @param dst コピー先のスロット番号
+	 */
+	public void copy(int src, int dst) {
+		System.arraycopy(fVectors, src * fDimension, fVectors, dst * fDimension, fDimension);
+		fEvaluationValues[dst] = fEvaluationValues[src];
+		fStatuses[dst] = fStatuses[src];
+	}
+
+	/**
+	 * 全スロットの実数ベクトルを並べた「容量×次元数」の行列を返す．
+	 * 記憶領域と要素を共有するビューであり，スロットiの実数ベクトルが第i行になる．
+	 *
+	 * @return 全スロットの実数ベクトルの行列
+	 */
+	public TCMatrix getVectors() {
+		return new TCMatrix(fVectors, 0, fDimension, fCapacity, fDimension);
+	}
+
+	/**
+	 * 全スロットの評価値の配列を返す．スロット番号で添字づけられ，記憶領域と要素を共有する．
+	 *
+	 * @return 全スロットの評価値の配列
+	 */
+	public double[] getEvaluationValues() {
+		return fEvaluationValues;
+	}
+
+	/**
+	 * スロットの状態を設定する．
+	 *
+	 * @param index  スロット番号
+	 * @param status 状態
+	 */
+	public void setStatus(int index, Status status) {
+		fStatuses[index] = (byte) status.ordinal();
+	}
+
+	/**
+	 * スロットの状態を返す．
+	 *
+	 * @param index スロット番号
+	 * @return 状態
+	 */
+	public Status getStatus(int index) {
+		return STATUSES[fStatuses[index]];
+	}
+
+	/**
+	 * 次元数を返す．
+	 *
+	 * @return 次元数
+	 */
+	public int getDimension() {
+		return fDimension;
+	}
+
+	/**
+	 * 容量を返す．
+	 *
+	 * @return 容量
+	 */
+	public int getCapacity() {
+		return fCapacity;
+	}
+
+	/**
+	 * 使用中のスロットの数を返す．
+	 *
+	 * @return 使用中のスロットの数
+	 */
+	public int getNoOfSolutions() {
+		return fCapacity - fNoOfFreeSlots;
+	}
+
+}
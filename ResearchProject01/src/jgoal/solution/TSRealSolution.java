@@ -1,12 +1,12 @@
 package jgoal.solution;
 
 import jssf.di.ACParam;
-import jssf.math.TCMatrix;;
+import jssf.math.TCVector;
 
 /**
  * Represents an individual for single-objective real-coded GAs.
  *
- * @see TCMatrix
+ * @see TCVector
  * @since 2
  * @author hmkz
  */
@@ -22,7 +22,7 @@ public class TSRealSolution implements ISRealSolution {
 	private double fEvaluationValue;
 
 	/** A real vector */
-	private TCMatrix fRealVector;
+	private TCVector fRealVector;
 
 	/**
 	 * Creates an individual with a zero dimensional vector.
@@ -44,7 +44,7 @@ public class TSRealSolution implements ISRealSolution {
 	) {
 		fStatus = Status.NOT_EVALUATED;
 		fEvaluationValue = Double.NaN;
-		fRealVector = new TCMatrix(dimension, 1);
+		fRealVector = new TCVector(dimension);
 	}
 
 	/**
@@ -54,7 +54,7 @@ public class TSRealSolution implements ISRealSolution {
 	public TSRealSolution(TSRealSolution src) {
 		fStatus = src.fStatus;
 		fEvaluationValue = src.fEvaluationValue;
-		fRealVector = new TCMatrix(src.fRealVector);
+		fRealVector = new TCVector(src.fRealVector);
 	}
 	
 	/**
@@ -125,7 +125,7 @@ public class TSRealSolution implements ISRealSolution {
 	 * @since 2 hmkz
 	 */
 	@Override
-	public TCMatrix getVector() {
+	public TCVector getVector() {
 		return fRealVector;
 	}
 
@@ -148,7 +148,7 @@ public class TSRealSolution implements ISRealSolution {
 		StringBuilder sb = new StringBuilder();
 		sb.append("status=").append(fStatus);
 		sb.append(", f(x)=").append(fEvaluationValue);
-		sb.append(", x=").append(fRealVector.clone().transpose());
+		sb.append(", x=").append(fRealVector);
 		return sb.toString();
 	}
 
@@ -0,0 +1,149 @@
+package jgoal.solution;
+
+import jssf.math.TCVector;
+
+/**
+ * TCRealSolutionStoreのスロットを指す単目的実数値個体．
+ * 実数ベクトル，評価値，状態はすべて記憶領域の配列に置かれ，このオブジェクトはスロット番号とベクトルのビューだけを持つ．
+ * 個体はTCRealSolutionStore.createで作る．
+ *
+ * @see TCRealSolutionStore
+ * @since 2
+ */
+public class TSStoredRealSolution implements ISRealSolution {
+
+	private static final long serialVersionUID = 1L;
+
+	/** 記憶領域 */
+	private TCRealSolutionStore fStore;
+
+	/** スロット番号 */
+	private int fIndex;
+
+	/** 記憶領域の実数ベクトルのビュー */
+	private TCVector fRealVector;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param store 記憶領域
+	 * @param index スロット番号
+	 */
+	TSStoredRealSolution(TCRealSolutionStore store, int index) {
+		fStore = store;
+		fIndex = index;
+		fRealVector = new TCVector(store.fVectors, index * store.getDimension(), store.getDimension());
+	}
+
+	/**
+	 * 同じ記憶領域に新しいスロットを確保して，この個体をコピーする．
+	 */
+	@Override
+	public TSStoredRealSolution clone() {
+		TSStoredRealSolution s = fStore.create();
+		fStore.copy(fIndex, s.fIndex);
+		return s;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see jgoal.solution.ICSolution#copyFrom(jgoal.solution.ICSolution)
+	 */
+	@Override
+	public TSStoredRealSolution copyFrom(ICSolution src) {
+		if (src instanceof TSStoredRealSolution && ((TSStoredRealSolution) src).fStore == fStore) {
+			fStore.copy(((TSStoredRealSolution) src).fIndex, fIndex);
+			return this;
+		}
+		ISRealSolution _src = (ISRealSolution) src;
+		fRealVector.copyFrom(_src.getVector());
+		setEvaluationValue(_src.getEvaluationValue());
+		setStatus(_src.getStatus());
+		return this;
+	}
+
+	/**
+	 * 記憶領域を返す．
+	 *
+	 * @return 記憶領域
+	 */
+	public TCRealSolutionStore getStore() {
+		return fStore;
+	}
+
+	/**
+	 * スロット番号を返す．
+	 *
+	 * @return スロット番号
+	 */
+	public int getIndex() {
+		return fIndex;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see jgoal.solution.ISSolution#getEvaluationValue()
+	 */
+	@Override
+	public double getEvaluationValue() {
+		return fStore.fEvaluationValues[fIndex];
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see jgoal.solution.ISSolution#setEvaluationValue(double)
+	 */
+	@Override
+	public void setEvaluationValue(double value) {
+		fStore.fEvaluationValues[fIndex] = value;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see jgoal.solution.ICSolution#getStatus()
+	 */
+	@Override
+	public Status getStatus() {
+		return TCRealSolutionStore.STATUSES[fStore.fStatuses[fIndex]];
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see jgoal.solution.ICSolution#setStatus(jgoal.solution.ICSolution.Status)
+	 */
+	@Override
+	public void setStatus(Status status) {
+		fStore.fStatuses[fIndex] = (byte) status.ordinal();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see jgoal.solution.ICRealCoding#getVector()
+	 */
+	@Override
+	public TCVector getVector() {
+		return fRealVector;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see jgoal.solution.ICRealCoding#notifyVectorUpdated()
+	 */
+	@Override
+	public void notifyVectorUpdated() {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("status=").append(getStatus());
+		sb.append(", f(x)=").append(getEvaluationValue());
+		sb.append(", x=").append(fRealVector);
+		return sb.toString();
+	}
+
+}
@@ -1,98 +1,512 @@
 package jssf.log;
 
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
 import java.io.FileReader;
+import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 
-public class TCTable {
+/**
+ * ラベル付きの列からなるログテーブル．CSVフォーマットで入出力する．
+ * <p>
+ * データは列ごとに，行の添字で添字づけたプリミティブ型の配列に保持する．
+ * 整数（Byte，Short，Integer，Long）はlongのまま，それ以外の数はdoubleとして保持し，
+ * getDataはそれぞれLongとDoubleで返す．整数とDoubleは，CSVに元の数と同じ文字列で出力される．
+ * Floatなどそれ以外の数はdoubleに変換した値の文字列となる（例えば0.1fは0.10000000149011612）．
+ * ラベルの代わりにgetColumnIndexで得た列の添字を使うと，記録のたびにラベルを探す必要がない．
+ * <p>
+ * streamを呼び出すと，それ以降は完了した行をCSVファイルに逐次書き出し，メモリ上には未完了の行だけを保持する．
+ * このモードでは行を添字の順に記録すること．ある行に記録すると，それより前の行は完了したものとみなされる．
+ * ヘッダは最初の行を書き出すときに出力されるため，それ以降にラベルを追加することはできない．
+ * 最後の行はcloseで書き出される．
+ * 逐次書き出した複数のCSVファイルは，mergeでputAllと同じ内容の一つのCSVファイルにまとめられる．
+ */
+public class TCTable implements Closeable {
+
+	/** セルが空であることを表す型 */
+	private static final byte EMPTY = 0;
+
+	/** セルがlongであることを表す型 */
+	private static final byte LONG = 1;
+
+	/** セルがdoubleであることを表す型 */
+	private static final byte DOUBLE = 2;
+
+	/** 配列の初期容量 */
+	private static final int INITIAL_CAPACITY = 16;
+
+	/**
+	 * 1列分のデータ．
+	 * セルの値は，型がLONGならばそのまま，DOUBLEならばDouble.doubleToRawLongBitsで変換してfValuesに格納する．
+	 */
+	private static class TCColumn {
+
+		/** セルの値．第i要素は第(fFirstRow + i)行 */
+		long[] fValues = new long[INITIAL_CAPACITY];
+
+		/** セルの型 */
+		byte[] fTypes = new byte[INITIAL_CAPACITY];
+
+		/**
+		 * 容量を確保する．
+		 * @param capacity 必要な容量
+		 */
+		void ensureCapacity(int capacity) {
+			if (capacity > fValues.length) {
+				int newCapacity = Math.max(capacity, 2 * fValues.length);
+				long[] values = new long[newCapacity];
+				byte[] types = new byte[newCapacity];
+				System.arraycopy(fValues, 0, values, 0, fValues.length);
+				System.arraycopy(fTypes, 0, types, 0, fTypes.length);
+				fValues = values;
+				fTypes = types;
+			}
+		}
+
+		/**
+		 * 第from要素以降のlength個の要素を先頭に移し，残りを空にする．
+		 * @param from 先頭に移す最初の要素
+		 * @param length 要素数
+		 */
+		void shift(int from, int length) {
+			System.arraycopy(fValues, from, fValues, 0, length);
+			System.arraycopy(fTypes, from, fTypes, 0, length);
+			for (int i = length; i < from + length; ++i) {
+				fTypes[i] = EMPTY;
+			}
+		}
+
+		/**
+		 * セルの値を文字列にして書き込む．空ならば何も書き込まない．
+		 * @param w 出力先
+		 * @param i 要素の添字
+		 * @throws IOException
+		 */
+		void write(Writer w, int i) throws IOException {
+			if (fTypes[i] == LONG) {
+				w.write(Long.toString(fValues[i]));
+			} else if (fTypes[i] == DOUBLE) {
+				w.write(Double.toString(Double.longBitsToDouble(fValues[i])));
+			}
+		}
+	}
 
 	private ArrayList<String> fKeys = new ArrayList<String>();
 
-	private ArrayList<HashMap<String, Number>> fTable = new ArrayList<HashMap<String, Number>>();
+	/** ラベルから列の添字への対応 */
+	private HashMap<String, Integer> fKeyIndices = new HashMap<String, Integer>();
+
+	/** 列．ラベルと同じ順に並ぶ． */
+	private ArrayList<TCColumn> fColumns = new ArrayList<TCColumn>();
+
+	/** 行数 */
+	private int fSize = 0;
+
+	/** メモリ上に保持している最初の行の添字．streamで書き出した行はメモリ上にない． */
+	private int fFirstRow = 0;
+
+	/** 逐次書き出しの出力先．nullならば逐次書き出しを行わない． */
+	private Writer fWriter = null;
+
+	/** ヘッダを書き出したならばtrue */
+	private boolean fHeaderWritten = false;
 
 	public TCTable() {
 	}
 
-	public void putData(int index, String key, Number x) {
+	/**
+	 * ラベルの列の添字を返す．ラベルがなければ列を追加する．
+	 *
+	 * @param key ラベル
+	 * @return 列の添字
+	 */
+	public int getColumnIndex(String key) {
+		Integer column = fKeyIndices.get(key);
+		if (column != null) {
+			return column;
+		}
+		if (fHeaderWritten) {
+			throw new IllegalStateException("The key " + key + " cannot be added after the header has been written.");
+		}
+		TCColumn c = new TCColumn();
+		c.ensureCapacity(fSize - fFirstRow);
+		fKeys.add(key);
+		fColumns.add(c);
+		fKeyIndices.put(key, fKeys.size() - 1);
+		return fKeys.size() - 1;
+	}
+
+	/**
+	 * index行目のセルを確保して，その列を返す．
+	 * 逐次書き出しを行っている場合は，index行目より前の行を書き出す．
+	 *
+	 * @param index 行の添字
+	 * @param column 列の添字
+	 * @return 列
+	 */
+	private TCColumn cell(int index, int column) {
+		if (index < fFirstRow) {
+			throw new IllegalStateException("The row " + index + " has already been written.");
+		}
+		if (fWriter != null && index > fFirstRow) {
+			try {
+				writeRows(Math.min(index, fSize));
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+		}
 		resize(index + 1);
-		if (!fKeys.contains(key)) {
-			fKeys.add(key);
+		return fColumns.get(column);
+	}
+
+	public void putData(int index, String key, Number x) {
+		if (x == null) {
+			TCColumn c = cell(index, getColumnIndex(key));
+			c.fTypes[index - fFirstRow] = EMPTY;
+		} else if (x instanceof Long || x instanceof Integer || x instanceof Short || x instanceof Byte) {
+			putData(index, getColumnIndex(key), x.longValue());
+		} else {
+			putData(index, getColumnIndex(key), x.doubleValue());
 		}
-		fTable.get(index).put(key, x);
+	}
+
+	/**
+	 * index行目のラベルkeyの列に整数を記録する．
+	 *
+	 * @param index 行の添字
+	 * @param key ラベル
+	 * @param x 値
+	 */
+	public void putData(int index, String key, long x) {
+		putData(index, getColumnIndex(key), x);
+	}
+
+	/**
+	 * index行目のラベルkeyの列に実数を記録する．
+	 *
+	 * @param index 行の添字
+	 * @param key ラベル
+	 * @param x 値
+	 */
+	public void putData(int index, String key, double x) {
+		putData(index, getColumnIndex(key), x);
+	}
+
+	/**
+	 * index行目のcolumn列目に整数を記録する．
+	 *
+	 * @param index 行の添字
+	 * @param column 列の添字（getColumnIndexで得る）
+	 * @param x 値
+	 */
+	public void putData(int index, int column, long x) {
+		TCColumn c = cell(index, column);
+		c.fValues[index - fFirstRow] = x;
+		c.fTypes[index - fFirstRow] = LONG;
+	}
+
+	/**
+	 * index行目のcolumn列目に実数を記録する．
+	 *
+	 * @param index 行の添字
+	 * @param column 列の添字（getColumnIndexで得る）
+	 * @param x 値
+	 */
+	public void putData(int index, int column, double x) {
+		TCColumn c = cell(index, column);
+		c.fValues[index - fFirstRow] = Double.doubleToRawLongBits(x);
+		c.fTypes[index - fFirstRow] = DOUBLE;
 	}
 
 	public Number getData(int index, String key) {
-		if (index >= fTable.size()) {
+		if (index >= fSize) {
 			throw new ArrayIndexOutOfBoundsException();
 		}
-		return fTable.get(index).get(key);
+		if (index < fFirstRow) {
+			throw new IllegalStateException("The row " + index + " has already been written.");
+		}
+		Integer column = fKeyIndices.get(key);
+		if (column == null) {
+			return null;
+		}
+		TCColumn c = fColumns.get(column);
+		int i = index - fFirstRow;
+		if (c.fTypes[i] == LONG) {
+			return c.fValues[i];
+		} else if (c.fTypes[i] == DOUBLE) {
+			return Double.longBitsToDouble(c.fValues[i]);
+		}
+		return null;
+	}
+
+	/**
+	 * 行数を返す．
+	 *
+	 * @return 行数
+	 */
+	public int size() {
+		return fSize;
+	}
+
+	/**
+	 * ラベルを追加された順に返す．
+	 *
+	 * @return ラベルのリスト
+	 */
+	public List<String> getKeys() {
+		return Collections.unmodifiableList(fKeys);
+	}
+
+	/**
+	 * srcのすべてのデータを同じ行・同じラベルに記録する．
+	 * 既にデータがあればsrcのデータで上書きする．
+	 * 新しいラベルはsrcでの順に追加される．
+	 *
+	 * @param src 記録するテーブル
+	 */
+	public void putAll(TCTable src) {
+		if (src.fFirstRow > 0) {
+			throw new IllegalStateException("The source table has already written its rows.");
+		}
+		for (int j = 0; j < src.fKeys.size(); ++j) {
+			int column = getColumnIndex(src.fKeys.get(j));
+			TCColumn s = src.fColumns.get(j);
+			for (int i = 0; i < src.fSize; ++i) {
+				if (s.fTypes[i] != EMPTY) {
+					TCColumn c = cell(i, column);
+					c.fValues[i - fFirstRow] = s.fValues[i];
+					c.fTypes[i - fFirstRow] = s.fTypes[i];
+				}
+			}
+		}
+		resize(src.fSize);
 	}
 
 	private void resize(int size) {
-		while (fTable.size() < size) {
-			fTable.add(new HashMap<String, Number>());
+		if (fSize < size) {
+			for (TCColumn c : fColumns) {
+				c.ensureCapacity(size - fFirstRow);
+			}
+			fSize = size;
+		}
+	}
+
+	/**
+	 * これ以降，完了した行をCSVファイルfilenameに逐次書き出す．
+	 * 既に記録されている行のうち，最後の行以外はすぐに書き出す．
+	 * ヘッダは最初の行を書き出すときに出力する．
+	 *
+	 * @param filename ファイル名
+	 * @throws IOException
+	 */
+	public void stream(String filename) throws IOException {
+		if (fWriter != null) {
+			throw new IllegalStateException("The table is already streaming.");
+		}
+		fWriter = new BufferedWriter(new FileWriter(filename));
+		writeRows(Math.max(fFirstRow, fSize - 1));
+	}
+
+	/**
+	 * 逐次書き出しを行っている場合は，残りの行をすべて書き出してファイルを閉じる．
+	 * 行っていない場合は何もしない．
+	 */
+	@Override
+	public void close() throws IOException {
+		if (fWriter != null) {
+			writeRows(fSize);
+			fWriter.close();
+			fWriter = null;
+		}
+	}
+
+	/**
+	 * メモリ上のend行目より前の行を書き出し，メモリ上から取り除く．
+	 *
+	 * @param end 書き出さない最初の行の添字
+	 * @throws IOException
+	 */
+	private void writeRows(int end) throws IOException {
+		if (end <= fFirstRow) {
+			return;
+		}
+		if (!fHeaderWritten) {
+			writeHeader(fWriter);
+			fHeaderWritten = true;
+		}
+		writeRows(fWriter, 0, end - fFirstRow);
+		fWriter.flush();
+		for (TCColumn c : fColumns) {
+			c.shift(end - fFirstRow, fSize - end);
+		}
+		fFirstRow = end;
+	}
+
+	/**
+	 * ラベルの行を書き込む．
+	 * @param w 出力先
+	 * @throws IOException
+	 */
+	private void writeHeader(Writer w) throws IOException {
+		for (int i = 0; i < fKeys.size(); ++i) {
+			w.write(fKeys.get(i));
+			w.write(i < fKeys.size() - 1 ? "," : "\n");
+		}
+	}
+
+	/**
+	 * メモリ上の第from要素から第(to - 1)要素までの行を書き込む．
+	 * @param w 出力先
+	 * @param from 最初の要素
+	 * @param to 最後の要素の次
+	 * @throws IOException
+	 */
+	private void writeRows(Writer w, int from, int to) throws IOException {
+		for (int i = from; i < to; ++i) {
+			for (int j = 0; j < fColumns.size(); ++j) {
+				fColumns.get(j).write(w, i);
+				w.write(j < fColumns.size() - 1 ? "," : "\n");
+			}
 		}
 	}
 
 	public void writeTo(String filename) throws IOException {
-		PrintWriter pw = new PrintWriter(filename);
-		pw.print(toString());
-		pw.close();
+		if (fFirstRow > 0) {
+			throw new IllegalStateException("The table has already written its rows.");
+		}
+		Writer w = new BufferedWriter(new FileWriter(filename));
+		try {
+			writeHeader(w);
+			writeRows(w, 0, fSize);
+		} finally {
+			w.close();
+		}
 	}
 
 	public void readFrom(String filename) throws IOException {
+		if (fWriter != null) {
+			throw new IllegalStateException("The table is streaming.");
+		}
 		fKeys.clear();
-		fTable.clear();
+		fKeyIndices.clear();
+		fColumns.clear();
+		fSize = 0;
+		fFirstRow = 0;
+		fHeaderWritten = false;
 		BufferedReader br = new BufferedReader(new FileReader(filename));
 		String[] keys = br.readLine().split(",");
-		for (String key : keys) {
-			fKeys.add(key);
+		int[] columns = new int[keys.length];
+		for (int i = 0; i < keys.length; ++i) {
+			columns[i] = getColumnIndex(keys[i]);
 		}
 		String line = br.readLine();
 		while (line != null) {
-			HashMap<String, Number> data = new HashMap<String, Number>();
+			int index = fSize;
+			resize(index + 1);
 			String[] elements = line.split(",");
 			if (elements.length > 0) {
 				for (int i = 0; i < elements.length; ++i) {
 					if (!elements[i].isEmpty()) {
-						data.put(fKeys.get(i), Double.valueOf(elements[i]));
+						putData(index, columns[i], Double.parseDouble(elements[i]));
 					}
 				}
 			}
-			fTable.add(data);
 			line = br.readLine();
 		}
 		br.close();
 	}
 
-	public String toString() {
-		String str = "";
-		for (int i = 0; i < fKeys.size(); ++i) {
-			str += fKeys.get(i);
-			if (i < fKeys.size() - 1) {
-				str += ",";
-			} else {
-				str += "\n";
+	/**
+	 * CSVファイルsrcsの内容を，それぞれを読み込んでputAllで順にまとめたテーブルと同じ内容のCSVファイルfilenameに書き出す．
+	 * 各ファイルを1行ずつ読みながら書き出すため，メモリ上にはファイルごとに1行だけを保持する．
+	 * セルの文字列はそのまま書き出す．
+	 *
+	 * @param srcs 入力ファイル名のリスト
+	 * @param filename 出力ファイル名
+	 * @throws IOException
+	 */
+	public static void merge(List<String> srcs, String filename) throws IOException {
+		ArrayList<String> keys = new ArrayList<String>();
+		HashMap<String, Integer> keyIndices = new HashMap<String, Integer>();
+		BufferedReader[] readers = new BufferedReader[srcs.size()];
+		int[][] columns = new int[srcs.size()][];
+		Writer w = null;
+		try {
+			for (int f = 0; f < readers.length; ++f) {
+				readers[f] = new BufferedReader(new FileReader(srcs.get(f)));
+				String header = readers[f].readLine();
+				String[] srcKeys = header == null ? new String[0] : header.split(",");
+				columns[f] = new int[srcKeys.length];
+				for (int i = 0; i < srcKeys.length; ++i) {
+					Integer column = keyIndices.get(srcKeys[i]);
+					if (column == null) {
+						column = keys.size();
+						keys.add(srcKeys[i]);
+						keyIndices.put(srcKeys[i], column);
+					}
+					columns[f][i] = column;
+				}
 			}
-		}
-		for (HashMap<String, Number> line : fTable) {
-			for (int i = 0; i < fKeys.size(); ++i) {
-				String key = fKeys.get(i);
-				Number x = line.get(key);
-				if (x != null) {
-					str += x;
+			w = new BufferedWriter(new FileWriter(filename));
+			for (int i = 0; i < keys.size(); ++i) {
+				w.write(keys.get(i));
+				w.write(i < keys.size() - 1 ? "," : "\n");
+			}
+			String[] cells = new String[keys.size()];
+			while (true) {
+				boolean hasRow = false;
+				for (int f = 0; f < readers.length; ++f) {
+					String line = readers[f].readLine();
+					if (line == null) {
+						continue;
+					}
+					hasRow = true;
+					String[] elements = line.split(",");
+					for (int i = 0; i < elements.length; ++i) {
+						if (!elements[i].isEmpty()) {
+							cells[columns[f][i]] = elements[i]; // 後のファイルで上書きする．
+						}
+					}
+				}
+				if (!hasRow) {
+					break;
 				}
-				if (i < fKeys.size() - 1) {
-					str += ",";
-				} else {
-					str += "\n";
+				for (int j = 0; j < cells.length; ++j) {
+					if (cells[j] != null) {
+						w.write(cells[j]);
+						cells[j] = null;
+					}
+					w.write(j < cells.length - 1 ? "," : "\n");
+				}
+			}
+		} finally {
+			for (BufferedReader br : readers) {
+				if (br != null) {
+					br.close();
 				}
 			}
+			if (w != null) {
+				w.close();
+			}
+		}
+	}
+
+	public String toString() {
+		StringWriter w = new StringWriter();
+		try {
+			writeHeader(w);
+			writeRows(w, 0, fSize - fFirstRow);
+		} catch (IOException e) {
+			throw new RuntimeException(e); // StringWriterでは起こらない．
 		}
-		return str;
+		return w.toString();
 	}
 
 	public static void main(String[] args) throws IOException {
@@ -3,6 +3,10 @@ package jssf.math;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import jssf.di.ACParam;
 import jssf.math.decompositions.TCCholeskyDecomposition;
@@ -15,6 +19,9 @@ import jssf.random.ICRandom;
 
 /**
  * A general m-by-n matrix class.
+ * The elements are stored in a single row-major array.
+ * The (i, j) element is located at {@code offset + i * stride + j},
+ * so that a matrix can also be a zero-copy view of a part of another array.
  * 
  * @author uemura, isao, fnob, khonda
  *
@@ -24,8 +31,20 @@ public class TCMatrix implements Serializable, Cloneable {
 	/** For serialization */
 	private static final long serialVersionUID = 1L;
 
+	/** The number of rows of B in a block used by the matrix multiplication. */
+	private static final int BLOCK_K = 64;
+
+	/** The number of columns of B and C in a block used by the matrix multiplication. */
+	private static final int BLOCK_J = 256;
+
 	/** An elements. */
-	private double[][] fElements;
+	private double[] fElements;
+
+	/** The index of the (0, 0) element in fElements. */
+	private int fOffset;
+
+	/** The distance between the first elements of two adjacent rows in fElements. */
+	private int fStride;
 
 	/** Row dimension (m). */
 	private int fM;
@@ -52,9 +71,31 @@ public class TCMatrix implements Serializable, Cloneable {
 	public TCMatrix(
 			@ACParam(key = "RowDimension") int m,
 			@ACParam(key = "ColumnDimension") int n) {
+		allocate(m, n);
+	}
+
+	/**
+	 * Constructor.
+	 * Creates an m-by-n view of the specified array without copying.
+	 * The (i, j) element of this matrix is {@code elements[offset + i * stride + j]}.
+	 * Note that the operations which change the dimensions of this matrix
+	 * allocate a new array and detach this matrix from {@code elements}.
+	 * 
+	 * @param elements the array shared with this matrix
+	 * @param offset   the index of the (0, 0) element
+	 * @param stride   the distance between two adjacent rows (must be n or more)
+	 * @param m        row dimension
+	 * @param n        column dimension
+	 */
+	public TCMatrix(double[] elements, int offset, int stride, int m, int n) {
+		if (offset < 0 || stride < n || (m > 0 && offset + (m - 1) * stride + n > elements.length)) {
+			throw new IllegalArgumentException("The view is out of the array.");
+		}
+		fElements = elements;
+		fOffset = offset;
+		fStride = stride;
 		fM = m;
 		fN = n;
-		fElements = new double[fM][fN];
 	}
 
 	/**
@@ -76,9 +117,7 @@ public class TCMatrix implements Serializable, Cloneable {
 	 */
 	public TCMatrix(double[] vector) {
 		this(vector.length, 1);
-		for (int i = 0; i < vector.length; ++i) {
-			fElements[i][0] = vector[i];
-		}
+		System.arraycopy(vector, 0, fElements, 0, vector.length);
 	}
 
 	/**
@@ -88,15 +127,9 @@ public class TCMatrix implements Serializable, Cloneable {
 	 * @param elements
 	 */
 	public TCMatrix(double[][] elements) {
-		fM = elements.length;
-		if (fM != 0) {
-			fN = elements[0].length;
-		} else {
-			fN = 0;
-		}
-		fElements = new double[fM][fN];
+		allocate(elements.length, elements.length != 0 ? elements[0].length : 0);
 		for (int i = 0; i < fM; i++) {
-			System.arraycopy(elements[i], 0, fElements[i], 0, fN);
+			System.arraycopy(elements[i], 0, fElements, i * fN, fN);
 		}
 	}
 
@@ -107,11 +140,133 @@ public class TCMatrix implements Serializable, Cloneable {
 	 * @param src
 	 */
 	public TCMatrix(TCMatrix src) {
-		fM = src.fM;
-		fN = src.fN;
-		fElements = new double[fM][fN];
-		for (int i = 0; i < fM; i++) {
-			System.arraycopy(src.fElements[i], 0, fElements[i], 0, fN);
+		allocate(src.fM, src.fN);
+		copyElementsFrom(src);
+	}
+
+	/**
+	 * Allocates a new contiguous array for an m-by-n matrix.
+	 * All elements are initialized with zero.
+	 * 
+	 * @param m row dimension
+	 * @param n column dimension
+	 */
+	private void allocate(int m, int n) {
+		fM = m;
+		fN = n;
+		fElements = new double[m * n];
+		fOffset = 0;
+		fStride = n;
+	}
+
+	/**
+	 * Returns the index of the (i, j) element in fElements.
+	 * 
+	 * @param i row index
+	 * @param j column index
+	 * @return the index in fElements
+	 */
+	private int index(int i, int j) {
+		return fOffset + i * fStride + j;
+	}
+
+	/**
+	 * Returns true if all the elements are stored without gaps.
+	 * 
+	 * @return true if the rows are adjacent in fElements
+	 */
+	private boolean isContiguous() {
+		return fStride == fN || fM <= 1;
+	}
+
+	/**
+	 * Returns the number of the contiguous segments to be scanned together with b.
+	 * Element-wise operations scan the elements segment by segment,
+	 * which is the whole matrix if both are contiguous and each row otherwise.
+	 * 
+	 * @param b the other operand (may be this)
+	 * @return the number of segments
+	 */
+	private int noOfSegments(TCMatrix b) {
+		return (isContiguous() && b.isContiguous()) ? 1 : fM;
+	}
+
+	/**
+	 * Returns the length of each segment.
+	 * 
+	 * @param noOfSegments the number of segments
+	 * @return the length of segments
+	 * @see #noOfSegments(TCMatrix)
+	 */
+	private int segmentLength(int noOfSegments) {
+		return noOfSegments == 1 ? fM * fN : fN;
+	}
+
+	/**
+	 * Checks the dimensions for C = C + A * B.
+	 * 
+	 * @param a 行列A
+	 * @param b 行列B
+	 */
+	private void checkTimesAddDimensions(TCMatrix a, TCMatrix b) {
+		if (fM != a.fM || a.fN != b.fM || fN != b.fN) {
+			throw new IllegalArgumentException("Matrix dimensions are incorrect.");
+		}
+	}
+
+	/**
+	 * C = C + A * B for the rows from i0 (inclusive) to i1 (exclusive) of C.
+	 * The k-blocks are visited in ascending order for each element,
+	 * so the order of accumulation is the same as the unblocked loop.
+	 */
+	private void timesAddRows(TCMatrix a, TCMatrix b, int i0, int i1) {
+		double[] ae = a.fElements, be = b.fElements, ce = fElements;
+		for (int j0 = 0; j0 < fN; j0 += BLOCK_J) {
+			int j1 = Math.min(j0 + BLOCK_J, fN);
+			for (int k0 = 0; k0 < a.fN; k0 += BLOCK_K) {
+				int k1 = Math.min(k0 + BLOCK_K, a.fN);
+				int i = i0;
+				// Four rows of C share each row of B loaded from the cache.
+				for (; i + 3 < i1; i += 4) {
+					int c0 = index(i, 0), c1 = c0 + fStride, c2 = c1 + fStride, c3 = c2 + fStride;
+					int p0 = a.index(i, 0), p1 = p0 + a.fStride, p2 = p1 + a.fStride, p3 = p2 + a.fStride;
+					for (int k = k0; k < k1; k++) {
+						double a0 = ae[p0 + k], a1 = ae[p1 + k], a2 = ae[p2 + k], a3 = ae[p3 + k];
+						int q = b.index(k, 0);
+						for (int j = j0; j < j1; j++) {
+							double bkj = be[q + j];
+							ce[c0 + j] += a0 * bkj;
+							ce[c1 + j] += a1 * bkj;
+							ce[c2 + j] += a2 * bkj;
+							ce[c3 + j] += a3 * bkj;
+						}
+					}
+				}
+				for (; i < i1; i++) {
+					int c = index(i, 0);
+					int p = a.index(i, 0);
+					for (int k = k0; k < k1; k++) {
+						double aik = ae[p + k];
+						int q = b.index(k, 0);
+						for (int j = j0; j < j1; j++) {
+							ce[c + j] += aik * be[q + j];
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Copies the elements of src, which has the same dimensions as this matrix.
+	 * 
+	 * @param src TCMatrix
+	 */
+	private void copyElementsFrom(TCMatrix src) {
+		int noOfSegments = noOfSegments(src);
+		int length = segmentLength(noOfSegments);
+		for (int s = 0; s < noOfSegments; s++) {
+			System.arraycopy(src.fElements, src.fOffset + s * src.fStride, fElements, fOffset + s * fStride, length);
 		}
 	}
 
@@ -123,13 +278,9 @@ public class TCMatrix implements Serializable, Cloneable {
 	 */
 	public TCMatrix copyFrom(TCMatrix src) {
 		if (fM != src.fM || fN != src.fN) {
-			fM = src.fM;
-			fN = src.fN;
-			fElements = new double[fM][fN];
-		}
-		for (int i = 0; i < fM; i++) {
-			System.arraycopy(src.fElements[i], 0, fElements[i], 0, fN);
+			allocate(src.fM, src.fN);
 		}
+		copyElementsFrom(src);
 		return this;
 	}
 
@@ -141,13 +292,12 @@ public class TCMatrix implements Serializable, Cloneable {
 	 */
 	public TCMatrix tcopyFrom(TCMatrix src) {
 		if (fM != src.fN || fN != src.fM) {
-			fM = src.fN;
-			fN = src.fM;
-			fElements = new double[fM][fN];
+			allocate(src.fN, src.fM);
 		}
 		for (int i = 0; i < fM; i++) {
+			int p = index(i, 0);
 			for (int j = 0; j < fN; j++) {
-				fElements[i][j] = src.fElements[j][i];
+				fElements[p + j] = src.fElements[src.index(j, i)];
 			}
 		}
 		return this;
@@ -183,9 +333,12 @@ public class TCMatrix implements Serializable, Cloneable {
 			this.copyFrom(enlarged);
 		}
 		try {
+			if (src_i0 < 0 || src_j0 < 0 || src_i1 >= src.fM || src_j1 >= src.fN || dst_i0 < 0 || dst_j0 < 0) {
+				throw new ArrayIndexOutOfBoundsException();
+			}
 			for (int i = src_i0; i <= src_i1; i++) {
 				for (int j = src_j0; j <= src_j1; j++) {
-					fElements[dst_i0 + i - src_i0][dst_j0 + j - src_j0] = src.fElements[i][j];
+					fElements[index(dst_i0 + i - src_i0, dst_j0 + j - src_j0)] = src.fElements[src.index(i, j)];
 				}
 			}
 		} catch (ArrayIndexOutOfBoundsException e) {
@@ -203,9 +356,7 @@ public class TCMatrix implements Serializable, Cloneable {
 	 */
 	public void setDimensions(int m, int n) {
 		if (fM != m || fN != n) {
-			fM = m;
-			fN = n;
-			fElements = new double[fM][fN];
+			allocate(m, n);
 		}
 	}
 
@@ -216,9 +367,7 @@ public class TCMatrix implements Serializable, Cloneable {
 	 */
 	public void setDimension(int m) {
 		if (fM != m || fN != 1) {
-			fM = m;
-			fN = 1;
-			fElements = new double[fM][fN];
+			allocate(m, 1);
 		}
 	}
 
@@ -249,6 +398,35 @@ public class TCMatrix implements Serializable, Cloneable {
 		return fM * fN;
 	}
 
+	/**
+	 * Returns the backing array, which is shared with this matrix.
+	 * The (i, j) element is located at {@code getOffset() + i * getStride() + j}.
+	 * Intended for kernels that process the elements directly.
+	 *
+	 * @return the backing array
+	 */
+	public double[] getElements() {
+		return fElements;
+	}
+
+	/**
+	 * Returns the index of the (0, 0) element in the backing array.
+	 *
+	 * @return the offset
+	 */
+	public int getOffset() {
+		return fOffset;
+	}
+
+	/**
+	 * Returns the distance between the first elements of two adjacent rows in the backing array.
+	 *
+	 * @return the stride
+	 */
+	public int getStride() {
+		return fStride;
+	}
+
 	/**
 	 * Sets a value to the specified element.
 	 * 
@@ -257,7 +435,7 @@ public class TCMatrix implements Serializable, Cloneable {
 	 * @param value
 	 */
 	public TCMatrix setValue(int m, int n, double value) {
-		fElements[m][n] = value;
+		fElements[index(m, n)] = value;
 		return this;
 	}
 
@@ -269,7 +447,7 @@ public class TCMatrix implements Serializable, Cloneable {
 	 * @return
 	 */
 	public double getValue(int m, int n) {
-		return fElements[m][n];
+		return fElements[index(m, n)];
 	}
 
 	/**
@@ -280,7 +458,10 @@ public class TCMatrix implements Serializable, Cloneable {
 	 * @author fnob
 	 */
 	public double getValue(int idx) {
-		return fElements[idx / fN][idx % fN];
+		if (fStride == fN) {
+			return fElements[fOffset + idx];
+		}
+		return fElements[index(idx / fN, idx % fN)];
 	}
 
 	/**
@@ -291,7 +472,7 @@ public class TCMatrix implements Serializable, Cloneable {
 	 */
 	public double getValue() {
 		assert fN == 1 && fM == 1;
-		return fElements[0][0];
+		return fElements[fOffset];
 	}
 
 	/**
@@ -302,7 +483,11 @@ public class TCMatrix implements Serializable, Cloneable {
 	 * @author isao
 	 */
 	public TCMatrix setValue(int idx, double value) {
-		fElements[idx / fN][idx % fN] = value;
+		if (fStride == fN) {
+			fElements[fOffset + idx] = value;
+		} else {
+			fElements[index(idx / fN, idx % fN)] = value;
+		}
 		return this;
 	}
 
@@ -315,9 +500,13 @@ public class TCMatrix implements Serializable, Cloneable {
 	 * @return this matrix
 	 */
 	public TCMatrix add(TCMatrix b) {
-		for (int i = 0; i < fM; i++) {
-			for (int j = 0; j < fN; j++) {
-				fElements[i][j] += b.fElements[i][j];
+		int noOfSegments = noOfSegments(b);
+		int length = segmentLength(noOfSegments);
+		for (int s = 0; s < noOfSegments; s++) {
+			int p = fOffset + s * fStride;
+			int q = b.fOffset + s * b.fStride;
+			for (int j = 0; j < length; j++) {
+				fElements[p + j] += b.fElements[q + j];
 			}
 		}
 		return this;
@@ -332,9 +521,12 @@ public class TCMatrix implements Serializable, Cloneable {
 	 * @return this matrix
 	 */
 	public TCMatrix add(double d) {
-		for (int i = 0; i < fM; i++) {
-			for (int j = 0; j < fN; j++) {
-				fElements[i][j] += d;
+		int noOfSegments = noOfSegments(this);
+		int length = segmentLength(noOfSegments);
+		for (int s = 0; s < noOfSegments; s++) {
+			int p = fOffset + s * fStride;
+			for (int j = 0; j < length; j++) {
+				fElements[p + j] += d;
 			}
 		}
 		return this;
@@ -349,9 +541,13 @@ public class TCMatrix implements Serializable, Cloneable {
 	 * @return this matrix
 	 */
 	public TCMatrix sub(TCMatrix b) {
-		for (int i = 0; i < fM; i++) {
-			for (int j = 0; j < fN; j++) {
-				fElements[i][j] -= b.fElements[i][j];
+		int noOfSegments = noOfSegments(b);
+		int length = segmentLength(noOfSegments);
+		for (int s = 0; s < noOfSegments; s++) {
+			int p = fOffset + s * fStride;
+			int q = b.fOffset + s * b.fStride;
+			for (int j = 0; j < length; j++) {
+				fElements[p + j] -= b.fElements[q + j];
 			}
 		}
 		return this;
@@ -366,9 +562,12 @@ public class TCMatrix implements Serializable, Cloneable {
 	 * @return this matrix
 	 */
 	public TCMatrix sub(double d) {
-		for (int i = 0; i < fM; i++) {
-			for (int j = 0; j < fN; j++) {
-				fElements[i][j] -= d;
+		int noOfSegments = noOfSegments(this);
+		int length = segmentLength(noOfSegments);
+		for (int s = 0; s < noOfSegments; s++) {
+			int p = fOffset + s * fStride;
+			for (int j = 0; j < length; j++) {
+				fElements[p + j] -= d;
 			}
 		}
 		return this;
@@ -384,9 +583,12 @@ public class TCMatrix implements Serializable, Cloneable {
 	 * @deprecated Use {@link #times(double)} instead.
 	 */
 	public TCMatrix scalarProduct(double r) {
-		for (int i = 0; i < fM; i++) {
-			for (int j = 0; j < fN; j++) {
-				fElements[i][j] *= r;
+		int noOfSegments = noOfSegments(this);
+		int length = segmentLength(noOfSegments);
+		for (int s = 0; s < noOfSegments; s++) {
+			int p = fOffset + s * fStride;
+			for (int j = 0; j < length; j++) {
+				fElements[p + j] *= r;
 			}
 		}
 		return this;
@@ -408,13 +610,74 @@ public class TCMatrix implements Serializable, Cloneable {
 		if (fM != src1.fM || src1.fN != src2.fM || fN != src2.fN) {
 			throw new IllegalArgumentException("Matrix dimensions are incorrect.");
 		}
-		for (int i = 0; i < src1.fM; i++) {
-			for (int j = 0; j < src2.fN; j++) {
-				fElements[i][j] = 0.0;
-				for (int k = 0; k < src1.fN; k++) {
-					fElements[i][j] += src1.fElements[i][k] * src2.fElements[k][j];
+		fill(0.0);
+		timesAddRows(src1, src2, 0, fM);
+		return this;
+	}
+
+	/**
+	 * Times and adds.
+	 * Updates this object.
+	 * C = C + A * B.
+	 * Each element of C is accumulated in the order of k,
+	 * i.e. c<sub>ij</sub> += a<sub>i0</sub>b<sub>0j</sub>, then c<sub>ij</sub> += a<sub>i1</sub>b<sub>1j</sub>, and so on,
+	 * so that the result is the same as that of the naive triple loop.
+	 * The loops are blocked so that a block of B stays in the cache while it is used by all the rows of A.
+	 * Notice that C.timesAdd(C, B) or C.timesAdd(A, C) isn't allowed to use.
+	 * 
+	 * @param a 行列A
+	 * @param b 行列B
+	 * @return this 行列C
+	 */
+	public TCMatrix timesAdd(TCMatrix a, TCMatrix b) {
+		checkTimesAddDimensions(a, b);
+		timesAddRows(a, b, 0, fM);
+		return this;
+	}
+
+	/**
+	 * Times and adds with multiple threads.
+	 * Updates this object.
+	 * C = C + A * B.
+	 * The rows of C are divided into {@code noOfTasks} tasks which are executed by {@code executor}.
+	 * Since each element of C is computed by exactly one task in the same order as {@link #timesAdd(TCMatrix, TCMatrix)},
+	 * the result does not depend on the number of tasks.
+	 * This method returns after all the tasks are completed.
+	 * 
+	 * @param a         行列A
+	 * @param b         行列B
+	 * @param executor  executor service which runs the tasks
+	 * @param noOfTasks the number of tasks
+	 * @return this 行列C
+	 */
+	public TCMatrix timesAdd(final TCMatrix a, final TCMatrix b, ExecutorService executor, int noOfTasks) {
+		checkTimesAddDimensions(a, b);
+		noOfTasks = Math.max(1, Math.min(noOfTasks, fM));
+		if (noOfTasks == 1) {
+			timesAddRows(a, b, 0, fM);
+			return this;
+		}
+		ArrayList<Callable<Object>> tasks = new ArrayList<Callable<Object>>(noOfTasks);
+		for (int t = 0; t < noOfTasks; t++) {
+			final int i0 = (int) ((long) fM * t / noOfTasks);
+			final int i1 = (int) ((long) fM * (t + 1) / noOfTasks);
+			tasks.add(new Callable<Object>() {
+				@Override
+				public Object call() {
+					timesAddRows(a, b, i0, i1);
+					return null;
 				}
+			});
+		}
+		try {
+			for (Future<Object> f : executor.invokeAll(tasks)) {
+				f.get();
 			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		} catch (ExecutionException e) {
+			throw new RuntimeException(e.getCause());
 		}
 		return this;
 	}
@@ -432,24 +695,11 @@ public class TCMatrix implements Serializable, Cloneable {
 			throw new IllegalArgumentException("Dimensions are incorrect.");
 		}
 
-		double[][] result = new double[fM][b.fN];
-		double val;
-		for (int i = 0; i < fM; i++) {
-			for (int j = 0; j < b.fN; j++) {
-				val = 0.0;
-				for (int k = 0; k < fN; k++) {
-					val += fElements[i][k] * b.fElements[k][j];
-				}
-				result[i][j] = val;
-			}
-		}
+		TCMatrix result = new TCMatrix(fM, b.fN).times(this, b);
 		if (fN != b.fN) {
-			fElements = new double[fM][b.fN];
-			fN = b.fN;
-		}
-		for (int i = 0; i < fM; i++) {
-			System.arraycopy(result[i], 0, fElements[i], 0, fN);
+			allocate(fM, b.fN);
 		}
+		copyElementsFrom(result);
 		return this;
 	}
 
@@ -462,9 +712,12 @@ public class TCMatrix implements Serializable, Cloneable {
 	 * @return this matrix
 	 */
 	public TCMatrix times(double d) {
-		for (int i = 0; i < fM; i++) {
-			for (int j = 0; j < fN; j++) {
-				fElements[i][j] *= d;
+		int noOfSegments = noOfSegments(this);
+		int length = segmentLength(noOfSegments);
+		for (int s = 0; s < noOfSegments; s++) {
+			int p = fOffset + s * fStride;
+			for (int j = 0; j < length; j++) {
+				fElements[p + j] *= d;
 			}
 		}
 		return this;
@@ -482,24 +735,11 @@ public class TCMatrix implements Serializable, Cloneable {
 		if (b.fN != fM) {
 			throw new IllegalArgumentException("Dimensions are incorrect.");
 		}
-		double[][] result = new double[b.fM][fN];
-		double val;
-		for (int i = 0; i < b.fM; i++) {
-			for (int j = 0; j < fN; j++) {
-				val = 0.0;
-				for (int k = 0; k < b.fN; k++) {
-					val += b.fElements[i][k] * fElements[k][j];
-				}
-				result[i][j] = val;
-			}
-		}
+		TCMatrix result = new TCMatrix(b.fM, fN).times(b, this);
 		if (fM != b.fM) {
-			fElements = new double[b.fM][fN];
-			fM = b.fM;
-		}
-		for (int i = 0; i < fM; i++) {
-			System.arraycopy(result[i], 0, fElements[i], 0, fN);
+			allocate(b.fM, fN);
 		}
+		copyElementsFrom(result);
 		return this;
 	}
 
@@ -516,9 +756,13 @@ public class TCMatrix implements Serializable, Cloneable {
 		if (fM != b.fM || fN != b.fN) {
 			throw new IllegalArgumentException("Dimensions are incorrect.");
 		}
-		for (int i = 0; i < fM; i++) {
-			for (int j = 0; j < fN; j++) {
-				fElements[i][j] *= b.fElements[i][j];
+		int noOfSegments = noOfSegments(b);
+		int length = segmentLength(noOfSegments);
+		for (int s = 0; s < noOfSegments; s++) {
+			int p = fOffset + s * fStride;
+			int q = b.fOffset + s * b.fStride;
+			for (int j = 0; j < length; j++) {
+				fElements[p + j] *= b.fElements[q + j];
 			}
 		}
 		return this;
@@ -531,9 +775,12 @@ public class TCMatrix implements Serializable, Cloneable {
 	 * @return この行列
 	 */
 	public TCMatrix div(double d) {
-		for (int m = 0; m < fM; ++m) {
-			for (int n = 0; n < fN; ++n) {
-				fElements[m][n] /= d;
+		int noOfSegments = noOfSegments(this);
+		int length = segmentLength(noOfSegments);
+		for (int s = 0; s < noOfSegments; s++) {
+			int p = fOffset + s * fStride;
+			for (int j = 0; j < length; j++) {
+				fElements[p + j] /= d;
 			}
 		}
 		return this;
@@ -552,9 +799,13 @@ public class TCMatrix implements Serializable, Cloneable {
 		if (fM != b.fM || fN != b.fN) {
 			throw new IllegalArgumentException("Dimensions are incorrect.");
 		}
-		for (int i = 0; i < fM; i++) {
-			for (int j = 0; j < fN; j++) {
-				fElements[i][j] /= b.fElements[i][j];
+		int noOfSegments = noOfSegments(b);
+		int length = segmentLength(noOfSegments);
+		for (int s = 0; s < noOfSegments; s++) {
+			int p = fOffset + s * fStride;
+			int q = b.fOffset + s * b.fStride;
+			for (int j = 0; j < length; j++) {
+				fElements[p + j] /= b.fElements[q + j];
 			}
 		}
 		return this;
@@ -577,18 +828,18 @@ public class TCMatrix implements Serializable, Cloneable {
 				}
 			}
 		} else {
-			double[][] result = new double[fN][fM];
+			double[] result = new double[fN * fM];
 			for (int i = 0; i < fN; i++) {
 				for (int j = 0; j < fM; j++) {
-					result[i][j] = getValue(j, i);
+					result[i * fM + j] = getValue(j, i);
 				}
 			}
+			int m = fN;
 			fN = fM;
-			fM = result.length;
-			fElements = new double[fM][fN];
-			for (int i = 0; i < fM; i++) {
-				System.arraycopy(result[i], 0, fElements[i], 0, fN);
-			}
+			fM = m;
+			fElements = result;
+			fOffset = 0;
+			fStride = fN;
 		}
 		return this;
 	}
@@ -678,10 +929,7 @@ public class TCMatrix implements Serializable, Cloneable {
 	 * @return this matrix
 	 */
 	public TCMatrix inverse() {
-		double[][] ident = new double[fM][fM];
-		for (int i = 0; i < fM; i++)
-			ident[i][i] = 1.0;
-		TCMatrix identityMatrix = new TCMatrix(ident);
+		TCMatrix identityMatrix = new TCMatrix(fM, fM).eye();
 		this.copyFrom(solve(identityMatrix));
 		return this;
 	}
@@ -712,8 +960,9 @@ public class TCMatrix implements Serializable, Cloneable {
 	public double normF() {
 		double f = 0.0;
 		for (int i = 0; i < fM; i++) {
+			int p = index(i, 0);
 			for (int j = 0; j < fN; j++) {
-				f = TCMaths.hypot(f, fElements[i][j]);
+				f = TCMaths.hypot(f, fElements[p + j]);
 			}
 		}
 		return f;
@@ -730,8 +979,9 @@ public class TCMatrix implements Serializable, Cloneable {
 			throw new IllegalArgumentException("Dimensions are incorrect.");
 		}
 		double sum = 0.0;
-		for (int i = 0; i < getDimension(); ++i) {
-			sum += getValue(i) * getValue(i);
+		for (int i = 0; i < fM; ++i) {
+			double x = fElements[fOffset + i * fStride];
+			sum += x * x;
 		}
 		return Math.sqrt(sum);
 	}
@@ -763,8 +1013,8 @@ public class TCMatrix implements Serializable, Cloneable {
 			throw new IllegalArgumentException("Dimensions are incorrect.");
 		}
 		double result = 0.0;
-		for (int i = 0; i < getDimension(); ++i) {
-			result += getValue(i) * v.getValue(i);
+		for (int i = 0; i < fM; ++i) {
+			result += fElements[fOffset + i * fStride] * v.fElements[v.fOffset + i * v.fStride];
 		}
 		return result;
 	}
@@ -776,20 +1026,11 @@ public class TCMatrix implements Serializable, Cloneable {
 	 * @return this matrix
 	 */
 	public TCMatrix fill(double value) {
-		if (fM == fN) {
-			for (int i = 0; i < fM; i++) {
-				fElements[i][i] = value;
-				for (int j = 0; j < i; j++) {
-					fElements[i][j] = value;
-					fElements[j][i] = value;
-				}
-			}
-		} else {
-			for (int i = 0; i < fM; i++) {
-				for (int j = 0; j < fN; j++) {
-					fElements[i][j] = value;
-				}
-			}
+		int noOfSegments = noOfSegments(this);
+		int length = segmentLength(noOfSegments);
+		for (int s = 0; s < noOfSegments; s++) {
+			int p = fOffset + s * fStride;
+			Arrays.fill(fElements, p, p + length, value);
 		}
 		return this;
 	}
@@ -802,8 +1043,9 @@ public class TCMatrix implements Serializable, Cloneable {
 	 */
 	public TCMatrix rand(ICRandom random) {
 		for (int i = 0; i < fM; i++) {
+			int p = index(i, 0);
 			for (int j = 0; j < fN; j++) {
-				fElements[i][j] = random.nextDouble();
+				fElements[p + j] = random.nextDouble();
 			}
 		}
 		return this;
@@ -817,8 +1059,9 @@ public class TCMatrix implements Serializable, Cloneable {
 	 */
 	public TCMatrix randn(ICRandom random) {
 		for (int i = 0; i < fM; i++) {
+			int p = index(i, 0);
 			for (int j = 0; j < fN; j++) {
-				fElements[i][j] = random.nextGaussian();
+				fElements[p + j] = random.nextGaussian();
 			}
 		}
 		return this;
@@ -835,7 +1078,7 @@ public class TCMatrix implements Serializable, Cloneable {
 		this.fill(0.0);
 		int n = fM < fN ? fM : fN;
 		for (int i = 0; i < n; i++)
-			fElements[i][i] = 1.0;
+			fElements[index(i, i)] = 1.0;
 
 		return this;
 	}
@@ -877,8 +1120,9 @@ public class TCMatrix implements Serializable, Cloneable {
 	 */
 	public TCMatrix exp() {
 		for (int i = 0; i < fM; i++) {
+			int p = index(i, 0);
 			for (int j = 0; j < fN; j++) {
-				fElements[i][j] = Math.expm1(fElements[i][j]) + 1.0;
+				fElements[p + j] = Math.expm1(fElements[p + j]) + 1.0;
 			}
 		}
 		return this;
@@ -891,8 +1135,9 @@ public class TCMatrix implements Serializable, Cloneable {
 	 */
 	public TCMatrix sin() {
 		for (int i = 0; i < fM; i++) {
+			int p = index(i, 0);
 			for (int j = 0; j < fN; j++) {
-				fElements[i][j] = Math.sin(fElements[i][j]);
+				fElements[p + j] = Math.sin(fElements[p + j]);
 			}
 		}
 		return this;
@@ -905,8 +1150,9 @@ public class TCMatrix implements Serializable, Cloneable {
 	 */
 	public TCMatrix cos() {
 		for (int i = 0; i < fM; i++) {
+			int p = index(i, 0);
 			for (int j = 0; j < fN; j++) {
-				fElements[i][j] = Math.cos(fElements[i][j]);
+				fElements[p + j] = Math.cos(fElements[p + j]);
 			}
 		}
 		return this;
@@ -919,8 +1165,9 @@ public class TCMatrix implements Serializable, Cloneable {
 	 */
 	public TCMatrix tan() {
 		for (int i = 0; i < fM; i++) {
+			int p = index(i, 0);
 			for (int j = 0; j < fN; j++) {
-				fElements[i][j] = Math.tan(fElements[i][j]);
+				fElements[p + j] = Math.tan(fElements[p + j]);
 			}
 		}
 		return this;
@@ -939,9 +1186,11 @@ public class TCMatrix implements Serializable, Cloneable {
 		}
 
 		for (int i = 0; i < fM; i++) {
+			int p = index(i, 0);
+			int q = b.index(i, 0);
 			for (int j = 0; j < fN; j++) {
-				if (this.fElements[i][j] < b.fElements[i][j]) {
-					this.fElements[i][j] = b.fElements[i][j];
+				if (this.fElements[p + j] < b.fElements[q + j]) {
+					this.fElements[p + j] = b.fElements[q + j];
 				}
 			}
 		}
@@ -957,9 +1206,10 @@ public class TCMatrix implements Serializable, Cloneable {
 	 */
 	public TCMatrix max(double d) {
 		for (int i = 0; i < fM; i++) {
+			int p = index(i, 0);
 			for (int j = 0; j < fN; j++) {
-				if (this.fElements[i][j] < d) {
-					this.fElements[i][j] = d;
+				if (this.fElements[p + j] < d) {
+					this.fElements[p + j] = d;
 				}
 			}
 		}
@@ -977,18 +1227,19 @@ public class TCMatrix implements Serializable, Cloneable {
 	 * @author fnob
 	 */
 	public double max(ArrayList<Integer> indexes) {
-		double max = fElements[0][0];
+		double max = fElements[fOffset];
 
 		indexes.clear();
 		for (int i = 0; i < fM; i++) {
+			int p = index(i, 0);
 			for (int j = 0; j < fN; j++) {
-				if (max <= fElements[i][j]) {
-					if (max == fElements[i][j]) {
+				if (max <= fElements[p + j]) {
+					if (max == fElements[p + j]) {
 						indexes.add(i * fN + j);
 					} else {
 						indexes.clear();
 						indexes.add(i * fN + j);
-						max = fElements[i][j];
+						max = fElements[p + j];
 					}
 				}
 			}
@@ -1017,19 +1268,20 @@ public class TCMatrix implements Serializable, Cloneable {
 		for (int i = 0; i < fM; i++) {
 			rowIndexes.clear();
 			rowIndexes.add(0);
-			temp = fElements[i][0];
+			int p = index(i, 0);
+			temp = fElements[p];
 			for (int j = 1; j < fN; j++) {
-				if (temp <= fElements[i][j]) {
-					if (temp == fElements[i][j]) {
+				if (temp <= fElements[p + j]) {
+					if (temp == fElements[p + j]) {
 						rowIndexes.add(j);
 					} else {
 						rowIndexes.clear();
 						rowIndexes.add(j);
-						temp = fElements[i][j];
+						temp = fElements[p + j];
 					}
 				}
 			}
-			max.fElements[i][0] = temp;
+			max.fElements[max.index(i, 0)] = temp;
 			for (Integer idx : rowIndexes) {
 				indexes.add(idx + i * fN);
 			}
@@ -1057,19 +1309,20 @@ public class TCMatrix implements Serializable, Cloneable {
 		for (int i = 0; i < fN; i++) {
 			columnIndexes.clear();
 			columnIndexes.add(0);
-			temp = fElements[0][i];
+			temp = fElements[index(0, i)];
 			for (int j = 1; j < fM; j++) {
-				if (temp <= fElements[j][i]) {
-					if (temp == fElements[j][i]) {
+				double x = fElements[index(j, i)];
+				if (temp <= x) {
+					if (temp == x) {
 						columnIndexes.add(j);
 					} else {
 						columnIndexes.clear();
 						columnIndexes.add(j);
-						temp = fElements[j][i];
+						temp = x;
 					}
 				}
 			}
-			max.fElements[0][i] = temp;
+			max.fElements[max.index(0, i)] = temp;
 			for (Integer idx : columnIndexes) {
 				indexes.add(i + idx * fN);
 			}
@@ -1090,9 +1343,11 @@ public class TCMatrix implements Serializable, Cloneable {
 		}
 
 		for (int i = 0; i < fM; i++) {
+			int p = index(i, 0);
+			int q = b.index(i, 0);
 			for (int j = 0; j < fN; j++) {
-				if (this.fElements[i][j] > b.fElements[i][j]) {
-					this.fElements[i][j] = b.fElements[i][j];
+				if (this.fElements[p + j] > b.fElements[q + j]) {
+					this.fElements[p + j] = b.fElements[q + j];
 				}
 			}
 		}
@@ -1108,9 +1363,10 @@ public class TCMatrix implements Serializable, Cloneable {
 	 */
 	public TCMatrix min(double d) {
 		for (int i = 0; i < fM; i++) {
+			int p = index(i, 0);
 			for (int j = 0; j < fN; j++) {
-				if (this.fElements[i][j] > d) {
-					this.fElements[i][j] = d;
+				if (this.fElements[p + j] > d) {
+					this.fElements[p + j] = d;
 				}
 			}
 		}
@@ -1128,18 +1384,19 @@ public class TCMatrix implements Serializable, Cloneable {
 	 * @author fnob
 	 */
 	public double min(ArrayList<Integer> indexes) {
-		double min = fElements[0][0];
+		double min = fElements[fOffset];
 
 		indexes.clear();
 		for (int i = 0; i < fM; i++) {
+			int p = index(i, 0);
 			for (int j = 0; j < fN; j++) {
-				if (min >= fElements[i][j]) {
-					if (min == fElements[i][j]) {
+				if (min >= fElements[p + j]) {
+					if (min == fElements[p + j]) {
 						indexes.add(i * fN + j);
 					} else {
 						indexes.clear();
 						indexes.add(i * fN + j);
-						min = fElements[i][j];
+						min = fElements[p + j];
 					}
 				}
 			}
@@ -1168,19 +1425,20 @@ public class TCMatrix implements Serializable, Cloneable {
 		for (int i = 0; i < fM; i++) {
 			rowIndexes.clear();
 			rowIndexes.add(0);
-			temp = fElements[i][0];
+			int p = index(i, 0);
+			temp = fElements[p];
 			for (int j = 1; j < fN; j++) {
-				if (temp >= fElements[i][j]) {
-					if (temp == fElements[i][j]) {
+				if (temp >= fElements[p + j]) {
+					if (temp == fElements[p + j]) {
 						rowIndexes.add(j);
 					} else {
 						rowIndexes.clear();
 						rowIndexes.add(j);
-						temp = fElements[i][j];
+						temp = fElements[p + j];
 					}
 				}
 			}
-			min.fElements[i][0] = temp;
+			min.fElements[min.index(i, 0)] = temp;
 			for (Integer idx : rowIndexes) {
 				indexes.add(idx + i * fN);
 			}
@@ -1208,19 +1466,20 @@ public class TCMatrix implements Serializable, Cloneable {
 		for (int i = 0; i < fN; i++) {
 			columnIndexes.clear();
 			columnIndexes.add(0);
-			temp = fElements[0][i];
+			temp = fElements[index(0, i)];
 			for (int j = 1; j < fM; j++) {
-				if (temp >= fElements[j][i]) {
-					if (temp == fElements[j][i]) {
+				double x = fElements[index(j, i)];
+				if (temp >= x) {
+					if (temp == x) {
 						columnIndexes.add(j);
 					} else {
 						columnIndexes.clear();
 						columnIndexes.add(j);
-						temp = fElements[j][i];
+						temp = x;
 					}
 				}
 			}
-			min.fElements[0][i] = temp;
+			min.fElements[min.index(0, i)] = temp;
 			for (Integer idx : columnIndexes) {
 				indexes.add(i + idx * fN);
 			}
@@ -1285,14 +1544,22 @@ public class TCMatrix implements Serializable, Cloneable {
 		if (fM == 0 || fN == 0) {
 			return "[]\n";
 		}
-		String s = "";
+		StringBuilder sb = new StringBuilder();
 		for (int i = 0; i < fM; i++) {
-			s += Arrays.toString(fElements[i]);
+			int p = index(i, 0);
+			sb.append('[');
+			for (int j = 0; j < fN; j++) {
+				if (j > 0) {
+					sb.append(", ");
+				}
+				sb.append(fElements[p + j]);
+			}
+			sb.append(']');
 			if (i < fM - 1) {
-				s += "\n";
+				sb.append('\n');
 			}
 		}
-		return s;
+		return sb.toString();
 	}
 
 	/**
@@ -1307,20 +1574,10 @@ public class TCMatrix implements Serializable, Cloneable {
 		if (fN != b.fN) {
 			throw new IllegalArgumentException("The number of columns must be same.");
 		}
-		int originalM = fM;
-		double[][] originalElements = fElements;
-		fElements = new double[fM + b.fM][fN];
-		fM += b.fM;
-		for (int m = 0; m < originalM; ++m) {
-			for (int n = 0; n < fN; ++n) {
-				fElements[m][n] = originalElements[m][n];
-			}
-		}
-		for (int m = 0; m < b.fM; ++m) {
-			for (int n = 0; n < fN; ++n) {
-				fElements[originalM + m][n] = b.fElements[m][n];
-			}
-		}
+		TCMatrix original = new TCMatrix(this);
+		allocate(fM + b.fM, fN);
+		copyAtRow(original, 0);
+		copyAtRow(b, original.fM);
 		return this;
 	}
 
@@ -1336,18 +1593,10 @@ public class TCMatrix implements Serializable, Cloneable {
 		if (fM != b.fM) {
 			throw new IllegalArgumentException("The number of rows must be same.");
 		}
-		int originalN = fN;
-		double[][] originalElements = fElements;
-		fElements = new double[fM][fN + b.fN];
-		fN += b.fN;
-		for (int m = 0; m < fM; ++m) {
-			for (int n = 0; n < originalN; ++n) {
-				fElements[m][n] = originalElements[m][n];
-			}
-			for (int n = 0; n < b.fN; ++n) {
-				fElements[m][originalN + n] = b.fElements[m][n];
-			}
-		}
+		TCMatrix original = new TCMatrix(this);
+		allocate(fM, fN + b.fN);
+		copyAtColumn(original, 0);
+		copyAtColumn(b, original.fN);
 		return this;
 	}
 
@@ -1358,8 +1607,9 @@ public class TCMatrix implements Serializable, Cloneable {
 	 */
 	public boolean isNan() {
 		for (int m = 0; m < fM; ++m) {
+			int p = index(m, 0);
 			for (int n = 0; n < fN; ++n) {
-				if (Double.isNaN(fElements[m][n])) {
+				if (Double.isNaN(fElements[p + n])) {
 					return true;
 				}
 			}
@@ -1382,9 +1632,7 @@ public class TCMatrix implements Serializable, Cloneable {
 			throw new IllegalArgumentException("row+b.fM must be within the range [0, fM].");
 		}
 		for (int m = 0; m < b.fM; ++m) {
-			for (int n = 0; n < b.fN; ++n) {
-				fElements[row + m][n] = b.fElements[m][n];
-			}
+			System.arraycopy(b.fElements, b.index(m, 0), fElements, index(row + m, 0), b.fN);
 		}
 		return this;
 	}
@@ -1404,9 +1652,7 @@ public class TCMatrix implements Serializable, Cloneable {
 			throw new IllegalArgumentException("column+b.fN must be within the range [0, fN].");
 		}
 		for (int m = 0; m < b.fM; ++m) {
-			for (int n = 0; n < b.fN; ++n) {
-				fElements[m][column + n] = b.fElements[m][n];
-			}
+			System.arraycopy(b.fElements, b.index(m, 0), fElements, index(m, column), b.fN);
 		}
 		return this;
 	}
@@ -1423,7 +1669,7 @@ public class TCMatrix implements Serializable, Cloneable {
 		}
 		for (int m = 0; m < fM; ++m) {
 			for (int n = 0; n < m; ++n) {
-				fElements[m][n] = fElements[n][m];
+				fElements[index(m, n)] = fElements[index(n, m)];
 			}
 		}
 		return this;
@@ -0,0 +1,364 @@
+package jssf.math;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import jssf.di.ACParam;
+import jssf.random.ICRandom;
+
+/**
+ * A fixed-length real vector.
+ * The elements are stored in {@code elements[offset]}, ..., {@code elements[offset + length - 1]},
+ * so that a vector can also be a zero-copy view of a part of another array,
+ * e.g. a row of a row-major {@link TCMatrix}.
+ * Unlike an m-by-1 {@link TCMatrix}, the length of a vector never changes,
+ * and the level-1 kernels (axpy, dot, scale, norm) run on a single contiguous segment.
+ *
+ * @since 2
+ */
+public final class TCVector implements Serializable, Cloneable {
+
+	/** For serialization */
+	private static final long serialVersionUID = 1L;
+
+	/** An elements. */
+	private final double[] fElements;
+
+	/** The index of the first element in fElements. */
+	private final int fOffset;
+
+	/** The number of elements. */
+	private final int fLength;
+
+	/**
+	 * Constructor.
+	 * Creates a zero vector with the specified length.
+	 *
+	 * @param length the number of elements
+	 */
+	public TCVector(
+			@ACParam(key = "Dimension") int length) {
+		this(new double[length], 0, length);
+	}
+
+	/**
+	 * Constructor.
+	 * Creates a vector with specified elements with deep-copying.
+	 *
+	 * @param elements
+	 */
+	public TCVector(double[] elements) {
+		this(elements.length);
+		System.arraycopy(elements, 0, fElements, 0, fLength);
+	}
+
+	/**
+	 * Copy constructor.
+	 * The elements are deep-copied into a new array.
+	 *
+	 * @param src
+	 */
+	public TCVector(TCVector src) {
+		this(src.fLength);
+		System.arraycopy(src.fElements, src.fOffset, fElements, 0, fLength);
+	}
+
+	/**
+	 * Constructor.
+	 * Creates a view of the specified array without copying.
+	 * The i-th element of this vector is {@code elements[offset + i]}.
+	 *
+	 * @param elements the array shared with this vector
+	 * @param offset   the index of the first element
+	 * @param length   the number of elements
+	 */
+	public TCVector(double[] elements, int offset, int length) {
+		if (offset < 0 || length < 0 || offset + length > elements.length) {
+			throw new IllegalArgumentException("The view is out of the array.");
+		}
+		fElements = elements;
+		fOffset = offset;
+		fLength = length;
+	}
+
+	/**
+	 * Returns an m-by-1 matrix which shares the elements with this vector.
+	 * Updates of the matrix are reflected to this vector as long as
+	 * the dimensions of the matrix are not changed.
+	 *
+	 * @return a column vector view of this vector
+	 */
+	public TCMatrix asMatrix() {
+		return new TCMatrix(fElements, fOffset, 1, fLength, 1);
+	}
+
+	/**
+	 * Copies the specified vector into this vector.
+	 *
+	 * @param src source vector with the same length
+	 * @return this vector
+	 */
+	public TCVector copyFrom(TCVector src) {
+		checkLength(src);
+		System.arraycopy(src.fElements, src.fOffset, fElements, fOffset, fLength);
+		return this;
+	}
+
+	/**
+	 * Copies {@code src[srcOffset]}, ..., {@code src[srcOffset + length - 1]} into this vector.
+	 *
+	 * @param src       source array
+	 * @param srcOffset the index of the first element to copy
+	 * @return this vector
+	 */
+	public TCVector copyFrom(double[] src, int srcOffset) {
+		System.arraycopy(src, srcOffset, fElements, fOffset, fLength);
+		return this;
+	}
+
+	/**
+	 * Copies this vector into {@code dst[dstOffset]}, ..., {@code dst[dstOffset + length - 1]}.
+	 *
+	 * @param dst       destination array
+	 * @param dstOffset the index where the first element is stored
+	 */
+	public void copyTo(double[] dst, int dstOffset) {
+		System.arraycopy(fElements, fOffset, dst, dstOffset, fLength);
+	}
+
+	/**
+	 * Returns the number of elements.
+	 *
+	 * @return the number of elements
+	 */
+	public int getDimension() {
+		return fLength;
+	}
+
+	/**
+	 * Returns the backing array, which is shared with this vector.
+	 * The i-th element is located at {@code getOffset() + i}.
+	 * Intended for kernels that process the elements directly.
+	 *
+	 * @return the backing array
+	 */
+	public double[] getElements() {
+		return fElements;
+	}
+
+	/**
+	 * Returns the index of the first element in the backing array.
+	 *
+	 * @return the offset
+	 */
+	public int getOffset() {
+		return fOffset;
+	}
+
+	/**
+	 * Returns the i-th element.
+	 *
+	 * @param i index
+	 * @return the i-th element
+	 */
+	public double getValue(int i) {
+		return fElements[fOffset + i];
+	}
+
+	/**
+	 * Sets the value to the i-th element.
+	 *
+	 * @param i     index
+	 * @param value
+	 * @return this vector
+	 */
+	public TCVector setValue(int i, double value) {
+		fElements[fOffset + i] = value;
+		return this;
+	}
+
+	/**
+	 * x = x + y.
+	 *
+	 * @param y
+	 * @return this vector
+	 */
+	public TCVector add(TCVector y) {
+		checkLength(y);
+		double[] a = fElements, b = y.fElements;
+		int p = fOffset, q = y.fOffset;
+		for (int i = 0; i < fLength; i++) {
+			a[p + i] += b[q + i];
+		}
+		return this;
+	}
+
+	/**
+	 * x<sub>i</sub> = x<sub>i</sub> + d.
+	 *
+	 * @param d
+	 * @return this vector
+	 */
+	public TCVector add(double d) {
+		double[] a = fElements;
+		int end = fOffset + fLength;
+		for (int i = fOffset; i < end; i++) {
+			a[i] += d;
+		}
+		return this;
+	}
+
+	/**
+	 * x = x - y.
+	 *
+	 * @param y
+	 * @return this vector
+	 */
+	public TCVector sub(TCVector y) {
+		checkLength(y);
+		double[] a = fElements, b = y.fElements;
+		int p = fOffset, q = y.fOffset;
+		for (int i = 0; i < fLength; i++) {
+			a[p + i] -= b[q + i];
+		}
+		return this;
+	}
+
+	/**
+	 * x<sub>i</sub> = x<sub>i</sub> - d.
+	 *
+	 * @param d
+	 * @return this vector
+	 */
+	public TCVector sub(double d) {
+		return add(-d);
+	}
+
+	/**
+	 * x = a * x.
+	 *
+	 * @param a
+	 * @return this vector
+	 */
+	public TCVector scale(double a) {
+		double[] e = fElements;
+		int end = fOffset + fLength;
+		for (int i = fOffset; i < end; i++) {
+			e[i] *= a;
+		}
+		return this;
+	}
+
+	/**
+	 * x = x + a * y.
+	 *
+	 * @param a
+	 * @param y
+	 * @return this vector
+	 */
+	public TCVector axpy(double a, TCVector y) {
+		checkLength(y);
+		double[] e = fElements, b = y.fElements;
+		int p = fOffset, q = y.fOffset;
+		for (int i = 0; i < fLength; i++) {
+			e[p + i] += a * b[q + i];
+		}
+		return this;
+	}
+
+	/**
+	 * Returns the inner product x<sup>T</sup>y.
+	 *
+	 * @param y
+	 * @return the inner product
+	 */
+	public double dot(TCVector y) {
+		checkLength(y);
+		double[] a = fElements, b = y.fElements;
+		int p = fOffset, q = y.fOffset;
+		double result = 0.0;
+		for (int i = 0; i < fLength; i++) {
+			result += a[p + i] * b[q + i];
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the L2 norm.
+	 *
+	 * @return sqrt of sum of squares of all elements
+	 */
+	public double norm() {
+		return Math.sqrt(dot(this));
+	}
+
+	/**
+	 * Fills all elements with the specified value.
+	 *
+	 * @param value
+	 * @return this vector
+	 */
+	public TCVector fill(double value) {
+		Arrays.fill(fElements, fOffset, fOffset + fLength, value);
+		return this;
+	}
+
+	/**
+	 * Initializes all elements with uniform random values in [0, 1).
+	 *
+	 * @param random
+	 * @return this vector
+	 */
+	public TCVector rand(ICRandom random) {
+		int end = fOffset + fLength;
+		for (int i = fOffset; i < end; i++) {
+			fElements[i] = random.nextDouble();
+		}
+		return this;
+	}
+
+	/**
+	 * Initializes all elements with standard normal random values.
+	 *
+	 * @param random
+	 * @return this vector
+	 */
+	public TCVector randn(ICRandom random) {
+		int end = fOffset + fLength;
+		for (int i = fOffset; i < end; i++) {
+			fElements[i] = random.nextGaussian();
+		}
+		return this;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#clone()
+	 */
+	@Override
+	public TCVector clone() {
+		return new TCVector(this);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append('[');
+		for (int i = 0; i < fLength; i++) {
+			if (i > 0) {
+				sb.append(", ");
+			}
+			sb.append(fElements[fOffset + i]);
+		}
+		sb.append(']');
+		return sb.toString();
+	}
+
+	private void checkLength(TCVector y) {
+		if (fLength != y.fLength) {
+			throw new IllegalArgumentException("Dimensions are incorrect.");
+		}
+	}
+
+}
@@ -19,6 +19,29 @@ public interface ICRandom extends Serializable {
 	 */
 	void setSeed(long seed);
 
+	/**
+	 * Returns a new generator whose random number sequence is (practically) independent of this one.
+	 * The new generator is determined only by the current state of this object,
+	 * and the state of this object is advanced.
+	 * Thus, calling this method {@code n} times in a fixed order on a generator created with a master seed
+	 * always yields the same {@code n} substreams, e.g. one per trial, island or worker thread,
+	 * and the results do not depend on how the work is scheduled on threads.
+	 * The new generator uses the same algorithm for Gaussian random numbers as this object.
+	 *
+	 * @return a new generator
+	 * @since 31
+	 */
+	ICRandom split();
+
+	/**
+	 * Advances the random number sequence of this object by a fixed large number of steps
+	 * (e.g. 2<sup>128</sup> for xoshiro256++), which is long enough that the sequences
+	 * before and after the jump never overlap in practice.
+	 *
+	 * @since 31
+	 */
+	void jump();
+
     /**
      * Returns a {@code boolean} value uniformly distributed on the range of {@code boolean}
      * using the next value of the random number sequence in this object.
@@ -508,6 +531,18 @@ public interface ICRandom extends Serializable {
 	 */
 	void fill(double[] buf, double min, double max);
 
+	/**
+	 * Fills the specified array {@code buf} with random numbers on the Gaussian distribution
+	 * with the specified parameters; {@code mu} and {@code sigma}.
+	 * The array is filled with the same values as {@code buf.length} calls of {@link #nextGaussian(double, double)}.
+	 *
+	 * @param buf a buffer to be filled with random numbers
+	 * @param mu the mean of Gaussian distribution
+	 * @param sigma the standard deviation of Gaussian distribution (must be non-negative)
+	 * @since 31
+	 */
+	void fillGaussian(double[] buf, double mu, double sigma);
+
 	/**
 	 * Shuffles the specified array {@code a} destructively.  The order of the elements in
 	 * the resulting array are guaranteed to be (approximately) uniform-random
@@ -0,0 +1,58 @@
+package jssf.random;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 64ビットの乱数を直接生成する乱数生成器の抽象クラス．
+ * このクラスを継承したクラスは，resetSeed(long seed)とnextLong()のみを実装すればよい．
+ * next(int bits)，nextInt()，nextDouble()はnextLong()の上位ビットから作られるため，
+ * nextDouble()やnextGaussian()は1回のnextLong()呼び出しで値が得られる．
+ *
+ * @since 31
+ */
+public abstract class TCAbstract64BitRandom extends TCAbstractRandom {
+
+	private static final long serialVersionUID = 1L;
+
+	/** 2^-53 */
+	private static final double DOUBLE_UNIT = 1.0 / (1L << 53);
+
+	/** 種を指定しないコンストラクタで用いる種の系列 */
+	private static final AtomicLong SEED_UNIQUIFIER = new AtomicLong(8682522807148012L);
+
+	/**
+	 * Returns a uniformly-random 64 bit value.
+	 * All the other methods are derived from this method.
+	 *
+	 * @return a random {@code long} value
+	 */
+	@Override
+	public abstract long nextLong();
+
+	@Override
+	protected int next(int bits) {
+		assert 0 < bits && bits <= 32;
+		return (int) (nextLong() >>> (64 - bits));
+	}
+
+	@Override
+	public int nextInt() {
+		return (int) (nextLong() >>> 32);
+	}
+
+	@Override
+	public double nextDouble() {
+		return (nextLong() >>> 11) * DOUBLE_UNIT;
+	}
+
+	/**
+	 * 種を指定しないコンストラクタのための種を返す．
+	 * 同時刻に生成された乱数生成器でも異なる種になるように，呼び出しごとに異なる値を混ぜる．
+	 *
+	 * @return 種
+	 */
+	protected static long createSeed() {
+		return SEED_UNIQUIFIER.addAndGet(0x9E3779B97F4A7C15L) ^ System.nanoTime();
+	}
+
+}
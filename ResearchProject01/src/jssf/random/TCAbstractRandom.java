@@ -209,8 +209,69 @@ public abstract class TCAbstractRandom implements ICRandom {
 		return nextDouble() * (max - min) + min;
 	}
 
+	/**
+	 * Algorithms to generate random numbers on the standard Gaussian distribution.
+	 *
+	 * @since 31
+	 */
+	public enum GaussianMethod {
+		/**
+		 * The Ziggurat method with 128 layers [Marsaglia and Tsang 2000].
+		 * One {@code nextLong()} call is used for about 98.8% of the values
+		 * and no transcendental function is evaluated for them.
+		 */
+		ZIGGURAT,
+		/**
+		 * The polar method (Knuth, ACP, Section 3.4.1 Algorithm C), which generates
+		 * the same sequence as the versions before the Ziggurat method was introduced.
+		 */
+		POLAR,
+	}
+
+	/** The algorithm used by {@link #nextGaussian()} */
+	private GaussianMethod fGaussianMethod = GaussianMethod.ZIGGURAT;
+
+	/**
+	 * Sets the algorithm used by {@link #nextGaussian()}.
+	 * Use {@link GaussianMethod#POLAR} to reproduce the results obtained before the Ziggurat method was introduced.
+	 *
+	 * @param method the algorithm
+	 * @since 31
+	 */
+	public void setGaussianMethod(GaussianMethod method) {
+		fGaussianMethod = method;
+		haveNextNextGaussian = false;
+	}
+
+	/**
+	 * Returns the algorithm used by {@link #nextGaussian()}.
+	 *
+	 * @return the algorithm
+	 * @since 31
+	 */
+	public GaussianMethod getGaussianMethod() {
+		return fGaussianMethod;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * This method is not synchronized. Use a separate generator for each thread.
+	 */
 	@Override
-	synchronized public double nextGaussian() {
+	public double nextGaussian() {
+		if (fGaussianMethod == GaussianMethod.ZIGGURAT) {
+			return nextZiggurat();
+		}
+		return nextPolar();
+	}
+
+	/**
+	 * Returns a standard Gaussian random number by the polar method.
+	 * The values are generated in pairs and the second one is cached.
+	 *
+	 * @return a random {@code double} value
+	 */
+	private double nextPolar() {
         // See Knuth, ACP, Section 3.4.1 Algorithm C.
         if (haveNextNextGaussian) {
     	    haveNextNextGaussian = false;
@@ -231,11 +292,100 @@ public abstract class TCAbstractRandom implements ICRandom {
     private double nextNextGaussian;
     private boolean haveNextNextGaussian = false;
 
+	/**
+	 * Returns a standard Gaussian random number by the Ziggurat method.
+	 * The lowest 7 bits of a {@code nextLong()} value select a layer, the 8th bit gives the sign,
+	 * and the highest 53 bits give the uniform position in the layer.
+	 * The rare slow paths use StrictMath so that the sequence is the same on every platform.
+	 *
+	 * @return a random {@code double} value
+	 */
+	private double nextZiggurat() {
+		while (true) {
+			long bits = nextLong();
+			int i = (int) bits & (ZIGGURAT_LAYERS - 1);
+			double u = (bits >>> 11) * DOUBLE_UNIT;
+			double x = u * ZIGGURAT_W[i];
+			if (u < ZIGGURAT_K[i]) {
+				return (bits & ZIGGURAT_LAYERS) == 0 ? x : -x;
+			}
+			if (i == 0) {
+				// the tail beyond R [Marsaglia 1964]
+				double y;
+				do {
+					x = -StrictMath.log(1.0 - nextDouble()) / ZIGGURAT_R;
+					y = -StrictMath.log(1.0 - nextDouble());
+				} while (y + y < x * x);
+				x += ZIGGURAT_R;
+				return (bits & ZIGGURAT_LAYERS) == 0 ? x : -x;
+			}
+			// the wedge between the layer and the density
+			double f = ZIGGURAT_F[i] + nextDouble() * (ZIGGURAT_F[i - 1] - ZIGGURAT_F[i]);
+			if (f < StrictMath.exp(-0.5 * x * x)) {
+				return (bits & ZIGGURAT_LAYERS) == 0 ? x : -x;
+			}
+		}
+	}
+
+	/** The number of layers of the Ziggurat, which must be a power of 2 */
+	private static final int ZIGGURAT_LAYERS = 128;
+
+	/** The rightmost layer boundary of the Ziggurat for 128 layers */
+	private static final double ZIGGURAT_R = 3.442619855899;
+
+	/** The area of each layer of the Ziggurat for 128 layers */
+	private static final double ZIGGURAT_V = 9.91256303526217e-3;
+
+	/** 2^-53 */
+	private static final double DOUBLE_UNIT = 1.0 / (1L << 53);
+
+	/** The width of each layer, i.e. the value is u * ZIGGURAT_W[i] for a uniform u in [0, 1) */
+	private static final double[] ZIGGURAT_W = new double[ZIGGURAT_LAYERS];
+
+	/** The ratio of the width of the layer above to that of each layer; u below it is accepted immediately */
+	private static final double[] ZIGGURAT_K = new double[ZIGGURAT_LAYERS];
+
+	/** The unnormalized density exp(-x^2/2) at the right edge of each layer */
+	private static final double[] ZIGGURAT_F = new double[ZIGGURAT_LAYERS];
+
+	static {
+		// See Marsaglia and Tsang, "The Ziggurat Method for Generating Random Variables", 2000.
+		double dn = ZIGGURAT_R;
+		double tn = dn;
+		double q = ZIGGURAT_V / StrictMath.exp(-0.5 * dn * dn);
+		ZIGGURAT_K[0] = dn / q;
+		ZIGGURAT_K[1] = 0.0;
+		ZIGGURAT_W[0] = q;
+		ZIGGURAT_W[ZIGGURAT_LAYERS - 1] = dn;
+		ZIGGURAT_F[0] = 1.0;
+		ZIGGURAT_F[ZIGGURAT_LAYERS - 1] = StrictMath.exp(-0.5 * dn * dn);
+		for (int i = ZIGGURAT_LAYERS - 2; i >= 1; i--) {
+			dn = StrictMath.sqrt(-2.0 * StrictMath.log(ZIGGURAT_V / dn + StrictMath.exp(-0.5 * dn * dn)));
+			ZIGGURAT_K[i + 1] = dn / tn;
+			tn = dn;
+			ZIGGURAT_F[i] = StrictMath.exp(-0.5 * dn * dn);
+			ZIGGURAT_W[i] = dn;
+		}
+	}
+
 	@Override
 	public double nextGaussian(double mu, double sigma) {
 		return nextGaussian() * sigma + mu;
 	}
 
+	@Override
+	public void fillGaussian(double[] buf, double mu, double sigma) {
+		if (fGaussianMethod == GaussianMethod.ZIGGURAT) {
+			for (int i = 0; i < buf.length; i++) {
+				buf[i] = nextZiggurat() * sigma + mu;
+			}
+		} else {
+			for (int i = 0; i < buf.length; i++) {
+				buf[i] = nextPolar() * sigma + mu;
+			}
+		}
+	}
+
 	@Override
 	public void fill(boolean[] buf) {
 		for (int i = 0; i < buf.length; i++) {
@@ -5,7 +5,8 @@ import java.util.Random;
 import jssf.di.ACParam;
 
 /**
- * Java SDKのjava.util.Randomクラスを使った乱数生成器．
+ * Java SDKのjava.util.Randomクラスと同じ48ビット線形合同法による乱数生成器．
+ * 状態を自分で持つため，同じ種からjava.util.Randomと同じ系列を生成したうえで，jump()で系列を飛ばせる．
  *
  * @since 2
  * @author hmkz
@@ -15,14 +16,27 @@ public class TCJava48BitLcg extends TCAbstractRandom {
 	/** For serialization */
 	private static final long serialVersionUID = 1L;
 
-	private Random fRandom;
+	/** 乗数（java.util.Randomと同じ） */
+	private static final long MULTIPLIER = 0x5DEECE66DL;
+
+	/** 加数（java.util.Randomと同じ） */
+	private static final long ADDEND = 0xBL;
+
+	/** 状態を48ビットにするマスク */
+	private static final long MASK = (1L << 48) - 1;
+
+	/** jump()で進めるステップ数．周期2^48を重ならない2^8個の区間に分ける． */
+	private static final long JUMP_STEPS = 1L << 40;
+
+	/** 48ビットの状態 */
+	private long fSeed;
 
 	/**
 	 * デフォルトコンストラクタ．
-	 * 乱数クラスとして標準ライブラリのRandom，乱数シードとしてシステム時刻を用いる．
+	 * 乱数シードとして標準ライブラリのRandom（システム時刻から決まる）の値を用いる．
 	 */
 	public TCJava48BitLcg() {
-		fRandom = new Random();
+		this(new Random().nextLong());
 	}
 
 	/**
@@ -32,18 +46,70 @@ public class TCJava48BitLcg extends TCAbstractRandom {
 	 */
 	public TCJava48BitLcg(
 			@ACParam(key = "Seed") long seed) {
-		fRandom = new Random(seed);
+		resetSeed(seed);
+	}
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param seed           乱数シード
+	 * @param gaussianMethod 正規乱数の生成法．過去の結果を再現する場合はPOLARを指定する．
+	 */
+	public TCJava48BitLcg(
+			@ACParam(key = "Seed") long seed,
+			@ACParam(key = "GaussianMethod", defaultValue = "ZIGGURAT") GaussianMethod gaussianMethod) {
+		this(seed);
+		setGaussianMethod(gaussianMethod);
+	}
+
+	/**
+	 * 現在の系列から得た値をSplitMix64で撹拌した値を種とする新しい乱数生成器を返す．
+	 */
+	@Override
+	public TCJava48BitLcg split() {
+		TCJava48BitLcg random = new TCJava48BitLcg(TCSplitMix64.mix(nextLong()));
+		random.setGaussianMethod(getGaussianMethod());
+		return random;
+	}
+
+	/**
+	 * 系列を2^40ステップ進める．
+	 */
+	@Override
+	public void jump() {
+		jump(JUMP_STEPS);
+	}
+
+	/**
+	 * 系列をstepsステップ進める．
+	 * 計算量はO(log steps)．[Brown 1994]を参照．
+	 *
+	 * @param steps ステップ数．2^48を法とする．
+	 */
+	public void jump(long steps) {
+		long accMult = 1L, accPlus = 0L;
+		long curMult = MULTIPLIER, curPlus = ADDEND;
+		for (long k = steps & MASK; k != 0L; k >>>= 1) {
+			if ((k & 1L) != 0L) {
+				accMult *= curMult;
+				accPlus = accPlus * curMult + curPlus;
+			}
+			curPlus *= curMult + 1L;
+			curMult *= curMult;
+		}
+		fSeed = (accMult * fSeed + accPlus) & MASK;
 	}
 
 	@Override
 	protected int next(int bits) {
 		assert 0 < bits && bits <= 32;
-		return fRandom.nextInt() >>> (32 - bits);
+		fSeed = (fSeed * MULTIPLIER + ADDEND) & MASK;
+		return ((int) (fSeed >>> 16)) >>> (32 - bits);
 	}
 
 	@Override
 	protected void resetSeed(long seed) {
-		fRandom.setSeed(seed);
+		fSeed = (seed ^ MULTIPLIER) & MASK;
 	}
 
 }
@@ -0,0 +1,194 @@
+package jssf.random;
+
+import jssf.di.ACParam;
+
+/**
+ * PCG64 (XSL-RR 128/64) による乱数生成器．
+ * 状態は128ビットの線形合同法で，周期は2^128．
+ * 出力は状態の上位と下位の排他的論理和を状態の上位6ビットだけ回転させて得る．
+ * 増分（ストリーム番号）が異なる生成器は互いに異なる系列を生成する．
+ * split()は新しいストリームの生成器を返し，jump()は系列を2^64ステップ進める．
+ * 詳細は[O'Neill 2014]を参照．
+ *
+ * @since 31
+ */
+public class TCPcg64 extends TCAbstract64BitRandom {
+
+	/** For serialization */
+	private static final long serialVersionUID = 1L;
+
+	/** 乗数の上位64ビット */
+	private static final long MULTIPLIER_HI = 2549297995355413924L;
+
+	/** 乗数の下位64ビット */
+	private static final long MULTIPLIER_LO = 4865540595714422341L;
+
+	/** デフォルトのストリーム番号 */
+	private static final long DEFAULT_STREAM = 0xDA3E39CB94B95BDBL;
+
+	/** 状態の上位64ビット */
+	private long fStateHi;
+
+	/** 状態の下位64ビット */
+	private long fStateLo;
+
+	/** 増分の上位64ビット */
+	private long fIncHi;
+
+	/** 増分の下位64ビット（常に奇数） */
+	private long fIncLo;
+
+	/**
+	 * デフォルトコンストラクタ．
+	 * 乱数シードとしてシステム時刻を用いる．
+	 */
+	public TCPcg64() {
+		this(createSeed());
+	}
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param seed 乱数シード
+	 */
+	public TCPcg64(
+			@ACParam(key = "Seed") long seed) {
+		this(seed, DEFAULT_STREAM);
+	}
+
+	/**
+	 * コンストラクタ．
+	 * pcg64_srandom_r(seed, stream) と同じ系列を生成する．
+	 *
+	 * @param seed   乱数シード
+	 * @param stream ストリーム番号
+	 */
+	public TCPcg64(
+			@ACParam(key = "Seed") long seed,
+			@ACParam(key = "Stream") long stream) {
+		// inc = (stream << 1) | 1 as a 128-bit value
+		fIncHi = stream >>> 63;
+		fIncLo = (stream << 1) | 1L;
+		resetSeed(seed);
+	}
+
+	@Override
+	protected void resetSeed(long seed) {
+		fStateHi = 0L;
+		fStateLo = 0L;
+		step();
+		// state += seed, where seed is regarded as an unsigned value (the upper 64 bits are zero)
+		long lo = fStateLo + seed;
+		if ((Long.MIN_VALUE ^ lo) < (Long.MIN_VALUE ^ fStateLo)) {
+			fStateHi++; // carry
+		}
+		fStateLo = lo;
+		step();
+	}
+
+	/**
+	 * 現在の系列から得た値を種とストリーム番号とする新しい乱数生成器を返す．
+	 */
+	@Override
+	public TCPcg64 split() {
+		long seed = nextLong();
+		TCPcg64 random = new TCPcg64(seed, nextLong());
+		random.setGaussianMethod(getGaussianMethod());
+		return random;
+	}
+
+	@Override
+	public void jump() {
+		advance(1L, 0L);
+	}
+
+	/**
+	 * 系列を (deltaHi * 2^64 + deltaLo) ステップ進める．
+	 * 計算量はO(log delta)．[Brown 1994]を参照．
+	 *
+	 * @param deltaHi ステップ数の上位64ビット
+	 * @param deltaLo ステップ数の下位64ビット
+	 */
+	private void advance(long deltaHi, long deltaLo) {
+		long accMultHi = 0L, accMultLo = 1L;
+		long accPlusHi = 0L, accPlusLo = 0L;
+		long curMultHi = MULTIPLIER_HI, curMultLo = MULTIPLIER_LO;
+		long curPlusHi = fIncHi, curPlusLo = fIncLo;
+		for (int b = 0; b < 128; b++) {
+			long bit = b < 64 ? (deltaLo >>> b) & 1L : (deltaHi >>> (b - 64)) & 1L;
+			if (bit != 0L) {
+				// accMult *= curMult; accPlus = accPlus * curMult + curPlus
+				long hi = multiplyHigh(accMultHi, accMultLo, curMultHi, curMultLo);
+				accMultLo *= curMultLo;
+				accMultHi = hi;
+				hi = multiplyHigh(accPlusHi, accPlusLo, curMultHi, curMultLo);
+				long lo = accPlusLo * curMultLo;
+				accPlusLo = lo + curPlusLo;
+				accPlusHi = hi + curPlusHi + ((Long.MIN_VALUE ^ accPlusLo) < (Long.MIN_VALUE ^ lo) ? 1L : 0L);
+			}
+			// curPlus = (curMult + 1) * curPlus; curMult *= curMult
+			long m1Lo = curMultLo + 1L;
+			long m1Hi = curMultHi + (m1Lo == 0L ? 1L : 0L);
+			long hi = multiplyHigh(m1Hi, m1Lo, curPlusHi, curPlusLo);
+			curPlusLo *= m1Lo;
+			curPlusHi = hi;
+			hi = multiplyHigh(curMultHi, curMultLo, curMultHi, curMultLo);
+			curMultLo *= curMultLo;
+			curMultHi = hi;
+		}
+		// state = accMult * state + accPlus
+		long hi = multiplyHigh(accMultHi, accMultLo, fStateHi, fStateLo);
+		long lo = accMultLo * fStateLo;
+		fStateLo = lo + accPlusLo;
+		fStateHi = hi + accPlusHi + ((Long.MIN_VALUE ^ fStateLo) < (Long.MIN_VALUE ^ lo) ? 1L : 0L);
+	}
+
+	/**
+	 * Returns the upper 64 bits of the 128-bit product (mod 2^128) of x and y.
+	 *
+	 * @param xHi the upper 64 bits of x
+	 * @param xLo the lower 64 bits of x
+	 * @param yHi the upper 64 bits of y
+	 * @param yLo the lower 64 bits of y
+	 * @return the upper 64 bits of x * y mod 2^128
+	 */
+	private static long multiplyHigh(long xHi, long xLo, long yHi, long yLo) {
+		return multiplyHighUnsigned(xLo, yLo) + xLo * yHi + xHi * yLo;
+	}
+
+	@Override
+	public long nextLong() {
+		step();
+		return Long.rotateRight(fStateHi ^ fStateLo, (int) (fStateHi >>> 58));
+	}
+
+	/**
+	 * state = state * MULTIPLIER + inc (mod 2^128)
+	 */
+	private void step() {
+		long hi = multiplyHigh(fStateHi, fStateLo, MULTIPLIER_HI, MULTIPLIER_LO);
+		long lo = fStateLo * MULTIPLIER_LO;
+		long newLo = lo + fIncLo;
+		if ((Long.MIN_VALUE ^ newLo) < (Long.MIN_VALUE ^ lo)) {
+			hi++; // carry
+		}
+		fStateHi = hi + fIncHi;
+		fStateLo = newLo;
+	}
+
+	/**
+	 * Returns the upper 64 bits of the unsigned 128-bit product of x and y.
+	 *
+	 * @param x unsigned 64-bit value
+	 * @param y unsigned 64-bit value
+	 * @return the upper 64 bits of x * y
+	 */
+	private static long multiplyHighUnsigned(long x, long y) {
+		long x0 = x & 0xFFFFFFFFL, x1 = x >>> 32;
+		long y0 = y & 0xFFFFFFFFL, y1 = y >>> 32;
+		long t = x1 * y0 + ((x0 * y0) >>> 32);
+		long w1 = (t & 0xFFFFFFFFL) + x0 * y1;
+		return x1 * y1 + (t >>> 32) + (w1 >>> 32);
+	}
+
+}
@@ -0,0 +1,82 @@
+package jssf.random;
+
+import jssf.di.ACParam;
+
+/**
+ * SplitMix64による乱数生成器．
+ * 状態は64ビットで，周期は2^64．
+ * 高速だが，大量の乱数を使う実験では{@link TCXoshiro256PlusPlus}を推奨する．
+ * 他の乱数生成器の状態の初期化にも用いる．
+ * jump()は系列を2^32ステップ進める．
+ * 詳細は[Steele, Lea and Flood 2014]を参照．
+ *
+ * @since 31
+ */
+public class TCSplitMix64 extends TCAbstract64BitRandom {
+
+	/** For serialization */
+	private static final long serialVersionUID = 1L;
+
+	/** 黄金比から作られる状態の増分 */
+	private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+	/** 状態 */
+	private long fState;
+
+	/**
+	 * デフォルトコンストラクタ．
+	 * 乱数シードとしてシステム時刻を用いる．
+	 */
+	public TCSplitMix64() {
+		this(createSeed());
+	}
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param seed 乱数シード
+	 */
+	public TCSplitMix64(
+			@ACParam(key = "Seed") long seed) {
+		resetSeed(seed);
+	}
+
+	@Override
+	protected void resetSeed(long seed) {
+		fState = seed;
+	}
+
+	/**
+	 * 現在の系列から得た値を種とする新しい乱数生成器を返す．
+	 * 新しい生成器の系列は，同じ周期2^64上のランダムな位置から始まる．
+	 */
+	@Override
+	public TCSplitMix64 split() {
+		TCSplitMix64 random = new TCSplitMix64(nextLong());
+		random.setGaussianMethod(getGaussianMethod());
+		return random;
+	}
+
+	@Override
+	public void jump() {
+		fState += GOLDEN_GAMMA << 32;
+	}
+
+	@Override
+	public long nextLong() {
+		return mix(fState += GOLDEN_GAMMA);
+	}
+
+	/**
+	 * SplitMix64の出力関数．64ビット値を全単射で撹拌する．
+	 *
+	 * @param z 64ビット値
+	 * @return 撹拌された値
+	 */
+	static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+}
@@ -0,0 +1,121 @@
+package jssf.random;
+
+import jssf.di.ACParam;
+
+/**
+ * xoshiro256++による乱数生成器．
+ * 状態は256ビットで，周期は2^256-1．
+ * 状態はSplitMix64の出力で初期化する．
+ * jump()は系列を2^128ステップ進め，split()は現在の系列を複製した後に自身をjump()する．
+ * 詳細は[Blackman and Vigna 2021]を参照．
+ *
+ * @since 31
+ */
+public class TCXoshiro256PlusPlus extends TCAbstract64BitRandom {
+
+	/** For serialization */
+	private static final long serialVersionUID = 1L;
+
+	/** 状態 */
+	private long fS0, fS1, fS2, fS3;
+
+	/**
+	 * デフォルトコンストラクタ．
+	 * 乱数シードとしてシステム時刻を用いる．
+	 */
+	public TCXoshiro256PlusPlus() {
+		this(createSeed());
+	}
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param seed 乱数シード
+	 */
+	public TCXoshiro256PlusPlus(
+			@ACParam(key = "Seed") long seed) {
+		resetSeed(seed);
+	}
+
+	/**
+	 * 状態を直接指定するコンストラクタ．
+	 * 状態がすべて0であってはならない．
+	 *
+	 * @param s0 状態
+	 * @param s1 状態
+	 * @param s2 状態
+	 * @param s3 状態
+	 */
+	public TCXoshiro256PlusPlus(long s0, long s1, long s2, long s3) {
+		if ((s0 | s1 | s2 | s3) == 0L) {
+			throw new IllegalArgumentException("The state must not be all zero.");
+		}
+		fS0 = s0;
+		fS1 = s1;
+		fS2 = s2;
+		fS3 = s3;
+	}
+
+	@Override
+	protected void resetSeed(long seed) {
+		long z = seed;
+		fS0 = TCSplitMix64.mix(z += 0x9E3779B97F4A7C15L);
+		fS1 = TCSplitMix64.mix(z += 0x9E3779B97F4A7C15L);
+		fS2 = TCSplitMix64.mix(z += 0x9E3779B97F4A7C15L);
+		fS3 = TCSplitMix64.mix(z += 0x9E3779B97F4A7C15L);
+	}
+
+	/**
+	 * 現在の状態を複製した乱数生成器を返し，自身の系列を2^128ステップ進める．
+	 * したがって，split()を繰り返して得られる生成器の系列は，それぞれ2^128以内では重ならない．
+	 */
+	@Override
+	public TCXoshiro256PlusPlus split() {
+		TCXoshiro256PlusPlus random = new TCXoshiro256PlusPlus(fS0, fS1, fS2, fS3);
+		random.setGaussianMethod(getGaussianMethod());
+		jump();
+		return random;
+	}
+
+	/** The polynomial for jump(), which is equivalent to 2^128 calls of nextLong() */
+	private static final long[] JUMP = { 0x180EC6D33CFD0ABAL, 0xD5A61266F0C9392CL, 0xA9582618E03FC9AAL, 0x39ABDC4529B1661CL };
+
+	@Override
+	public void jump() {
+		long s0 = 0L, s1 = 0L, s2 = 0L, s3 = 0L;
+		for (long jump : JUMP) {
+			for (int b = 0; b < 64; b++) {
+				if ((jump & (1L << b)) != 0L) {
+					s0 ^= fS0;
+					s1 ^= fS1;
+					s2 ^= fS2;
+					s3 ^= fS3;
+				}
+				nextLong();
+			}
+		}
+		fS0 = s0;
+		fS1 = s1;
+		fS2 = s2;
+		fS3 = s3;
+	}
+
+	@Override
+	public long nextLong() {
+		long s0 = fS0, s1 = fS1, s2 = fS2, s3 = fS3;
+		long result = Long.rotateLeft(s0 + s3, 23) + s0;
+		long t = s1 << 17;
+		s2 ^= s0;
+		s3 ^= s1;
+		s1 ^= s2;
+		s0 ^= s3;
+		s2 ^= t;
+		s3 = Long.rotateLeft(s3, 45);
+		fS0 = s0;
+		fS1 = s1;
+		fS2 = s2;
+		fS3 = s3;
+		return result;
+	}
+
+}
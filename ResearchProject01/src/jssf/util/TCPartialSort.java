@@ -0,0 +1,153 @@
+package jssf.util;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * リストの部分整列．
+ * 上位k要素だけが必要な場合に，リスト全体の整列の代わりに用いる．
+ * 三分割のクイックセレクトにより，要素数Nに対して平均O(N + k log k)回の比較で済む．
+ * 要素はget/setで入れ替えるため，ArrayListなどのランダムアクセス可能なリストに用いること．
+ * Collections.sortと異なり，安定ではない．
+ *
+ * @since 2
+ */
+public class TCPartialSort {
+
+	/** 要素数がこれ以下の範囲は挿入ソートで整列する． */
+	private static final int INSERTION_SORT_THRESHOLD = 16;
+
+	private TCPartialSort() {
+	}
+
+	/**
+	 * listの先頭k要素を，list全体を整列したときの先頭k要素の並びにする．
+	 * 残りの要素の順序は不定である．
+	 * kがlistの要素数以上ならば，list全体を整列する．
+	 *
+	 * @param list       リスト
+	 * @param k          整列する要素数
+	 * @param comparator 比較器
+	 */
+	public static <T> void sort(List<T> list, int k, Comparator<? super T> comparator) {
+		int n = list.size();
+		k = Math.min(k, n);
+		if (k <= 0) {
+			return;
+		}
+		if (k < n) {
+			select(list, 0, n - 1, k - 1, comparator);
+		}
+		sort(list, 0, k - 1, comparator);
+	}
+
+	/**
+	 * list全体を整列したときにk番目（0始まり）に来る要素をk番目に置き，
+	 * それより前にはそれ以下の要素，後ろにはそれ以上の要素を置く．
+	 *
+	 * @param list       リスト
+	 * @param k          位置
+	 * @param comparator 比較器
+	 */
+	public static <T> void select(List<T> list, int k, Comparator<? super T> comparator) {
+		if (k < 0 || k >= list.size()) {
+			throw new IndexOutOfBoundsException("Index: " + k + ", Size: " + list.size());
+		}
+		select(list, 0, list.size() - 1, k, comparator);
+	}
+
+	/**
+	 * 範囲[lo, hi]に対してselectを行う．
+	 */
+	private static <T> void select(List<T> list, int lo, int hi, int k, Comparator<? super T> comparator) {
+		while (hi - lo >= INSERTION_SORT_THRESHOLD) {
+			long range = partition(list, lo, hi, comparator);
+			int lt = (int) (range >>> 32);
+			int gt = (int) range;
+			if (k < lt) {
+				hi = lt - 1;
+			} else if (k > gt) {
+				lo = gt + 1;
+			} else {
+				return;
+			}
+		}
+		insertionSort(list, lo, hi, comparator);
+	}
+
+	/**
+	 * 範囲[lo, hi]を整列する．短い方の範囲を再帰で，長い方の範囲をループで処理する．
+	 */
+	private static <T> void sort(List<T> list, int lo, int hi, Comparator<? super T> comparator) {
+		while (hi - lo >= INSERTION_SORT_THRESHOLD) {
+			long range = partition(list, lo, hi, comparator);
+			int lt = (int) (range >>> 32);
+			int gt = (int) range;
+			if (lt - lo < hi - gt) {
+				sort(list, lo, lt - 1, comparator);
+				lo = gt + 1;
+			} else {
+				sort(list, gt + 1, hi, comparator);
+				hi = lt - 1;
+			}
+		}
+		insertionSort(list, lo, hi, comparator);
+	}
+
+	/**
+	 * 範囲[lo, hi]を，3点の中央値を枢軸として，枢軸より小さい要素，等しい要素，大きい要素の順に三分割する．
+	 * 等しい要素の範囲を[lt, gt]として，(lt &lt;&lt; 32) | gt を返す．
+	 */
+	private static <T> long partition(List<T> list, int lo, int hi, Comparator<? super T> comparator) {
+		T pivot = median(list.get(lo), list.get((lo + hi) >>> 1), list.get(hi), comparator);
+		int lt = lo;
+		int gt = hi;
+		int i = lo;
+		while (i <= gt) {
+			T x = list.get(i);
+			int c = comparator.compare(x, pivot);
+			if (c < 0) {
+				list.set(i++, list.get(lt));
+				list.set(lt++, x);
+			} else if (c > 0) {
+				list.set(i, list.get(gt));
+				list.set(gt--, x);
+			} else {
+				i++;
+			}
+		}
+		return ((long) lt << 32) | (gt & 0xffffffffL);
+	}
+
+	/**
+	 * 3要素の中央値を返す．
+	 */
+	private static <T> T median(T a, T b, T c, Comparator<? super T> comparator) {
+		if (comparator.compare(a, b) < 0) {
+			if (comparator.compare(b, c) < 0) {
+				return b;
+			}
+			return comparator.compare(a, c) < 0 ? c : a;
+		}
+		if (comparator.compare(a, c) < 0) {
+			return a;
+		}
+		return comparator.compare(b, c) < 0 ? c : b;
+	}
+
+	/**
+	 * 範囲[lo, hi]を挿入ソートで整列する．
+	 */
+	private static <T> void insertionSort(List<T> list, int lo, int hi, Comparator<? super T> comparator) {
+		for (int i = lo + 1; i <= hi; i++) {
+			T x = list.get(i);
+			int j = i - 1;
+			while (j >= lo && comparator.compare(list.get(j), x) > 0) {
+				list.set(j + 1, list.get(j));
+				j--;
+			}
+			list.set(j + 1, x);
+		}
+	}
+
+}
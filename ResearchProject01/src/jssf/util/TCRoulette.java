@@ -7,6 +7,15 @@ import jssf.random.ICRandom;
 
 /**
  * ルーレット
+ * <p>
+ * 番号の選び方は次の三つのモードから選べる．
+ * <ul>
+ * <li>LINEAR: 累積値を先頭から走査する．1回あたりO(N)．</li>
+ * <li>BINARY_SEARCH: 累積値を二分探索する．1回あたりO(log N)．LINEARと同じ乱数列に対して同じ番号を返す．デフォルト．</li>
+ * <li>ALIAS: Voseのエイリアス法による．スロットの値を変えた後の最初の1回にO(N)で表を作り，以降は1回あたりO(1)．
+ * 消費する乱数がほかのモードと異なるため，同じ乱数列に対しても異なる番号を返す．</li>
+ * </ul>
+ * スロットの値は変えずに何度も回すほど，ALIASが有利になる．
  * 
  * @since 2
  * @author isao
@@ -15,6 +24,18 @@ public class TCRoulette implements Serializable {
 
 	private static final long serialVersionUID = 1L;
 
+	/**
+	 * 番号の選び方
+	 */
+	public enum Mode {
+		/** 累積値の線形走査 */
+		LINEAR,
+		/** 累積値の二分探索 */
+		BINARY_SEARCH,
+		/** Voseのエイリアス法 */
+		ALIAS,
+	}
+
 	/** スロットの数 */
 	private int fNoOfSlots;
 
@@ -26,6 +47,21 @@ public class TCRoulette implements Serializable {
 
 	private ICRandom fRandom;
 
+	/** 番号の選び方 */
+	private Mode fMode;
+
+	/** エイリアス法の各列で自身を選ぶ確率 */
+	private double[] fProbabilities;
+
+	/** エイリアス法の各列のエイリアス */
+	private int[] fAliases;
+
+	/** エイリアス法の表を作るための作業領域 */
+	private int[] fWork;
+
+	/** エイリアス法の表がスロットの値と対応していればtrue */
+	private boolean fAliasTableIsValid;
+
 	/**
 	 * コンストラクタ
 	 * 
@@ -38,6 +74,7 @@ public class TCRoulette implements Serializable {
 			@ACParam(key = "Random") ICRandom random) {
 		fRandom = random;
 		fCurrentSlotIndex = 0;
+		fMode = Mode.BINARY_SEARCH;
 		setNoOfSlots(0);
 	}
 
@@ -51,6 +88,38 @@ public class TCRoulette implements Serializable {
 		this(0, random);
 	}
 
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param random a random number generator
+	 * @param mode   番号の選び方
+	 * @since 31
+	 */
+	public TCRoulette(ICRandom random, Mode mode) {
+		this(0, random);
+		fMode = mode;
+	}
+
+	/**
+	 * 番号の選び方を設定する．
+	 * 
+	 * @param mode 番号の選び方
+	 * @since 31
+	 */
+	public void setMode(Mode mode) {
+		fMode = mode;
+	}
+
+	/**
+	 * 番号の選び方を返す．
+	 * 
+	 * @return 番号の選び方
+	 * @since 31
+	 */
+	public Mode getMode() {
+		return fMode;
+	}
+
 	/**
 	 * ルーレットsrcのパラメータをコピーする．
 	 * 
@@ -60,6 +129,7 @@ public class TCRoulette implements Serializable {
 	public void copyFrom(TCRoulette src) {
 		setNoOfSlots(src.fNoOfSlots);
 		fCurrentSlotIndex = src.fCurrentSlotIndex;
+		fMode = src.fMode;
 		for (int i = 0; i < fNoOfSlots; i++)
 			fSlots[i] = src.fSlots[i];
 	}
@@ -97,6 +167,7 @@ public class TCRoulette implements Serializable {
 	 */
 	public void resetCurrentSlotIndex() {
 		fCurrentSlotIndex = 0;
+		fAliasTableIsValid = false;
 	}
 
 	/**
@@ -122,6 +193,7 @@ public class TCRoulette implements Serializable {
 			fSlots[fCurrentSlotIndex] = fSlots[fCurrentSlotIndex - 1] + value;
 		}
 		fCurrentSlotIndex++;
+		fAliasTableIsValid = false;
 	}
 
 	/**
@@ -142,6 +214,22 @@ public class TCRoulette implements Serializable {
 	 * @since 2 isao
 	 */
 	public int doIt() {
+		switch (fMode) {
+			case LINEAR:
+				return doItByLinearSearch();
+			case ALIAS:
+				return doItByAliasMethod();
+			default:
+				return doItByBinarySearch();
+		}
+	}
+
+	/**
+	 * 累積値を先頭から走査して番号を選ぶ．
+	 * 
+	 * @return 選ばれた番号
+	 */
+	private int doItByLinearSearch() {
 		int selectedIndex;
 		double r = fRandom.nextDouble(0.0, fSlots[fCurrentSlotIndex - 1]);
 		for (selectedIndex = 0; selectedIndex < fNoOfSlots; selectedIndex++) {
@@ -151,4 +239,82 @@ public class TCRoulette implements Serializable {
 		}
 		return selectedIndex;
 	}
+
+	/**
+	 * 累積値が乱数を超える最初のスロットを二分探索で選ぶ．
+	 * 
+	 * @return 選ばれた番号
+	 */
+	private int doItByBinarySearch() {
+		double r = fRandom.nextDouble(0.0, fSlots[fCurrentSlotIndex - 1]);
+		int lo = 0;
+		int hi = fCurrentSlotIndex - 1;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (fSlots[mid] > r) {
+				hi = mid;
+			} else {
+				lo = mid + 1;
+			}
+		}
+		return lo;
+	}
+
+	/**
+	 * エイリアス法で番号を選ぶ．
+	 * 
+	 * @return 選ばれた番号
+	 */
+	private int doItByAliasMethod() {
+		if (!fAliasTableIsValid) {
+			makeAliasTable();
+		}
+		int i = fRandom.nextInt(fCurrentSlotIndex);
+		return fRandom.nextDouble() < fProbabilities[i] ? i : fAliases[i];
+	}
+
+	/**
+	 * スロットの値からVoseのエイリアス法の表を作る．
+	 * 確率が1未満の列を作業領域の前から，1以上の列を後ろから積み，
+	 * 1未満の列の不足分を1以上の列で埋めていく．
+	 */
+	private void makeAliasTable() {
+		int n = fCurrentSlotIndex;
+		if (fProbabilities == null || fProbabilities.length < n) {
+			fProbabilities = new double[n];
+			fAliases = new int[n];
+			fWork = new int[n];
+		}
+		double scale = n / fSlots[n - 1];
+		int noOfSmalls = 0;
+		int noOfLarges = 0;
+		for (int i = 0; i < n; i++) {
+			double w = i == 0 ? fSlots[0] : fSlots[i] - fSlots[i - 1];
+			fProbabilities[i] = w * scale;
+			fAliases[i] = i;
+			if (fProbabilities[i] < 1.0) {
+				fWork[noOfSmalls++] = i;
+			} else {
+				fWork[n - 1 - noOfLarges++] = i;
+			}
+		}
+		while (noOfSmalls > 0 && noOfLarges > 0) {
+			int small = fWork[--noOfSmalls];
+			int large = fWork[n - noOfLarges--];
+			fAliases[small] = large;
+			fProbabilities[large] = (fProbabilities[large] + fProbabilities[small]) - 1.0;
+			if (fProbabilities[large] < 1.0) {
+				fWork[noOfSmalls++] = large;
+			} else {
+				fWork[n - 1 - noOfLarges++] = large;
+			}
+		}
+		while (noOfLarges > 0) {
+			fProbabilities[fWork[n - noOfLarges--]] = 1.0; // 丸め誤差で残った列
+		}
+		while (noOfSmalls > 0) {
+			fProbabilities[fWork[--noOfSmalls]] = 1.0; // 丸め誤差で残った列
+		}
+		fAliasTableIsValid = true;
+	}
 }
@@ -0,0 +1,113 @@
+package jssf.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 容量が固定された，単一生産者・単一消費者 (single-producer single-consumer) のロックフリーなキュー．
+ * offerは一つのスレッドからのみ，pollは（offerと同じでもよい）一つのスレッドからのみ呼び出すこと．
+ * offerもpollも待たずに戻る．キューが満杯ならばofferはfalseを，空ならばpollはnullを返す．
+ * 生産者がofferで書き込んだ要素は，その要素をpollで取り出した消費者から見える．
+ *
+ * @since 2
+ *
+ * @param <E> 要素の型
+ */
+public class TCSpscQueue<E> {
+
+	/** リングバッファ．長さは2のべき乗 */
+	private final Object[] fBuffer;
+
+	/** fBufferの添字のマスク */
+	private final int fMask;
+
+	/** 次に取り出す位置．消費者のみが更新する． */
+	private final AtomicLong fHead;
+
+	/** 次に書き込む位置．生産者のみが更新する． */
+	private final AtomicLong fTail;
+
+	/**
+	 * コンストラクタ．
+	 * 実際の容量はcapacity以上の最小の2のべき乗となる．
+	 *
+	 * @param capacity 容量
+	 */
+	public TCSpscQueue(int capacity) {
+		if (capacity < 1 || capacity > (1 << 30)) {
+			throw new IllegalArgumentException("The capacity is out of range.");
+		}
+		int size = Integer.highestOneBit(capacity);
+		if (size < capacity) {
+			size <<= 1;
+		}
+		fBuffer = new Object[size];
+		fMask = size - 1;
+		fHead = new AtomicLong();
+		fTail = new AtomicLong();
+	}
+
+	/**
+	 * 要素を末尾に追加する．生産者のスレッドから呼び出すこと．
+	 *
+	 * @param e 要素．nullであってはならない．
+	 * @return 追加できればtrue，キューが満杯ならばfalse
+	 */
+	public boolean offer(E e) {
+		if (e == null) {
+			throw new NullPointerException();
+		}
+		long tail = fTail.get();
+		if (tail - fHead.get() == fBuffer.length) {
+			return false;
+		}
+		fBuffer[(int) tail & fMask] = e;
+		fTail.lazySet(tail + 1); // 要素の書き込みの後に公開する．
+		return true;
+	}
+
+	/**
+	 * 先頭の要素を取り出す．消費者のスレッドから呼び出すこと．
+	 *
+	 * @return 先頭の要素．キューが空ならばnull
+	 */
+	public E poll() {
+		long head = fHead.get();
+		if (head == fTail.get()) {
+			return null;
+		}
+		int index = (int) head & fMask;
+		@SuppressWarnings("unchecked")
+		E e = (E) fBuffer[index];
+		fBuffer[index] = null;
+		fHead.lazySet(head + 1); // 要素の読み出しの後に領域を返却する．
+		return e;
+	}
+
+	/**
+	 * 要素数を返す．他のスレッドが操作中の場合は概算値となる．
+	 *
+	 * @return 要素数
+	 */
+	public int size() {
+		return (int) (fTail.get() - fHead.get());
+	}
+
+	/**
+	 * キューが空かどうかを返す．
+	 *
+	 * @return 空ならばtrue
+	 */
+	public boolean isEmpty() {
+		return fTail.get() == fHead.get();
+	}
+
+	/**
+	 * 容量を返す．
+	 *
+	 * @return 容量
+	 */
+	public int capacity() {
+		return fBuffer.length;
+	}
+
+}
@@ -0,0 +1,181 @@
+package jssf.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jssf.log.TCTable;
+import jssf.random.ICRandom;
+
+/**
+ * 複数の試行を並列に実行する．
+ * 各試行は専用の乱数生成器とログテーブルを持つ．
+ * 試行の乱数生成器は，与えられた乱数生成器のsplit()により試行番号の順に作られるため，
+ * 各試行の結果はスレッド数や実行順序に依存しない．
+ * 全試行の終了後，試行ごとのログテーブルを試行番号の順に一つのログテーブルにまとめる．
+ * まとめたログテーブルは，全試行を順に実行して一つのログテーブルに記録した場合と同じ内容になる．
+ * ログが大きい場合は，試行ごとのログをファイルに逐次書き出してから一つのCSVファイルにまとめることもできる．
+ *
+ * @since 2
+ */
+public class TCTrialRunner {
+
+	/**
+	 * 1試行
+	 */
+	public interface ICTrial {
+
+		/**
+		 * 1試行を実行する．試行ごとに別のスレッドから呼び出される．
+		 * 試行の間で共有するオブジェクトを変更してはならない．
+		 *
+		 * @param trialNo 試行番号
+		 * @param random  この試行の乱数生成器
+		 * @param log     この試行のログテーブル
+		 * @throws Exception
+		 */
+		void run(int trialNo, ICRandom random, TCTable log) throws Exception;
+	}
+
+	/** スレッド数 */
+	private int fNoOfThreads;
+
+	/**
+	 * コンストラクタ．
+	 * スレッド数は利用可能なプロセッサ数とする．
+	 */
+	public TCTrialRunner() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param noOfThreads スレッド数
+	 */
+	public TCTrialRunner(int noOfThreads) {
+		if (noOfThreads < 1) {
+			throw new IllegalArgumentException("The number of threads must be positive.");
+		}
+		fNoOfThreads = noOfThreads;
+	}
+
+	/**
+	 * maxTrials回の試行を並列に実行し，全試行のログをまとめたログテーブルを返す．
+	 *
+	 * @param maxTrials 試行数
+	 * @param random    乱数生成器．試行の乱数生成器はこれをsplit()して作る．
+	 * @param trial     1試行
+	 * @return 全試行のログをまとめたログテーブル
+	 */
+	public TCTable run(int maxTrials, ICRandom random, ICTrial trial) {
+		TCTable[] logs = new TCTable[maxTrials];
+		for (int i = 0; i < maxTrials; ++i) {
+			logs[i] = new TCTable();
+		}
+		execute(random, trial, logs, null);
+		TCTable result = new TCTable();
+		for (TCTable log : logs) {
+			result.putAll(log);
+		}
+		return result;
+	}
+
+	/**
+	 * maxTrials回の試行を並列に実行し，全試行のログをまとめてCSVファイルfilenameに書き出す．
+	 * 各試行のログテーブルは「filename.試行番号」に逐次書き出される（{@link TCTable#stream(String)}）．
+	 * ファイルは試行の開始時に開いて終了時に閉じるため，同時に開かれるのは実行中の試行のファイルだけである．
+	 * 試行中のメモリ上には未完了の行だけが残るため，各試行はログを行の添字の順に記録しなければならない．
+	 * 全試行の終了後，試行ごとのファイルを試行番号の順に{@link TCTable#merge(java.util.List, String)}でまとめてから削除する．
+	 * 出力されるファイルは，run(maxTrials, random, trial)が返すログテーブルをwriteToで書き出したものと同じ内容になる．
+	 *
+	 * @param maxTrials 試行数
+	 * @param random    乱数生成器．試行の乱数生成器はこれをsplit()して作る．
+	 * @param trial     1試行
+	 * @param filename  ログファイル名
+	 * @throws IOException
+	 */
+	public void run(int maxTrials, ICRandom random, ICTrial trial, String filename) throws IOException {
+		TCTable[] logs = new TCTable[maxTrials];
+		ArrayList<String> trialFilenames = new ArrayList<String>(maxTrials);
+		try {
+			for (int i = 0; i < maxTrials; ++i) {
+				trialFilenames.add(filename + "." + i);
+				logs[i] = new TCTable();
+			}
+			execute(random, trial, logs, trialFilenames);
+			TCTable.merge(trialFilenames, filename);
+		} finally {
+			for (int i = 0; i < maxTrials; ++i) {
+				if (logs[i] != null) {
+					logs[i].close();
+				}
+			}
+			for (String trialFilename : trialFilenames) {
+				new File(trialFilename).delete();
+			}
+		}
+	}
+
+	/**
+	 * 試行を並列に実行する．
+	 *
+	 * @param random 乱数生成器
+	 * @param trial  1試行
+	 * @param logs   試行ごとのログテーブル．要素数が試行数となる．
+	 * @param trialFilenames 試行ごとのログファイル名．nullでなければ，試行の開始時にログテーブルの逐次書き出しを始め，終了時に閉じる．
+	 */
+	private void execute(ICRandom random, final ICTrial trial, final TCTable[] logs, final List<String> trialFilenames) {
+		int maxTrials = logs.length;
+		ArrayList<Callable<Object>> tasks = new ArrayList<Callable<Object>>(maxTrials);
+		for (int i = 0; i < maxTrials; ++i) {
+			final int trialNo = i;
+			final ICRandom trialRandom = random.split(); // 試行番号の順に作る．
+			tasks.add(new Callable<Object>() {
+				@Override
+				public Object call() throws Exception {
+					try {
+						if (trialFilenames != null) {
+							logs[trialNo].stream(trialFilenames.get(trialNo)); // 同時に開くファイルを実行中の試行の分に限る．
+						}
+						trial.run(trialNo, trialRandom, logs[trialNo]);
+					} finally {
+						logs[trialNo].close(); // 最後の行を書き出す．逐次書き出しをしていなければ何もしない．
+					}
+					return null;
+				}
+			});
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(fNoOfThreads, maxTrials)), new ThreadFactory() {
+			private final AtomicInteger fCount = new AtomicInteger();
+
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread t = new Thread(r, "TCTrialRunner-" + fCount.incrementAndGet());
+				t.setDaemon(true);
+				return t;
+			}
+		});
+		try {
+			for (Future<Object> f : executor.invokeAll(tasks)) {
+				f.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		} catch (ExecutionException e) {
+			throw new RuntimeException(e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+}
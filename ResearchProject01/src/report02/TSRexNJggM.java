@@ -2,12 +2,13 @@ package report02;
 
 import java.io.IOException;
 
+import jgoal.evaluation.ISRealObjective;
+import jgoal.evaluation.functions.TSKTablet;
 import jgoal.ga.TSRexNJgg;
 import jgoal.solution.ICSolution.Status;
 import jgoal.solution.TCSolutionSet;
 import jgoal.solution.TSRealSolution;
 import jssf.log.TCTable;
-import jssf.math.TCMatrix;
 import jssf.random.ICRandom;
 import jssf.random.TCJava48BitLcg;
 
@@ -41,7 +42,7 @@ public class TSRexNJggM {
 	private static void initializePopulation(TCSolutionSet<TSRealSolution> population, double min, double max,
 			ICRandom random) {
 		for (TSRealSolution s : population) {
-			s.getVector().rand(random).times(max - min).add(min); // 個体の座標を範囲[min, max]^nの乱数で初期化．
+			s.getVector().rand(random).scale(max - min).add(min); // 個体の座標を範囲[min, max]^nの乱数で初期化．
 		}
 	}
 
@@ -52,30 +53,16 @@ public class TSRexNJggM {
 	 */
 	private static void evaluate(TCSolutionSet<TSRealSolution> population) {
 		for (TSRealSolution s : population) {
-			double eval = ktablet(s.getVector()); // k-tablet関数の値を得る．
+			double eval = KTABLET.evaluate(s.getVector()); // k-tablet関数の値を得る．
 			s.setEvaluationValue(eval); // 個体に評価値を設定．
 			s.setStatus(Status.FEASIBLE); // 個体の状態を「実行可能」に設定．
 		}
 	}
 
 	/**
-	 * k-tablet関数 (k=n/4)
-	 * 
-	 * @param s 個体
+	 * k-tablet関数 (k=n/4) を目的関数とする．
 	 */
-	private static double ktablet(TCMatrix x) {
-		int k = (int) ((double) x.getDimension() / 4.0); // k=n/4
-		double result = 0.0; // 評価値を初期化
-		for (int i = 0; i < x.getDimension(); ++i) {
-			double xi = x.getValue(i); // i番目の次元の要素
-			if (i < k) {
-				result += xi * xi;
-			} else {
-				result += 10000.0 * xi * xi;
-			}
-		}
-		return result;
-	}
+	private static final ISRealObjective KTABLET = new TSKTablet();
 
 	/**
 	 * 最良評価値をログテーブルに記録する．
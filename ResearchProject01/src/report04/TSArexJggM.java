@@ -1,12 +1,13 @@
 package report04;
 
 import java.io.IOException;
+import jgoal.evaluation.ISRealObjective;
+import jgoal.evaluation.functions.TSKTablet;
 import jgoal.ga.TSArexJgg;
 import jgoal.solution.TCSolutionSet;
 import jgoal.solution.TSRealSolution;
 import jgoal.solution.ICSolution.Status;
 import jssf.log.TCTable;
-import jssf.math.TCMatrix;
 import jssf.random.ICRandom;
 import jssf.random.TCJava48BitLcg;
 
@@ -38,7 +39,7 @@ public class TSArexJggM {
 	 */
 	private static void initializePopulation(TCSolutionSet<TSRealSolution> population, double min, double max, ICRandom random) {
 		for (TSRealSolution s: population) {
-			s.getVector().rand(random).times(max - min).add(min); //̂̍W͈[min, max]^n̗ŏD
+			s.getVector().rand(random).scale(max - min).add(min); //̂̍W͈[min, max]^n̗ŏD
 		}
 	}
 
@@ -48,29 +49,16 @@ public class TSArexJggM {
 	 */
 	private static void evaluate(TCSolutionSet<TSRealSolution> population) {
 		for (TSRealSolution s: population) {
-			double eval = ktablet(s.getVector()); //k-tablet֐̒l𓾂D
+			double eval = KTABLET.evaluate(s.getVector()); //k-tablet֐̒l𓾂D
 			s.setEvaluationValue(eval); //̂ɕ]lݒD
 			s.setStatus(Status.FEASIBLE); //̂̏Ԃus\vɐݒD
 		}
 	}
 	
 	/**
-	 * k-tablet֐ (k=n/4)
-	 * @param s 
+	 * k-tablet֐ (k=n/4) ړI֐ƂD
 	 */
-	private static double ktablet(TCMatrix x) {
-		int k = (int)((double)x.getDimension() /4.0); //k=n/4
-		double result = 0.0; //]l
-		for (int i = 0; i < x.getDimension(); ++i) {
-			double xi = x.getValue(i); //iԖڂ̗̎vf
-			if (i < k) {
-				result += xi * xi;				
-			} else {
-				result += 10000.0 * xi * xi;				
-			}
-		}
-		return result;
-	}
+	private static final ISRealObjective KTABLET = new TSKTablet();
 	
 	/**
 	 * ŗǕ]lOe[uɋL^D
@@ -5,9 +5,12 @@ import java.io.IOException;
 import crfmnes.TCrFmNes;
 import crfmnes.TIndividual;
 import crfmnes.matrix2017.TCMatrix;
+import jgoal.evaluation.functions.TSKTablet;
 import jssf.log.TCTable;
 import jssf.random.ICRandom;
 import jssf.random.TCJava48BitLcg;
+import jssf.util.TCTrialRunner;
+import jssf.util.TCTrialRunner.ICTrial;
 
 /**
  * CR-FM-NES3ss邽߂̃vOD
@@ -29,26 +32,14 @@ import jssf.random.TCJava48BitLcg;
 public class TCrFmNesM {
 
 	/**
-	 * k-tablet֐ (k=n/4)
-	 * @param s 
+	 * k-tablet֐ (k=n/4) ړI֐ƂD
 	 */
-	private static double ktablet(TCMatrix x) {
-		int k = (int)((double)x.getDimension() /4.0); //k=n/4
-		double result = 0.0; //]l
-		for (int i = 0; i < x.getDimension(); ++i) {
-			double xi = x.getValue(i); //iԖڂ̗̎vf
-			if (i < k) {
-				result += xi * xi;
-			} else {
-				result += 10000.0 * xi * xi;
-			}
-		}
-		return result;
-	}
+	private static final TSKTablet KTABLET = new TSKTablet();
 
 	private static void evaluate(TIndividual[] pop) {
 		for (int i = 0; i < pop.length; ++i) {
-			double eval = ktablet(pop[i].getX());
+			TCMatrix x = pop[i].getX();
+			double eval = KTABLET.evaluate(x.getElements(), 0, x.getDimension());
 			pop[i].setEvaluationValue(eval);
 		}
 	}
@@ -106,25 +97,26 @@ public class TCrFmNesM {
 	 * @throws IOException
 	 */
   public static void main(String[] args) throws IOException {
-    int dim = 20; //
-		String trialName = "CrFmNesOffsetKTabletS1"; //s
+    final int dim = 20; //
+		final String trialName = "CrFmNesOffsetKTabletS1"; //s
 		String logFilename = trialName + ".csv"; //Ot@C
-    int sampleSize = dim; //TvTCY
+    final int sampleSize = dim; //TvTCY
 		int maxTrials = 3; //s
-		long maxEvals = (long)(4 * dim * 1e4); //ł؂]
-		ICRandom random = new TCJava48BitLcg();
-    TCMatrix m = new TCMatrix(dim).fill(3.0); //σxNg̏l
-    double sigma = 1.0; //W΍̏l
-    TCMatrix D = new TCMatrix(dim).fill(1.0); //Ίps̏l
-    TCMatrix v = new TCMatrix(dim);
+		final long maxEvals = (long)(4 * dim * 1e4); //ł؂]
+		ICRandom random = new TCJava48BitLcg(); //Des̗split()ōD
+    final TCMatrix m = new TCMatrix(dim).fill(3.0); //σxNg̏l
+    final double sigma = 1.0; //W΍̏l
+    final TCMatrix D = new TCMatrix(dim).fill(1.0); //Ίps̏l
+    final TCMatrix v = new TCMatrix(dim);
     for (int i = 0; i < dim; ++i) {
       v.setValue(i, random.nextGaussian() / dim);
     }
-		TCTable log = new TCTable(); //Oe[u
-		for (int trial = 0; trial < maxTrials; ++trial) {
-	    TCrFmNes crfmnes = new TCrFmNes(dim, sampleSize, m, sigma, D, v, random);
-			executeOneTrial(crfmnes, maxEvals, log, trialName, trial); //1ss
-		}
-		log.writeTo(logFilename); //3s̃Ot@CɏóD
+		new TCTrialRunner().run(maxTrials, random, new ICTrial() { //SsɎsCes̃O𒀎oĂ烍Ot@Cɂ܂Ƃ߂DmCDCvTCrFmNes̒ŕD
+			@Override
+			public void run(int trialNo, ICRandom trialRandom, TCTable trialLog) {
+				TCrFmNes crfmnes = new TCrFmNes(dim, sampleSize, m, sigma, D, v, trialRandom);
+				executeOneTrial(crfmnes, maxEvals, trialLog, trialName, trialNo); //1ss
+			}
+		}, logFilename); //3s̃Ot@CɏóD
   }
 }
@@ -2,14 +2,17 @@ package report05;
 
 import java.io.IOException;
 
+import jgoal.evaluation.ISRealObjective;
+import jgoal.evaluation.functions.TSKTablet;
 import jgoal.ga.TSArexJgg;
 import jgoal.solution.ICSolution.Status;
 import jgoal.solution.TCSolutionSet;
 import jgoal.solution.TSRealSolution;
 import jssf.log.TCTable;
-import jssf.math.TCMatrix;
 import jssf.random.ICRandom;
 import jssf.random.TCJava48BitLcg;
+import jssf.util.TCTrialRunner;
+import jssf.util.TCTrialRunner.ICTrial;
 
 /**
  * AREX/JGG3ss邽߂̃vOD
@@ -39,7 +42,7 @@ public class TSArexJggM {
 	 */
 	private static void initializePopulation(TCSolutionSet<TSRealSolution> population, double min, double max, ICRandom random) {
 		for (TSRealSolution s: population) {
-			s.getVector().rand(random).times(max - min).add(min); //̂̍W͈[min, max]^n̗ŏD
+			s.getVector().rand(random).scale(max - min).add(min); //̂̍W͈[min, max]^n̗ŏD
 		}
 	}
 
@@ -49,29 +52,16 @@ public class TSArexJggM {
 	 */
 	private static void evaluate(TCSolutionSet<TSRealSolution> population) {
 		for (TSRealSolution s: population) {
-			double eval = ktablet(s.getVector()); //k-tablet֐̒l𓾂D
+			double eval = KTABLET.evaluate(s.getVector()); //k-tablet֐̒l𓾂D
 			s.setEvaluationValue(eval); //̂ɕ]lݒD
 			s.setStatus(Status.FEASIBLE); //̂̏Ԃus\vɐݒD
 		}
 	}
 
 	/**
-	 * k-tablet֐ (k=n/4)
-	 * @param s 
+	 * k-tablet֐ (k=n/4) ړI֐ƂD
 	 */
-	private static double ktablet(TCMatrix x) {
-		int k = (int)((double)x.getDimension() /4.0); //k=n/4
-		double result = 0.0; //]l
-		for (int i = 0; i < x.getDimension(); ++i) {
-			double xi = x.getValue(i); //iԖڂ̗̎vf
-			if (i < k) {
-				result += xi * xi;
-			} else {
-				result += 10000.0 * xi * xi;
-			}
-		}
-		return result;
-	}
+	private static final ISRealObjective KTABLET = new TSKTablet();
 
 	/**
 	 * ŗǕ]lOe[uɋL^D
@@ -125,27 +115,28 @@ public class TSArexJggM {
 	 * @param args Ȃ
 	 */
 	public static void main(String[] args) throws IOException {
-		boolean minimization = true; //ŏ
-		int dimension = 20; //
-		int populationSize = 14 * dimension; //WcTCY
-		int noOfKids = 5 * dimension; //q̐
-		double min = +1.00; //̈̍ŏl
-		double max = +5.00; //̈̍ől
-		long maxEvals = (long)(4 * dimension * 1e4); //ł؂]
+		final boolean minimization = true; //ŏ
+		final int dimension = 20; //
+		final int populationSize = 14 * dimension; //WcTCY
+		final int noOfKids = 5 * dimension; //q̐
+		final double min = +1.00; //̈̍ŏl
+		final double max = +5.00; //̈̍ől
+		final long maxEvals = (long)(4 * dimension * 1e4); //ł؂]
 		int maxTrials = 3; //s
-		String trialName = "ArexJggOffsetKTabletP14K5"; //s
+		final String trialName = "ArexJggOffsetKTabletP14K5"; //s
 		String logFilename = trialName + ".csv"; //Ot@C
 
-		ICRandom random = new TCJava48BitLcg(); //
-		TSArexJgg ga = new TSArexJgg(minimization, dimension, populationSize, noOfKids, random); //AREX/JGG
-		TCTable log = new TCTable(); //Oe[u
-		for (int trial = 0; trial < maxTrials; ++trial) {
-			TCSolutionSet<TSRealSolution> population = ga.initialize(); //Wc擾D
-			initializePopulation(population, min, max, random); //Wc
-			evaluate(population); //Wc]
-			executeOneTrial(ga, maxEvals, log, trialName, trial); //1ss
-		}
-		log.writeTo(logFilename); //3s̃Ot@CɏóD
+		ICRandom random = new TCJava48BitLcg(); //Des̗split()ōD
+		new TCTrialRunner().run(maxTrials, random, new ICTrial() { //SsɎsCes̃O𒀎oĂ烍Ot@Cɂ܂Ƃ߂D
+			@Override
+			public void run(int trialNo, ICRandom trialRandom, TCTable trialLog) {
+				TSArexJgg ga = new TSArexJgg(minimization, dimension, populationSize, noOfKids, trialRandom); //AREX/JGG
+				TCSolutionSet<TSRealSolution> population = ga.initialize(); //Wc擾D
+				initializePopulation(population, min, max, trialRandom); //Wc
+				evaluate(population); //Wc]
+				executeOneTrial(ga, maxEvals, trialLog, trialName, trialNo); //1ss
+			}
+		}, logFilename); //3s̃Ot@CɏóD
 	}
 
 }
@@ -2,18 +2,28 @@ package report06;
 
 import java.io.IOException;
 
+import jgoal.evaluation.ISRealObjective;
+import jgoal.evaluation.functions.TSDoubleSphereUV;
+import jgoal.ga.ISRealGa;
 import jgoal.ga.TSArexJgg;
+import jgoal.island.ICIslandFactory;
+import jgoal.island.TSIslandModel;
+import jgoal.island.TSIslandModel.Topology;
 import jgoal.solution.TCSolutionSet;
 import jgoal.solution.TSRealSolution;
-import jgoal.solution.ICSolution.Status;
 import jssf.log.TCTable;
-import jssf.math.TCMatrix;
+import jssf.math.TCVector;
 import jssf.random.ICRandom;
 import jssf.random.TCJava48BitLcg;
+import jssf.util.TCTrialRunner;
+import jssf.util.TCTrialRunner.ICTrial;
 
 /**
  * ISM(TɗpGAAREX/JGG)3ss邽߂̃vOD
- * esɂāCWc̍ŗǕ]l̐ڂ̃MOsĂD
+ * ISM̊eCڏZsȂ(Topology.NONE)f1̓ƂĕɎsD
+ * 0珇AREX/JGG蒼ISMƓCŏɑł؂]lɒB܂ł]񐔂ƃOɐD
+ * ̂߁Cʂ̓Xbh̎sxɈˑȂD
+ * esɂāCȅWc̍ŗǕ]l̐ڂ̃MOsĂD
  * Ot@CCSVtH[}bgŏo͂D
  * ݒ͈ȉ̒ʂF
  * x`}[N֐FDouble-Sphere (UV)C
@@ -22,7 +32,7 @@ import jssf.random.TCJava48BitLcg;
  * WcTCYF14nC
  * q̐F5nC
  * ł؂]lF1.0 ~ 1e-7D
- * ISM̔:10
+ * ISM̔i̐j:10
  * ISMr:0.1
  * Ot@CFIsmArexJggDoubleSphereUVP14K5.csv
  * 
@@ -40,93 +50,51 @@ public class TSIsmArexJggM {
 	 */
 	private static void initializePopulation(TCSolutionSet<TSRealSolution> population, double min, double max, double r, ICRandom random) {
 		final int dimension = population.get(0).getVector().getDimension();
-		TCMatrix center = new TCMatrix(dimension).rand(random).times(max - min).add(min);	//GÂ߂̏̈̒S
+		TCVector center = new TCVector(dimension).rand(random).scale(max - min).add(min);	//GÂ߂̏̈̒S
 		double d = r * (max - min) / 2.0;
 		for (TSRealSolution s: population) {
-			s.getVector().rand(random).times(2.0 * d).add(center).sub(d); //̂̍WD
+			s.getVector().rand(random).scale(2.0 * d).add(center).sub(d); //̂̍WD
 		}
 	}
 
 	/**
-	 * Wc̑SĂ̌̂̕]sD
-	 * @param population Wc
+	 * Double-Sphere (UV)֐ړI֐ƂD
 	 */
-	private static void evaluate(TCSolutionSet<TSRealSolution> population) {
-		for (TSRealSolution s: population) {
-			double eval = doubleSphereUV(s.getVector()); //doubleSphereUV֐̒l𓾂D
-			s.setEvaluationValue(eval); //̂ɕ]lݒD
-			s.setStatus(Status.FEASIBLE); //̂̏Ԃus\vɐݒD
-		}
-	}
-	
-	/**
-	 * k-tablet֐ (k=n/4)
-	 * @param s 
-	 */
-	private static double doubleSphereUV(TCMatrix x) {
-		double eval1 = 0.0, eval2 = 0.0;
-		for(int i = 0; i < x.getDimension(); i++) {
-			eval1 += 2.0 * (x.getValue(i) + 2.0) * (x.getValue(i) + 2.0);
-			eval2 += 1.0 * (x.getValue(i) - 2.0) * (x.getValue(i) - 2.0);
-		}
-		return Math.min(eval1, eval2 + 0.1);
-	}
-	
-	/**
-	 * ŗǕ]lOe[uɋL^D
-	 * @param log Oe[u
-	 * @param trialName sDOe[ũxɎgD
-	 * @param trialNo sԍDOe[ũxɎgD
-	 * @param index s̓Y
-	 * @param noOfEvals ]
-	 * @param bestEvaluationValue ŗǕ]l
-	 */
-	private static void putLogData(TCTable log, String trialName, int trialNo, int index, long noOfEvals, double bestEvaluationValue) {
-		log.putData(index, "NoOfEvals", noOfEvals);
-		log.putData(index, trialName + "_" + trialNo, bestEvaluationValue);		
-	}
+	private static final ISRealObjective DOUBLE_SPHERE_UV = new TSDoubleSphereUV();
 
 	/**
 	 * 1ssD
-	 * @param ga GA
-	 * @param maxEvals ł؂]
+	 * @param minimization ŏȂtrue
+	 * @param dimension 
+	 * @param populationSize WcTCY
+	 * @param noOfKids q̐
+	 * @param min ̈̍ŏl
+	 * @param max ̈̍ől
+	 * @param r eArexJgg̏̈̔̕
+	 * @param maxIsmIterations ISM̍ő唽i̐j
+	 * @param maxEvals eArexJgg̑ł؂]
+	 * @param stopEval ł؂]l
+	 * @param random 
 	 * @param log Oe[u
 	 * @param trialName sDOe[ũxɎgD
 	 * @param trialNo sԍDOe[ũxɎgD
 	 */
-	private static void executeOneTrial(TSArexJgg ga, long maxEvals, int maxIsmIteration, double min, double max, double r, ICRandom random, 
-			TCTable log, String trialName, int trialNo) {
-		double stopEval = 1e-7;
-		long noOfAllEvals = 0; //]񐔂D
-		int logIndex = 0; //Oe[u̍s̓YD
-		for(int ismIteration = 0; ismIteration < maxIsmIteration; ++ismIteration) {
-			TCSolutionSet<TSRealSolution> population = ga.initialize(); //Wc擾D
-			initializePopulation(population, min, max, r, random); //Wc
-			evaluate(population); //Wc]
-			long noOfEvals = 0;
-			double best = ga.getBestEvaluationValue(); //Wc̍ŗǕ]l擾D
-			putLogData(log, trialName, trialNo, logIndex, noOfAllEvals, best); //Wc̏OɕۑD
-			++logIndex; //Oe[u̍sPi߂D
-			int loopCount = 0; //[vJE^D
-			while (best > stopEval && noOfEvals < maxEvals) { //IDŗǒl10^-7ȉĆC]񐔂ł؂]񐔂𒴂ƂD
-				TCSolutionSet<TSRealSolution> offspring = ga.makeOffspring(); //q̏Wc𐶐D
-				evaluate(offspring); //q̏Wc]
-				noOfEvals += offspring.size(); //]񐔂XV
-				noOfAllEvals += offspring.size(); //]񐔂XV
-				ga.nextGeneration(); //GA̐Pi߂D
-				best = ga.getBestEvaluationValue(); //Wc̍ŗǕ]l擾D
-				if (loopCount % 10 == 0) { //[vJE^PO̔{̂ƂɃOƂD
-					putLogData(log, trialName, trialNo, logIndex, noOfAllEvals, best);			
-					++logIndex; //Oe[u̍s̓YPi߂D
-				}
-				++loopCount; //[vJEgPi߂D
+	private static void executeOneTrial(final boolean minimization, final int dimension, final int populationSize, final int noOfKids,
+			final double min, final double max, final double r, int maxIsmIterations, long maxEvals, double stopEval, ICRandom random, TCTable log, String trialName, int trialNo) {
+		TSIslandModel ism = new TSIslandModel(minimization, maxIsmIterations, Topology.NONE, 0, 0, 1, maxEvals, stopEval, 10); //ISMiڏZsȂfj
+		ICIslandFactory factory = new ICIslandFactory() {
+			@Override
+			public ISRealGa createGa(int islandNo, ICRandom islandRandom) {
+				return new TSArexJgg(minimization, dimension, populationSize, noOfKids, islandRandom); //AREX/JGG
 			}
-			putLogData(log, trialName, trialNo, logIndex, noOfAllEvals, best); //ŏĨOƂD
-			System.out.println("TrialNo:" + trialNo + ", NoOfAllEvals:" + noOfAllEvals + ", Best:" + best); //ʂɎsC]񐔁CŗǕ]l\D
-			if(best <= stopEval) {
-				break;
+
+			@Override
+			public void initializePopulation(int islandNo, TCSolutionSet<TSRealSolution> population, ICRandom islandRandom) {
+				TSIsmArexJggM.initializePopulation(population, min, max, r, islandRandom); //Wc
 			}
-		}
+		};
+		TSRealSolution best = ism.run(factory, DOUBLE_SPHERE_UV, random, log, trialName + "_" + trialNo); //S̒TI܂ő҂D
+		System.out.println("TrialNo:" + trialNo + ", NoOfAllEvals:" + ism.getNoOfEvaluations() + ", Best:" + best.getEvaluationValue()); //ʂɎsC]񐔁CŗǕ]l\D
 	}
 	
 	/**
@@ -134,25 +102,27 @@ public class TSIsmArexJggM {
 	 * @param args Ȃ
 	 */
 	public static void main(String[] args) throws IOException {
-		boolean minimization = true; //ŏ
-		int dimension = 20; //
-		int populationSize = 14 * dimension; //WcTCY
-		int noOfKids = 5 * dimension; //q̐
-		double min = -5.00; //̈̍ŏl
-		double max = +5.00; //̈̍ől
-		double r = 0.1;	//eArexJgg̏̈̕r(max-min)ƂȂ
-		int maxIsmIterations = 10;	//ISM̍ő唽
-		long maxEvals = (long)(4 * dimension * 1e4 / maxIsmIterations); //eArexJgg̑ł؂]
+		final boolean minimization = true; //ŏ
+		final int dimension = 20; //
+		final int populationSize = 14 * dimension; //WcTCY
+		final int noOfKids = 5 * dimension; //q̐
+		final double min = -5.00; //̈̍ŏl
+		final double max = +5.00; //̈̍ől
+		final double r = 0.1;	//eArexJgg̏̈̕r(max-min)ƂȂ
+		final int maxIsmIterations = 10;	//ISM̍ő唽i̐j
+		final long maxEvals = (long)(4 * dimension * 1e4 / maxIsmIterations); //eArexJgg̑ł؂]
+		final double stopEval = 1e-7; //ł؂]l
 		int maxTrials = 3; //s
-		String trialName = "IsmArexJggDoubleSphereUVP14K5"; //s
+		final String trialName = "IsmArexJggDoubleSphereUVP14K5"; //s
 		String logFilename = trialName + ".csv"; //Ot@C
 		
-		ICRandom random = new TCJava48BitLcg(); //
-		TSArexJgg ga = new TSArexJgg(minimization, dimension, populationSize, noOfKids, random); //AREX/JGG
-		TCTable log = new TCTable(); //Oe[u
-		for (int trial = 0; trial < maxTrials; ++trial) {
-			executeOneTrial(ga, maxEvals, maxIsmIterations, min, max, r, random, log, trialName, trial); //1ss
-		}
+		ICRandom random = new TCJava48BitLcg(); //Des̗split()ōD
+		TCTable log = new TCTrialRunner().run(maxTrials, random, new ICTrial() { //SsɎsCO܂Ƃ߂D
+			@Override
+			public void run(int trialNo, ICRandom trialRandom, TCTable trialLog) {
+				executeOneTrial(minimization, dimension, populationSize, noOfKids, min, max, r, maxIsmIterations, maxEvals, stopEval, trialRandom, trialLog, trialName, trialNo); //1ss
+			}
+		});
 		log.writeTo(logFilename); //3s̃Ot@CɏóD
 	}
 
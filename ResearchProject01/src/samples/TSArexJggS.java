@@ -1,10 +1,12 @@
 package samples;
 
+import jgoal.evaluation.ICEvaluator;
+import jgoal.evaluation.ISRealObjective;
+import jgoal.evaluation.TSSequentialEvaluator;
+import jgoal.evaluation.functions.TSKTablet;
 import jgoal.ga.TSArexJgg;
 import jgoal.solution.TCSolutionSet;
 import jgoal.solution.TSRealSolution;
-import jgoal.solution.ICSolution.Status;
-import jssf.math.TCMatrix;
 import jssf.random.ICRandom;
 import jssf.random.TCJava48BitLcg;
 
@@ -32,39 +34,14 @@ public class TSArexJggS {
 	 */
 	private static void initializePopulation(TCSolutionSet<TSRealSolution> population, double min, double max, ICRandom random) {
 		for (TSRealSolution s: population) {
-			s.getVector().rand(random).times(max - min).add(min); //̂̍W͈[min, max]^n̗ŏD
+			s.getVector().rand(random).scale(max - min).add(min); //̂̍W͈[min, max]^n̗ŏD
 		}
 	}
 
 	/**
-	 * Wc̑SĂ̌̂̕]sD
-	 * @param population Wc
+	 * k-tablet֐ (k=n/4) ړI֐ƂD̏W܂Ƃ߂ĕ]łD
 	 */
-	private static void evaluate(TCSolutionSet<TSRealSolution> population) {
-		for (TSRealSolution s: population) {
-			double eval = ktablet(s.getVector()); //k-tablet֐̒l𓾂D
-			s.setEvaluationValue(eval); //̂ɕ]lݒD
-			s.setStatus(Status.FEASIBLE); //̂̏Ԃus\vɐݒD
-		}
-	}
-	
-	/**
-	 * k-tablet֐ (k=n/4)
-	 * @param s 
-	 */
-	private static double ktablet(TCMatrix x) {
-		int k = (int)((double)x.getDimension() /4.0); //k=n/4
-		double result = 0.0; //]l
-		for (int i = 0; i < x.getDimension(); ++i) {
-			double xi = x.getValue(i); //iԖڂ̗̎vf
-			if (i < k) {
-				result += xi * xi;				
-			} else {
-				result += 10000.0 * xi * xi;				
-			}
-		}
-		return result;
-	}
+	private static final ISRealObjective KTABLET = new TSKTablet();
 	
 	/**
 	 * C\bhD
@@ -80,17 +57,18 @@ public class TSArexJggS {
 		long maxEvals = (long)(dimension * 1e5); //ł؂]
 		ICRandom random = new TCJava48BitLcg(); //
 		TSArexJgg ga = new TSArexJgg(minimization, dimension, populationSize, noOfKids, random); //AREX/JGG
+		ICEvaluator<TSRealSolution> evaluator = new TSSequentialEvaluator<TSRealSolution>(KTABLET); //]Dɕ]ꍇTSPooledEvaluatorpD
+		ga.setEvaluator(evaluator); //q̂makeOffspring̒ŕ]D
 		
 		TCSolutionSet<TSRealSolution> population = ga.initialize(); //Wc𐶐
 		initializePopulation(population, min, max, random); //Wc
-		evaluate(population); //Wc]
+		evaluator.evaluate(population); //Wc]
 		
 		int noOfEvals = 0; //]
 		double best = ga.getBestEvaluationValue(); //Wc̍ŗǕ]l𓾂D
 		System.out.println(noOfEvals + " " + best); //Wc̍ŗǕ]lʂɏóD
 		while (best > 1e-7 && noOfEvals < maxEvals) { //IDŗǒlł؂]lȉɂȂƂĆC]񐔂Cł؂]񐔂𒴂ƂD
-			TCSolutionSet<TSRealSolution> offspring = ga.makeOffspring(); //q̏W𐶐D
-			evaluate(offspring); //q̏W]
+			TCSolutionSet<TSRealSolution> offspring = ga.makeOffspring(); //q̏W𐶐ĕ]D
 			noOfEvals += offspring.size(); //]񐔂XV
 			ga.nextGeneration(); //ɐi߂D
 			best = ga.getBestEvaluationValue(); //Wc̍ŗǕ]l𓾂D
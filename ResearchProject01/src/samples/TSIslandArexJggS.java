@@ -0,0 +1,106 @@
+package samples;
+
+import jgoal.evaluation.ISRealObjective;
+import jgoal.evaluation.functions.TSKTablet;
+import jgoal.ga.ISRealGa;
+import jgoal.ga.TSArexJgg;
+import jgoal.ga.TSRexNJgg;
+import jgoal.island.ICIslandFactory;
+import jgoal.island.TSIslandModel;
+import jgoal.solution.TCSolutionSet;
+import jgoal.solution.TSRealSolution;
+import jssf.di.TCObjectFactory;
+import jssf.di.TCProperties;
+import jssf.log.TCTable;
+import jssf.random.ICRandom;
+import jssf.random.TCXoshiro256PlusPlus;
+
+/**
+ * fieGAAREX/JGG܂REX/JGGjPss邽߂̃vOD
+ * f̐ݒ̓vpeBt@CǂݍށDȗꍇ͈ȉ̐ݒƂȂF
+ * <pre>
+ * Ga=AREX
+ * IslandModel=jgoal.island.TSIslandModel
+ * IslandModel.Minimization=true
+ * IslandModel.NoOfIslands=4
+ * IslandModel.Topology=RING
+ * IslandModel.MigrationInterval=10
+ * IslandModel.NoOfMigrants=1
+ * IslandModel.MaxEvaluations=500000
+ * </pre>
+ * x`}[N֐Fk-tablet (k=n/4)C
+ * Fn=20C
+ * ̈F[-5,+5]^nC
+ * WcTCYF5nC
+ * q̐F4nC
+ * ł؂]lF1.0 ~ 1e-7D
+ * Ot@CFIslandKTabletN20.csv
+ * 
+ */
+public class TSIslandArexJggS {
+
+	/**
+	 * k-tablet֐ (k=n/4) ړI֐ƂD̏W܂Ƃ߂ĕ]łD
+	 */
+	private static final ISRealObjective KTABLET = new TSKTablet();
+
+	/**
+	 * ftHg̐ݒD
+	 * @return ݒ
+	 */
+	private static TCProperties createDefaultProperties() {
+		TCProperties props = new TCProperties();
+		props.setProperty("Ga", "AREX");
+		props.setProperty("IslandModel", TSIslandModel.class.getName());
+		props.setProperty("IslandModel.Minimization", "true");
+		props.setProperty("IslandModel.NoOfIslands", "4");
+		props.setProperty("IslandModel.Topology", "RING");
+		props.setProperty("IslandModel.MigrationInterval", "10");
+		props.setProperty("IslandModel.NoOfMigrants", "1");
+		props.setProperty("IslandModel.MaxEvaluations", "500000");
+		return props;
+	}
+
+	/**
+	 * C\bhD
+	 * @param args vpeBt@Ciȗj
+	 */
+	public static void main(String[] args) throws Exception {
+		TCProperties props = args.length > 0 ? new TCProperties(args[0]) : createDefaultProperties(); //ݒ
+		final boolean minimization = props.getBooleanProperty("IslandModel.Minimization");
+		final boolean arex = props.getStringProperty("Ga", "AREX").equalsIgnoreCase("AREX"); //eGA
+		final int dimension = 20; //
+		final int populationSize = 5 * dimension; //WcTCY
+		final int noOfKids = 4 * dimension; //q̐
+		final double min = -5.0; //̈̍ŏl
+		final double max = +5.0; //̈̍ől
+		String trialName = "IslandKTabletN20"; //s
+		
+		TSIslandModel islands = new TCObjectFactory(props).create("IslandModel"); //f
+		ICIslandFactory factory = new ICIslandFactory() {
+			@Override
+			public ISRealGa createGa(int islandNo, ICRandom random) {
+				if (arex) {
+					return new TSArexJgg(minimization, dimension, populationSize, noOfKids, random); //AREX/JGG
+				}
+				return new TSRexNJgg(minimization, dimension, populationSize, noOfKids, random); //REX/JGG
+			}
+
+			@Override
+			public void initializePopulation(int islandNo, TCSolutionSet<TSRealSolution> population, ICRandom random) {
+				for (TSRealSolution s: population) {
+					s.getVector().rand(random).scale(max - min).add(min); //̂̍W͈[min, max]^n̗ŏD
+				}
+			}
+		};
+		ICRandom random = new TCXoshiro256PlusPlus(); //De̗split()ōD
+		TCTable log = new TCTable(); //Oe[u
+		TSRealSolution best = islands.run(factory, KTABLET, random, log, trialName); //S̒TI܂ő҂D
+		for (int i = 0; i < islands.getNoOfCountedIslands(); ++i) {
+			System.out.println("Island:" + i + ", NoOfEvals:" + islands.getNoOfEvaluations(i) + ", Best:" + islands.getBestIndividual(i).getEvaluationValue()); //Ƃ̕]񐔂ƍŗǕ]l
+		}
+		System.out.println("NoOfAllEvals:" + islands.getNoOfEvaluations() + ", Best:" + best.getEvaluationValue()); //ʂƂĐ铇̕]񐔂̍vƍŗǕ]l
+		log.writeTo(trialName + ".csv"); //Ot@CɏóD
+	}
+
+}
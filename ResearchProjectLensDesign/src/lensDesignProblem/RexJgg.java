@@ -21,19 +21,39 @@ public class RexJgg {
   }
 
   /*
-   * TSMonochromeLensProblem が実行可能かを判定する
+   * 評価済みの個体が実行可能かを判定する
    */
-  private static boolean isRunnable(TSMonochromeLensProblem problem, TVector individual) {
-    double evaluationValue = problem.evaluate(individual.getVector());
-
-    assert (evaluationValue == individual.getEvaluationValue());
-
-    if (evaluationValue < Double.MAX_VALUE) {// 実行可能解ではないときは Double>MAX_VALUE が返ることより
+  private static boolean isRunnable(TVector individual) {
+    if (individual.getEvaluationValue() < Double.MAX_VALUE) {// 実行可能解ではないときは Double>MAX_VALUE が返ることより
       return true;
     }
     return false;
   }
 
+  /*
+   * 候補の個体をまとめて評価する
+   * TSMonochromeLensProblem.evaluateAll により全コアで並列に評価される
+   */
+  private static void evaluateAll(ArrayList<TVector> candidates, TSMonochromeLensProblem problem) {
+    double[][] xs = new double[candidates.size()][];
+    for (int i = 0; i < xs.length; i++) {
+      xs[i] = candidates.get(i).getVector();
+    }
+    double[] values = new double[xs.length];
+    problem.evaluateAll(xs, values);
+    for (int i = 0; i < xs.length; i++) {
+      candidates.get(i).setEvaluationValue(values[i]);
+    }
+  }
+
+  /*
+   * 一度にまとめて評価する候補の個数
+   * 残りの必要数だけ生成し，全スレッドに仕事が行き渡るようにする
+   */
+  private static int getBatchSize(int remaining, TSMonochromeLensProblem problem) {
+    return Math.max(remaining, problem.getNoOfThreads());
+  }
+
   /*
    * 平均ベクトルを計算する
    * <y> = (1/n) * Σy
@@ -56,7 +76,7 @@ public class RexJgg {
 
   /*
    * TSMonochromeLensProblem の次元に合わせた vector を作成する
-   * 実行可能かどうかは判定していない
+   * 評価はしていない
    */
   private static TVector generateIndividual(Random random, TSMonochromeLensProblem problem) {
     TVector individual = new TVector(problem.getDimension());
@@ -64,7 +84,6 @@ public class RexJgg {
       individual.setElement(i, random.nextDouble() * (TSMonochromeLensProblem.MAX - TSMonochromeLensProblem.MIN)
           + TSMonochromeLensProblem.MIN);
     }
-    individual.setEvaluationValue(problem.evaluate(individual.getVector()));
     return individual;
   }
 
@@ -77,17 +96,19 @@ public class RexJgg {
     Random random = new Random();
 
     // 要求されている 初期集団 の個数に達するまでループ
-    while (true) {
+    while (!isEnoughSize(population, populationSize)) {
       // 生成
-      TVector individual = generateIndividual(random, problem);
-      // 実行可能かどうかを判定
-      if (isRunnable(problem, individual)) {
-        // 実行可能ならば population に追加
-        population.add(individual);
+      ArrayList<TVector> candidates = new ArrayList<TVector>();
+      for (int i = getBatchSize(populationSize - population.size(), problem); i > 0; i--) {
+        candidates.add(generateIndividual(random, problem));
       }
-      // 終了判定
-      if (isEnoughSize(population, populationSize)) {
-        break;
+      // まとめて評価
+      evaluateAll(candidates, problem);
+      for (TVector individual : candidates) {
+        // 実行可能ならば population に追加
+        if (isRunnable(individual) && !isEnoughSize(population, populationSize)) {
+          population.add(individual);
+        }
       }
     }
     assert (population.size() == populationSize);// check
@@ -123,28 +144,35 @@ public class RexJgg {
     // そのため、実行可能な解が生成されるまでループする
 
     ArrayList<TVector> children = new ArrayList<TVector>();
-    while (true) {
-      TVector child = new TVector(n);
-      // 計算処理 start
-      double[] averageVector = calcAverageVector(parents);
-      child.add(averageVector, problem);// <y>
-
-      for (int j = 0; j < n + 1; j++) {
-        double sigma = random.nextGaussian() * Math.sqrt(1.0 / n);
-        child.add((parents.get(j).clone().subtract(averageVector, problem)).scalarProduct(sigma, problem), problem);
-        // <y> + (Σ(y - <y>) * sigma)
-      }
-
-      child.setEvaluationValue(problem.evaluate(child.getVector()));
+    double[] averageVector = calcAverageVector(parents);// 親は変わらないので一度だけ計算する
+    while (!isEnoughSize(children, childrenSize)) {
+      ArrayList<TVector> candidates = new ArrayList<TVector>();
+      for (int k = getBatchSize(childrenSize - children.size(), problem); k > 0; k--) {
+        TVector child = new TVector(n);
+        // 計算処理 start
+        // TVector の add などは演算のたびに評価するため，評価は最後の evaluateAll だけで行うよう直接計算する
+        double[] y = child.getVector();
+        for (int i = 0; i < n; i++) {
+          y[i] += averageVector[i];// <y>
+        }
 
-      // 実行可能かどうかを判定
-      if (isRunnable(problem, child)) {
-        // 実行可能ならば children に追加
-        children.add(child);
+        for (int j = 0; j < n + 1; j++) {
+          double sigma = random.nextGaussian() * Math.sqrt(1.0 / n);
+          double[] parent = parents.get(j).getVector();
+          for (int i = 0; i < n; i++) {
+            y[i] += (parent[i] - averageVector[i]) * sigma;
+          }
+          // <y> + (Σ(y - <y>) * sigma)
+        }
+        candidates.add(child);
       }
-      // 終了判定
-      if (isEnoughSize(children, childrenSize)) {
-        break;
+      // まとめて評価
+      evaluateAll(candidates, problem);
+      for (TVector child : candidates) {
+        // 実行可能ならば children に追加
+        if (isRunnable(child) && !isEnoughSize(children, childrenSize)) {
+          children.add(child);
+        }
       }
     }
     assert (children.size() == childrenSize);// check
@@ -214,6 +242,10 @@ public class RexJgg {
         }
         System.out.println("PopulationSize: " + populationSize + " ChildSize: " + childSize + " Generation: "
             + generationCount + " Best Evaluation Score: " + getBestIndividual(population).getEvaluationValue());
+        // 実行不可能と判定された段階ごとの回数
+        System.out.println("Infeasible Converter: " + problem.getNoOfConverterFailures() + " Enforcement: "
+            + problem.getNoOfEnforcementFailures() + " Evaluator: " + problem.getNoOfEvaluatorFailures());
+        problem.resetFailureCounts();
       }
     }
   }
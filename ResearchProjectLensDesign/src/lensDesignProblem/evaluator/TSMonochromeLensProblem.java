@@ -1,7 +1,16 @@
 package lensDesignProblem.evaluator;
 
+import java.io.Closeable;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.swing.JFrame;
 
@@ -20,10 +29,16 @@ import lensDesignProblem.simulator.TTransformer;
  * @author isao
  *
  */
-public class TSMonochromeLensProblem implements Cloneable, Serializable {
+public class TSMonochromeLensProblem implements Cloneable, Serializable, Closeable {
 
 	private static final long serialVersionUID = 1L;
 
+	/** evaluateAllで全インスタンスが共有するスレッドプール．初めて必要になったときに作る． */
+	private static ExecutorService fSharedExecutor = null;
+
+	/** 共有のスレッドプールのスレッドの通し番号 */
+	private static final AtomicInteger fThreadCount = new AtomicInteger();
+
 	/** 探索空間の定義域の最小値．-1,000に正規化されている． */
 	public static double MIN = TTransformer.GA_MIN;
 
@@ -57,6 +72,24 @@ public class TSMonochromeLensProblem implements Cloneable, Serializable {
 	/** 解像度の重み */
 	private double fWeightForResolution;
 
+	/** 決定変数ベクトルをレンズ系に変換できなかった回数 */
+	private long fNoOfConverterFailures;
+
+	/** 焦点距離を満たすように強制できなかった回数 */
+	private long fNoOfEnforcementFailures;
+
+	/** 評価器で実行不可能と判定された回数 */
+	private long fNoOfEvaluatorFailures;
+
+	/** evaluateAllで用いるスレッド数 */
+	private int fNoOfThreads = Runtime.getRuntime().availableProcessors();
+
+	/** evaluateAllで各スレッドが用いる，このインスタンスの複製 */
+	private transient TSMonochromeLensProblem[] fPool;
+
+	/** evaluateAllで用いるExecutorService．nullならば共有のスレッドプールを用いる． */
+	private transient ExecutorService fExecutor;
+
 	/**
 	 * コンストラクタ
 	 *
@@ -99,11 +132,14 @@ public class TSMonochromeLensProblem implements Cloneable, Serializable {
 		double airGapMax = fConverter.getAirGapMax();
 		double radiusMin = fConverter.getRadiusMin();
 		double radiusMax = fConverter.getRadiusMax();
-		return new TSMonochromeLensProblem(confiString, fNumber, focalLength, wMax,
+		TSMonochromeLensProblem problem = new TSMonochromeLensProblem(confiString, fNumber, focalLength, wMax,
 				lensGapMin, lensGapMax,
 				airGapMin, airGapMax,
 				radiusMin, radiusMax,
 				fWeightForDistortion, fWeightForResolution);
+		problem.fNoOfThreads = fNoOfThreads;
+		problem.fExecutor = fExecutor;
+		return problem;
 	}
 
 	/**
@@ -123,15 +159,15 @@ public class TSMonochromeLensProblem implements Cloneable, Serializable {
 	 */
 	public double evaluate(double[] x) {
 		if (!fConverter.convertVectorToLens(x, fLens)) {
-			// System.err.print("1");
+			++fNoOfConverterFailures;
 			return Double.MAX_VALUE;
 		}
 		if (!fEnforcementOperator.doIt(fLens)) {
-			// System.err.print("2");
+			++fNoOfEnforcementFailures;
 			return Double.MAX_VALUE;
 		}
 		if (!fEvaluator.doIt(fLens)) {
-			// System.err.print("3");
+			++fNoOfEvaluatorFailures;
 			return Double.MAX_VALUE;
 		}
 		double result = 0.0;
@@ -142,6 +178,187 @@ public class TSMonochromeLensProblem implements Cloneable, Serializable {
 		return Math.sqrt(result);
 	}
 
+	/**
+	 * 決定変数ベクトルxs[i]の評価値をout[i]に格納する．
+	 * このインスタンスの複製をスレッドごとに用意し，共有のスレッドプール（setExecutorで与えた場合はそのExecutorService）で並列に評価する．
+	 * 各評価値はevaluateで一つずつ評価した場合と同じであり，実行不可能の場合はDouble.MAX_VALUEである．
+	 * 実行不可能と判定された回数は，段階ごとにこのインスタンスの回数に加算される．
+	 * getLensが返すレンズ系は更新されない．
+	 * 割り込まれても，複製を使う評価がすべて終わるまで待ってから戻る．
+	 * 複製を共有するため，同一インスタンスのevaluateAllを複数のスレッドから同時に呼び出してはならない．
+	 *
+	 * @param xs  決定変数ベクトルの配列
+	 * @param out 評価値を格納する配列．xsの長さ以上でなければならない．
+	 */
+	public void evaluateAll(final double[][] xs, final double[] out) {
+		if (out.length < xs.length) {
+			throw new IllegalArgumentException("The output array is shorter than the input array.");
+		}
+		final int noOfTasks = Math.min(fNoOfThreads, xs.length);
+		if (noOfTasks <= 1) {
+			for (int i = 0; i < xs.length; ++i) {
+				out[i] = evaluate(xs[i]);
+			}
+			return;
+		}
+		if (fPool == null || fPool.length != fNoOfThreads) {
+			createClones();
+		}
+		ExecutorService executor = fExecutor != null ? fExecutor : getSharedExecutor();
+		ArrayList<Future<Object>> futures = new ArrayList<Future<Object>>(noOfTasks);
+		for (int t = 0; t < noOfTasks; ++t) {
+			final TSMonochromeLensProblem problem = fPool[t];
+			final int from = t;
+			futures.add(executor.submit(new Callable<Object>() {
+				@Override
+				public Object call() {
+					for (int i = from; i < xs.length; i += noOfTasks) { // 実行可能な解の評価に時間がかかるため，飛び飛びに割り当てる．
+						out[i] = problem.evaluate(xs[i]);
+					}
+					return null;
+				}
+			}));
+		}
+		RuntimeException error = null;
+		boolean interrupted = false;
+		for (Future<Object> f : futures) {
+			while (true) {
+				try {
+					f.get();
+					break;
+				} catch (InterruptedException e) { // 複製を使う評価が残ったまま戻らないように，終わるまで待つ．
+					interrupted = true;
+				} catch (ExecutionException e) {
+					if (error == null) {
+						error = new RuntimeException(e.getCause());
+					}
+					break;
+				}
+			}
+		}
+		for (TSMonochromeLensProblem problem : fPool) {
+			fNoOfConverterFailures += problem.fNoOfConverterFailures;
+			fNoOfEnforcementFailures += problem.fNoOfEnforcementFailures;
+			fNoOfEvaluatorFailures += problem.fNoOfEvaluatorFailures;
+			problem.resetFailureCounts();
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+		if (error != null) {
+			throw error;
+		}
+	}
+
+	/**
+	 * evaluateAllで用いる複製を作る．
+	 */
+	private void createClones() {
+		fPool = new TSMonochromeLensProblem[fNoOfThreads];
+		for (int t = 0; t < fNoOfThreads; ++t) {
+			fPool[t] = clone();
+		}
+	}
+
+	/**
+	 * evaluateAllで全インスタンスが共有するスレッドプールを返す．初めて呼ばれたときに作る．
+	 * スレッドは必要な数だけ作られ，しばらく使われなければ終了する．
+	 * スレッドはデーモンスレッドとするため，プログラムの終了を妨げない．
+	 *
+	 * @return スレッドプール
+	 */
+	private static synchronized ExecutorService getSharedExecutor() {
+		if (fSharedExecutor == null) {
+			fSharedExecutor = Executors.newCachedThreadPool(new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable r) {
+					Thread t = new Thread(r, "TSMonochromeLensProblem-" + fThreadCount.incrementAndGet());
+					t.setDaemon(true);
+					return t;
+				}
+			});
+		}
+		return fSharedExecutor;
+	}
+
+	/**
+	 * evaluateAllで用いるExecutorServiceを設定する．
+	 * 与えたExecutorServiceの終了は呼び出し側で行うこと．
+	 *
+	 * @param executor ExecutorService．nullならば全インスタンスで共有するスレッドプールを用いる．
+	 */
+	public void setExecutor(ExecutorService executor) {
+		fExecutor = executor;
+	}
+
+	/**
+	 * evaluateAllのために作った複製を解放する．
+	 * スレッドプールは共有のもの，または，setExecutorで与えられたものであるため，終了しない．
+	 * 閉じた後もevaluateAllを呼び出すことができ，その場合は複製を作り直す．
+	 */
+	@Override
+	public void close() {
+		fPool = null;
+	}
+
+	/**
+	 * evaluateAllで用いるスレッド数を設定する．既定値は利用可能なプロセッサ数である．
+	 * 変更した場合，次のevaluateAllで複製を作り直す．
+	 *
+	 * @param noOfThreads スレッド数．1ならばevaluateAllは呼び出したスレッドで順に評価する．
+	 */
+	public void setNoOfThreads(int noOfThreads) {
+		if (noOfThreads < 1) {
+			throw new IllegalArgumentException("The number of threads must be positive.");
+		}
+		fNoOfThreads = noOfThreads;
+	}
+
+	/**
+	 * evaluateAllで用いるスレッド数を返す．
+	 *
+	 * @return スレッド数
+	 */
+	public int getNoOfThreads() {
+		return fNoOfThreads;
+	}
+
+	/**
+	 * 決定変数ベクトルをレンズ系に変換できずに実行不可能となった回数を返す．
+	 *
+	 * @return 回数
+	 */
+	public long getNoOfConverterFailures() {
+		return fNoOfConverterFailures;
+	}
+
+	/**
+	 * 焦点距離を満たすように強制できずに実行不可能となった回数を返す．
+	 *
+	 * @return 回数
+	 */
+	public long getNoOfEnforcementFailures() {
+		return fNoOfEnforcementFailures;
+	}
+
+	/**
+	 * 評価器（光線追跡）で実行不可能と判定された回数を返す．
+	 *
+	 * @return 回数
+	 */
+	public long getNoOfEvaluatorFailures() {
+		return fNoOfEvaluatorFailures;
+	}
+
+	/**
+	 * 実行不可能となった回数をすべて0に戻す．
+	 */
+	public void resetFailureCounts() {
+		fNoOfConverterFailures = 0;
+		fNoOfEnforcementFailures = 0;
+		fNoOfEvaluatorFailures = 0;
+	}
+
 	/**
 	 * 直近に評価されたレンズ系を返す．
 	 *
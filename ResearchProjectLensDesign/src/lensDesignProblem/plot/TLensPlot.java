@@ -70,6 +70,7 @@ public class TLensPlot extends JPanel {
 	 */
 	private void calcRays(TLens lens) {
 		TChromaticLensEvaluator evaluator = new TChromaticLensEvaluator(true, true, true, false);
+		evaluator.setConcurrentWavelengths(true); // 1つのレンズの表示を速くするため, 波長ごとに並行して追跡する
 		TEnforcementOperator fEnforcementOperator = new TEnforcementOperator();
 		fEnforcementOperator.doIt(lens); // レンズ最終面の強制
 		evaluator.doIt(lens); // レンズを評価
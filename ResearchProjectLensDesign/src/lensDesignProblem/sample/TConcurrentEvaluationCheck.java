@@ -0,0 +1,112 @@
+package lensDesignProblem.sample;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import lensDesignProblem.evaluator.TSMonochromeLensProblem;
+
+public class TConcurrentEvaluationCheck {
+
+	/** 評価するレンズ系のうち，実行可能なものの数 */
+	private static final int NO_OF_FEASIBLES = 50;
+
+	/** 評価するレンズ系のうち，実行不可能なものの数 */
+	private static final int NO_OF_INFEASIBLES = 50;
+
+	/** 各スレッドが全レンズ系を評価する回数 */
+	private static final int NO_OF_ROUNDS = 20;
+
+	/**
+	 * 固定焦点単色レンズ設計問題を生成する．
+	 * レンズ系の設計仕様は，3枚組，F値3.0, 焦点距離100mm, 最大半画角19度である．
+	 *
+	 * @return 固定焦点単色レンズ設計問題
+	 */
+	private static TSMonochromeLensProblem createProblem() {
+		return new TSMonochromeLensProblem("a g a g a g a", 3.0, 100.0, 19.0,
+				0.0, 5.0, 0.0, 20.0, 10.0, 1000.0,
+				1.0, 1.0);
+	}
+
+	/**
+	 * 複数のスレッドで，それぞれ別の固定焦点単色レンズ設計問題のインスタンスを使って同じレンズ系の集合を同時に評価し，
+	 * 1スレッドで評価した結果とビット単位で一致するかを調べる．
+	 * 評価するレンズ系は，乱数で生成した実行可能なものと実行不可能なものであり，スレッドごとに異なる順序で評価する．
+	 * 一致しない評価値が一つでもあれば，その数を表示して終了コード1で終了する．
+	 *
+	 * @param args スレッド数（省略時は利用可能なプロセッサ数の2倍）
+	 * @throws Exception
+	 */
+	public static void main(String[] args) throws Exception {
+		int noOfThreads = args.length > 0 ? Integer.parseInt(args[0]) : 2 * Runtime.getRuntime().availableProcessors();
+		Random rand = new Random(1L);
+		TSMonochromeLensProblem problem = createProblem();
+		final ArrayList<double[]> xs = new ArrayList<double[]>(); // 評価するレンズ系の決定変数ベクトル
+		ArrayList<Double> expected = new ArrayList<Double>(); // 1スレッドで評価した評価値
+		int noOfFeasibles = 0;
+		int noOfInfeasibles = 0;
+		while (noOfFeasibles < NO_OF_FEASIBLES || noOfInfeasibles < NO_OF_INFEASIBLES) {
+			double[] x = new double[problem.getDimension()];
+			for (int i = 0; i < x.length; ++i) {
+				x[i] = rand.nextDouble() * (TSMonochromeLensProblem.MAX - TSMonochromeLensProblem.MIN)
+						+ TSMonochromeLensProblem.MIN;
+			}
+			double eval = problem.evaluate(x);
+			if (eval < Double.MAX_VALUE && noOfFeasibles < NO_OF_FEASIBLES) {
+				++noOfFeasibles;
+			} else if (eval == Double.MAX_VALUE && noOfInfeasibles < NO_OF_INFEASIBLES) {
+				++noOfInfeasibles;
+			} else {
+				continue;
+			}
+			xs.add(x);
+			expected.add(eval);
+		}
+		final double[] expectedValues = new double[expected.size()];
+		for (int i = 0; i < expectedValues.length; ++i) {
+			expectedValues[i] = expected.get(i);
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(noOfThreads);
+		ArrayList<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+		for (int t = 0; t < noOfThreads; ++t) {
+			final TSMonochromeLensProblem myProblem = problem.clone(); // スレッドごとのインスタンス
+			final Random myRand = new Random(t);
+			futures.add(executor.submit(new Callable<Integer>() {
+				@Override
+				public Integer call() {
+					int noOfMismatches = 0;
+					ArrayList<Integer> order = new ArrayList<Integer>();
+					for (int i = 0; i < xs.size(); ++i) {
+						order.add(i);
+					}
+					for (int r = 0; r < NO_OF_ROUNDS; ++r) {
+						Collections.shuffle(order, myRand);
+						for (int i : order) {
+							double eval = myProblem.evaluate(xs.get(i));
+							if (Double.doubleToLongBits(eval) != Double.doubleToLongBits(expectedValues[i])) {
+								++noOfMismatches;
+							}
+						}
+					}
+					return noOfMismatches;
+				}
+			}));
+		}
+		int noOfMismatches = 0;
+		for (Future<Integer> f : futures) {
+			noOfMismatches += f.get();
+		}
+		executor.shutdown();
+		System.out.println("Threads:" + noOfThreads + ", Lenses:" + xs.size() + ", Rounds:" + NO_OF_ROUNDS
+				+ ", Mismatches:" + noOfMismatches);
+		if (noOfMismatches > 0) {
+			System.exit(1);
+		}
+	}
+
+}
@@ -1,5 +1,15 @@
 package lensDesignProblem.simulator;
 
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * レンズ系の評価器
  * 
@@ -19,6 +29,15 @@ public class TChromaticLensEvaluator {
 	/** 光線を表示に使うかどうか，のデフォルト値 */
 	public static final boolean DEFAULT_USE_RAYS_FOR_DISPLAY = false;
 
+	/** 波長ごとの光線追跡を並行して行うか，のデフォルト値 */
+	public static final boolean DEFAULT_CONCURRENT_WAVELENGTHS = false;
+
+	/** 波長ごとの光線追跡を行うスレッドプール. 全ての評価器で共有し, 使われなくなったスレッドは終了する. */
+	private static ExecutorService fWavelengthExecutor = null;
+
+	/** 波長ごとの光線追跡を行うスレッドの通し番号 */
+	private static final AtomicInteger fWavelengthThreadCount = new AtomicInteger();
+
 	/** 色収差を考慮するかどうか. trueならする. */
 	private boolean fChromatic = TChromaticLensEvaluator.DEFAULT_CHROMATIC;
 
@@ -31,12 +50,12 @@ public class TChromaticLensEvaluator {
 	/** 光線を表示に使うかどうか */
 	private boolean fUseRaysForDisplay = TChromaticLensEvaluator.DEFAULT_USE_RAYS_FOR_DISPLAY;
 
+	/** 波長ごとの光線追跡を並行して行うか */
+	private boolean fConcurrentWavelengths = TChromaticLensEvaluator.DEFAULT_CONCURRENT_WAVELENGTHS;
+
 	/** 評価対象になるレンズ系 */
 	private TLens fLens;
 
-	/** 光線追跡オペレータ */
-	private TRayTracer fRayTracer;
-
 	/** レンズ系に平行に入射する光束の半径 */
 	private double fRadiusOfFNumberRay; /* 焦点距離/(2*Fナンバー) */
 
@@ -52,11 +71,23 @@ public class TChromaticLensEvaluator {
 	/** 光線が最初の曲面入る位置ベクトル */
 	private TVector3D[][][] fInitT;
 
-	/** 追跡光線 */
+	/** 表示用の追跡光線. 光線を表示に使うときだけ fVertexes から作る. */
 	private TRay[][][] fRaysForDisplay;
 
-	/** 計算用の光線 */
-	private TRay fRay;
+	/** 光線追跡に用いる面の表 */
+	private TSurfaceTable fTable;
+
+	/** 1本の光線の頂点の数(面の数 + 2) */
+	private int fNoOfVertexes;
+
+	/** 追跡光線の頂点. [波長番号][角度番号][光線番号][頂点番号][x, y, z] の順に並べる. */
+	private double[] fVertexes;
+
+	/** 光線の探索の作業領域 */
+	private TLanes fLanes;
+
+	/** 波長ごとに並行して追跡するときの, 各波長の光線の探索の作業領域 */
+	private TLanes[] fWavelengthLanes;
 
 	/** 像面のスポット */
 	private TSpot[][] fSpots;
@@ -64,12 +95,322 @@ public class TChromaticLensEvaluator {
 	/** オリジナルの絞り */
 	private double fOriginalStopPosition;
 
+	/**
+	 * 光線のパケットで同時に探索する光線(レーン)の作業領域<BR>
+	 * 波長ごとに並行して追跡するときは, 波長ごとに別の作業領域を使う.
+	 */
+	private final class TLanes {
+
+		/** 光線のパケットの追跡オペレータ */
+		private TRayPacketTracer fPacket;
+
+		/** レーンの数 */
+		private int fNoOfLanes;
+
+		/** レーンの光線の波長番号 */
+		private int[] fLaneWavelength;
+
+		/** レーンの光線の角度番号 */
+		private int[] fLaneW;
+
+		/** レーンの光線の光線番号. 結果は fInitT と fVertexes のこの光線に書き込む. */
+		private int[] fLaneIndex;
+
+		/** レーンの探索範囲の一端(内側, 下端, 開始位置). [レーン番号 * 3 + 成分] */
+		private double[] fLaneIn;
+
+		/** レーンの探索範囲のもう一端(外側, 上端, 終了位置). [レーン番号 * 3 + 成分] */
+		private double[] fLaneOut;
+
+		/** レーンの探索中の位置. [レーン番号 * 3 + 成分] */
+		private double[] fLaneCur;
+
+		/** レーンの探索幅(findFeasibleRays) */
+		private double[] fLaneStepSize;
+
+		/** レーンの探索の進み具合(findFeasibleRays) */
+		private double[] fLaneT;
+
+		/** 探索を続けているレーンならば true */
+		private boolean[] fLaneActive;
+
+		/** パケットのレーンが表すレーンの番号 */
+		private int[] fPacketLane;
+
+		/** コンストラクタ */
+		TLanes() {
+			int capacity = TWavelength.NO_OF_WAVELENGTHS * TRayConstant.NO_OF_WS * TRayConstant.NO_OF_RAYS;
+			fPacket = new TRayPacketTracer(capacity);
+			fNoOfLanes = 0;
+			fLaneWavelength = new int[capacity];
+			fLaneW = new int[capacity];
+			fLaneIndex = new int[capacity];
+			fLaneIn = new double[capacity * 3];
+			fLaneOut = new double[capacity * 3];
+			fLaneCur = new double[capacity * 3];
+			fLaneStepSize = new double[capacity];
+			fLaneT = new double[capacity];
+			fLaneActive = new boolean[capacity];
+			fPacketLane = new int[capacity];
+		}
+
+		/** レーンをすべて取り除く. */
+		final void clear() {
+			fNoOfLanes = 0;
+		}
+
+		/**
+		 * 光線をレーンに追加する.
+		 * 
+		 * @param wavelength 波長番号
+		 * @param w          角度番号
+		 * @param index      光線番号
+		 * @param in         探索範囲の一端. 追跡するだけのときは位置ベクトル T の初期値
+		 * @param out        探索範囲のもう一端. 追跡するだけのときは null
+		 * @return レーン番号
+		 */
+		final int add(int wavelength, int w, int index, final TVector3D in, final TVector3D out) {
+			int l = fNoOfLanes++;
+			fLaneWavelength[l] = wavelength;
+			fLaneW[l] = w;
+			fLaneIndex[l] = index;
+			for (int j = 0; j < 3; ++j) {
+				fLaneIn[l * 3 + j] = in.getData(j);
+				fLaneOut[l * 3 + j] = out != null ? out.getData(j) : 0.0;
+			}
+			return l;
+		}
+
+		/**
+		 * レーンの位置をパケットに追加する.
+		 * 
+		 * @param l レーン番号
+		 * @param x 位置ベクトル T の配列
+		 * @return パケットのレーン番号
+		 */
+		final int addToPacket(int l, final double[] x) {
+			int p = fPacket.add(x[l * 3], x[l * 3 + 1], x[l * 3 + 2], fInitQ[fLaneW[l]], fLaneWavelength[l]);
+			fPacketLane[p] = l;
+			return p;
+		}
+
+		/**
+		 * レーンの光線の最初の頂点の fVertexes での位置を返す
+		 * 
+		 * @param l レーン番号
+		 * @return 最初の頂点の位置
+		 */
+		final int offset(int l) {
+			return ray(fLaneWavelength[l], fLaneW[l], fLaneIndex[l]);
+		}
+
+		/**
+		 * 全レーンの光線を1つのパケットで追跡する. 頂点は fVertexes に書き込む(追跡できなかった光線は途中まで).
+		 * 各レーンの成否は fPacket.isTraced で得る.
+		 * 
+		 * @param checkLensHeight 高さのチェックするかどうか
+		 * @param checkStopR      絞りに光線が当たらないかチェックするかどうか
+		 * @return 全レーンを追跡できたとき true
+		 */
+		final boolean trace(boolean checkLensHeight, boolean checkStopR) {
+			fPacket.clear();
+			for (int l = 0; l < fNoOfLanes; ++l) {
+				addToPacket(l, fLaneIn);
+			}
+			boolean traced = fPacket.trace(fTable, fInitD, checkLensHeight, checkStopR);
+			for (int l = 0; l < fNoOfLanes; ++l) {
+				fPacket.copyVertexes(l, fVertexes, offset(l));
+			}
+			return traced;
+		}
+
+		/**
+		 * 光線追跡可能な, 開始位置が外側の光線の進入位置Tを求める
+		 * 各レーンの光線について内側 fLaneIn と外側 fLaneOut の間を二分探索する. 全レーンの二分探索は同時に進め,
+		 * 各回の光線を1つのパケットで追跡する. 結果は各レーンの fInitT と fVertexes の光線に格納する.
+		 *
+		 * @param checkLensHeight 高さのチェックするかどうか
+		 * @param checkStopR      絞りに光線が当たらないかチェックするかどうか
+		 *
+		 */
+		final boolean searchLimitTs(boolean checkLensHeight, boolean checkStopR) {
+			final int n = fNoOfLanes;
+			final double[] in = fLaneIn;
+			final double[] out = fLaneOut;
+			final double[] cur = fLaneCur;
+			fPacket.clear();
+			for (int l = 0; l < n; ++l) {
+				addToPacket(l, in);
+			}
+			if (!fPacket.trace(fTable, fInitD, checkLensHeight, checkStopR)) { // 注意 true しか返さない
+				// throw new RuntimeException("Error in TChromaticLensEvaluator::SearchLimitT");
+				return false;
+			}
+			for (int l = 0; l < n; ++l) {
+				fPacket.copyVertexes(l, fVertexes, offset(l));
+			}
+			fPacket.clear();
+			for (int l = 0; l < n * 3; ++l) {
+				cur[l] = (in[l] + out[l]) / 2.0;
+			}
+			for (int l = 0; l < n; ++l) {
+				addToPacket(l, cur);
+			}
+			for (int i = 0; i < 15; ++i) { // 二分探索
+				fPacket.trace(fTable, fInitD, checkLensHeight, checkStopR);
+				for (int l = 0; l < n; ++l) {
+					int k = l * 3;
+					if (fPacket.isTraced(l)) {
+						fPacket.copyVertexes(l, fVertexes, offset(l));
+						in[k] = cur[k];
+						in[k + 1] = cur[k + 1];
+						in[k + 2] = cur[k + 2];
+					} else {
+						out[k] = cur[k];
+						out[k + 1] = cur[k + 1];
+						out[k + 2] = cur[k + 2];
+					}
+					cur[k] = (in[k] + out[k]) / 2.0;
+					cur[k + 1] = (in[k + 1] + out[k + 1]) / 2.0;
+					cur[k + 2] = (in[k + 2] + out[k + 2]) / 2.0;
+					fPacket.setT(l, cur[k], cur[k + 1], cur[k + 2]);
+				}
+			}
+			for (int l = 0; l < n; ++l) {
+				fInitT[fLaneWavelength[l]][fLaneW[l]][fLaneIndex[l]].copy(in[l * 3], in[l * 3 + 1], in[l * 3 + 2]);
+			}
+			return true;
+		}
+
+		/**
+		 * 主光線のあるべき位置を探す
+		 * 各レーンの光線について下端 fLaneIn と上端 fLaneOut の間を二分探索する. 全レーンの二分探索は同時に進め,
+		 * 各回の光線を1つのパケットで追跡する. 結果は各レーンの fInitT に格納する.
+		 * 
+		 * @return 全レーンで見つかったとき true
+		 */
+		final boolean searchMainTs() {
+			final int n = fNoOfLanes;
+			final double[] lower = fLaneIn;
+			final double[] upper = fLaneOut;
+			final double[] cur = fLaneCur;
+			final boolean[] active = fLaneActive;
+			for (int l = 0; l < n * 3; ++l) {
+				cur[l] = (lower[l] + upper[l]) / 2.0;
+			}
+			for (int l = 0; l < n; ++l) {
+				active[l] = true;
+			}
+			int noOfActives = n;
+			boolean found = true;
+			double stopPos = fLens.getStopPosition();
+			for (int i = 0; i < 15 && noOfActives > 0; ++i) {
+				fPacket.clear();
+				for (int l = 0; l < n; ++l) {
+					if (active[l]) {
+						addToPacket(l, cur);
+					}
+				}
+				fPacket.searchPointWithX(fTable, fInitD, stopPos);
+				for (int p = 0; p < fPacket.size(); ++p) {
+					int l = fPacketLane[p];
+					int k = l * 3;
+					if (!fPacket.isTraced(p)) {
+						active[l] = false;
+						--noOfActives;
+						found = false;
+						continue;
+					}
+					double y = fPacket.getY(p);
+					if (y > 0.0) {
+						upper[k] = cur[k];
+						upper[k + 1] = cur[k + 1];
+						upper[k + 2] = cur[k + 2];
+					} else if (y < 0.0) {
+						lower[k] = cur[k];
+						lower[k + 1] = cur[k + 1];
+						lower[k + 2] = cur[k + 2];
+					} else {
+						fInitT[fLaneWavelength[l]][fLaneW[l]][fLaneIndex[l]].copy(cur[k], cur[k + 1], cur[k + 2]);
+						active[l] = false;
+						--noOfActives;
+						continue;
+					}
+					cur[k] = (lower[k] + upper[k]) / 2.0;
+					cur[k + 1] = (lower[k + 1] + upper[k + 1]) / 2.0;
+					cur[k + 2] = (lower[k + 2] + upper[k + 2]) / 2.0;
+				}
+			}
+			for (int l = 0; l < n; ++l) {
+				if (active[l]) {
+					int k = l * 3;
+					fInitT[fLaneWavelength[l]][fLaneW[l]][fLaneIndex[l]].copy(cur[k], cur[k + 1], cur[k + 2]);
+				}
+			}
+			return found;
+		}
+
+		/**
+		 * 実行可能な光線の追跡開始位置を探す
+		 * 各レーンの光線について開始位置 fLaneIn から終了位置 fLaneOut へ探索幅 fLaneStepSize ずつ進める.
+		 * 全レーンの探索は同時に進め, 各回の光線を1つのパケットで追跡する.
+		 * 結果の光線追跡開始位置は各レーンの fInitT に格納する(終了位置で見つかったときも最後に進めた位置のまま).
+		 *
+		 * @param checkHeight 高さのチェックするかどうか
+		 * @param checkStopR  絞りに光線が当たらないかチェックするかどうか
+		 * @return 全レーンで見つかったとき true
+		 */
+		final boolean findFeasibleRays(boolean checkHeight, boolean checkStopR) {
+			final int n = fNoOfLanes;
+			final double[] start = fLaneIn;
+			final double[] end = fLaneOut;
+			final double[] cur = fLaneCur;
+			final double[] t = fLaneT;
+			final boolean[] active = fLaneActive;
+			for (int l = 0; l < n; ++l) {
+				t[l] = 0.0;
+				active[l] = true;
+			}
+			int noOfActives = n;
+			while (noOfActives > 0) {
+				fPacket.clear();
+				for (int l = 0; l < n; ++l) {
+					if (!active[l]) {
+						continue;
+					}
+					if (t[l] < 1.0) {
+						int k = l * 3;
+						cur[k] = start[k] + t[l] * (end[k] - start[k]);
+						cur[k + 1] = start[k + 1] + t[l] * (end[k + 1] - start[k + 1]);
+						cur[k + 2] = start[k + 2] + t[l] * (end[k + 2] - start[k + 2]);
+						fInitT[fLaneWavelength[l]][fLaneW[l]][fLaneIndex[l]].copy(cur[k], cur[k + 1], cur[k + 2]);
+						addToPacket(l, cur);
+					} else {
+						addToPacket(l, end);
+					}
+				}
+				fPacket.trace(fTable, fInitD, checkHeight, checkStopR);
+				for (int p = 0; p < fPacket.size(); ++p) {
+					int l = fPacketLane[p];
+					if (fPacket.isTraced(p)) {
+						active[l] = false;
+						--noOfActives;
+					} else if (t[l] < 1.0) {
+						t[l] += fLaneStepSize[l];
+					} else {
+						return false;
+					}
+				}
+			}
+			return true;
+		}
+	}
+
 	/**
 	 * コンストラクタ
 	 */
 	public TChromaticLensEvaluator() {
 		fLens = null;
-		fRayTracer = new TRayTracer();
 		fInitD = 10.0;
 		fW = new double[TRayConstant.NO_OF_WS];
 		fInitQ = new TVector3D[TRayConstant.NO_OF_WS];
@@ -82,7 +423,12 @@ public class TChromaticLensEvaluator {
 				fSpots[i][w] = new TSpot(TRayConstant.NO_OF_RAYS);
 			}
 		}
-		fRay = new TRay();
+		fTable = new TSurfaceTable();
+		fNoOfVertexes = 0;
+		fVertexes = new double[0];
+		fLanes = new TLanes();
+		fWavelengthLanes = new TLanes[TWavelength.NO_OF_WAVELENGTHS];
+		fWavelengthLanes[TWavelength.REF_D] = fLanes;
 		fInitT = new TVector3D[TWavelength.NO_OF_WAVELENGTHS][TRayConstant.NO_OF_WS][TRayConstant.NO_OF_RAYS];
 		for (int wl = 0; wl < TWavelength.NO_OF_WAVELENGTHS; ++wl) {
 			for (int w = 0; w < TRayConstant.NO_OF_WS; ++w) {
@@ -116,7 +462,6 @@ public class TChromaticLensEvaluator {
 		fUseRaysForDisplay = useRaysForDisplay;
 		fUseOriginalStopPosition = useOriginalStopPosition;
 		fLens = null;
-		fRayTracer = new TRayTracer();
 		fInitD = 10.0;
 		fW = new double[TRayConstant.NO_OF_WS];
 		fInitQ = new TVector3D[TRayConstant.NO_OF_WS];
@@ -129,7 +474,12 @@ public class TChromaticLensEvaluator {
 				fSpots[i][w] = new TSpot(TRayConstant.NO_OF_RAYS);
 			}
 		}
-		fRay = new TRay();
+		fTable = new TSurfaceTable();
+		fNoOfVertexes = 0;
+		fVertexes = new double[0];
+		fLanes = new TLanes();
+		fWavelengthLanes = new TLanes[TWavelength.NO_OF_WAVELENGTHS];
+		fWavelengthLanes[TWavelength.REF_D] = fLanes;
 		fInitT = new TVector3D[TWavelength.NO_OF_WAVELENGTHS][TRayConstant.NO_OF_WS][TRayConstant.NO_OF_RAYS];
 		for (int wl = 0; wl < TWavelength.NO_OF_WAVELENGTHS; ++wl) {
 			for (int w = 0; w < TRayConstant.NO_OF_WS; ++w) {
@@ -160,33 +510,186 @@ public class TChromaticLensEvaluator {
 		fLens.setFeasible(false);
 		fOriginalStopPosition = fLens.getStopPosition();
 		initParameters();
+		int noOfWavelengths = fChromatic ? TWavelength.NO_OF_WAVELENGTHS : 1;
+		boolean feasible = calculateRays(noOfWavelengths);
+		if (fUseRaysForDisplay) {
+			copyRaysForDisplay();
+		}
+		if (!feasible) {
+			return false;
+		}
+		calculateDistortionAndResolution();
+		if (fChromatic) {
+			calculateChromaticAbberations();
+		}
+		if (fUseRaysForDisplay) {
+			prepareForDisplay(noOfWavelengths);
+		}
+		fLens.setFeasible(true);
+		return true;
+	}
+
+	/**
+	 * 絞りの位置を決め, 各波長の光線を追跡してスポットを作る.
+	 * 全波長, 全角度の互いに独立な光線は, まとめて1つのパケットで追跡する.
+	 * 波長ごとの光線追跡を並行して行うときは, 波長ごとに別のスレッドで追跡する.
+	 * 
+	 * @param noOfWavelengths 波長の数
+	 * @return 成否
+	 */
+	private final boolean calculateRays(int noOfWavelengths) {
 		if (!determineStopPosition()) {
 			return false;
 		}
-		int noOfWavelengths = fChromatic ? TWavelength.NO_OF_WAVELENGTHS : 1;
+		if (fConcurrentWavelengths && noOfWavelengths > 1) {
+			return calculateRaysConcurrently(noOfWavelengths);
+		}
+		if (!calculateRaysForDisplay(fLanes, 0, noOfWavelengths)) {
+			return false;
+		}
 		for (int wl = 0; wl < noOfWavelengths; ++wl) {
-			if (!calculateRaysForDisplay(wl)) {
-				return false;
-			}
 			if (!checkBackFocus(wl)) {
 				return false;
 			}
-			if (!calculateOtherRays(wl)) {
-				return false;
-			}
+		}
+		if (!calculateOtherRays(fLanes, 0, noOfWavelengths)) {
+			return false;
+		}
+		for (int wl = 0; wl < noOfWavelengths; ++wl) {
 			makeSpots(wl);
 		}
-		calculateDistortionAndResolution();
-		if (fChromatic) {
-			calculateChromaticAbberations();
+		return true;
+	}
+
+	/**
+	 * 各波長の光線の追跡を並行して行う. 基準波長は呼び出したスレッドで, 他の波長はスレッドプールで追跡する.
+	 * 各波長は自分の波長の fInitT, fVertexes, fSpots だけに書き込み, 光線の探索には波長ごとの作業領域を使う.
+	 * どれかの波長で失敗したときは, 他の波長も次の段階に進まずにやめる.
+	 * 全ての波長が終わるまで待ってから戻る.
+	 * 
+	 * @param noOfWavelengths 波長の数
+	 * @return 成否
+	 */
+	private final boolean calculateRaysConcurrently(int noOfWavelengths) {
+		final AtomicBoolean failed = new AtomicBoolean(false);
+		ExecutorService executor = getWavelengthExecutor();
+		ArrayList<Future<Boolean>> futures = new ArrayList<Future<Boolean>>(noOfWavelengths - 1);
+		for (int wl = 0; wl < noOfWavelengths; ++wl) {
+			if (wl == TWavelength.REF_D) {
+				continue;
+			}
+			if (fWavelengthLanes[wl] == null) {
+				fWavelengthLanes[wl] = new TLanes();
+			}
+			final TLanes lanes = fWavelengthLanes[wl];
+			final int wavelength = wl;
+			futures.add(executor.submit(new Callable<Boolean>() {
+				@Override
+				public Boolean call() {
+					return calculateRaysAt(lanes, wavelength, failed);
+				}
+			}));
 		}
-		if (fUseRaysForDisplay) {
-			prepareForDisplay(noOfWavelengths);
+		boolean feasible = false;
+		RuntimeException error = null;
+		try {
+			feasible = calculateRaysAt(fLanes, TWavelength.REF_D, failed);
+		} catch (RuntimeException e) {
+			failed.set(true);
+			error = e;
 		}
-		fLens.setFeasible(true);
+		boolean interrupted = false;
+		for (Future<Boolean> f : futures) {
+			while (true) {
+				try {
+					if (!f.get()) {
+						feasible = false;
+					}
+					break;
+				} catch (InterruptedException e) { // 他の波長が書き込み中のまま戻らないように, 終わるまで待つ.
+					interrupted = true;
+				} catch (ExecutionException e) {
+					feasible = false;
+					if (error == null) {
+						error = e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause()
+								: new RuntimeException(e.getCause());
+					}
+					break;
+				}
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+		if (error != null) {
+			throw error;
+		}
+		return feasible;
+	}
+
+	/**
+	 * 1つの波長の光線を追跡してスポットを作る. 他の波長で失敗したときは次の段階に進まずにやめる.
+	 * 
+	 * @param lanes      光線の探索の作業領域
+	 * @param wavelength 波長番号
+	 * @param failed     いずれかの波長で失敗したとき true
+	 * @return 成否
+	 */
+	private final boolean calculateRaysAt(TLanes lanes, int wavelength, AtomicBoolean failed) {
+		if (failed.get() || !calculateRaysForDisplay(lanes, wavelength, wavelength + 1)) {
+			failed.set(true);
+			return false;
+		}
+		if (failed.get() || !checkBackFocus(wavelength)) {
+			failed.set(true);
+			return false;
+		}
+		if (failed.get() || !calculateOtherRays(lanes, wavelength, wavelength + 1)) {
+			failed.set(true);
+			return false;
+		}
+		makeSpots(wavelength);
 		return true;
 	}
 
+	/**
+	 * 波長ごとの光線追跡を行うスレッドプールを返す. 初めて呼ばれたときに作る.
+	 * 
+	 * @return スレッドプール
+	 */
+	private static synchronized ExecutorService getWavelengthExecutor() {
+		if (fWavelengthExecutor == null) {
+			fWavelengthExecutor = Executors.newCachedThreadPool(new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable r) {
+					Thread t = new Thread(r, "TChromaticLensEvaluator-" + fWavelengthThreadCount.incrementAndGet());
+					t.setDaemon(true);
+					return t;
+				}
+			});
+		}
+		return fWavelengthExecutor;
+	}
+
+	/**
+	 * 追跡光線の頂点を表示用の光線にコピーする.
+	 * 角度0の光線0と2は追跡しないため, prepareForDisplayで作る.
+	 */
+	private final void copyRaysForDisplay() {
+		for (int wl = 0; wl < TWavelength.NO_OF_WAVELENGTHS; ++wl) {
+			for (int w = 0; w < TRayConstant.NO_OF_WS; ++w) {
+				for (int i = 0; i < TRayConstant.NO_OF_RAYS; ++i) {
+					TRay ray = fRaysForDisplay[wl][w][i];
+					ray.setNoOfSegments(fNoOfVertexes - 1);
+					if (w == TRayConstant.W_0 && (i == 0 || i == 2)) {
+						continue;
+					}
+					ray.copy(fVertexes, ray(wl, w, i));
+				}
+			}
+		}
+	}
+
 	private void prepareForDisplay(int noOfWavelengths) {
 		adjustLensEdges();
 		TVector3D d0 = TVector3D.newInstance(0.0, 0.0, 0.0);
@@ -211,6 +714,7 @@ public class TChromaticLensEvaluator {
 
 	/**
 	 * 追跡光線を返す
+	 * 光線を表示に使う設定(isUseRaysForDisplay)のときだけ, 評価したレンズの光線になる.
 	 * 
 	 * @param wavelength 波長番号
 	 * @param w          角度番号
@@ -275,13 +779,11 @@ public class TChromaticLensEvaluator {
 
 	/** パラメータを初期化する. */
 	private final void initParameters() {
-		fRay.setNoOfSegments(fLens.getNoOfSurfaces() + 1);
-		for (int wl = 0; wl < TWavelength.NO_OF_WAVELENGTHS; ++wl) {
-			for (int w = 0; w < TRayConstant.NO_OF_WS; ++w) {
-				for (int i = 0; i < TRayConstant.NO_OF_RAYS; ++i) {
-					fRaysForDisplay[wl][w][i].setNoOfSegments(fLens.getNoOfSurfaces() + 1);
-				}
-			}
+		fTable.compile(fLens);
+		if (fNoOfVertexes != fTable.getNoOfVertexes()) {
+			fNoOfVertexes = fTable.getNoOfVertexes();
+			fVertexes = new double[TWavelength.NO_OF_WAVELENGTHS * TRayConstant.NO_OF_WS * TRayConstant.NO_OF_RAYS
+					* fNoOfVertexes * 3];
 		}
 		clearLensHeight();
 		fW[TRayConstant.W_0] = 0.0;
@@ -299,84 +801,173 @@ public class TChromaticLensEvaluator {
 	}
 
 	/**
-	 * 画面に表示する光線の追跡を行う
+	 * 追跡光線の最初の頂点の fVertexes での位置を返す
 	 * 
 	 * @param wavelength 波長番号
+	 * @param w          角度番号
+	 * @param index      光線番号
+	 * @return 最初の頂点の位置
+	 */
+	private final int ray(int wavelength, int w, int index) {
+		return ((wavelength * TRayConstant.NO_OF_WS + w) * TRayConstant.NO_OF_RAYS + index) * fNoOfVertexes * 3;
+	}
+
+	/**
+	 * 追跡光線上で x の位置の高さ y を探す. (TRay.searchPointWithX と同じ)
+	 * 
+	 * @param ray 追跡光線の最初の頂点の位置
+	 * @param x   探すx座標
+	 * @return 高さ y
+	 */
+	private final double getYAtX(int ray, double x) {
+		int ptr0 = 0;
+		int ptr1 = fNoOfVertexes - 1;
+		while (true) {
+			int ptr = (ptr1 + ptr0) / 2;
+			int v = ray + ptr * 3;
+			if (fVertexes[v] <= x && x <= fVertexes[v + 3]) {
+				double t = (x - fVertexes[v]) / (fVertexes[v + 3] - fVertexes[v]);
+				return fVertexes[v + 1] + t * (fVertexes[v + 4] - fVertexes[v + 1]);
+			} else if (fVertexes[v] > x) {
+				ptr1 = ptr;
+			} else if (fVertexes[v + 3] < x) {
+				ptr0 = ptr + 1;
+			} else {
+				System.err.println("Error in TChromaticLensEvaluator::getYAtX");
+				System.exit(5);
+			}
+		}
+	}
+
+	/**
+	 * 追跡光線の高さが y になる最初の位置 x を探す. (TRay.searchPointsWithY と同じ)
+	 * 
+	 * @param ray 追跡光線の最初の頂点の位置
+	 * @param y   高さy
+	 * @return 位置 x. 見つからなければ NaN
+	 */
+	private final double getXAtY(int ray, double y) {
+		for (int i = 0; i < fNoOfVertexes - 1; ++i) {
+			int v = ray + i * 3;
+			double y1 = fVertexes[v + 1] - y;
+			double y2 = fVertexes[v + 4] - y;
+			if (y1 * y2 < 0) {
+				double t = (y - fVertexes[v + 1]) / (fVertexes[v + 4] - fVertexes[v + 1]);
+				return fVertexes[v] + t * (fVertexes[v + 3] - fVertexes[v]);
+			} else if (y1 == 0.0) {
+				return fVertexes[v];
+			} else if (y2 == 0.0 && i + 1 == fNoOfVertexes - 1) {
+				return fVertexes[v + 3];
+			}
+		}
+		return Double.NaN;
+	}
+
+	/**
+	 * 画面に表示する光線の追跡を行う
+	 * 
+	 * @param from 最初の波長番号
+	 * @param to   最後の波長番号 + 1
 	 */
-	private final boolean calculateRaysForDisplay(int wavelength) {
-		fInitT[wavelength][TRayConstant.W_0][0].copy(0.0, 0.0, 0.0);
-		if (wavelength != TWavelength.REF_D) {
-			TVector3D in = TVector3D.newInstance(0.0, 0.0, 0.0);
-			TVector3D out = TVector3D.newInstance(0.0, -2.0 * fRadiusOfFNumberRay, 0.0);
-			if (!searchLimitT(fInitD, fInitQ[TRayConstant.W_0], in, out,
-					fInitT[wavelength][TRayConstant.W_0][1], wavelength,
-					fRaysForDisplay[wavelength][TRayConstant.W_0][1], false, true)) {
+	private final boolean calculateRaysForDisplay(TLanes lanes, int from, int to) {
+		lanes.clear();
+		for (int wl = from; wl < to; ++wl) {
+			fInitT[wl][TRayConstant.W_0][0].copy(0.0, 0.0, 0.0);
+			if (wl != TWavelength.REF_D) {
+				TVector3D in = TVector3D.newInstance(0.0, 0.0, 0.0);
+				TVector3D out = TVector3D.newInstance(0.0, -2.0 * fRadiusOfFNumberRay, 0.0);
+				lanes.add(wl, TRayConstant.W_0, 1, in, out);
 				TVector3D.deleteInstance(in);
 				TVector3D.deleteInstance(out);
-				return false;
 			}
-			TVector3D.deleteInstance(in);
-			TVector3D.deleteInstance(out);
-		}
-		fInitT[wavelength][TRayConstant.W_0][2].copy(fInitT[wavelength][TRayConstant.W_0][1]);
-		fInitT[wavelength][TRayConstant.W_0][2].scalerProduct(-1.0);
-		double x1 = fRaysForDisplay[wavelength][TRayConstant.W_0][1].getVector3D(1).getData(0);
-		double y1 = fRaysForDisplay[wavelength][TRayConstant.W_0][1].getVector3D(1).getData(1);
-		TVector3D inT = TVector3D.newInstance();
+		}
+		if (lanes.fNoOfLanes > 0 && !lanes.searchLimitTs(false, true)) {
+			return false;
+		}
 		TVector3D v3duy = TVector3D.newInstance();
 		TVector3D v3dly = TVector3D.newInstance();
-		for (int w = 1; w < TRayConstant.NO_OF_WS; ++w) {
-			double upperY = y1 - (x1 + fInitD) * Math.tan(fW[w]);
-			double lowerY = calcLowerY(w);
-			// assert( upperY >= lowerY );
-			int div = (int) ((upperY - lowerY) / fRadiusOfFNumberRay) + 1;
-			double stepSize = 1.0 / (double) div;
-			inT.copy(0.0, 0.0, 0.0);
-			v3duy.copy(0.0, upperY, 0.0);
-			v3dly.copy(0.0, lowerY, 0.0);
-			if (!findFeasibleRay(fInitD, fInitQ[w], v3duy, v3dly, inT, stepSize, wavelength, false, true)) {
-				TVector3D.deleteInstance(inT);
-				TVector3D.deleteInstance(v3duy);
-				TVector3D.deleteInstance(v3dly);
-				return false;
+		lanes.clear();
+		for (int wl = from; wl < to; ++wl) {
+			fInitT[wl][TRayConstant.W_0][2].copy(fInitT[wl][TRayConstant.W_0][1]);
+			fInitT[wl][TRayConstant.W_0][2].scalerProduct(-1.0);
+			double x1 = fVertexes[ray(wl, TRayConstant.W_0, 1) + 3];
+			double y1 = fVertexes[ray(wl, TRayConstant.W_0, 1) + 4];
+			for (int w = 1; w < TRayConstant.NO_OF_WS; ++w) {
+				double upperY = y1 - (x1 + fInitD) * Math.tan(fW[w]);
+				double lowerY = calcLowerY(w);
+				// assert( upperY >= lowerY );
+				int div = (int) ((upperY - lowerY) / fRadiusOfFNumberRay) + 1;
+				v3duy.copy(0.0, upperY, 0.0);
+				v3dly.copy(0.0, lowerY, 0.0);
+				int l = lanes.add(wl, w, 1, v3duy, v3dly);
+				lanes.fLaneStepSize[l] = 1.0 / (double) div;
 			}
-			if (!searchLimitT(fInitD, fInitQ[w], inT, v3dly, fInitT[wavelength][w][1], wavelength,
-					fRaysForDisplay[wavelength][w][1], false, true)) {
-				TVector3D.deleteInstance(inT);
-				TVector3D.deleteInstance(v3duy);
-				TVector3D.deleteInstance(v3dly);
-				return false;
+		}
+		if (!lanes.findFeasibleRays(false, true)) {
+			TVector3D.deleteInstance(v3duy);
+			TVector3D.deleteInstance(v3dly);
+			return false;
+		}
+		lanes.clear();
+		for (int wl = from; wl < to; ++wl) {
+			for (int w = 1; w < TRayConstant.NO_OF_WS; ++w) {
+				v3dly.copy(0.0, calcLowerY(w), 0.0);
+				lanes.add(wl, w, 1, fInitT[wl][w][1], v3dly);
 			}
-			upperY = -1.0 * y1 - (x1 + fInitD) * Math.tan(fW[w]);
-			v3duy.copy(0.0, upperY, 0.0);
-			if (!searchLimitT(fInitD, fInitQ[w], fInitT[wavelength][w][1], v3duy, fInitT[wavelength][w][2],
-					wavelength, fRaysForDisplay[wavelength][w][2], false, true)) {
-				TVector3D.deleteInstance(inT);
-				TVector3D.deleteInstance(v3duy);
-				TVector3D.deleteInstance(v3dly);
-				return false;
+		}
+		if (!lanes.searchLimitTs(false, true)) {
+			TVector3D.deleteInstance(v3duy);
+			TVector3D.deleteInstance(v3dly);
+			return false;
+		}
+		lanes.clear();
+		for (int wl = from; wl < to; ++wl) {
+			double x1 = fVertexes[ray(wl, TRayConstant.W_0, 1) + 3];
+			double y1 = fVertexes[ray(wl, TRayConstant.W_0, 1) + 4];
+			for (int w = 1; w < TRayConstant.NO_OF_WS; ++w) {
+				double upperY = -1.0 * y1 - (x1 + fInitD) * Math.tan(fW[w]);
+				v3duy.copy(0.0, upperY, 0.0);
+				lanes.add(wl, w, 2, fInitT[wl][w][1], v3duy);
 			}
 		}
-		TVector3D.deleteInstance(inT);
+		if (!lanes.searchLimitTs(false, true)) {
+			TVector3D.deleteInstance(v3duy);
+			TVector3D.deleteInstance(v3dly);
+			return false;
+		}
 		TVector3D.deleteInstance(v3duy);
 		TVector3D.deleteInstance(v3dly);
-		if (fInitT[TWavelength.REF_D][TRayConstant.W_MAX][2].getData(1)
-				- fInitT[TWavelength.REF_D][TRayConstant.W_MAX][1].getData(1) < fRadiusOfFNumberRay) {
-			return false;
+		if (from <= TWavelength.REF_D && TWavelength.REF_D < to) {
+			if (fInitT[TWavelength.REF_D][TRayConstant.W_MAX][2].getData(1)
+					- fInitT[TWavelength.REF_D][TRayConstant.W_MAX][1].getData(1) < fRadiusOfFNumberRay) {
+				return false;
+			}
 		}
-		for (int w = 1; w < TRayConstant.NO_OF_WS; ++w) {
-			searchMainT(fInitD, fInitQ[w], fInitT[wavelength][w][1], fInitT[wavelength][w][2],
-					fInitT[wavelength][w][0], wavelength);
-			if (!fRayTracer.doIt(fInitD, fInitT[wavelength][w][0], fInitQ[w], fLens, wavelength,
-					fRaysForDisplay[wavelength][w][0], false, true)) {
+		lanes.clear();
+		for (int wl = from; wl < to; ++wl) {
+			for (int w = 1; w < TRayConstant.NO_OF_WS; ++w) {
+				lanes.add(wl, w, 0, fInitT[wl][w][1], fInitT[wl][w][2]);
+			}
+		}
+		lanes.searchMainTs();
+		lanes.clear();
+		for (int wl = from; wl < to; ++wl) {
+			for (int w = 1; w < TRayConstant.NO_OF_WS; ++w) {
+				lanes.add(wl, w, 0, fInitT[wl][w][0], null);
+			}
+		}
+		lanes.trace(false, true);
+		for (int l = 0; l < lanes.fNoOfLanes; ++l) {
+			if (!lanes.fPacket.isTraced(l)) {
 				return false;
 			}
 			/* 主光線の偏りをチェック */
-			double l = fInitT[wavelength][w][2].getData(1) - fInitT[wavelength][w][0].getData(1);
-			double u = fInitT[wavelength][w][0].getData(1) - fInitT[wavelength][w][1].getData(1);
-			if (l / u < 0.0) {
+			TVector3D[] initT = fInitT[lanes.fLaneWavelength[l]][lanes.fLaneW[l]];
+			double lo = initT[2].getData(1) - initT[0].getData(1);
+			double u = initT[0].getData(1) - initT[1].getData(1);
+			if (lo / u < 0.0) {
 				throw new RuntimeException("Error in TChromaticLensEvaluator::" + "calculateRaysForDisplay()");
-			} else if (l / u < 0.5 || l / u > 2) {
+			} else if (lo / u < 0.5 || lo / u > 2) {
 				return false;
 			}
 		}
@@ -386,86 +977,64 @@ public class TChromaticLensEvaluator {
 	/**
 	 * 画面に表示しない光線の追跡を行う
 	 * 
-	 * @param wavelength 波長番号
+	 * @param lanes 光線の探索の作業領域
+	 * @param from  最初の波長番号
+	 * @param to    最後の波長番号 + 1
 	 */
-	private final boolean calculateOtherRays(int wavelength) {
+	private final boolean calculateOtherRays(TLanes lanes, int from, int to) {
 		boolean checkLensHeight = false;
 		boolean checkStopR = true;
-		for (int w = 0; w < TRayConstant.NO_OF_WS; ++w) {
-			fInitT[wavelength][w][3].copy(fInitT[wavelength][w][0]);
-			fInitT[wavelength][w][3].add(fInitT[wavelength][w][1]);
-			fInitT[wavelength][w][3].scalerQuotient(2.0);
-			if (!fRayTracer.doIt(fInitD, fInitT[wavelength][w][3], fInitQ[w], fLens, wavelength,
-					fRaysForDisplay[wavelength][w][3], false, true)) {
-				return false;
-			}
-			if (w != 0) {
-				fInitT[wavelength][w][4].copy(fInitT[wavelength][w][0]);
-				fInitT[wavelength][w][4].add(fInitT[wavelength][w][2]);
-				fInitT[wavelength][w][4].scalerQuotient(2.0);
-				if (!fRayTracer.doIt(fInitD, fInitT[wavelength][w][4], fInitQ[w], fLens, wavelength,
-						fRaysForDisplay[wavelength][w][4], false, true)) {
-					return false;
-				}
-				TVector3D out5 = TVector3D.newInstance(0.0, 0.0, fRadiusOfFNumberRay);
-				out5.add(fInitT[wavelength][w][0]);
-				if (!searchLimitT(fInitD, fInitQ[w], fInitT[wavelength][w][0], out5, fInitT[wavelength][w][5],
-						wavelength, fRaysForDisplay[wavelength][w][5], checkLensHeight, checkStopR)) {
-					TVector3D.deleteInstance(out5);
-					return false;
-				}
-				fInitT[wavelength][w][6].copy(fInitT[wavelength][w][0]);
-				fInitT[wavelength][w][6].add(fInitT[wavelength][w][5]);
-				fInitT[wavelength][w][6].scalerQuotient(2.0);
-				if (!fRayTracer.doIt(fInitD, fInitT[wavelength][w][6], fInitQ[w], fLens, wavelength,
-						fRaysForDisplay[wavelength][w][6], false, true)) {
-					TVector3D.deleteInstance(out5);
-					return false;
-				}
-				double d1 = fInitT[wavelength][w][2].getData(1) - fInitT[wavelength][w][0].getData(1);
-				TVector3D out7 = TVector3D.newInstance(0.0, d1, d1);
-				out7.add(fInitT[wavelength][w][0]);
-				if (!searchLimitT(fInitD, fInitQ[w], fInitT[wavelength][w][0], out7, fInitT[wavelength][w][7],
-						wavelength, fRaysForDisplay[wavelength][w][7], checkLensHeight, checkStopR)) {
-					TVector3D.deleteInstance(out5);
-					TVector3D.deleteInstance(out7);
-					return false;
-				}
-				fInitT[wavelength][w][8].copy(fInitT[wavelength][w][0]);
-				fInitT[wavelength][w][8].add(fInitT[wavelength][w][7]);
-				fInitT[wavelength][w][8].scalerQuotient(2.0);
-				if (!fRayTracer.doIt(fInitD, fInitT[wavelength][w][8], fInitQ[w], fLens, wavelength,
-						fRaysForDisplay[wavelength][w][8], false, true)) {
-					TVector3D.deleteInstance(out5);
-					TVector3D.deleteInstance(out7);
-					return false;
-				}
-				double d2 = fInitT[wavelength][w][0].getData(1) - fInitT[wavelength][w][1].getData(1);
-				TVector3D out9 = TVector3D.newInstance(0.0, -d2, d2);
-				out9.add(fInitT[wavelength][w][0]);
-				if (!searchLimitT(fInitD, fInitQ[w], fInitT[wavelength][w][0], out9, fInitT[wavelength][w][9],
-						wavelength, fRaysForDisplay[wavelength][w][9], checkLensHeight, checkStopR)) {
-					TVector3D.deleteInstance(out5);
-					TVector3D.deleteInstance(out7);
-					TVector3D.deleteInstance(out9);
-					return false;
+		lanes.clear();
+		for (int wl = from; wl < to; ++wl) {
+			for (int w = 0; w < TRayConstant.NO_OF_WS; ++w) {
+				fInitT[wl][w][3].copy(fInitT[wl][w][0]);
+				fInitT[wl][w][3].add(fInitT[wl][w][1]);
+				fInitT[wl][w][3].scalerQuotient(2.0);
+				lanes.add(wl, w, 3, fInitT[wl][w][3], null);
+				if (w != 0) {
+					fInitT[wl][w][4].copy(fInitT[wl][w][0]);
+					fInitT[wl][w][4].add(fInitT[wl][w][2]);
+					fInitT[wl][w][4].scalerQuotient(2.0);
+					lanes.add(wl, w, 4, fInitT[wl][w][4], null);
 				}
-				fInitT[wavelength][w][10].copy(fInitT[wavelength][w][0]);
-				fInitT[wavelength][w][10].add(fInitT[wavelength][w][9]);
-				fInitT[wavelength][w][10].scalerQuotient(2.0);
-				if (!fRayTracer.doIt(fInitD, fInitT[wavelength][w][10], fInitQ[w], fLens,
-						wavelength, fRaysForDisplay[wavelength][w][10], false, true)) {
-					TVector3D.deleteInstance(out5);
-					TVector3D.deleteInstance(out7);
-					TVector3D.deleteInstance(out9);
-					return false;
+			}
+		}
+		if (!lanes.trace(false, true)) {
+			return false;
+		}
+		TVector3D out = TVector3D.newInstance();
+		lanes.clear();
+		for (int wl = from; wl < to; ++wl) {
+			for (int w = 1; w < TRayConstant.NO_OF_WS; ++w) {
+				out.copy(0.0, 0.0, fRadiusOfFNumberRay);
+				out.add(fInitT[wl][w][0]);
+				lanes.add(wl, w, 5, fInitT[wl][w][0], out);
+				double d1 = fInitT[wl][w][2].getData(1) - fInitT[wl][w][0].getData(1);
+				out.copy(0.0, d1, d1);
+				out.add(fInitT[wl][w][0]);
+				lanes.add(wl, w, 7, fInitT[wl][w][0], out);
+				double d2 = fInitT[wl][w][0].getData(1) - fInitT[wl][w][1].getData(1);
+				out.copy(0.0, -d2, d2);
+				out.add(fInitT[wl][w][0]);
+				lanes.add(wl, w, 9, fInitT[wl][w][0], out);
+			}
+		}
+		TVector3D.deleteInstance(out);
+		if (!lanes.searchLimitTs(checkLensHeight, checkStopR)) {
+			return false;
+		}
+		lanes.clear();
+		for (int wl = from; wl < to; ++wl) {
+			for (int w = 1; w < TRayConstant.NO_OF_WS; ++w) {
+				for (int i = 6; i <= 10; i += 2) {
+					fInitT[wl][w][i].copy(fInitT[wl][w][0]);
+					fInitT[wl][w][i].add(fInitT[wl][w][i - 1]);
+					fInitT[wl][w][i].scalerQuotient(2.0);
+					lanes.add(wl, w, i, fInitT[wl][w][i], null);
 				}
-				TVector3D.deleteInstance(out5);
-				TVector3D.deleteInstance(out7);
-				TVector3D.deleteInstance(out9);
 			}
 		}
-		return true;
+		return lanes.trace(false, true);
 	}
 
 	/**
@@ -475,46 +1044,46 @@ public class TChromaticLensEvaluator {
 		fInitT[TWavelength.REF_D][TRayConstant.W_0][0].copy(0.0, 0.0, 0.0);
 		fInitT[TWavelength.REF_D][TRayConstant.W_0][1].copy(0.0, -fRadiusOfFNumberRay, 0.0);
 		fInitT[TWavelength.REF_D][TRayConstant.W_0][2].copy(0.0, fRadiusOfFNumberRay, 0.0);
-		if (!fRayTracer.doIt(fInitD, fInitT[TWavelength.REF_D][TRayConstant.W_0][1], fInitQ[TRayConstant.W_0],
-				fLens, TWavelength.REF_D, fRaysForDisplay[TWavelength.REF_D][TRayConstant.W_0][1],
-				false, false)) {
+		fLanes.clear();
+		fLanes.add(TWavelength.REF_D, TRayConstant.W_0, 1, fInitT[TWavelength.REF_D][TRayConstant.W_0][1], null);
+		if (!fLanes.trace(false, false)) {
 			return false;
 		}
-		double x1 = fRaysForDisplay[TWavelength.REF_D][TRayConstant.W_0][1].getVector3D(1).getData(0);
+		double x1 = fVertexes[ray(TWavelength.REF_D, TRayConstant.W_0, 1) + 3];
 		int w = TRayConstant.W_MAX;
 		double upperY = -fRadiusOfFNumberRay - (x1 + fInitD) * Math.tan(fW[w]);
 		double lowerY = calcLowerY(w);
 		// assert( upperY >= lowerY );
 		int div = (int) ((upperY - lowerY) / fRadiusOfFNumberRay) + 1;
 		double stepSize = 1.0 / (double) div;
-		TVector3D inT = TVector3D.newInstance();
 		TVector3D v3duy = TVector3D.newInstance(0.0, upperY, 0.0);
 		TVector3D v3dly = TVector3D.newInstance(0.0, lowerY, 0.0);
-		if (!findFeasibleRay(fInitD, fInitQ[w], v3duy, v3dly, inT, stepSize, TWavelength.REF_D, false, false)) {
-			TVector3D.deleteInstance(inT);
+		fLanes.clear();
+		int l = fLanes.add(TWavelength.REF_D, w, 1, v3duy, v3dly);
+		fLanes.fLaneStepSize[l] = stepSize;
+		if (!fLanes.findFeasibleRays(false, false)) {
 			TVector3D.deleteInstance(v3duy);
 			TVector3D.deleteInstance(v3dly);
 			return false;
 		}
-		if (!searchLimitT(fInitD, fInitQ[w], inT, v3dly, fInitT[TWavelength.REF_D][w][1], TWavelength.REF_D,
-				fRaysForDisplay[TWavelength.REF_D][w][1], false, false)) {
-			TVector3D.deleteInstance(inT);
+		fLanes.clear();
+		fLanes.add(TWavelength.REF_D, w, 1, fInitT[TWavelength.REF_D][w][1], v3dly);
+		if (!fLanes.searchLimitTs(false, false)) {
 			TVector3D.deleteInstance(v3duy);
 			TVector3D.deleteInstance(v3dly);
 			return false;
 		}
 		upperY = fRadiusOfFNumberRay - (x1 + fInitD) * Math.tan(fW[w]);
 		v3duy.copy(0.0, upperY, 0.0);
-		if (!searchLimitT(fInitD, fInitQ[w], fInitT[TWavelength.REF_D][w][1], v3duy, fInitT[TWavelength.REF_D][w][2],
-				TWavelength.REF_D, fRaysForDisplay[TWavelength.REF_D][w][2], false, false)) {
-			TVector3D.deleteInstance(inT);
+		fLanes.clear();
+		fLanes.add(TWavelength.REF_D, w, 2, fInitT[TWavelength.REF_D][w][1], v3duy);
+		if (!fLanes.searchLimitTs(false, false)) {
 			TVector3D.deleteInstance(v3duy);
 			TVector3D.deleteInstance(v3dly);
 			return false;
 		}
 		if (fInitT[TWavelength.REF_D][TRayConstant.W_MAX][2].getData(1)
 				- fInitT[TWavelength.REF_D][TRayConstant.W_MAX][1].getData(1) < fRadiusOfFNumberRay) {
-			TVector3D.deleteInstance(inT);
 			TVector3D.deleteInstance(v3duy);
 			TVector3D.deleteInstance(v3dly);
 			return false;
@@ -523,12 +1092,10 @@ public class TChromaticLensEvaluator {
 			return false;
 		}
 		if (!doesMainRayExist()) {
-			TVector3D.deleteInstance(inT);
 			TVector3D.deleteInstance(v3duy);
 			TVector3D.deleteInstance(v3dly);
 			return false;
 		}
-		TVector3D.deleteInstance(inT);
 		TVector3D.deleteInstance(v3duy);
 		TVector3D.deleteInstance(v3dly);
 		return true;
@@ -541,17 +1108,16 @@ public class TChromaticLensEvaluator {
 	 */
 	private final void makeSpots(int wavelength) {
 		makeSpotAtW0(wavelength);
-		TVector3D p = TVector3D.newInstance();
 		TVector2D d = TVector2D.newInstance();
+		int last = (fNoOfVertexes - 1) * 3;
 		for (int w = 1; w < TRayConstant.NO_OF_WS; ++w) {
 			for (int i = 0; i < TRayConstant.NO_OF_RAYS; ++i) {
-				p.copy(fRaysForDisplay[wavelength][w][i].getLastVertex());
-				d.setData(0, p.getData(2));
-				d.setData(1, p.getData(1));
+				int v = ray(wavelength, w, i) + last;
+				d.setData(0, fVertexes[v + 2]);
+				d.setData(1, fVertexes[v + 1]);
 				fSpots[wavelength][w].setVector2D(i, d);
 			}
 		}
-		TVector3D.deleteInstance(p);
 		TVector2D.deleteInstance(d);
 	}
 
@@ -563,66 +1129,60 @@ public class TChromaticLensEvaluator {
 	private final void makeSpotAtW0(int wavelength) {
 		TVector2D bufv2d = TVector2D.newInstance();
 		final double root2 = Math.sqrt(2.0);
-		TVector3D p1 = TVector3D.newInstance();
-		p1.copy(fRaysForDisplay[wavelength][TRayConstant.W_0][1].getLastVertex());
-		TVector3D p3 = TVector3D.newInstance();
-		p3.copy(fRaysForDisplay[wavelength][TRayConstant.W_0][3].getLastVertex());
+		int last = (fNoOfVertexes - 1) * 3;
+		int v1 = ray(wavelength, TRayConstant.W_0, 1) + last;
+		double p1y = fVertexes[v1 + 1];
+		double p1z = fVertexes[v1 + 2];
+		int v3 = ray(wavelength, TRayConstant.W_0, 3) + last;
+		double p3y = fVertexes[v3 + 1];
+		double p3z = fVertexes[v3 + 2];
 		bufv2d.copy(0.0, 0.0);
 		fSpots[wavelength][TRayConstant.W_0].setVector2D(0, bufv2d);
-		bufv2d.copy(p1.getData(2), p1.getData(1));
+		bufv2d.copy(p1z, p1y);
 		fSpots[wavelength][TRayConstant.W_0].setVector2D(1, bufv2d);
-		bufv2d.copy(p1.getData(2), -p1.getData(1));
+		bufv2d.copy(p1z, -p1y);
 		fSpots[wavelength][TRayConstant.W_0].setVector2D(2, bufv2d);
-		bufv2d.copy(p3.getData(2), p3.getData(1));
+		bufv2d.copy(p3z, p3y);
 		fSpots[wavelength][TRayConstant.W_0].setVector2D(3, bufv2d);
-		bufv2d.copy(p3.getData(2), -p3.getData(1));
+		bufv2d.copy(p3z, -p3y);
 		fSpots[wavelength][TRayConstant.W_0].setVector2D(4, bufv2d);
-		bufv2d.copy(p1.getData(1), -p1.getData(2));
+		bufv2d.copy(p1y, -p1z);
 		fSpots[wavelength][TRayConstant.W_0].setVector2D(5, bufv2d);
-		bufv2d.copy(-p3.getData(1), -p3.getData(2));
+		bufv2d.copy(-p3y, -p3z);
 		fSpots[wavelength][TRayConstant.W_0].setVector2D(6, bufv2d);
-		bufv2d.copy(p1.getData(1) / root2, p1.getData(1) / root2);
+		bufv2d.copy(p1y / root2, p1y / root2);
 		fSpots[wavelength][TRayConstant.W_0].setVector2D(7, bufv2d);
-		bufv2d.copy(-p3.getData(1) / root2, p3.getData(1) / root2);
+		bufv2d.copy(-p3y / root2, p3y / root2);
 		fSpots[wavelength][TRayConstant.W_0].setVector2D(8, bufv2d);
-		bufv2d.copy(p1.getData(1) / root2, -p1.getData(1) / root2);
+		bufv2d.copy(p1y / root2, -p1y / root2);
 		fSpots[wavelength][TRayConstant.W_0].setVector2D(9, bufv2d);
-		bufv2d.copy(-p3.getData(1) / root2, -p3.getData(1) / root2);
+		bufv2d.copy(-p3y / root2, -p3y / root2);
 		fSpots[wavelength][TRayConstant.W_0].setVector2D(10, bufv2d);
 		TVector2D.deleteInstance(bufv2d);
-		TVector3D.deleteInstance(p1);
-		TVector3D.deleteInstance(p3);
 	}
 
 	/**
 	 * 絞りの位置を探す
 	 * 
-	 * @param lowerRay 探索範囲の下端
-	 * @param upperRay 探索範囲の上端
+	 * @param lowerRay 探索範囲の下端の追跡光線の最初の頂点の位置
+	 * @param upperRay 探索範囲の上端の追跡光線の最初の頂点の位置
 	 * @return 絞りの位置
 	 */
-	private final double searchStopPosition(TRay lowerRay, TRay upperRay) {
+	private final double searchStopPosition(int lowerRay, int upperRay) {
 		/* (ズームレンズ系の進化的設計[谷] p22,p23) */
 		double curPos = 0.0;
 		double curErr = 0.0;
-		TVector3D[] p = new TVector3D[1];
-		p[0] = TVector3D.newInstance();
-		int n;
 		double left = fLens.surface(1).getPosition();
 		double right = fLens.surface(fLens.getNoOfSurfaces() - 1).getPosition();
-		n = lowerRay.searchPointsWithY(0.0, p, 1);
-		if (n > 0 && p[0].getData(0) < right) {
-			right = p[0].getData(0);
+		double x = getXAtY(lowerRay, 0.0);
+		if (x < right) { // 見つからないときは NaN なので比較は false になる
+			right = x;
 		}
 		curPos = (left + right) / 2.0;
 		for (int i = 0; i < 15; ++i) {
-			TVector3D p1 = TVector3D.newInstance();
-			upperRay.searchPointWithX(curPos, p1);
-			TVector3D p2 = TVector3D.newInstance();
-			lowerRay.searchPointWithX(curPos, p2);
-			curErr = p1.getData(1) + p2.getData(1);
-			TVector3D.deleteInstance(p1);
-			TVector3D.deleteInstance(p2);
+			double y1 = getYAtX(upperRay, curPos);
+			double y2 = getYAtX(lowerRay, curPos);
+			curErr = y1 + y2;
 			if (curErr < 0.0) {
 				left = curPos;
 			} else if (curErr > 0.0) {
@@ -632,53 +1192,9 @@ public class TChromaticLensEvaluator {
 			}
 			curPos = (left + right) / 2.0;
 		}
-		TVector3D.deleteInstance(p[0]);
 		return curPos;
 	}
 
-	/**
-	 * 光線追跡可能な, 開始位置が外側の光線の進入位置Tを求める
-	 *
-	 * @param initD           間隔 d の初期値
-	 * @param initQ           位置ベクトル T の初期値
-	 * @param inT             探索開始位置 内側
-	 * @param outT            探索開始位置 外側
-	 * @param resultT         結果の位置ベクトル T これに格納
-	 * @param wavelength      波長番号
-	 * @param ray,            追跡光線. これに登録
-	 * @param checkLensHeight 高さのチェックするかどうか
-	 * @param checkStopR      絞りに光線が当たらないかチェックするかどうか
-	 *
-	 */
-	private final boolean searchLimitT(double initD, final TVector3D initQ, final TVector3D inT, final TVector3D outT,
-			TVector3D resultT, int wavelength, TRay ray, boolean checkLensHeight, boolean checkStopR) {
-		if (!fRayTracer.doIt(initD, inT, initQ, fLens, wavelength, fRay, checkLensHeight, checkStopR)) { // 注意 true しか返さない
-			// throw new RuntimeException("Error in TChromaticLensEvaluator::SearchLimitT");
-			return false;
-		}
-		ray.copy(fRay);
-		TVector3D iT = TVector3D.newInstance(inT);
-		TVector3D oT = TVector3D.newInstance(outT);
-		TVector3D curT = TVector3D.newInstance(iT);
-		curT.add(oT);
-		curT.scalerQuotient(2.0);
-		for (int i = 0; i < 15; ++i) { // 二分探索
-			if (fRayTracer.doIt(initD, curT, initQ, fLens, wavelength, fRay, checkLensHeight, checkStopR)) {
-				ray.copy(fRay);
-				iT.copy(curT);
-			} else {
-				oT.copy(curT);
-			}
-			curT.putAdd(iT, oT);
-			curT.scalerQuotient(2.0);
-		}
-		resultT.copy(iT);
-		TVector3D.deleteInstance(iT);
-		TVector3D.deleteInstance(oT);
-		TVector3D.deleteInstance(curT);
-		return true;
-	}
-
 	/**
 	 * レンズの端を調整する(表示用)
 	 */
@@ -688,62 +1204,15 @@ public class TChromaticLensEvaluator {
 		}
 		int rayNo[] = { 1, 2, 5, 7, 9 };
 		for (int wl = 0; wl < TWavelength.NO_OF_WAVELENGTHS; ++wl) {
-			setLensHeight(fRaysForDisplay[wl][TRayConstant.W_0][1]);
+			setLensHeight(ray(wl, TRayConstant.W_0, 1));
 			for (int w = 1; w < TRayConstant.NO_OF_WS; ++w) {
 				for (int i = 0; i < 5; ++i) {
-					setLensHeight(fRaysForDisplay[wl][w][rayNo[i]]);
+					setLensHeight(ray(wl, w, rayNo[i]));
 				}
 			}
 		}
 	}
 
-	/**
-	 * 主光線のあるべき位置を探す
-	 * 
-	 * @param initD      間隔 d の初期値
-	 * @param initQ      位置ベクトル T の初期値
-	 * @param lowerT     探索の下端
-	 * @param upperT     探索の上端
-	 * @param mainT      結果の主光線の初期位置
-	 * @param wavelength 波長番号
-	 */
-	private final boolean searchMainT(double initD, final TVector3D initQ, final TVector3D lowerT, final TVector3D upperT,
-			TVector3D mainT, int wavelength) {
-		TVector3D uT = TVector3D.newInstance(upperT);
-		TVector3D lT = TVector3D.newInstance(lowerT);
-		TVector3D curT = TVector3D.newInstance(lT);
-		curT.add(uT);
-		curT.scalerQuotient(2.0);
-		TMyPtrDouble y = TMyPtrDouble.newInstance();
-		double stopPos = fLens.getStopPosition();
-		for (int i = 0; i < 15; ++i) {
-			fRay.clear();
-			if (!fRayTracer.searchPointWithX(initD, curT, initQ, fLens, wavelength, stopPos, y)) {
-				TVector3D.deleteInstance(uT);
-				TVector3D.deleteInstance(lT);
-				TVector3D.deleteInstance(curT);
-				return false;
-			}
-			if (y.getValue() > 0.0) {
-				uT.copy(curT);
-				curT.putAdd(lT, uT);
-				curT.scalerQuotient(2.0);
-			} else if (y.getValue() < 0.0) {
-				lT.copy(curT);
-				curT.putAdd(lT, uT);
-				curT.scalerQuotient(2.0);
-			} else {
-				mainT.copy(curT);
-				break;
-			}
-		}
-		mainT.copy(curT);
-		TVector3D.deleteInstance(uT);
-		TVector3D.deleteInstance(lT);
-		TVector3D.deleteInstance(curT);
-		return true;
-	}
-
 	/**
 	 * 絞りの位置と半径を設定する.
 	 *
@@ -753,8 +1222,8 @@ public class TChromaticLensEvaluator {
 		for (int i = 0; i < fLens.getNoOfSurfaces(); ++i) {
 			filmPos += fLens.getD(i);
 		}
-		double stopPos = searchStopPosition(fRaysForDisplay[TWavelength.REF_D][TRayConstant.W_MAX][1],
-				fRaysForDisplay[TWavelength.REF_D][TRayConstant.W_MAX][2]);
+		double stopPos = searchStopPosition(ray(TWavelength.REF_D, TRayConstant.W_MAX, 1),
+				ray(TWavelength.REF_D, TRayConstant.W_MAX, 2));
 		fLens.setStopPosition(stopPos);
 		if (fEnforceStopPosition) {
 			enforceStopPosition();
@@ -767,10 +1236,7 @@ public class TChromaticLensEvaluator {
 		if (stopPos > filmPos) { // 絞りの位置が像面を超えた場合は実行不可能にする． by isao
 			return false;
 		}
-		TVector3D stopP = TVector3D.newInstance();
-		fRaysForDisplay[TWavelength.REF_D][TRayConstant.W_0][1].searchPointWithX(stopPos, stopP);
-		fLens.setStopR(Math.abs(stopP.getData(1)));
-		TVector3D.deleteInstance(stopP);
+		fLens.setStopR(Math.abs(getYAtX(ray(TWavelength.REF_D, TRayConstant.W_0, 1), stopPos)));
 		return true;
 	}
 
@@ -778,20 +1244,12 @@ public class TChromaticLensEvaluator {
 	 * 主光線が絞りの位置で正しい位置を通っているか
 	 */
 	private final boolean doesMainRayExist() {
-		TVector3D tmpP = TVector3D.newInstance();
-		final TRay r1 = fRaysForDisplay[TWavelength.REF_D][TRayConstant.W_MAX][1];
-		r1.searchPointWithX(fLens.getStopPosition(), tmpP);
-		if (tmpP.getData(1) >= 0.0) {
-			TVector3D.deleteInstance(tmpP);
+		if (getYAtX(ray(TWavelength.REF_D, TRayConstant.W_MAX, 1), fLens.getStopPosition()) >= 0.0) {
 			return false;
 		}
-		final TRay r2 = fRaysForDisplay[TWavelength.REF_D][TRayConstant.W_MAX][2];
-		r2.searchPointWithX(fLens.getStopPosition(), tmpP);
-		if (tmpP.getData(1) <= 0.0) {
-			TVector3D.deleteInstance(tmpP);
+		if (getYAtX(ray(TWavelength.REF_D, TRayConstant.W_MAX, 2), fLens.getStopPosition()) <= 0.0) {
 			return false;
 		}
-		TVector3D.deleteInstance(tmpP);
 		return true;
 	}
 
@@ -804,9 +1262,9 @@ public class TChromaticLensEvaluator {
 				if (w == 0 && (i == 0 || i == 2)) {
 					continue;
 				}
-				int n = fRaysForDisplay[wavelength][w][i].getNoOfVertexes();
-				double lastSurface = fRaysForDisplay[wavelength][w][i].getVector3D(n - 2).getData(0);
-				double imageSurface = fRaysForDisplay[wavelength][w][i].getVector3D(n - 1).getData(0);
+				int v = ray(wavelength, w, i) + (fNoOfVertexes - 2) * 3;
+				double lastSurface = fVertexes[v];
+				double imageSurface = fVertexes[v + 3];
 				if (imageSurface - lastSurface <= 0.0) {
 					return false;
 				}
@@ -817,11 +1275,13 @@ public class TChromaticLensEvaluator {
 
 	/**
 	 * レンズの高さの設定(低いものから高いものに更新)
+	 * 
+	 * @param ray 追跡光線の最初の頂点の位置
 	 */
-	private final void setLensHeight(TRay ray) {
+	private final void setLensHeight(int ray) {
 		for (int i = 0; i < fLens.getNoOfSurfaces(); ++i) {
-			double h1 = Math.sqrt(ray.getVector3D(i + 1).getData(1) * ray.getVector3D(i + 1).getData(1)
-					+ ray.getVector3D(i + 1).getData(2) * ray.getVector3D(i + 1).getData(2));
+			int v = ray + (i + 1) * 3;
+			double h1 = Math.sqrt(fVertexes[v + 1] * fVertexes[v + 1] + fVertexes[v + 2] * fVertexes[v + 2]);
 			double h2 = fLens.surface(i).getHeight();
 			double h = h1 > h2 ? h1 : h2;
 			fLens.surface(i).setHeight(h);
@@ -836,45 +1296,6 @@ public class TChromaticLensEvaluator {
 			fLens.surface(i).setHeight(0.0);
 	}
 
-	/**
-	 * 実行可能な光線の追跡開始位置を探す
-	 *
-	 * @param fInitD      間隔 d の初期値
-	 * @param initQ       位置ベクトル T の初期値
-	 * @param start       探索開始位置
-	 * @param end         探索終了位置
-	 * @param result      結果の光線追跡開始位置
-	 * @param stepSize    探索幅
-	 * @param wavelength  波長番号
-	 * @param checkHeight 高さのチェックするかどうか
-	 * @param checkStopR  絞りに光線が当たらないかチェックするかどうか
-	 */
-	private final boolean findFeasibleRay(double fInitD, final TVector3D initQ, final TVector3D start,
-			final TVector3D end,
-			TVector3D result, double stepSize, int wavelength, boolean checkHeight, boolean checkStopR) {
-		TVector3D d = TVector3D.newInstance(end);
-		d.subtract(start);
-		TVector3D td = TVector3D.newInstance();
-		for (double t = 0.0; t < 1.0; t += stepSize) {
-			td.putScalerProduct(t, d);
-			result.putAdd(start, td);
-			if (fRayTracer.doIt(fInitD, result, initQ, fLens, wavelength, fRay, checkHeight, checkStopR)) {
-				TVector3D.deleteInstance(d);
-				TVector3D.deleteInstance(td);
-				return true;
-			}
-		}
-		result = end;
-		if (fRayTracer.doIt(fInitD, result, initQ, fLens, wavelength, fRay, checkHeight, checkStopR)) {
-			TVector3D.deleteInstance(d);
-			TVector3D.deleteInstance(td);
-			return true;
-		}
-		TVector3D.deleteInstance(d);
-		TVector3D.deleteInstance(td);
-		return false;
-	}
-
 	/**
 	 * レンズの下端へ向かう位置ベクトルTy座標を返す
 	 *
@@ -896,9 +1317,9 @@ public class TChromaticLensEvaluator {
 	 */
 	private final void enforceStopPosition() {
 		clearLensHeight();
-		setLensHeight(fRaysForDisplay[TWavelength.REF_D][TRayConstant.W_0][1]);
-		setLensHeight(fRaysForDisplay[TWavelength.REF_D][TRayConstant.W_MAX][1]);
-		setLensHeight(fRaysForDisplay[TWavelength.REF_D][TRayConstant.W_MAX][2]);
+		setLensHeight(ray(TWavelength.REF_D, TRayConstant.W_0, 1));
+		setLensHeight(ray(TWavelength.REF_D, TRayConstant.W_MAX, 1));
+		setLensHeight(ray(TWavelength.REF_D, TRayConstant.W_MAX, 2));
 		double curStopPos = fLens.getStopPosition();
 		TMyPtrDouble leftPos = TMyPtrDouble.newInstance();
 		TMyPtrDouble rightPos = TMyPtrDouble.newInstance();
@@ -1137,4 +1558,23 @@ public class TChromaticLensEvaluator {
 		fUseRaysForDisplay = b;
 	}
 
+	/**
+	 * 波長ごとの光線追跡を並行して行うか？
+	 * 
+	 * @return 行う：true, 行わない：false
+	 */
+	public boolean isConcurrentWavelengths() {
+		return fConcurrentWavelengths;
+	}
+
+	/**
+	 * 波長ごとの光線追跡を並行して行うか？ を設定する．
+	 * 色収差を考慮するときだけ意味がある. 1つのレンズの評価にかかる時間を短くしたいときに使う.
+	 * 
+	 * @param b 行う：true, 行わない：false
+	 */
+	public void setConcurrentWavelengths(boolean b) {
+		fConcurrentWavelengths = b;
+	}
+
 }
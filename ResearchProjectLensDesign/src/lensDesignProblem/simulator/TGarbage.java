@@ -0,0 +1,65 @@
+package lensDesignProblem.simulator;
+
+/**
+ * newInstance/deleteInstanceで再利用するオブジェクトの格納場所<BR>
+ * 格納場所はスレッドごとに持つため, 別々のスレッドで評価器や光線追跡器を同時に使っても,
+ * 互いのオブジェクトを再利用して壊すことはない.
+ * deleteInstanceしたオブジェクトは, そのスレッドのnewInstanceでのみ再利用される.
+ * 
+ * @param <T> 再利用するオブジェクトの型
+ */
+final class TGarbage<T> {
+
+	/** スレッドごとに格納できるオブジェクトの最大数 */
+	private static final int MAX_GARBAGE_SIZE = 1000;
+
+	/** 1スレッド分の格納場所 */
+	private static final class TStack {
+		/** オブジェクトの格納場所 */
+		final Object[] fArray = new Object[MAX_GARBAGE_SIZE];
+
+		/** オブジェクトの現在の格納個数 */
+		int fSize = 0;
+	}
+
+	/** スレッドごとの格納場所 */
+	private final ThreadLocal<TStack> fStack = new ThreadLocal<TStack>() {
+		@Override
+		protected TStack initialValue() {
+			return new TStack();
+		}
+	};
+
+	/**
+	 * 格納されているオブジェクトを一つ取り出す.
+	 * 
+	 * @return オブジェクト. 格納されていなければnull
+	 */
+	@SuppressWarnings("unchecked")
+	T pop() {
+		TStack s = fStack.get();
+		if (s.fSize == 0) {
+			return null;
+		}
+		--s.fSize;
+		T t = (T) s.fArray[s.fSize];
+		s.fArray[s.fSize] = null;
+		return t;
+	}
+
+	/**
+	 * オブジェクトを格納する.
+	 * 
+	 * @param t オブジェクト
+	 * @return 格納できればtrue. 格納場所が一杯ならばfalse
+	 */
+	boolean push(T t) {
+		TStack s = fStack.get();
+		if (s.fSize == MAX_GARBAGE_SIZE) {
+			return false;
+		}
+		s.fArray[s.fSize] = t;
+		++s.fSize;
+		return true;
+	}
+}
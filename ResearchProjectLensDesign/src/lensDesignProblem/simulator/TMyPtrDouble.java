@@ -9,14 +9,8 @@ public class TMyPtrDouble {
 	/** doubleの値 */
 	private double fValue;
 
-	/** このクラスで実装するガーベジコレクションのサイズ */
-	private static final int MAX_GARBAGE_SIZE = 1000;
-
-	/** このクラスで実装するガベコレ用のオブジェクトの格納場所 */
-	private static final TMyPtrDouble[] fGarbage = new TMyPtrDouble[MAX_GARBAGE_SIZE];
-
-	/** このクラスで実装するガベコレのオブジェクトの現在の格納個数 */
-	private static int fGarbageSize = 0;
+	/** このクラスで実装するガベコレ用のオブジェクトの格納場所. スレッドごとに持つ. */
+	private static final TGarbage<TMyPtrDouble> fGarbage = new TGarbage<TMyPtrDouble>();
 
 	/** デフォルトコンストラクタ */
 	private TMyPtrDouble() {
@@ -48,12 +42,10 @@ public class TMyPtrDouble {
 	 * @return インスタンス
 	 */
 	public static TMyPtrDouble newInstance() {
-		TMyPtrDouble p = null;
-		if (fGarbageSize == 0) {
+		TMyPtrDouble p = fGarbage.pop();
+		if (p == null) {
 			p = new TMyPtrDouble();
 		} else {
-			--fGarbageSize;
-			p = fGarbage[fGarbageSize];
 			p.fValue = 0.0;
 		}
 		return p;
@@ -67,12 +59,10 @@ public class TMyPtrDouble {
 	 * @return インスタンス
 	 */
 	public static TMyPtrDouble newInstance(double d) {
-		TMyPtrDouble p = null;
-		if (fGarbageSize == 0) {
+		TMyPtrDouble p = fGarbage.pop();
+		if (p == null) {
 			p = new TMyPtrDouble(d);
 		} else {
-			--fGarbageSize;
-			p = fGarbage[fGarbageSize];
 			p.fValue = d;
 		}
 		return p;
@@ -86,12 +76,10 @@ public class TMyPtrDouble {
 	 * @return インスタンス
 	 */
 	public static TMyPtrDouble newInstance(TMyPtrDouble src) {
-		TMyPtrDouble p = null;
-		if (fGarbageSize == 0) {
+		TMyPtrDouble p = fGarbage.pop();
+		if (p == null) {
 			p = new TMyPtrDouble(src);
 		} else {
-			--fGarbageSize;
-			p = fGarbage[fGarbageSize];
 			p.fValue = src.fValue;
 		}
 		return p;
@@ -99,9 +87,7 @@ public class TMyPtrDouble {
 
 	/** 使わなくなったインスタンスの保持 */
 	public static void deleteInstance(TMyPtrDouble p) {
-		if (fGarbageSize < MAX_GARBAGE_SIZE) {
-			fGarbage[fGarbageSize] = p;
-			++fGarbageSize;
+		if (fGarbage.push(p)) {
 			p = null;
 		} else {
 			System.err.print("Warning:The garbage is ful");
@@ -9,14 +9,8 @@ public class TMyPtrInt {
 	/** intの値 */
 	private int fValue;
 
-	/** このクラスで実装するガーベジコレクションのサイズ */
-	private static final int MAX_GARBAGE_SIZE = 1000;
-
-	/** このクラスで実装するガベコレ用のオブジェクトの格納場所 */
-	private static final TMyPtrInt[] fGarbage = new TMyPtrInt[MAX_GARBAGE_SIZE];
-
-	/** このクラスで実装するガベコレのオブジェクトの現在の格納個数 */
-	private static int fGarbageSize = 0;
+	/** このクラスで実装するガベコレ用のオブジェクトの格納場所. スレッドごとに持つ. */
+	private static final TGarbage<TMyPtrInt> fGarbage = new TGarbage<TMyPtrInt>();
 
 	/** デフォルトコンストラクタ */
 	private TMyPtrInt() {
@@ -48,12 +42,10 @@ public class TMyPtrInt {
 	 * @return インスタンス
 	 */
 	public static TMyPtrInt newInstance() {
-		TMyPtrInt p = null;
-		if (fGarbageSize == 0) {
+		TMyPtrInt p = fGarbage.pop();
+		if (p == null) {
 			p = new TMyPtrInt();
 		} else {
-			--fGarbageSize;
-			p = fGarbage[fGarbageSize];
 			p.fValue = 0;
 		}
 		return p;
@@ -67,12 +59,10 @@ public class TMyPtrInt {
 	 * @return インスタンス
 	 */
 	public static TMyPtrInt newInstance(int i) {
-		TMyPtrInt p = null;
-		if (fGarbageSize == 0) {
+		TMyPtrInt p = fGarbage.pop();
+		if (p == null) {
 			p = new TMyPtrInt(i);
 		} else {
-			--fGarbageSize;
-			p = fGarbage[fGarbageSize];
 			p.fValue = i;
 		}
 		return p;
@@ -86,12 +76,10 @@ public class TMyPtrInt {
 	 * @return インスタンス
 	 */
 	public static TMyPtrInt newInstance(TMyPtrInt src) {
-		TMyPtrInt p = null;
-		if (fGarbageSize == 0) {
+		TMyPtrInt p = fGarbage.pop();
+		if (p == null) {
 			p = new TMyPtrInt(src);
 		} else {
-			--fGarbageSize;
-			p = fGarbage[fGarbageSize];
 			p.fValue = src.fValue;
 		}
 		return p;
@@ -99,9 +87,7 @@ public class TMyPtrInt {
 
 	/** 使わなくなったインスタンスの保持 */
 	public static void deleteInstance(TMyPtrInt p) {
-		if (fGarbageSize < MAX_GARBAGE_SIZE) {
-			fGarbage[fGarbageSize] = p;
-			++fGarbageSize;
+		if (fGarbage.push(p)) {
 			p = null;
 		} else {
 			System.err.print("Warning:The garbage is ful");
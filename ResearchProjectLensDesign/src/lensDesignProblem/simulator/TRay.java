@@ -94,6 +94,20 @@ public class TRay {
 		fArray[index].copy(src);
 	}
 
+	/**
+	 * 頂点を x, y, z の順に並べた配列からコピーする.
+	 * 
+	 * @param vertexes 頂点の配列
+	 * @param offset   最初の頂点の位置
+	 */
+	public final void copy(final double[] vertexes, int offset) {
+		for (int i = 0; i < fNoOfVertexes; ++i) {
+			int v = offset + 3 * i;
+			fArray[i].copy(vertexes[v], vertexes[v + 1], vertexes[v + 2]);
+		}
+		fCurSize = fNoOfVertexes;
+	}
+
 	/**
 	 * 頂点の数を返す.
 	 * 
@@ -0,0 +1,509 @@
+package lensDesignProblem.simulator;
+
+/**
+ * 光線のパケットをまとめて追跡するクラス<BR>
+ * 独立な複数の光線をレーンとし, 位置ベクトル T と方向ベクトル Q を成分ごとの配列(structure of arrays)に持つ.
+ * 面ごとに全レーンを進めるため, 各光線の割り算と平方根の待ち時間が他のレーンの計算と重なる.
+ * 追跡できなかったレーン(TRayErrorの状態や, 絞りに当たった光線)はマスクで外し, 以降の面では計算しない.
+ * 各レーンの計算は TRayTracer.trace と同じであり, 1本ずつ追跡した結果と一致する.
+ */
+public class TRayPacketTracer {
+
+	/** 最大レーン数 */
+	private int fCapacity;
+
+	/** レーン数 */
+	private int fSize;
+
+	/** 1本の光線の頂点の数 */
+	private int fNoOfVertexes;
+
+	/** 位置ベクトル T のx成分 */
+	private double[] fTx;
+
+	/** 位置ベクトル T のy成分 */
+	private double[] fTy;
+
+	/** 位置ベクトル T のz成分 */
+	private double[] fTz;
+
+	/** 方向ベクトル Q のx成分 */
+	private double[] fQx;
+
+	/** 方向ベクトル Q のy成分 */
+	private double[] fQy;
+
+	/** 方向ベクトル Q のz成分 */
+	private double[] fQz;
+
+	/** 波長番号 */
+	private int[] fWavelength;
+
+	/** 追跡中のレーンならば true */
+	private boolean[] fActive;
+
+	/** searchPointWithX で見つかった高さy */
+	private double[] fY;
+
+	/** searchPointWithX で探索中のレーンならば true */
+	private boolean[] fSearching;
+
+	/** 追跡中の位置ベクトル T と方向ベクトル Q [成分][レーン]. 初期値の配列は追跡で壊さない. */
+	private double[][] fWork;
+
+	/** 頂点. レーンlの頂点は l * 頂点の数 * 3 から x, y, z の順に並ぶ. */
+	private double[] fVertexes;
+
+	/** 各レーンで求めた頂点の数. 追跡できなかったレーンは途中までになる. */
+	private int[] fLength;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param capacity 最大レーン数
+	 */
+	public TRayPacketTracer(int capacity) {
+		fCapacity = capacity;
+		fSize = 0;
+		fNoOfVertexes = 0;
+		fTx = new double[capacity];
+		fTy = new double[capacity];
+		fTz = new double[capacity];
+		fQx = new double[capacity];
+		fQy = new double[capacity];
+		fQz = new double[capacity];
+		fWavelength = new int[capacity];
+		fActive = new boolean[capacity];
+		fY = new double[capacity];
+		fSearching = new boolean[capacity];
+		fWork = new double[6][capacity];
+		fVertexes = new double[0];
+		fLength = new int[capacity];
+	}
+
+	/**
+	 * レーンをすべて取り除く.
+	 */
+	public final void clear() {
+		fSize = 0;
+	}
+
+	/**
+	 * レーンを追加する.
+	 * 
+	 * @param t          位置ベクトル T の初期値
+	 * @param q          方向ベクトル Q の初期値
+	 * @param wavelength 波長番号
+	 * @return レーン番号
+	 */
+	public final int add(final TVector3D t, final TVector3D q, int wavelength) {
+		return add(t.getData(0), t.getData(1), t.getData(2), q, wavelength);
+	}
+
+	/**
+	 * レーンを追加する.
+	 * 
+	 * @param tx         位置ベクトル T の初期値のx成分
+	 * @param ty         位置ベクトル T の初期値のy成分
+	 * @param tz         位置ベクトル T の初期値のz成分
+	 * @param q          方向ベクトル Q の初期値
+	 * @param wavelength 波長番号
+	 * @return レーン番号
+	 */
+	public final int add(double tx, double ty, double tz, final TVector3D q, int wavelength) {
+		if (fSize == fCapacity) {
+			throw new IllegalStateException("The packet is full.");
+		}
+		int lane = fSize++;
+		fTx[lane] = tx;
+		fTy[lane] = ty;
+		fTz[lane] = tz;
+		fQx[lane] = q.getData(0);
+		fQy[lane] = q.getData(1);
+		fQz[lane] = q.getData(2);
+		fWavelength[lane] = wavelength;
+		return lane;
+	}
+
+	/**
+	 * レーンの位置ベクトル T の初期値を設定し直す.
+	 * 
+	 * @param lane レーン番号
+	 * @param tx   位置ベクトル T の初期値のx成分
+	 * @param ty   位置ベクトル T の初期値のy成分
+	 * @param tz   位置ベクトル T の初期値のz成分
+	 */
+	public final void setT(int lane, double tx, double ty, double tz) {
+		fTx[lane] = tx;
+		fTy[lane] = ty;
+		fTz[lane] = tz;
+	}
+
+	/**
+	 * レーン数を返す.
+	 * 
+	 * @return レーン数
+	 */
+	public final int size() {
+		return fSize;
+	}
+
+	/**
+	 * 直前の追跡でレーンの光線を追跡できたかを返す.
+	 * 
+	 * @param lane レーン番号
+	 * @return 追跡できたとき(searchPointWithX では見つかったとき) true
+	 */
+	public final boolean isTraced(int lane) {
+		return fActive[lane];
+	}
+
+	/**
+	 * 直前の searchPointWithX で見つかった高さyを返す.
+	 * 
+	 * @param lane レーン番号
+	 * @return 高さy
+	 */
+	public final double getY(int lane) {
+		return fY[lane];
+	}
+
+	/**
+	 * 直前の trace で求めたレーンの頂点をコピーする. 追跡できなかったレーンは求めたところまでコピーする.
+	 * 
+	 * @param lane     レーン番号
+	 * @param vertexes コピー先
+	 * @param offset   最初の頂点を書き込む位置
+	 */
+	public final void copyVertexes(int lane, double[] vertexes, int offset) {
+		System.arraycopy(fVertexes, lane * fNoOfVertexes * 3, vertexes, offset, fLength[lane] * 3);
+	}
+
+	/**
+	 * 全レーンの光線を面の表に沿って追跡する. 追跡後も各レーンの初期値は変わらない.
+	 * 
+	 * @param table           面の表
+	 * @param initD           間隔 d の初期値
+	 * @param checkLensHeight 高さのチェックするかどうか
+	 * @param checkStopR      絞りに光線が当たらないかチェックするかどうか
+	 * @return 全レーンを追跡できたとき true
+	 */
+	public final boolean trace(final TSurfaceTable table, double initD, boolean checkLensHeight, boolean checkStopR) {
+		final int size = fSize;
+		final int noOfSurfaces = table.fNoOfSurfaces;
+		final double[] rs = table.fR;
+		final double[] ds = table.fD;
+		final double[] positions = table.fPosition;
+		final double[] ns = table.fN;
+		final int stride = (noOfSurfaces + 2) * 3;
+		if (fNoOfVertexes != noOfSurfaces + 2 || fVertexes.length < fCapacity * stride) {
+			fNoOfVertexes = noOfSurfaces + 2;
+			fVertexes = new double[fCapacity * stride];
+		}
+		final double[] vertexes = fVertexes;
+		final boolean[] active = fActive;
+		double stopPos = 0.0;
+		double stopR = 0.0;
+		if (checkStopR) {
+			stopPos = table.fLens.getStopPosition();
+			stopR = table.fLens.getStopR();
+		}
+		final double[] tx = fWork[0];
+		final double[] ty = fWork[1];
+		final double[] tz = fWork[2];
+		final double[] qx = fWork[3];
+		final double[] qy = fWork[4];
+		final double[] qz = fWork[5];
+		int noOfActives = size;
+		for (int l = 0; l < size; ++l) {
+			active[l] = true;
+			tx[l] = fTx[l];
+			ty[l] = fTy[l];
+			tz[l] = fTz[l];
+			qx[l] = fQx[l];
+			qy[l] = fQy[l];
+			qz[l] = fQz[l];
+			int v = l * stride;
+			vertexes[v] = tx[l] - initD;
+			vertexes[v + 1] = ty[l];
+			vertexes[v + 2] = tz[l];
+			fLength[l] = 1;
+		}
+		for (int i = 0; i < noOfSurfaces && noOfActives > 0; ++i) {
+			final double r = rs[i];
+			final double d = i == 0 ? initD : ds[i - 1];
+			final double position = positions[i];
+			for (int l = 0; l < size; ++l) {
+				if (!active[l]) {
+					continue;
+				}
+				double t0 = tx[l];
+				double t1 = ty[l];
+				double t2 = tz[l];
+				double q0 = qx[l];
+				double q1 = qy[l];
+				double q2 = qz[l];
+				/* 次の面の位置ベクトルT (TRayTraceOperator.getNextT) */
+				double p = -((t0 - d) * q0 + t1 * q1 + t2 * q2);
+				double mx = t0 - d + p * q0;
+				double my = t1 + p * q1;
+				double mz = t2 + p * q2;
+				double m2 = mx * mx + my * my + mz * mz;
+				double a = q0 * q0 - (m2 / r - 2.0 * mx) / r;
+				if (a < 0.0) {
+					active[l] = false;
+					--noOfActives;
+					continue;
+				}
+				double s = q0 > 0.0 ? 1.0 : -1.0;
+				double e = (m2 / r - 2.0 * mx) / (q0 + s * Math.sqrt(a));
+				double nextT0 = t0 - d + (p + e) * q0;
+				if (p + e < 0.0 || (r >= 0.0 && nextT0 > r) || (r < 0.0 && nextT0 < r)) {
+					active[l] = false;
+					--noOfActives;
+					continue;
+				}
+				t1 = t1 + (p + e) * q1;
+				t2 = t2 + (p + e) * q2;
+				t0 = nextT0;
+				if (checkLensHeight) {
+					if (Math.sqrt(t1 * t1 + t2 * t2) > table.fLens.surface(i).getHeight()) {
+						active[l] = false;
+						--noOfActives;
+						continue;
+					}
+				}
+				int v = l * stride + (i + 1) * 3;
+				vertexes[v] = t0 + position;
+				vertexes[v + 1] = t1;
+				vertexes[v + 2] = t2;
+				fLength[l] = i + 2;
+				if (checkStopR) {
+					if (!checkStopR(vertexes, v - 3, stopPos, stopR)) {
+						active[l] = false;
+						--noOfActives;
+						continue;
+					}
+				}
+				/* 次の光線の方向ベクトルQ (TRayTraceOperator.getNextQ) */
+				int wl = fWavelength[l] * (noOfSurfaces + 1);
+				double n1 = ns[wl + i];
+				double n2 = ns[wl + i + 1];
+				double ex = 1.0 - t0 / r;
+				double ey = -t1 / r;
+				double ez = -t2 / r;
+				double cosi1 = q0 * ex + q1 * ey + q2 * ez;
+				double b = 1.0 - (n1 * n1 * (1.0 - cosi1 * cosi1)) / (n2 * n2);
+				double sign = cosi1 > 0.0 ? 1.0 : -1.0; /* 正で屈折、負で反射 */
+				if (b < 0.0 || sign < 0.0) {
+					active[l] = false;
+					--noOfActives;
+					continue;
+				}
+				double cosi2 = sign * Math.sqrt(b);
+				double k1 = n1 / n2;
+				double k2 = cosi2 - n1 * cosi1 / n2;
+				q0 = k1 * q0 + k2 * ex;
+				if (q0 < 0.0) {
+					active[l] = false;
+					--noOfActives;
+					continue;
+				}
+				tx[l] = t0;
+				ty[l] = t1;
+				tz[l] = t2;
+				qx[l] = q0;
+				qy[l] = k1 * q1 + k2 * ey;
+				qz[l] = k1 * q2 + k2 * ez;
+			}
+		}
+		/* 最後の頂点(像面上) */
+		final double filmPosition = table.fFilmPosition;
+		for (int l = 0; l < size; ++l) {
+			if (!active[l]) {
+				continue;
+			}
+			int v = l * stride + (noOfSurfaces + 1) * 3;
+			double factor = (filmPosition - vertexes[v - 3]) / qx[l];
+			vertexes[v] = filmPosition;
+			vertexes[v + 1] = vertexes[v - 2] + factor * qy[l];
+			vertexes[v + 2] = vertexes[v - 1] + factor * qz[l];
+			fLength[l] = noOfSurfaces + 2;
+			if (checkStopR) {
+				if (!checkStopR(vertexes, v - 3, stopPos, stopR)) {
+					active[l] = false;
+					--noOfActives;
+				}
+			}
+		}
+		return noOfActives == size;
+	}
+
+	/**
+	 * 全レーンについて, 光線のポジションがxになっている高さyを探す. 見つかった高さは getY で得る.
+	 * 各レーンの計算は TRayTracer.searchPointWithX と同じである.
+	 * 
+	 * @param table 面の表
+	 * @param initD 間隔 d の初期値
+	 * @param x     探すポジションx
+	 * @return 全レーンで見つかったとき true
+	 */
+	public final boolean searchPointWithX(final TSurfaceTable table, double initD, double x) {
+		final int size = fSize;
+		final int noOfSurfaces = table.fNoOfSurfaces;
+		final double[] rs = table.fR;
+		final double[] ds = table.fD;
+		final double[] positions = table.fPosition;
+		final double[] ns = table.fN;
+		final boolean[] active = fActive;
+		final double[] tx = fWork[0];
+		final double[] ty = fWork[1];
+		final double[] tz = fWork[2];
+		final double[] qx = fWork[3];
+		final double[] qy = fWork[4];
+		final double[] qz = fWork[5];
+		/* 見つかったレーンも, 見つからなかったレーンも, 以降の面では計算しない */
+		final boolean[] searching = fSearching;
+		int noOfSearching = size;
+		int noOfFound = 0;
+		for (int l = 0; l < size; ++l) {
+			active[l] = false;
+			searching[l] = true;
+			tx[l] = fTx[l];
+			ty[l] = fTy[l];
+			tz[l] = fTz[l];
+			qx[l] = fQx[l];
+			qy[l] = fQy[l];
+			qz[l] = fQz[l];
+		}
+		double d = initD;
+		for (int i = 0; i < noOfSurfaces && noOfSearching > 0; ++i) {
+			if (i != 0) {
+				d = ds[i - 1];
+			}
+			final double r = rs[i];
+			final double pos = positions[i];
+			for (int l = 0; l < size; ++l) {
+				if (!searching[l]) {
+					continue;
+				}
+				double t0 = tx[l];
+				double t1 = ty[l];
+				double t2 = tz[l];
+				double q0 = qx[l];
+				double q1 = qy[l];
+				double q2 = qz[l];
+				/* 次の面の位置ベクトルT (TRayTraceOperator.getNextT) */
+				double p = -((t0 - d) * q0 + t1 * q1 + t2 * q2);
+				double mx = t0 - d + p * q0;
+				double my = t1 + p * q1;
+				double mz = t2 + p * q2;
+				double m2 = mx * mx + my * my + mz * mz;
+				double a = q0 * q0 - (m2 / r - 2.0 * mx) / r;
+				if (a < 0.0) {
+					searching[l] = false;
+					--noOfSearching;
+					continue;
+				}
+				double s = q0 > 0.0 ? 1.0 : -1.0;
+				double e = (m2 / r - 2.0 * mx) / (q0 + s * Math.sqrt(a));
+				double nextT0 = t0 - d + (p + e) * q0;
+				if (p + e < 0.0 || (r >= 0.0 && nextT0 > r) || (r < 0.0 && nextT0 < r)) {
+					searching[l] = false;
+					--noOfSearching;
+					continue;
+				}
+				double nextT1 = t1 + (p + e) * q1;
+				double nextT2 = t2 + (p + e) * q2;
+				double p1x = pos - d + t0;
+				double p2x = pos + nextT0;
+				if ((p1x - x) * (p2x - x) <= 0.0) {
+					double p1y = 0.0 + t1;
+					double p2y = 0.0 + nextT1;
+					double u = (x - p1x) / (p2x - p1x);
+					fY[l] = p1y + u * (p2y - p1y);
+					active[l] = true;
+					searching[l] = false;
+					--noOfSearching;
+					++noOfFound;
+					continue;
+				}
+				t0 = nextT0;
+				t1 = nextT1;
+				t2 = nextT2;
+				/* 次の光線の方向ベクトルQ (TRayTraceOperator.getNextQ) */
+				int wl = fWavelength[l] * (noOfSurfaces + 1);
+				double n1 = ns[wl + i];
+				double n2 = ns[wl + i + 1];
+				double ex = 1.0 - t0 / r;
+				double ey = -t1 / r;
+				double ez = -t2 / r;
+				double cosi1 = q0 * ex + q1 * ey + q2 * ez;
+				double b = 1.0 - (n1 * n1 * (1.0 - cosi1 * cosi1)) / (n2 * n2);
+				double sign = cosi1 > 0.0 ? 1.0 : -1.0; /* 正で屈折、負で反射 */
+				if (b < 0.0 || sign < 0.0) {
+					searching[l] = false;
+					--noOfSearching;
+					continue;
+				}
+				double cosi2 = sign * Math.sqrt(b);
+				double k1 = n1 / n2;
+				double k2 = cosi2 - n1 * cosi1 / n2;
+				q0 = k1 * q0 + k2 * ex;
+				if (q0 < 0.0) {
+					searching[l] = false;
+					--noOfSearching;
+					continue;
+				}
+				tx[l] = t0;
+				ty[l] = t1;
+				tz[l] = t2;
+				qx[l] = q0;
+				qy[l] = k1 * q1 + k2 * ey;
+				qz[l] = k1 * q2 + k2 * ez;
+			}
+		}
+		/* 最後の面から像面まで */
+		final double pos1 = positions[noOfSurfaces - 1];
+		final double pos2 = table.fFilmPosition;
+		for (int l = 0; l < size; ++l) {
+			if (!searching[l]) {
+				continue;
+			}
+			double p1x = pos1 + tx[l];
+			double p1y = 0.0 + ty[l];
+			double p2x = pos2;
+			double p2y = qy[l] * (pos2 - p1x) / qx[l];
+			if ((p1x - x) * (p2x - x) <= 0.0) {
+				double u = (x - p1x) / (p2x - p1x);
+				fY[l] = p1y + u * (p2y - p1y);
+				active[l] = true;
+				++noOfFound;
+			}
+		}
+		return noOfFound == size;
+	}
+
+	/**
+	 * 頂点の配列上で, 光線が絞りに当たるかしらべる.
+	 * 
+	 * @param vertexes 頂点の配列
+	 * @param v        区間の始点の頂点の位置. 終点は v + 3 にある.
+	 * @param stopPos  絞りのポジション
+	 * @param stopR    絞りの半径
+	 * @return 当たったとき false 当たらなかったとき true
+	 */
+	private static final boolean checkStopR(final double[] vertexes, int v, double stopPos, double stopR) {
+		double x1 = vertexes[v];
+		double x2 = vertexes[v + 3];
+		if (x1 <= stopPos && stopPos <= x2) {
+			double t = (stopPos - x1) / (x2 - x1);
+			double y = vertexes[v + 1] + t * (vertexes[v + 4] - vertexes[v + 1]);
+			double z = vertexes[v + 2] + t * (vertexes[v + 5] - vertexes[v + 2]);
+			if (y * y + z * z > stopR * stopR) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
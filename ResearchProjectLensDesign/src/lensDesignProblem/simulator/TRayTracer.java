@@ -177,6 +177,247 @@ public class TRayTracer {
 		return true;
 	}
 
+	/**
+	 * 面の表を使って光線追跡を行う.<BR>
+	 * doIt と同じ計算を, 位置ベクトル T と方向ベクトル Q をローカル変数に持って行う.
+	 * 頂点は vertexes の offset 以降に x, y, z の順で書き込む.
+	 * 頂点の数は面の数 + 2 (開始位置, 各面, 像面) である.
+	 * 途中で追跡できなくなったときは, そこまでの頂点だけが書き込まれる.
+	 * 
+	 * @param table           面の表
+	 * @param initD           間隔 d の初期値
+	 * @param tx              位置ベクトル T の初期値のx成分
+	 * @param ty              位置ベクトル T の初期値のy成分
+	 * @param tz              位置ベクトル T の初期値のz成分
+	 * @param qx              方向ベクトル Q の初期値のx成分
+	 * @param qy              方向ベクトル Q の初期値のy成分
+	 * @param qz              方向ベクトル Q の初期値のz成分
+	 * @param wavelength      波長番号
+	 * @param checkLensHeight 高さのチェックするかどうか
+	 * @param checkStopR      絞りに光線が当たらないかチェックするかどうか
+	 * @param vertexes        頂点の書き込み先
+	 * @param offset          最初の頂点を書き込む位置
+	 * @return 追跡できたとき true
+	 */
+	public final boolean trace(final TSurfaceTable table, double initD,
+			double tx, double ty, double tz, double qx, double qy, double qz,
+			int wavelength, boolean checkLensHeight, boolean checkStopR, double[] vertexes, int offset) {
+		final int noOfSurfaces = table.fNoOfSurfaces;
+		final double[] rs = table.fR;
+		final double[] ds = table.fD;
+		final double[] positions = table.fPosition;
+		final double[] ns = table.fN;
+		final int nOffset = wavelength * (noOfSurfaces + 1);
+		double stopPos = 0.0;
+		double stopR = 0.0;
+		if (checkStopR) {
+			stopPos = table.fLens.getStopPosition();
+			stopR = table.fLens.getStopR();
+		}
+		int v = offset;
+		vertexes[v] = tx - initD;
+		vertexes[v + 1] = ty;
+		vertexes[v + 2] = tz;
+		double d = initD;
+		for (int i = 0; i < noOfSurfaces; ++i) {
+			double r = rs[i];
+			if (i != 0) {
+				d = ds[i - 1];
+			}
+			/* 次の面の位置ベクトルT (TRayTraceOperator.getNextT) */
+			double p = -((tx - d) * qx + ty * qy + tz * qz);
+			double mx = tx - d + p * qx;
+			double my = ty + p * qy;
+			double mz = tz + p * qz;
+			double m2 = mx * mx + my * my + mz * mz;
+			double a = qx * qx - (m2 / r - 2.0 * mx) / r;
+			if (a < 0.0) {
+				return false;
+			}
+			double s = qx > 0.0 ? 1.0 : -1.0;
+			double e = (m2 / r - 2.0 * mx) / (qx + s * Math.sqrt(a));
+			if (p + e < 0.0) {
+				return false;
+			}
+			double nextTx = tx - d + (p + e) * qx;
+			if (r >= 0.0 && nextTx > r) {
+				return false;
+			}
+			if (r < 0.0 && nextTx < r) {
+				return false;
+			}
+			ty = ty + (p + e) * qy;
+			tz = tz + (p + e) * qz;
+			tx = nextTx;
+			if (checkLensHeight) {
+				if (Math.sqrt(ty * ty + tz * tz) > table.fLens.surface(i).getHeight()) {
+					return false;
+				}
+			}
+			v += 3;
+			vertexes[v] = tx + positions[i];
+			vertexes[v + 1] = ty;
+			vertexes[v + 2] = tz;
+			if (checkStopR) {
+				if (!checkStopR(vertexes, v - 3, stopPos, stopR)) {
+					return false;
+				}
+			}
+			/* 次の光線の方向ベクトルQ (TRayTraceOperator.getNextQ) */
+			double n1 = ns[nOffset + i];
+			double n2 = ns[nOffset + i + 1];
+			double ex = 1.0 - tx / r;
+			double ey = -ty / r;
+			double ez = -tz / r;
+			double cosi1 = qx * ex + qy * ey + qz * ez;
+			double b = 1.0 - (n1 * n1 * (1.0 - cosi1 * cosi1)) / (n2 * n2);
+			if (b < 0.0) {
+				return false;
+			}
+			double sign = cosi1 > 0.0 ? 1.0 : -1.0; /* 正で屈折、負で反射 */
+			if (sign < 0.0) {
+				return false;
+			}
+			double cosi2 = sign * Math.sqrt(b);
+			double k1 = n1 / n2;
+			double k2 = cosi2 - n1 * cosi1 / n2;
+			qx = k1 * qx + k2 * ex;
+			qy = k1 * qy + k2 * ey;
+			qz = k1 * qz + k2 * ez;
+			if (qx < 0.0) {
+				return false;
+			}
+		}
+		/* 最後の頂点(像面上) */
+		double filmPosition = table.fFilmPosition;
+		double factor = (filmPosition - vertexes[v]) / qx;
+		double y = vertexes[v + 1] + factor * qy;
+		double z = vertexes[v + 2] + factor * qz;
+		v += 3;
+		vertexes[v] = filmPosition;
+		vertexes[v + 1] = y;
+		vertexes[v + 2] = z;
+		if (checkStopR) {
+			if (!checkStopR(vertexes, v - 3, stopPos, stopR)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * 面の表を使って, 光線のポジションがxになっている高さyを探す.<BR>
+	 * searchPointWithX と同じ計算を, 位置ベクトル T と方向ベクトル Q をローカル変数に持って行う.
+	 * 
+	 * @param table      面の表
+	 * @param initD      間隔 d の初期値
+	 * @param tx         位置ベクトル T の初期値のx成分
+	 * @param ty         位置ベクトル T の初期値のy成分
+	 * @param tz         位置ベクトル T の初期値のz成分
+	 * @param qx         方向ベクトル Q の初期値のx成分
+	 * @param qy         方向ベクトル Q の初期値のy成分
+	 * @param qz         方向ベクトル Q の初期値のz成分
+	 * @param wavelength 波長番号
+	 * @param x          探すポジションx
+	 * @param y          見つかった高さyを代入する
+	 *                   ポインタが使えないため大きさ1の配列
+	 * @return 見つかったとき, true
+	 */
+	public final boolean searchPointWithX(final TSurfaceTable table, double initD,
+			double tx, double ty, double tz, double qx, double qy, double qz,
+			int wavelength, double x, double[] y) {
+		final int noOfSurfaces = table.fNoOfSurfaces;
+		final double[] rs = table.fR;
+		final double[] ds = table.fD;
+		final double[] positions = table.fPosition;
+		final double[] ns = table.fN;
+		final int nOffset = wavelength * (noOfSurfaces + 1);
+		double d = initD;
+		for (int i = 0; i < noOfSurfaces; ++i) {
+			if (i != 0) {
+				d = ds[i - 1];
+			}
+			double r = rs[i];
+			/* 次の面の位置ベクトルT (TRayTraceOperator.getNextT) */
+			double p = -((tx - d) * qx + ty * qy + tz * qz);
+			double mx = tx - d + p * qx;
+			double my = ty + p * qy;
+			double mz = tz + p * qz;
+			double m2 = mx * mx + my * my + mz * mz;
+			double a = qx * qx - (m2 / r - 2.0 * mx) / r;
+			if (a < 0.0) {
+				return false;
+			}
+			double s = qx > 0.0 ? 1.0 : -1.0;
+			double e = (m2 / r - 2.0 * mx) / (qx + s * Math.sqrt(a));
+			if (p + e < 0.0) {
+				return false;
+			}
+			double nextTx = tx - d + (p + e) * qx;
+			if (r >= 0.0 && nextTx > r) {
+				return false;
+			}
+			if (r < 0.0 && nextTx < r) {
+				return false;
+			}
+			double nextTy = ty + (p + e) * qy;
+			double nextTz = tz + (p + e) * qz;
+			{
+				double pos = positions[i];
+				double p1x = pos - d + tx;
+				double p1y = 0.0 + ty;
+				double p2x = pos + nextTx;
+				double p2y = 0.0 + nextTy;
+				if ((p1x - x) * (p2x - x) <= 0.0) {
+					double t = (x - p1x) / (p2x - p1x);
+					y[0] = p1y + t * (p2y - p1y);
+					return true;
+				}
+			}
+			tx = nextTx;
+			ty = nextTy;
+			tz = nextTz;
+			/* 次の光線の方向ベクトルQ (TRayTraceOperator.getNextQ) */
+			double n1 = ns[nOffset + i];
+			double n2 = ns[nOffset + i + 1];
+			double ex = 1.0 - tx / r;
+			double ey = -ty / r;
+			double ez = -tz / r;
+			double cosi1 = qx * ex + qy * ey + qz * ez;
+			double b = 1.0 - (n1 * n1 * (1.0 - cosi1 * cosi1)) / (n2 * n2);
+			if (b < 0.0) {
+				return false;
+			}
+			double sign = cosi1 > 0.0 ? 1.0 : -1.0; /* 正で屈折、負で反射 */
+			if (sign < 0.0) {
+				return false;
+			}
+			double cosi2 = sign * Math.sqrt(b);
+			double k1 = n1 / n2;
+			double k2 = cosi2 - n1 * cosi1 / n2;
+			qx = k1 * qx + k2 * ex;
+			qy = k1 * qy + k2 * ey;
+			qz = k1 * qz + k2 * ez;
+			if (qx < 0.0) {
+				return false;
+			}
+		}
+		{
+			double pos1 = positions[noOfSurfaces - 1];
+			double p1x = pos1 + tx;
+			double p1y = 0.0 + ty;
+			double pos2 = table.fFilmPosition;
+			double p2x = pos2;
+			double p2y = qy * (pos2 - p1x) / qx;
+			if ((p1x - x) * (p2x - x) <= 0.0) {
+				double t = (x - p1x) / (p2x - p1x);
+				y[0] = p1y + t * (p2y - p1y);
+				return true;
+			}
+		}
+		return false;
+	}
+
 	public final int doOneStep(int index, final TVector3D curT, final TVector3D curQ,
 			TVector3D nextT, TVector3D nextQ, final TLens lens, int wavelength, TRay ray) {
 		int err = TRayError.NO_ERROR;
@@ -642,6 +883,29 @@ public class TRayTracer {
 		ray.appendVertex(fV);
 	}
 
+	/**
+	 * 頂点の配列上で, 光線が絞りに当たるかしらべる.
+	 * 
+	 * @param vertexes 頂点の配列
+	 * @param v        区間の始点の頂点の位置. 終点は v + 3 にある.
+	 * @param stopPos  絞りのポジション
+	 * @param stopR    絞りの半径
+	 * @return 当たったとき false 当たらなかったとき true
+	 */
+	private static final boolean checkStopR(final double[] vertexes, int v, double stopPos, double stopR) {
+		double x1 = vertexes[v];
+		double x2 = vertexes[v + 3];
+		if (x1 <= stopPos && stopPos <= x2) {
+			double t = (stopPos - x1) / (x2 - x1);
+			double y = vertexes[v + 1] + t * (vertexes[v + 4] - vertexes[v + 1]);
+			double z = vertexes[v + 2] + t * (vertexes[v + 5] - vertexes[v + 2]);
+			if (y * y + z * z > stopR * stopR) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	/**
 	 * 光線が絞りに当たるかしらべる.
 	 * 当たったとき true 当たらなかったとき falseを返す.
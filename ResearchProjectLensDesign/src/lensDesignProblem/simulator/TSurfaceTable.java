@@ -0,0 +1,87 @@
+package lensDesignProblem.simulator;
+
+/**
+ * 光線追跡に用いる面の表<BR>
+ * レンズ系の曲率半径, 面間隔, 面のポジション, 各波長の屈折率を平坦なdouble配列に展開したもの.
+ * 光線追跡の間に変わらない値だけを持ち, 評価の最初にcompileで作る.
+ * 追跡中は読み出すだけなので, 複数の光線追跡器から共有してよい.
+ * 絞りの位置と半径, 面の高さは評価中に変わるため, 元のレンズ系から読む.
+ */
+public class TSurfaceTable {
+
+	/** 元のレンズ系 */
+	TLens fLens;
+
+	/** 面の数 */
+	int fNoOfSurfaces;
+
+	/** 各面の曲率半径 */
+	double[] fR = new double[0];
+
+	/** 各面から次の面までの間隔 */
+	double[] fD = new double[0];
+
+	/** 各面のポジション */
+	double[] fPosition = new double[0];
+
+	/** 屈折率. 波長wlの空間iの屈折率は fN[wl * (面の数 + 1) + i] にある. */
+	double[] fN = new double[0];
+
+	/** 像面のポジション */
+	double fFilmPosition;
+
+	/**
+	 * レンズ系から面の表を作る. 面の数が変わらなければ配列を使い回す.
+	 * 
+	 * @param lens レンズ系
+	 */
+	public final void compile(final TLens lens) {
+		int n = lens.getNoOfSurfaces();
+		if (fR.length != n) {
+			fR = new double[n];
+			fD = new double[n];
+			fPosition = new double[n];
+			fN = new double[TWavelength.NO_OF_WAVELENGTHS * (n + 1)];
+		}
+		fLens = lens;
+		fNoOfSurfaces = n;
+		for (int i = 0; i < n; ++i) {
+			fR[i] = lens.surface(i).getR();
+			fD[i] = lens.getD(i);
+			fPosition[i] = lens.surface(i).getPosition();
+		}
+		for (int wl = 0; wl < TWavelength.NO_OF_WAVELENGTHS; ++wl) {
+			for (int i = 0; i < n + 1; ++i) {
+				fN[wl * (n + 1) + i] = lens.getGlass(i).getN(wl);
+			}
+		}
+		fFilmPosition = lens.getFilmPosition();
+	}
+
+	/**
+	 * 元のレンズ系を返す.
+	 * 
+	 * @return レンズ系
+	 */
+	public final TLens getLens() {
+		return fLens;
+	}
+
+	/**
+	 * 面の数を返す.
+	 * 
+	 * @return 面の数
+	 */
+	public final int getNoOfSurfaces() {
+		return fNoOfSurfaces;
+	}
+
+	/**
+	 * 1本の光線の頂点の数(開始位置, 各面, 像面)を返す.
+	 * 
+	 * @return 頂点の数
+	 */
+	public final int getNoOfVertexes() {
+		return fNoOfSurfaces + 2;
+	}
+}
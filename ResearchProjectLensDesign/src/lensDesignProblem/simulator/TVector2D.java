@@ -15,14 +15,8 @@ public class TVector2D {
     /** ベクトルの要素を格納する. 2次元double型配列. */
     private double[] fArray;
 
-    /** このクラスで実装するガーベジコレクションのサイズ */
-    private static final int MAX_GARBAGE_SIZE = 1000;
-
-    /** このクラスで実装するガベコレ用のオブジェクトの格納場所 */
-    private static final TVector2D fGarbage[] = new TVector2D[MAX_GARBAGE_SIZE];
-
-    /** このクラスで実装するガベコレのオブジェクトの現在の格納個数 */
-    private static int fGarbageSize = 0;
+    /** このクラスで実装するガベコレ用のオブジェクトの格納場所. スレッドごとに持つ. */
+    private static final TGarbage<TVector2D> fGarbage = new TGarbage<TVector2D>();
 
     /** 2次元零ベクトルを作成. */
     private TVector2D() {
@@ -61,12 +55,10 @@ public class TVector2D {
      * @return インスタンス
      */
     public static TVector2D newInstance() {
-        TVector2D v = null;
-        if (fGarbageSize == 0) {
+        TVector2D v = fGarbage.pop();
+        if (v == null) {
             v = new TVector2D();
         } else {
-            --fGarbageSize;
-            v = fGarbage[fGarbageSize];
             v.fArray[0] = v.fArray[1] = 0.0;
         }
         return v;
@@ -81,12 +73,10 @@ public class TVector2D {
      * @return インスタンス
      */
     public static TVector2D newInstance(double x, double y) {
-        TVector2D v = null;
-        if (fGarbageSize == 0) {
+        TVector2D v = fGarbage.pop();
+        if (v == null) {
             v = new TVector2D(x, y);
         } else {
-            --fGarbageSize;
-            v = fGarbage[fGarbageSize];
             v.fArray[0] = x;
             v.fArray[1] = y;
         }
@@ -100,12 +90,10 @@ public class TVector2D {
      *            コピーコンストラクタ の役割を果たす.
      */
     public static TVector2D newInstance(TVector2D src) {
-        TVector2D v = null;
-        if (fGarbageSize == 0) {
+        TVector2D v = fGarbage.pop();
+        if (v == null) {
             v = new TVector2D(src);
         } else {
-            --fGarbageSize;
-            v = fGarbage[fGarbageSize];
             v.fArray[0] = src.fArray[0];
             v.fArray[1] = src.fArray[1];
         }
@@ -114,9 +102,7 @@ public class TVector2D {
 
     /** 使わなくなったインスタンスの保持 */
     public static void deleteInstance(TVector2D v) {
-        if (fGarbageSize < MAX_GARBAGE_SIZE) {
-            fGarbage[fGarbageSize] = v;
-            ++fGarbageSize;
+        if (fGarbage.push(v)) {
             v = null;
         } else {
             System.err.print("Warning:The garbage is ful ");
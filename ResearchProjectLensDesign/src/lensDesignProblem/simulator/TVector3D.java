@@ -16,14 +16,8 @@ public class TVector3D {
     /** ベクトルの要素を格納する. 3次元double型配列. */
     private double[] fArray;
 
-    /** このクラスで実装するガーベジコレクションのサイズ */
-    private static final int MAX_GARBAGE_SIZE = 1000;
-
-    /** このクラスで実装するガベコレ用のオブジェクトの格納場所 */
-    private static final TVector3D fGarbage[] = new TVector3D[MAX_GARBAGE_SIZE];
-
-    /** このクラスで実装するガベコレのオブジェクトの現在の格納個数 */
-    private static int fGarbageSize = 0;
+    /** このクラスで実装するガベコレ用のオブジェクトの格納場所. スレッドごとに持つ. */
+    private static final TGarbage<TVector3D> fGarbage = new TGarbage<TVector3D>();
 
     /** 3次元零ベクトルを作成. */
     private TVector3D() {
@@ -66,12 +60,10 @@ public class TVector3D {
      * @return インスタンス
      */
     public static TVector3D newInstance() {
-        TVector3D v = null;
-        if (fGarbageSize == 0) {
+        TVector3D v = fGarbage.pop();
+        if (v == null) {
             v = new TVector3D();
         } else {
-            --fGarbageSize;
-            v = fGarbage[fGarbageSize];
             v.fArray[0] = v.fArray[1] = v.fArray[2] = 0.0;
         }
         return v;
@@ -87,12 +79,10 @@ public class TVector3D {
      * @return インスタンス
      */
     public static TVector3D newInstance(double x, double y, double z) {
-        TVector3D v = null;
-        if (fGarbageSize == 0) {
+        TVector3D v = fGarbage.pop();
+        if (v == null) {
             v = new TVector3D(x, y, z);
         } else {
-            --fGarbageSize;
-            v = fGarbage[fGarbageSize];
             v.fArray[0] = x;
             v.fArray[1] = y;
             v.fArray[2] = z;
@@ -107,12 +97,10 @@ public class TVector3D {
      *            コピーコンストラクタ の役割を果たす.
      */
     public static TVector3D newInstance(TVector3D src) {
-        TVector3D v = null;
-        if (fGarbageSize == 0) {
+        TVector3D v = fGarbage.pop();
+        if (v == null) {
             v = new TVector3D(src);
         } else {
-            --fGarbageSize;
-            v = fGarbage[fGarbageSize];
             v.fArray[0] = src.fArray[0];
             v.fArray[1] = src.fArray[1];
             v.fArray[2] = src.fArray[2];
@@ -122,9 +110,7 @@ public class TVector3D {
 
     /** 使わなくなったインスタンスの保持 */
     public static void deleteInstance(TVector3D v) {
-        if (fGarbageSize < MAX_GARBAGE_SIZE) {
-            fGarbage[fGarbageSize] = v;
-            ++fGarbageSize;
+        if (fGarbage.push(v)) {
             v = null;
         } else {
             System.err.print("Warning:The garbage is ful ");